@@ -0,0 +1,104 @@
+package com.dashboard.crud_iot.benchmark;
+
+import com.dashboard.crud_iot.alerts.AlertRule;
+import com.dashboard.crud_iot.alerts.AlertRuleEngine;
+import com.dashboard.crud_iot.entities.Device;
+import com.dashboard.crud_iot.enums.DeviceStatus;
+import com.dashboard.crud_iot.enums.DeviceType;
+import com.dashboard.crud_iot.events.DeviceHeartbeatEvent;
+import com.dashboard.crud_iot.service.DeviceAlertEvaluator;
+import com.dashboard.crud_iot.service.DeviceReportIntervals;
+import com.dashboard.crud_iot.service.LocationIndex;
+import com.dashboard.crud_iot.service.ReadingAnomalyDetector;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.support.ResourcePropertySource;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão das regras de alerta compiladas, com as regras do application.properties: a
+ * avaliação isolada de um dispositivo (match) e o heartbeat completo no LocationIndex,
+ * que relê a leitura, alimenta o detector de anomalias, reavalia as regras e agenda o
+ * próximo prazo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AlertRuleEngineBenchmark {
+    
+    private static final int BATCH = 4096;
+    
+    private AlertRuleEngine ruleEngine;
+    private LocationIndex locationIndex;
+    private DeviceType[] types;
+    private DeviceStatus[] statuses;
+    private long[] silences;
+    private double[][] metrics;
+    private DeviceHeartbeatEvent[] heartbeats;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addLast(new ResourcePropertySource("classpath:application.properties"));
+        ruleEngine = new AlertRuleEngine(environment);
+        DeviceAlertEvaluator evaluator = new DeviceAlertEvaluator(new DeviceReportIntervals(environment), ruleEngine);
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<Device> fleet = FleetGenerator.generate(BATCH, FleetGenerator.DEFAULT_SEED, now);
+        locationIndex = new LocationIndex(BenchmarkServices.repositoryOf(fleet), evaluator,
+                new ReadingAnomalyDetector(environment), event -> { }, "-");
+        locationIndex.rebuild();
+        
+        types = new DeviceType[BATCH];
+        statuses = new DeviceStatus[BATCH];
+        silences = new long[BATCH];
+        metrics = new double[BATCH][];
+        heartbeats = new DeviceHeartbeatEvent[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            Device device = fleet.get(i);
+            types[i] = device.getDeviceType();
+            statuses[i] = device.getStatus();
+            silences[i] = device.getLastCommunication() == null ? -1
+                    : Duration.between(device.getLastCommunication(), now).getSeconds();
+            // Leituras no formato chave=valor para exercitar também as regras de bateria
+            String reading = String.format(Locale.ROOT, "value=%.2f;battery=%d", i % 100 - 20.0, i % 100);
+            metrics[i] = ruleEngine.parseReading(reading);
+            heartbeats[i] = new DeviceHeartbeatEvent(device.getId(), now, reading);
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void match(Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            AlertRule rule = ruleEngine.match(types[i], statuses[i], silences[i], metrics[i]);
+            blackhole.consume(rule);
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void parseReading(Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(ruleEngine.parseReading(heartbeats[i].getReading()));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void heartbeat() {
+        for (int i = 0; i < BATCH; i++) {
+            locationIndex.onHeartbeat(heartbeats[i]);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.dashboard.crud_iot.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compara um resultado JMH (JSON) com o baseline armazenado e sinaliza regressões.
+ * 
+ * Uso: BenchmarkComparator baseline.json resultado.json [limite%]
+ * 
+ * Uma medição é regressão quando piora mais que o limite e a diferença ultrapassa a
+ * soma das margens de erro das duas execuções. Termina com código 1 se houver regressão.
+ * Para atualizar o baseline basta copiar o resultado sobre o arquivo de baseline.
+ */
+public final class BenchmarkComparator {
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    
+    private BenchmarkComparator() {
+    }
+    
+    record Score(String mode, double score, double error, String unit) {
+        
+        boolean lowerIsBetter() {
+            return !"thrpt".equals(mode);
+        }
+    }
+    
+    record Comparison(String key, Score baseline, Score current, double changePercent, boolean regression) {
+    }
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: BenchmarkComparator <baseline.json> <resultado.json> [limite%]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, Score> baseline = read(Path.of(args[0]));
+        Map<String, Score> current = read(Path.of(args[1]));
+        
+        List<Comparison> comparisons = compare(baseline, current, threshold);
+        print(comparisons, current, baseline);
+        
+        long regressions = comparisons.stream().filter(Comparison::regression).count();
+        if (regressions > 0) {
+            System.out.printf("%n%d regressão(ões) acima de %.1f%%%n", regressions, threshold);
+            System.exit(1);
+        }
+        System.out.printf("%nNenhuma regressão acima de %.1f%%%n", threshold);
+    }
+    
+    static List<Comparison> compare(Map<String, Score> baseline, Map<String, Score> current, double threshold) {
+        List<Comparison> comparisons = new ArrayList<>();
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                continue;
+            }
+            Score after = entry.getValue();
+            double change = (after.score() - before.score()) / before.score() * 100.0;
+            double worsening = before.lowerIsBetter() ? change : -change;
+            boolean significant = Math.abs(after.score() - before.score()) > before.error() + after.error();
+            comparisons.add(new Comparison(entry.getKey(), before, after, change,
+                    worsening > threshold && significant));
+        }
+        return comparisons;
+    }
+    
+    static Map<String, Score> read(Path file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : MAPPER.readTree(Files.readString(file))) {
+            JsonNode metric = run.path("primaryMetric");
+            double error = metric.path("scoreError").asDouble(0);
+            scores.put(key(run), new Score(run.path("mode").asText(),
+                    metric.path("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error,
+                    metric.path("scoreUnit").asText()));
+        }
+        return scores;
+    }
+    
+    private static String key(JsonNode run) {
+        String benchmark = run.path("benchmark").asText();
+        benchmark = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+        Map<String, String> params = new TreeMap<>();
+        run.path("params").fields().forEachRemaining(field -> params.put(field.getKey(), field.getValue().asText()));
+        return params.isEmpty() ? benchmark : benchmark + params;
+    }
+    
+    private static void print(List<Comparison> comparisons, Map<String, Score> current, Map<String, Score> baseline) {
+        System.out.printf("%-70s %14s %14s %9s%n", "Benchmark", "Baseline", "Atual", "Variação");
+        for (Comparison comparison : comparisons) {
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%% %s%s%n",
+                    comparison.key(),
+                    comparison.baseline().score(),
+                    comparison.current().score(),
+                    comparison.changePercent(),
+                    comparison.current().unit(),
+                    comparison.regression() ? "  <-- REGRESSÃO" : "");
+        }
+        current.keySet().stream()
+                .filter(key -> !baseline.containsKey(key))
+                .forEach(key -> System.out.printf("%-70s %14s %14.3f%n", key, "(novo)", current.get(key).score()));
+    }
+}
@@ -0,0 +1,98 @@
+package com.dashboard.crud_iot.benchmark;
+
+import com.dashboard.crud_iot.alerts.AlertRuleEngine;
+import com.dashboard.crud_iot.bulkhead.ExecutionLanes;
+import com.dashboard.crud_iot.dto.DeviceResponseDTO;
+import com.dashboard.crud_iot.entities.Device;
+import com.dashboard.crud_iot.ingestion.AdmissionController;
+import com.dashboard.crud_iot.ingestion.DeviceRateLimiter;
+import com.dashboard.crud_iot.ingestion.IngestRateMonitor;
+import com.dashboard.crud_iot.notifications.AlertNotificationDispatcher;
+import com.dashboard.crud_iot.repositories.DeviceHeartbeatWriter;
+import com.dashboard.crud_iot.repositories.DeviceRepository;
+import com.dashboard.crud_iot.service.DashboardService;
+import com.dashboard.crud_iot.service.DeviceAlertEvaluator;
+import com.dashboard.crud_iot.service.DeviceReportIntervals;
+import com.dashboard.crud_iot.service.DeviceUniquenessIndex;
+import com.dashboard.crud_iot.service.FleetStatsHistory;
+import com.dashboard.crud_iot.service.LocationIndex;
+import com.dashboard.crud_iot.service.ReadingAnomalyDetector;
+import com.dashboard.crud_iot.service.ReadingSeriesStore;
+import com.dashboard.crud_iot.service.UptimeTracker;
+import com.dashboard.crud_iot.services.DeviceService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Monta os services com repositórios mockados devolvendo a frota gerada, isolando
+ * o custo de CPU da camada de serviço do acesso ao banco.
+ */
+final class BenchmarkServices {
+    
+    // Sem propriedades definidas: janelas padrão de cada tipo
+    private static final DeviceReportIntervals REPORT_INTERVALS = new DeviceReportIntervals(new StandardEnvironment());
+    // Sem alerts.rules.*: regras embutidas
+    private static final DeviceAlertEvaluator ALERT_EVALUATOR =
+            new DeviceAlertEvaluator(REPORT_INTERVALS, new AlertRuleEngine(new StandardEnvironment()));
+    
+    private BenchmarkServices() {
+    }
+    
+    static DeviceRepository repositoryOf(List<Device> fleet) {
+        DeviceRepository repository = mock(DeviceRepository.class);
+        when(repository.findAll()).thenReturn(fleet);
+        when(repository.findAllResponses()).thenReturn(responsesOf(fleet));
+        return repository;
+    }
+    
+    /**
+     * Equivalente em memória da projeção RESPONSE_SELECT do repositório
+     */
+    static List<DeviceResponseDTO> responsesOf(List<Device> fleet) {
+        return fleet.stream()
+                .map(device -> new DeviceResponseDTO(device.getId(), device.getDeviceName(),
+                        device.getDeviceIdentifier(), device.getDeviceType(), device.getStatus(),
+                        device.getDescription(), device.getLocation(), device.getLatitude(),
+                        device.getLongitude(), device.getLastReading(), device.getLastCommunication(),
+                        device.getIsActive(), device.getCreatedAt(), device.getUpdatedAt(), false))
+                .toList();
+    }
+    
+    /**
+     * O LocationIndex é real, carregado da frota, porque serve os alertas ativos
+     */
+    static DashboardService dashboardService(DeviceRepository repository) {
+        LocationIndex locationIndex = new LocationIndex(repository, ALERT_EVALUATOR,
+                new ReadingAnomalyDetector(new StandardEnvironment()), event -> { }, "-");
+        locationIndex.rebuild();
+        return new DashboardService(repository,
+                ALERT_EVALUATOR,
+                locationIndex,
+                mock(DeviceRateLimiter.class),
+                mock(AdmissionController.class),
+                mock(ExecutionLanes.class),
+                mock(IngestRateMonitor.class),
+                mock(UptimeTracker.class),
+                mock(FleetStatsHistory.class),
+                mock(AlertNotificationDispatcher.class));
+    }
+    
+    static DeviceService deviceService(DeviceRepository repository) {
+        return new DeviceService(repository,
+                mock(DeviceHeartbeatWriter.class),
+                mock(ApplicationEventPublisher.class),
+                mock(DeviceUniquenessIndex.class),
+                REPORT_INTERVALS,
+                mock(UptimeTracker.class),
+                mock(ReadingSeriesStore.class),
+                new ObjectMapper(),
+                mock(Validator.class));
+    }
+}
@@ -0,0 +1,61 @@
+package com.dashboard.crud_iot.benchmark;
+
+import com.dashboard.crud_iot.dto.ConnectivityStatsDTO;
+import com.dashboard.crud_iot.dto.DashboardStatsDTO;
+import com.dashboard.crud_iot.dto.DeviceAlertDTO;
+import com.dashboard.crud_iot.dto.StatusDistributionDTO;
+import com.dashboard.crud_iot.dto.TypeDistributionDTO;
+import com.dashboard.crud_iot.service.DashboardService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de CPU das agregações do DashboardService sobre a frota em memória
+ * (repositório mockado, sem banco).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class DashboardServiceBenchmark {
+    
+    @Param({"1000", "100000", "1000000"})
+    public int fleetSize;
+    
+    private DashboardService dashboardService;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        dashboardService = BenchmarkServices.dashboardService(
+                BenchmarkServices.repositoryOf(FleetGenerator.generate(fleetSize)));
+    }
+    
+    @Benchmark
+    public DashboardStatsDTO getGeneralStats() {
+        return dashboardService.getGeneralStats();
+    }
+    
+    @Benchmark
+    public StatusDistributionDTO getStatusDistribution() {
+        return dashboardService.getStatusDistribution();
+    }
+    
+    @Benchmark
+    public TypeDistributionDTO getTypeDistribution() {
+        return dashboardService.getTypeDistribution();
+    }
+    
+    @Benchmark
+    public ConnectivityStatsDTO getConnectivityStats() {
+        return dashboardService.getConnectivityStats();
+    }
+    
+    @Benchmark
+    public List<DeviceAlertDTO> getActiveAlerts() {
+        return dashboardService.getActiveAlerts();
+    }
+}
@@ -0,0 +1,51 @@
+package com.dashboard.crud_iot.benchmark;
+
+import com.dashboard.crud_iot.dto.DashboardStatsDTO;
+import com.dashboard.crud_iot.dto.DeviceAlertDTO;
+import com.dashboard.crud_iot.service.DashboardService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agregações do DashboardService de ponta a ponta (JPA + H2 em memória), com a
+ * frota gerada inserida via JDBC em lote antes da medição.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class DashboardServiceH2Benchmark {
+    
+    // 1M linhas não cabem de forma útil no H2 em memória com o heap do fork
+    @Param({"1000", "100000"})
+    public int fleetSize;
+    
+    private ConfigurableApplicationContext context;
+    private DashboardService dashboardService;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = H2BenchmarkContext.start(fleetSize);
+        dashboardService = context.getBean(DashboardService.class);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public DashboardStatsDTO getGeneralStats() {
+        return dashboardService.getGeneralStats();
+    }
+    
+    @Benchmark
+    public List<DeviceAlertDTO> getActiveAlerts() {
+        return dashboardService.getActiveAlerts();
+    }
+}
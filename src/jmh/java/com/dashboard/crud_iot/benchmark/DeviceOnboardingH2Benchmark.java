@@ -0,0 +1,53 @@
+package com.dashboard.crud_iot.benchmark;
+
+import com.dashboard.crud_iot.dto.DeviceCreateDTO;
+import com.dashboard.crud_iot.dto.DeviceResponseDTO;
+import com.dashboard.crud_iot.enums.DeviceType;
+import com.dashboard.crud_iot.services.DeviceService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cadastro em massa pelo DeviceService de ponta a ponta (JPA + H2 em memória),
+ * sobre uma frota já existente. Cada operação cria um dispositivo novo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+// O caminho de escrita (JPA, eventos, H2) leva bem mais tempo que as leituras para estabilizar no JIT
+@Warmup(iterations = 30, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class DeviceOnboardingH2Benchmark {
+    
+    @Param({"1000", "100000"})
+    public int fleetSize;
+    
+    private ConfigurableApplicationContext context;
+    private DeviceService deviceService;
+    private long sequence;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = H2BenchmarkContext.start(fleetSize);
+        deviceService = context.getBean(DeviceService.class);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public DeviceResponseDTO createDevice() {
+        long n = ++sequence;
+        return deviceService.createDevice(DeviceCreateDTO.builder()
+                .deviceName("Onboarding " + n)
+                .deviceIdentifier("ONB-" + n)
+                .deviceType(DeviceType.TEMPERATURE_SENSOR)
+                .location("Prédio A - Andar 1")
+                .build());
+    }
+}
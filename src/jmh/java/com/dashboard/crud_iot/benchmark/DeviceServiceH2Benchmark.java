@@ -0,0 +1,55 @@
+package com.dashboard.crud_iot.benchmark;
+
+import com.dashboard.crud_iot.dto.DeviceResponseDTO;
+import com.dashboard.crud_iot.enums.DeviceType;
+import com.dashboard.crud_iot.services.DeviceService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leituras do DeviceService de ponta a ponta (JPA + H2 em memória). Rodar com
+ * {@code -prof gc} para ver a alocação por operação além da latência.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class DeviceServiceH2Benchmark {
+    
+    @Param({"1000", "100000"})
+    public int fleetSize;
+    
+    private ConfigurableApplicationContext context;
+    private DeviceService deviceService;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = H2BenchmarkContext.start(fleetSize);
+        deviceService = context.getBean(DeviceService.class);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public List<DeviceResponseDTO> getAllDevices() {
+        return deviceService.getAllDevices();
+    }
+    
+    @Benchmark
+    public List<DeviceResponseDTO> getDevicesByType() {
+        return deviceService.getDevicesByType(DeviceType.TEMPERATURE_SENSOR);
+    }
+    
+    @Benchmark
+    public List<DeviceResponseDTO> getOnlineDevices() {
+        return deviceService.getOnlineDevices();
+    }
+}
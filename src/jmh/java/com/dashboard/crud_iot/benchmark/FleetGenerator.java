@@ -0,0 +1,90 @@
+package com.dashboard.crud_iot.benchmark;
+
+import com.dashboard.crud_iot.entities.Device;
+import com.dashboard.crud_iot.enums.DeviceStatus;
+import com.dashboard.crud_iot.enums.DeviceType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Gerador determinístico de frotas para os benchmarks.
+ * 
+ * A mesma semente e o mesmo tamanho produzem sempre os mesmos dispositivos; apenas os
+ * horários são relativos ao instante de referência, para que a proporção de dispositivos
+ * online, irregulares e sem comunicação seja estável entre execuções.
+ */
+public final class FleetGenerator {
+    
+    public static final long DEFAULT_SEED = 20_240_601L;
+    
+    private static final DeviceType[] TYPES = DeviceType.values();
+    private static final String[] BUILDINGS = {"Prédio A", "Prédio B", "Prédio C", "Galpão 1", "Galpão 2"};
+    
+    private FleetGenerator() {
+    }
+    
+    /**
+     * Gera a frota com IDs sequenciais a partir de 1
+     * @param size Quantidade de dispositivos
+     * @param seed Semente do gerador
+     * @param now Instante de referência para os horários de comunicação
+     */
+    public static List<Device> generate(int size, long seed, LocalDateTime now) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Device> fleet = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            DeviceType type = TYPES[random.nextInt(TYPES.length)];
+            fleet.add(Device.builder()
+                    .id((long) i)
+                    .deviceName(type.getDisplayName() + " " + i)
+                    .deviceIdentifier(type.name().substring(0, 3) + "-" + String.format(Locale.ROOT, "%07d", i))
+                    .deviceType(type)
+                    .status(status(random))
+                    .description("Dispositivo gerado para benchmark")
+                    .location(BUILDINGS[random.nextInt(BUILDINGS.length)]
+                            + " - Andar " + (1 + random.nextInt(10))
+                            + " - Sala " + (1 + random.nextInt(40)))
+                    .latitude(-23.5 + random.nextDouble())
+                    .longitude(-46.6 + random.nextDouble())
+                    .lastReading(String.format(Locale.ROOT, "%.2f", random.nextDouble(100)))
+                    .lastCommunication(lastCommunication(random, now))
+                    .isActive(true)
+                    .createdAt(now.minusDays(30))
+                    .updatedAt(now.minusDays(1))
+                    .build());
+        }
+        return fleet;
+    }
+    
+    public static List<Device> generate(int size) {
+        return generate(size, DEFAULT_SEED, LocalDateTime.now());
+    }
+    
+    /**
+     * 80% ativos, 8% inativos, 5% em manutenção, 4% com erro, 2% offline, 1% configurando
+     */
+    private static DeviceStatus status(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        if (roll < 80) return DeviceStatus.ACTIVE;
+        if (roll < 88) return DeviceStatus.INACTIVE;
+        if (roll < 93) return DeviceStatus.MAINTENANCE;
+        if (roll < 97) return DeviceStatus.ERROR;
+        if (roll < 99) return DeviceStatus.OFFLINE;
+        return DeviceStatus.CONFIGURING;
+    }
+    
+    /**
+     * 70% nos últimos 5 minutos, 15% até 30 minutos, 12% até 2 dias, 3% nunca
+     */
+    private static LocalDateTime lastCommunication(SplittableRandom random, LocalDateTime now) {
+        int roll = random.nextInt(100);
+        if (roll < 70) return now.minusSeconds(random.nextInt(300));
+        if (roll < 85) return now.minusSeconds(300 + random.nextInt(1_500));
+        if (roll < 97) return now.minusSeconds(1_800 + random.nextInt(172_800));
+        return null;
+    }
+}
@@ -0,0 +1,63 @@
+package com.dashboard.crud_iot.benchmark;
+
+import com.dashboard.crud_iot.CrudLotApplication;
+import com.dashboard.crud_iot.entities.Device;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Sobe a aplicação sem camada web sobre um H2 em memória e insere a frota gerada
+ * via JDBC em lote, para os benchmarks de ponta a ponta (JPA + H2).
+ */
+final class H2BenchmarkContext {
+    
+    private static final String INSERT = "INSERT INTO devices (device_name, device_identifier, device_type, status, "
+            + "description, location, latitude, longitude, last_reading, last_communication, is_active, "
+            + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private H2BenchmarkContext() {
+    }
+    
+    static ConfigurableApplicationContext start(int fleetSize) {
+        // Argumentos de linha de comando: properties() do builder perde para o application.properties
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(CrudLotApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.h2.console.enabled=false",
+                        "--ingestion.reactive.enabled=false",
+                        "--telemetry.enabled=false",
+                        "--devices.offline.sweeper.enabled=false",
+                        "--dashboard.history.file=",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.dashboard.crud_iot=WARN");
+        List<Device> fleet = FleetGenerator.generate(fleetSize);
+        context.getBean(JdbcTemplate.class).batchUpdate(INSERT, fleet, 1_000, (statement, device) -> {
+            statement.setString(1, device.getDeviceName());
+            statement.setString(2, device.getDeviceIdentifier());
+            statement.setString(3, device.getDeviceType().name());
+            statement.setString(4, device.getStatus().name());
+            statement.setString(5, device.getDescription());
+            statement.setString(6, device.getLocation());
+            statement.setDouble(7, device.getLatitude());
+            statement.setDouble(8, device.getLongitude());
+            statement.setString(9, device.getLastReading());
+            statement.setTimestamp(10, timestamp(device.getLastCommunication()));
+            statement.setBoolean(11, device.getIsActive());
+            statement.setTimestamp(12, timestamp(device.getCreatedAt()));
+            statement.setTimestamp(13, timestamp(device.getUpdatedAt()));
+        });
+        return context;
+    }
+    
+    private static Timestamp timestamp(LocalDateTime value) {
+        return value == null ? null : Timestamp.valueOf(value);
+    }
+}
@@ -0,0 +1,47 @@
+package com.dashboard.crud_iot.benchmark;
+
+import com.dashboard.crud_iot.dto.DeviceResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização JSON de listas de DeviceResponseDTO com o ObjectMapper configurado
+ * como o do Spring Boot. A saída é descartada para medir só o Jackson.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class JsonSerializationBenchmark {
+    
+    @Param({"1000", "100000", "1000000"})
+    public int fleetSize;
+    
+    private List<DeviceResponseDTO> devices;
+    private ObjectWriter writer;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        devices = BenchmarkServices.deviceService(
+                BenchmarkServices.repositoryOf(FleetGenerator.generate(fleetSize))).getAllDevices();
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        writer = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, DeviceResponseDTO.class));
+    }
+    
+    @Benchmark
+    public void serializeDeviceList() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), devices);
+    }
+}
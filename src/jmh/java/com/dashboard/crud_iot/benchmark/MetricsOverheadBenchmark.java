@@ -0,0 +1,95 @@
+package com.dashboard.crud_iot.benchmark;
+
+import com.dashboard.crud_iot.dto.StatusDistributionDTO;
+import com.dashboard.crud_iot.service.DashboardService;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo da instrumentação Micrometer: gravação de um Timer com métricas desligadas
+ * (no-op), sem histograma e com histograma de percentis no Prometheus, e o overhead do
+ * TimedAspect sobre um cálculo real do DashboardService.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+    
+    @State(Scope.Benchmark)
+    public static class RegistryState {
+        
+        @Param({"disabled", "simple", "prometheus-histogram"})
+        public String registry;
+        
+        Timer timer;
+        DashboardService timedService;
+        
+        @Setup(Level.Trial)
+        public void setUp(ServiceState service) {
+            MeterRegistry meterRegistry = switch (registry) {
+                case "disabled" -> {
+                    // Equivalente a management.metrics.enable.all=false
+                    SimpleMeterRegistry simple = new SimpleMeterRegistry();
+                    simple.config().meterFilter(MeterFilter.deny());
+                    yield simple;
+                }
+                case "simple" -> new SimpleMeterRegistry();
+                default -> new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+            };
+            timer = Timer.builder("benchmark.operation")
+                    .publishPercentileHistogram(registry.equals("prometheus-histogram"))
+                    .register(meterRegistry);
+            
+            AspectJProxyFactory proxyFactory = new AspectJProxyFactory(service.dashboardService);
+            proxyFactory.setProxyTargetClass(true);
+            proxyFactory.addAspect(new TimedAspect(meterRegistry));
+            timedService = proxyFactory.getProxy();
+        }
+    }
+    
+    @State(Scope.Benchmark)
+    public static class ServiceState {
+        
+        DashboardService dashboardService;
+        
+        @Setup(Level.Trial)
+        public void setUp() {
+            dashboardService = BenchmarkServices.dashboardService(
+                    BenchmarkServices.repositoryOf(FleetGenerator.generate(1_000)));
+        }
+    }
+    
+    @Benchmark
+    public void timerRecord(RegistryState state, Blackhole blackhole) {
+        state.timer.record(() -> blackhole.consume(System.nanoTime()));
+    }
+    
+    @Benchmark
+    public void uninstrumented(Blackhole blackhole) {
+        blackhole.consume(System.nanoTime());
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public StatusDistributionDTO statusDistributionTimed(RegistryState state) {
+        return state.timedService.getStatusDistribution();
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public StatusDistributionDTO statusDistributionPlain(ServiceState state) {
+        return state.dashboardService.getStatusDistribution();
+    }
+}
@@ -0,0 +1,121 @@
+package com.dashboard.crud_iot.benchmark;
+
+import com.dashboard.crud_iot.repositories.DeviceRepository;
+import com.dashboard.crud_iot.service.ReadingBlock;
+import com.dashboard.crud_iot.service.ReadingSeriesStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Compressão e decodificação das leituras em ReadingBlock, em ns por ponto.
+ * Os bytes por ponto de cada perfil de série são impressos na preparação:
+ * - steady: leitura a cada 60 s com 1 décimo de resolução, quase sempre repetida
+ * - noisy: leitura a cada 60 s com jitter de 1 s e duas casas decimais variando sempre
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadingBlockBenchmark {
+    
+    private static final int POINTS = 100_000;
+    private static final long DEVICE_ID = 1;
+    
+    @Param({"steady", "noisy"})
+    public String profile;
+    
+    private long[] seconds;
+    private double[] values;
+    private List<ReadingBlock> blocks;
+    private ReadingSeriesStore store;
+    private LocalDateTime now;
+    private final ReadingBlock.Cursor cursor = new ReadingBlock.Cursor();
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(FleetGenerator.DEFAULT_SEED);
+        seconds = new long[POINTS];
+        values = new double[POINTS];
+        long second = LocalDateTime.now().minusSeconds(60L * POINTS).toEpochSecond(ZoneOffset.UTC);
+        double level = 22.0;
+        for (int i = 0; i < POINTS; i++) {
+            if ("steady".equals(profile)) {
+                second += 60;
+                if (random.nextInt(10) == 0) {
+                    level += random.nextBoolean() ? 0.1 : -0.1;
+                }
+                values[i] = Math.round(level * 10) / 10.0;
+            } else {
+                second += 59 + random.nextInt(3);
+                level += random.nextGaussian() * 0.05;
+                values[i] = Math.round((level + random.nextGaussian() * 0.2) * 100) / 100.0;
+            }
+            seconds[i] = second;
+        }
+        now = LocalDateTime.ofEpochSecond(second, 0, ZoneOffset.UTC);
+        blocks = encode();
+        
+        store = new ReadingSeriesStore(mock(DeviceRepository.class), true, Integer.MAX_VALUE, "");
+        for (int i = 0; i < POINTS; i++) {
+            store.append(DEVICE_ID, seconds[i], values[i]);
+        }
+        long[] footprint = store.footprint();
+        System.out.printf(Locale.ROOT, "%n%s: %d pontos em %d blocos, %.2f bytes/ponto%n",
+                profile, footprint[0], blocks.size(), (double) footprint[1] / footprint[0]);
+    }
+    
+    private List<ReadingBlock> encode() {
+        List<ReadingBlock> encoded = new ArrayList<>();
+        ReadingBlock block = new ReadingBlock();
+        for (int i = 0; i < POINTS; i++) {
+            if (!block.append(seconds[i], values[i])) {
+                block.seal();
+                encoded.add(block);
+                block = new ReadingBlock();
+                block.append(seconds[i], values[i]);
+            }
+        }
+        block.seal();
+        encoded.add(block);
+        return encoded;
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public List<ReadingBlock> append() {
+        return encode();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public double decode() {
+        double sum = 0;
+        for (ReadingBlock block : blocks) {
+            cursor.reset(block);
+            while (cursor.next()) {
+                sum += cursor.value();
+            }
+        }
+        return sum;
+    }
+    
+    /**
+     * Série de 24 h em passos de 5 min: a maior parte dos pontos vem do resumo dos blocos
+     * ou é decodificada sem materializar a série
+     */
+    @Benchmark
+    public Object getSeries24h() {
+        return store.getSeries(DEVICE_ID, "24h", "5m", now);
+    }
+}
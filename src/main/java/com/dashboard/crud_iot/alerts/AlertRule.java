@@ -0,0 +1,13 @@
+package com.dashboard.crud_iot.alerts;
+
+import com.dashboard.crud_iot.dto.DeviceAlertDTO.AlertSeverity;
+import com.dashboard.crud_iot.dto.DeviceAlertDTO.AlertType;
+
+/**
+ * Regra de alerta já compilada
+ * @param when Expressão de origem, para logs e diagnóstico
+ * @param condition Condição compilada da expressão
+ */
+public record AlertRule(String when, RuleCondition condition, AlertType alertType,
+                        AlertSeverity severity, boolean critical, String message) {
+}
@@ -0,0 +1,212 @@
+package com.dashboard.crud_iot.alerts;
+
+import com.dashboard.crud_iot.enums.DeviceStatus;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compila as expressões das regras de alerta em árvores de lambdas.
+ *
+ * Gramática (palavras-chave sem distinção de maiúsculas):
+ * <pre>
+ * expr       := and ("or" and)*
+ * and        := unary ("and" unary)*
+ * unary      := "not" unary | "(" expr ")" | "never_communicated" | comparison
+ * comparison := "status" ("==" | "!=") STATUS
+ *             | "silence" op DURAÇÃO          (ex.: silence > 30m)
+ *             | MÉTRICA op NÚMERO             (ex.: value > 45, battery &lt; 15)
+ * op         := "==" | "!=" | "&lt;" | "&lt;=" | "&gt;" | "&gt;="
+ * </pre>
+ * Cada comparação vira um lambda especializado no operador, sem interpretar a expressão
+ * na avaliação. Métricas ausentes na leitura e dispositivos que nunca comunicaram tornam
+ * falsas as comparações de métrica e de silêncio, respectivamente.
+ */
+final class AlertRuleCompiler {
+    
+    private static final Pattern TOKEN = Pattern.compile(
+            "\\s*(==|!=|<=|>=|<|>|\\(|\\)|[-+]?[0-9]+(?:\\.[0-9]+)?[a-zA-Z]*|[A-Za-z_][A-Za-z0-9_]*)");
+    
+    private final Map<String, Integer> metricIndex;
+    private final TreeSet<Long> silenceThresholds = new TreeSet<>();
+    private List<String> tokens;
+    private int position;
+    private String expression;
+    
+    /**
+     * @param metricIndex Índice das métricas, compartilhado entre compiladores; novas métricas são acrescentadas
+     */
+    AlertRuleCompiler(Map<String, Integer> metricIndex) {
+        this.metricIndex = metricIndex;
+    }
+    
+    RuleCondition compile(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new IllegalArgumentException("condição vazia");
+        }
+        this.expression = expression;
+        this.tokens = tokenize(expression);
+        this.position = 0;
+        RuleCondition condition = parseOr();
+        if (position < tokens.size()) {
+            throw error("token inesperado '" + tokens.get(position) + "'");
+        }
+        return condition;
+    }
+    
+    /**
+     * Limiares de silêncio usados pelas expressões compiladas, em segundos e em ordem crescente
+     */
+    long[] silenceThresholds() {
+        return silenceThresholds.stream().mapToLong(Long::longValue).toArray();
+    }
+    
+    private RuleCondition parseOr() {
+        RuleCondition left = parseAnd();
+        while (accept("or")) {
+            RuleCondition first = left;
+            RuleCondition second = parseAnd();
+            left = (status, silence, metrics) -> first.test(status, silence, metrics) || second.test(status, silence, metrics);
+        }
+        return left;
+    }
+    
+    private RuleCondition parseAnd() {
+        RuleCondition left = parseUnary();
+        while (accept("and")) {
+            RuleCondition first = left;
+            RuleCondition second = parseUnary();
+            left = (status, silence, metrics) -> first.test(status, silence, metrics) && second.test(status, silence, metrics);
+        }
+        return left;
+    }
+    
+    private RuleCondition parseUnary() {
+        if (accept("not")) {
+            RuleCondition negated = parseUnary();
+            return (status, silence, metrics) -> !negated.test(status, silence, metrics);
+        }
+        if (accept("(")) {
+            RuleCondition inner = parseOr();
+            expect(")");
+            return inner;
+        }
+        if (accept("never_communicated")) {
+            return (status, silence, metrics) -> silence < 0;
+        }
+        return parseComparison();
+    }
+    
+    private RuleCondition parseComparison() {
+        String subject = next("campo").toLowerCase(Locale.ROOT);
+        String operator = next("operador");
+        String value = next("valor");
+        return switch (subject) {
+            case "status" -> statusCondition(operator, value);
+            case "silence" -> silenceCondition(operator, value);
+            default -> metricCondition(subject, operator, value);
+        };
+    }
+    
+    private RuleCondition statusCondition(String operator, String value) {
+        DeviceStatus target;
+        try {
+            target = DeviceStatus.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw error("status desconhecido '" + value + "'");
+        }
+        return switch (operator) {
+            case "==" -> (status, silence, metrics) -> status == target;
+            case "!=" -> (status, silence, metrics) -> status != target;
+            default -> throw error("status aceita apenas == e !=");
+        };
+    }
+    
+    private RuleCondition silenceCondition(String operator, String value) {
+        long threshold;
+        try {
+            threshold = DurationStyle.detectAndParse(value).toSeconds();
+        } catch (IllegalArgumentException e) {
+            throw error("duração inválida '" + value + "'");
+        }
+        silenceThresholds.add(threshold);
+        return switch (operator) {
+            case ">" -> (status, silence, metrics) -> silence > threshold;
+            case ">=" -> (status, silence, metrics) -> silence >= threshold;
+            case "<" -> (status, silence, metrics) -> silence >= 0 && silence < threshold;
+            case "<=" -> (status, silence, metrics) -> silence >= 0 && silence <= threshold;
+            case "==" -> (status, silence, metrics) -> silence == threshold;
+            case "!=" -> (status, silence, metrics) -> silence >= 0 && silence != threshold;
+            default -> throw error("operador desconhecido '" + operator + "'");
+        };
+    }
+    
+    private RuleCondition metricCondition(String metric, String operator, String value) {
+        double threshold;
+        try {
+            threshold = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw error("número inválido '" + value + "' para " + metric);
+        }
+        int index = metricIndex.computeIfAbsent(metric, name -> metricIndex.size());
+        // Comparações com NaN (métrica ausente) são sempre falsas, exceto !=, tratado à parte
+        return switch (operator) {
+            case ">" -> (status, silence, metrics) -> metrics[index] > threshold;
+            case ">=" -> (status, silence, metrics) -> metrics[index] >= threshold;
+            case "<" -> (status, silence, metrics) -> metrics[index] < threshold;
+            case "<=" -> (status, silence, metrics) -> metrics[index] <= threshold;
+            case "==" -> (status, silence, metrics) -> metrics[index] == threshold;
+            case "!=" -> (status, silence, metrics) -> !Double.isNaN(metrics[index]) && metrics[index] != threshold;
+            default -> throw error("operador desconhecido '" + operator + "'");
+        };
+    }
+    
+    private boolean accept(String token) {
+        if (position < tokens.size() && tokens.get(position).equalsIgnoreCase(token)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+    
+    private void expect(String token) {
+        if (!accept(token)) {
+            throw error("esperado '" + token + "'");
+        }
+    }
+    
+    private String next(String expected) {
+        if (position >= tokens.size()) {
+            throw error("esperado " + expected + " no fim da expressão");
+        }
+        return tokens.get(position++);
+    }
+    
+    private List<String> tokenize(String source) {
+        List<String> result = new ArrayList<>();
+        Matcher matcher = TOKEN.matcher(source);
+        int offset = 0;
+        while (offset < source.length()) {
+            if (source.substring(offset).isBlank()) {
+                break;
+            }
+            matcher.region(offset, source.length());
+            if (!matcher.lookingAt()) {
+                throw error("caractere inesperado na posição " + offset);
+            }
+            result.add(matcher.group(1));
+            offset = matcher.end();
+        }
+        return result;
+    }
+    
+    private IllegalArgumentException error(String detail) {
+        return new IllegalArgumentException(detail + " em \"" + expression + "\"");
+    }
+}
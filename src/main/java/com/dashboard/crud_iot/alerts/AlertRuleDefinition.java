@@ -0,0 +1,16 @@
+package com.dashboard.crud_iot.alerts;
+
+import com.dashboard.crud_iot.dto.DeviceAlertDTO.AlertSeverity;
+import com.dashboard.crud_iot.dto.DeviceAlertDTO.AlertType;
+
+/**
+ * Regra de alerta como configurada em alerts.rules.{default|tipo}[n]
+ * @param when Condição (ex.: "value > 45 or silence > 30m")
+ * @param alert Tipo do alerta gerado
+ * @param severity Severidade do alerta
+ * @param critical Marca o alerta como crítico
+ * @param message Descrição exibida no alerta
+ */
+public record AlertRuleDefinition(String when, AlertType alert, AlertSeverity severity,
+                                  boolean critical, String message) {
+}
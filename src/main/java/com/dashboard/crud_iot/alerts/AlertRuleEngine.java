@@ -0,0 +1,164 @@
+package com.dashboard.crud_iot.alerts;
+
+import com.dashboard.crud_iot.dto.DeviceAlertDTO.AlertSeverity;
+import com.dashboard.crud_iot.dto.DeviceAlertDTO.AlertType;
+import com.dashboard.crud_iot.enums.DeviceStatus;
+import com.dashboard.crud_iot.enums.DeviceType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Regras de alerta por tipo de dispositivo, compiladas uma única vez na inicialização.
+ *
+ * As regras de alerts.rules.default valem para todos os tipos e as de alerts.rules.{tipo}
+ * são acrescentadas às do tipo. Sem alerts.rules.default valem as regras embutidas, que
+ * reproduzem os alertas de status e de comunicação anteriores à configuração. Quando mais
+ * de uma regra é satisfeita vence a de maior severidade, e no empate a primeira configurada.
+ */
+@Component
+@Slf4j
+public class AlertRuleEngine {
+    
+    static final List<AlertRuleDefinition> BUILT_IN_RULES = List.of(
+            new AlertRuleDefinition("status == ERROR", AlertType.DEVICE_ERROR, AlertSeverity.HIGH,
+                    true, "Dispositivo apresenta status de erro"),
+            new AlertRuleDefinition("status == MAINTENANCE", AlertType.MAINTENANCE_REQUIRED, AlertSeverity.MEDIUM,
+                    false, "Dispositivo requer manutenção"),
+            new AlertRuleDefinition("never_communicated", AlertType.DEVICE_OFFLINE, AlertSeverity.CRITICAL,
+                    true, "Dispositivo nunca se comunicou"),
+            new AlertRuleDefinition("silence > 30m", AlertType.COMMUNICATION_LOST, AlertSeverity.HIGH,
+                    true, "Dispositivo não responde há mais de 30 minutos"),
+            new AlertRuleDefinition("battery < 15", AlertType.BATTERY_LOW, AlertSeverity.MEDIUM,
+                    false, "Bateria abaixo de 15%"));
+    
+    private static final String VALUE_METRIC = "value";
+    // A vírgula entre dois dígitos é decimal ("value=23,5"), não separador de pares
+    private static final Pattern PAIR_SEPARATOR = Pattern.compile("(?:[;&\\s]|(?<!\\d),|,(?!\\d))+");
+    
+    private final Map<String, Integer> metricIndex = new HashMap<>();
+    private final AlertRule[][] rulesByType = new AlertRule[DeviceType.values().length][];
+    private final long[][] silenceThresholdsByType = new long[DeviceType.values().length][];
+    private final double[] noMetrics;
+    
+    public AlertRuleEngine(Environment environment) {
+        Binder binder = Binder.get(environment);
+        List<AlertRuleDefinition> defaults = binder
+                .bind("alerts.rules.default", Bindable.listOf(AlertRuleDefinition.class))
+                .orElse(BUILT_IN_RULES);
+        for (DeviceType type : DeviceType.values()) {
+            // O Binder só aceita nomes em kebab-case; alerts.rules.temperature_sensor também é reconhecido
+            String prefix = "alerts.rules." + type.name().toLowerCase().replace('_', '-');
+            List<AlertRuleDefinition> typeRules = binder
+                    .bind(prefix, Bindable.listOf(AlertRuleDefinition.class))
+                    .orElse(List.of());
+            AlertRuleCompiler compiler = new AlertRuleCompiler(metricIndex);
+            List<AlertRule> compiled = new ArrayList<>();
+            compileAll(compiler, "alerts.rules.default", defaults, compiled);
+            compileAll(compiler, prefix, typeRules, compiled);
+            rulesByType[type.ordinal()] = compiled.toArray(AlertRule[]::new);
+            silenceThresholdsByType[type.ordinal()] = compiler.silenceThresholds();
+        }
+        this.noMetrics = new double[metricIndex.size()];
+        Arrays.fill(noMetrics, Double.NaN);
+        log.info("Regras de alerta compiladas: {} padrão, métricas {}", defaults.size(), metricIndex.keySet());
+    }
+    
+    private static void compileAll(AlertRuleCompiler compiler, String prefix,
+                                   List<AlertRuleDefinition> definitions, List<AlertRule> target) {
+        for (int i = 0; i < definitions.size(); i++) {
+            AlertRuleDefinition definition = definitions.get(i);
+            String name = prefix + "[" + i + "]";
+            if (definition.alert() == null || definition.severity() == null) {
+                throw new IllegalStateException("Regra de alerta inválida em " + name + ": alert e severity são obrigatórios");
+            }
+            RuleCondition condition;
+            try {
+                condition = compiler.compile(definition.when());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalStateException("Regra de alerta inválida em " + name + ": " + e.getMessage(), e);
+            }
+            String message = definition.message() != null ? definition.message() : definition.when();
+            target.add(new AlertRule(definition.when(), condition, definition.alert(),
+                    definition.severity(), definition.critical(), message));
+        }
+    }
+    
+    /**
+     * Avalia as regras do tipo
+     * @param silenceSeconds Segundos desde a última comunicação, ou -1 se nunca comunicou
+     * @param metrics Métricas obtidas por parseReading
+     * @return Regra vencedora ou null se nenhuma for satisfeita
+     */
+    public AlertRule match(DeviceType type, DeviceStatus status, long silenceSeconds, double[] metrics) {
+        AlertRule best = null;
+        for (AlertRule rule : rulesByType[type.ordinal()]) {
+            if ((best == null || rule.severity().compareTo(best.severity()) > 0)
+                    && rule.condition().test(status, silenceSeconds, metrics)) {
+                best = rule;
+            }
+        }
+        return best;
+    }
+    
+    /**
+     * Limiares de silêncio (em segundos, crescentes) usados pelas regras do tipo: o
+     * resultado de match só muda com o passar do tempo ao cruzar um deles
+     */
+    public long[] silenceThresholds(DeviceType type) {
+        return silenceThresholdsByType[type.ordinal()];
+    }
+    
+    /**
+     * Converte uma leitura nas métricas usadas pelas regras. Aceita um número simples
+     * (métrica "value") ou pares chave=valor / chave:valor separados por ';', ',', '&amp;' ou espaço
+     * (ex.: "value=23.5;battery=12"). Os números seguem ReadingNumbers: vírgula decimal ("23,5")
+     * e notação científica são aceitas. Chaves sem regra e valores não numéricos são ignorados.
+     * @return Métricas indexadas, NaN quando ausentes; não deve ser alterado pelo chamador
+     */
+    public double[] parseReading(String reading) {
+        if (reading == null || reading.isBlank() || noMetrics.length == 0) {
+            return noMetrics;
+        }
+        String trimmed = reading.trim();
+        Integer valueIndex = metricIndex.get(VALUE_METRIC);
+        double plain = valueIndex != null ? ReadingNumbers.parse(trimmed, 0, trimmed.length()) : Double.NaN;
+        if (!Double.isNaN(plain)) {
+            double[] metrics = noMetrics.clone();
+            metrics[valueIndex] = plain;
+            return metrics;
+        }
+        double[] metrics = null;
+        for (String pair : PAIR_SEPARATOR.split(trimmed)) {
+            int separator = indexOfSeparator(pair);
+            if (separator <= 0) {
+                continue;
+            }
+            Integer index = metricIndex.get(pair.substring(0, separator).toLowerCase(Locale.ROOT));
+            double value = index != null ? ReadingNumbers.parse(pair, separator + 1, pair.length()) : Double.NaN;
+            if (Double.isNaN(value)) {
+                continue;
+            }
+            if (metrics == null) {
+                metrics = noMetrics.clone();
+            }
+            metrics[index] = value;
+        }
+        return metrics != null ? metrics : noMetrics;
+    }
+    
+    private static int indexOfSeparator(String pair) {
+        int equals = pair.indexOf('=');
+        return equals >= 0 ? equals : pair.indexOf(':');
+    }
+}
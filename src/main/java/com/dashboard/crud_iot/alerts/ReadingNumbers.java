@@ -0,0 +1,103 @@
+package com.dashboard.crud_iot.alerts;
+
+/**
+ * Leitura dos números que chegam nas leituras textuais dos dispositivos.
+ *
+ * Aceita [-+]dígitos[(.|,)dígitos][(e|E)[-+]dígitos], ou seja, vírgula decimal
+ * ("23,5") e notação científica ("2.35e1"). Como a vírgula também separa pares
+ * ("value=23,battery=80"), ela só é decimal quando está entre dois dígitos.
+ * O caso comum (até 15 dígitos e escala até 22) é convertido sem criar Strings
+ * e com o mesmo arredondamento de Double.parseDouble.
+ */
+public final class ReadingNumbers {
+    
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9,
+            1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+    private static final int EXACT_DIGITS = 15;
+    private static final int MAX_EXPONENT_DIGITS = 4;
+    
+    private ReadingNumbers() {
+    }
+    
+    /**
+     * Número entre start e end
+     * @return Valor ou NaN se o trecho não for um número
+     */
+    public static double parse(CharSequence text, int start, int end) {
+        int index = start;
+        boolean negative = false;
+        if (index < end && (text.charAt(index) == '-' || text.charAt(index) == '+')) {
+            negative = text.charAt(index) == '-';
+            index++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int significant = 0;
+        int scale = 0;
+        boolean decimal = false;
+        for (; index < end; index++) {
+            char c = text.charAt(index);
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (significant > 0 || c != '0') {
+                    significant++;
+                }
+                if (significant <= EXACT_DIGITS) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (decimal) {
+                        scale++;
+                    }
+                }
+            } else if ((c == '.' || (c == ',' && digits > 0)) && !decimal) {
+                decimal = true;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0 || text.charAt(index - 1) == ',') {
+            return Double.NaN;
+        }
+        int exponent = 0;
+        if (index < end) {
+            char marker = text.charAt(index);
+            if (marker != 'e' && marker != 'E') {
+                return Double.NaN;
+            }
+            index++;
+            boolean negativeExponent = false;
+            if (index < end && (text.charAt(index) == '-' || text.charAt(index) == '+')) {
+                negativeExponent = text.charAt(index) == '-';
+                index++;
+            }
+            int exponentDigits = 0;
+            for (; index < end; index++) {
+                char c = text.charAt(index);
+                if (c < '0' || c > '9' || ++exponentDigits > MAX_EXPONENT_DIGITS) {
+                    return Double.NaN;
+                }
+                exponent = exponent * 10 + (c - '0');
+            }
+            if (exponentDigits == 0) {
+                return Double.NaN;
+            }
+            exponent = negativeExponent ? -exponent : exponent;
+        }
+        
+        int power = exponent - scale;
+        if (significant > EXACT_DIGITS || Math.abs(power) >= POWERS_OF_TEN.length) {
+            double value = Double.parseDouble(text.subSequence(start, end).toString().replace(',', '.'));
+            return Double.isInfinite(value) ? Double.NaN : value;
+        }
+        // Mantissa e potência exatas em double: uma única operação arredondada
+        double value = power >= 0 ? mantissa * POWERS_OF_TEN[power] : mantissa / POWERS_OF_TEN[-power];
+        return negative ? -value : value;
+    }
+    
+    /**
+     * Se a vírgula na posição index de text é decimal (entre dois dígitos) e não separador de pares
+     */
+    public static boolean isDecimalComma(CharSequence text, int index) {
+        return index > 0 && index + 1 < text.length()
+                && Character.isDigit(text.charAt(index - 1)) && Character.isDigit(text.charAt(index + 1));
+    }
+}
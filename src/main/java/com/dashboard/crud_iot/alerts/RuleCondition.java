@@ -0,0 +1,18 @@
+package com.dashboard.crud_iot.alerts;
+
+import com.dashboard.crud_iot.enums.DeviceStatus;
+
+/**
+ * Condição compilada de uma regra de alerta.
+ */
+@FunctionalInterface
+public interface RuleCondition {
+    
+    /**
+     * @param status Status atual do dispositivo
+     * @param silenceSeconds Segundos desde a última comunicação, ou -1 se nunca comunicou
+     * @param metrics Valores da última leitura, indexados pelo AlertRuleEngine (NaN quando ausentes)
+     * @return true se a condição é satisfeita
+     */
+    boolean test(DeviceStatus status, long silenceSeconds, double[] metrics);
+}
@@ -0,0 +1,95 @@
+package com.dashboard.crud_iot.bulkhead;
+
+import com.dashboard.crud_iot.dto.LaneStatsDTO;
+import org.HdrHistogram.ConcurrentHistogram;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bulkhead de uma faixa de execução: no máximo {@code permits} requisições em execução
+ * e {@code maxQueued} aguardando, cada uma por até {@code maxWaitMillis}.
+ * 
+ * Como cada requisição em execução usa no máximo uma conexão JDBC, os permits também
+ * são a partição do pool Hikari reservada para a faixa.
+ */
+public class Bulkhead {
+    
+    private final Lane lane;
+    private final int permits;
+    private final int maxQueued;
+    private final long maxWaitNanos;
+    private final Semaphore semaphore;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final ConcurrentHistogram queueWait = new ConcurrentHistogram(2);
+    
+    public Bulkhead(Lane lane, int permits, int maxQueued, long maxWaitMillis) {
+        this.lane = lane;
+        this.permits = permits;
+        this.maxQueued = maxQueued;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.semaphore = new Semaphore(permits, true);
+    }
+    
+    /**
+     * Ocupa um permit, aguardando na fila da faixa se necessário
+     * @return false se a fila estiver cheia ou a espera exceder o limite
+     */
+    public boolean tryEnter() {
+        long start = System.nanoTime();
+        if (semaphore.tryAcquire()) {
+            queueWait.recordValue(0);
+            admitted.increment();
+            return true;
+        }
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        try {
+            if (semaphore.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                queueWait.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                admitted.increment();
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            queued.decrementAndGet();
+        }
+        rejected.increment();
+        return false;
+    }
+    
+    public void exit() {
+        semaphore.release();
+    }
+    
+    public Lane getLane() {
+        return lane;
+    }
+    
+    public int getPermits() {
+        return permits;
+    }
+    
+    public LaneStatsDTO getStats() {
+        int active = permits - semaphore.availablePermits();
+        return LaneStatsDTO.builder()
+                .lane(lane.name())
+                .permits(permits)
+                .active(active)
+                .queued(queued.get())
+                .maxQueued(maxQueued)
+                .saturation(Math.round(active * 1000.0 / permits) / 10.0)
+                .admitted(admitted.sum())
+                .rejected(rejected.sum())
+                .queueWaitP99Micros(queueWait.getValueAtPercentile(99.0))
+                .build();
+    }
+}
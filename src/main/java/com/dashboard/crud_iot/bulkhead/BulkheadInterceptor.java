@@ -0,0 +1,54 @@
+package com.dashboard.crud_iot.bulkhead;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Coloca cada requisição no bulkhead da faixa declarada por @ExecutionLane.
+ * Requisições recusadas pela faixa recebem 503 com Retry-After.
+ */
+@Component
+@RequiredArgsConstructor
+public class BulkheadInterceptor implements HandlerInterceptor {
+    
+    private static final String BULKHEAD_ATTRIBUTE = BulkheadInterceptor.class.getName() + ".bulkhead";
+    
+    private final ExecutionLanes lanes;
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        ExecutionLane annotation = AnnotatedElementUtils.findMergedAnnotation(method.getMethod(), ExecutionLane.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(method.getBeanType(), ExecutionLane.class);
+        }
+        if (annotation == null) {
+            return true;
+        }
+        Bulkhead bulkhead = lanes.get(annotation.value());
+        if (!bulkhead.tryEnter()) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return false;
+        }
+        request.setAttribute(BULKHEAD_ATTRIBUTE, bulkhead);
+        return true;
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(BULKHEAD_ATTRIBUTE) instanceof Bulkhead bulkhead) {
+            request.removeAttribute(BULKHEAD_ATTRIBUTE);
+            bulkhead.exit();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.dashboard.crud_iot.bulkhead;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Define a faixa de execução de um controller ou endpoint.
+ * A anotação no método tem precedência sobre a da classe.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExecutionLane {
+    
+    Lane value();
+}
@@ -0,0 +1,70 @@
+package com.dashboard.crud_iot.bulkhead;
+
+import com.dashboard.crud_iot.dto.LaneStatsDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registro dos bulkheads de cada faixa, configurados por lanes.{faixa}.*.
+ * 
+ * A soma dos permits das faixas, mais as conexões usadas fora delas, não pode passar do
+ * tamanho do pool Hikari: assim cada faixa tem sua partição de conexões garantida e uma
+ * rajada de agregações do dashboard não atrasa os heartbeats. Fora das faixas ficam:
+ * - a thread de aplicação da telemetria (se habilitada)
+ * - as threads do agendador (varredura de offline, refresh e compactação dos índices)
+ * - a reconstrução dos índices no ApplicationReadyEvent, que roda com a API já no ar
+ * - os endpoints fora de /api e os administrativos (lanes.unmanaged.connections)
+ */
+@Component
+@Slf4j
+public class ExecutionLanes {
+    
+    private final Map<Lane, Bulkhead> bulkheads = new EnumMap<>(Lane.class);
+    
+    public ExecutionLanes(Environment environment) {
+        int totalPermits = 0;
+        for (Lane lane : Lane.values()) {
+            String prefix = "lanes." + lane.name().toLowerCase() + ".";
+            Bulkhead bulkhead = new Bulkhead(lane,
+                    environment.getProperty(prefix + "permits", Integer.class, 4),
+                    environment.getProperty(prefix + "max-queued", Integer.class, 100),
+                    environment.getProperty(prefix + "max-wait-ms", Long.class, 2000L));
+            bulkheads.put(lane, bulkhead);
+            totalPermits += bulkhead.getPermits();
+        }
+        int reserved = reservedConnections(environment);
+        int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        if (totalPermits + reserved > poolSize) {
+            throw new IllegalStateException("A soma dos permits das faixas (" + totalPermits
+                    + ") mais " + reserved + " conexões reservadas excede o pool Hikari (" + poolSize + ")");
+        }
+        log.info("Faixas de execução configuradas: {} permits e {} conexões reservadas para {} conexões",
+                totalPermits, reserved, poolSize);
+    }
+    
+    /**
+     * Conexões usadas fora das faixas de execução
+     */
+    static int reservedConnections(Environment environment) {
+        int telemetry = environment.getProperty("telemetry.enabled", Boolean.class, true) ? 1 : 0;
+        int scheduler = environment.getProperty("spring.task.scheduling.pool.size", Integer.class, 1);
+        int startupRebuild = 1;
+        int unmanaged = environment.getProperty("lanes.unmanaged.connections", Integer.class, 1);
+        return telemetry + scheduler + startupRebuild + unmanaged;
+    }
+    
+    public Bulkhead get(Lane lane) {
+        return bulkheads.get(lane);
+    }
+    
+    public List<LaneStatsDTO> getStats() {
+        return bulkheads.values().stream()
+                .map(Bulkhead::getStats)
+                .toList();
+    }
+}
@@ -0,0 +1,13 @@
+package com.dashboard.crud_iot.bulkhead;
+
+/**
+ * Faixas de execução isoladas da API MVC.
+ */
+public enum Lane {
+    /** Heartbeats dos dispositivos */
+    INGESTION,
+    /** Operações interativas de cadastro */
+    CRUD,
+    /** Agregações e consultas do dashboard */
+    ANALYTICS
+}
@@ -0,0 +1,42 @@
+package com.dashboard.crud_iot.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Protege os endpoints /api/admin com o token do header X-Admin-Token.
+ * Sem admin.token configurado os endpoints ficam desativados (403).
+ */
+@Component
+public class AdminTokenInterceptor implements HandlerInterceptor {
+    
+    static final String TOKEN_HEADER = "X-Admin-Token";
+    
+    private final byte[] token;
+    
+    public AdminTokenInterceptor(@Value("${admin.token:}") String token) {
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (token.length == 0) {
+            response.setStatus(HttpStatus.FORBIDDEN.value());
+            return false;
+        }
+        String provided = request.getHeader(TOKEN_HEADER);
+        // Comparação em tempo constante para não vazar o token por timing
+        if (provided == null || !MessageDigest.isEqual(token, provided.getBytes(StandardCharsets.UTF_8))) {
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            return false;
+        }
+        return true;
+    }
+}
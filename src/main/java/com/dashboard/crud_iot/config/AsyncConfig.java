@@ -0,0 +1,16 @@
+package com.dashboard.crud_iot.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Habilita a execução assíncrona (@Async).
+ * 
+ * Com spring.threads.virtual.enabled=true o executor padrão do Spring Boot cria
+ * uma virtual thread por tarefa, limitada por spring.task.execution.simple.concurrency-limit
+ * para que o trabalho assíncrono não esgote o pool de conexões do banco.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
@@ -0,0 +1,20 @@
+package com.dashboard.crud_iot.config;
+
+import com.dashboard.crud_iot.jfr.JfrJsonHttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+/**
+ * Eventos JFR customizados (pacote jfr). O conversor substitui o conversor JSON padrão
+ * do Spring Boot, mantendo o ObjectMapper configurado por ele.
+ */
+@Configuration
+public class JfrConfig {
+    
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new JfrJsonHttpMessageConverter(objectMapper);
+    }
+}
@@ -0,0 +1,24 @@
+package com.dashboard.crud_iot.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Instrumentação com Micrometer.
+ * 
+ * Endpoints HTTP (http.server.requests), métodos do DeviceRepository
+ * (spring.data.repository.invocations) e o pool Hikari (hikaricp.*) são instrumentados
+ * pelo Spring Boot; os cálculos do DashboardService usam @Timed via TimedAspect.
+ * As tags usam apenas templates de URI e nomes de método, nunca IDs de dispositivo.
+ * Tudo é desligável por management.metrics.enable.all (METRICS_ENABLED).
+ */
+@Configuration
+public class MetricsConfig {
+    
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -0,0 +1,12 @@
+package com.dashboard.crud_iot.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita as tarefas agendadas da aplicação (manutenção dos índices em memória).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
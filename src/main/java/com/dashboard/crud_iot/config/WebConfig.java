@@ -0,0 +1,36 @@
+package com.dashboard.crud_iot.config;
+
+import com.dashboard.crud_iot.bulkhead.BulkheadInterceptor;
+import com.dashboard.crud_iot.ingestion.IngestionAdmissionInterceptor;
+import com.dashboard.crud_iot.logging.RequestLogSampler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registra os interceptors da API MVC.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+    
+    private final IngestionAdmissionInterceptor ingestionAdmissionInterceptor;
+    private final BulkheadInterceptor bulkheadInterceptor;
+    private final AdminTokenInterceptor adminTokenInterceptor;
+    private final RequestLogSampler requestLogSampler;
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Primeiro: a decisão de amostragem vale também para os logs dos demais interceptors
+        registry.addInterceptor(requestLogSampler)
+                .addPathPatterns("/api/**");
+        registry.addInterceptor(adminTokenInterceptor)
+                .addPathPatterns("/api/admin/**");
+        registry.addInterceptor(ingestionAdmissionInterceptor)
+                .addPathPatterns("/api/devices/*/communication");
+        // Depois da admissão: a espera na fila da faixa entra na latência medida por ela
+        registry.addInterceptor(bulkheadInterceptor)
+                .addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,133 @@
+package com.dashboard.crud_iot.controllers;
+
+import com.dashboard.crud_iot.dto.QueryReportDTO;
+import com.dashboard.crud_iot.jfr.ProfilingRecorder;
+import com.dashboard.crud_iot.querylog.QueryLog;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+/**
+ * Endpoints administrativos, protegidos pelo header X-Admin-Token (AdminTokenInterceptor).
+ * Fora das faixas de execução: o profiling precisa responder justamente quando elas estão saturadas.
+ */
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Administração", description = "APIs administrativas (requerem X-Admin-Token)")
+public class AdminController {
+    
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    
+    private final ProfilingRecorder profilingRecorder;
+    private final QueryLog queryLog;
+    
+    /**
+     * Inicia uma gravação JFR limitada em duração e tamanho
+     * @param durationSeconds Duração da gravação
+     * @param settings Configuração do JFR (default ou profile)
+     * @return Estado da gravação, 409 se já houver uma em andamento
+     */
+    @PostMapping("/profiling/start")
+    @Operation(
+        summary = "Inicia gravação JFR",
+        description = "Inicia uma gravação Java Flight Recorder com os eventos customizados do dashboard e da ingestão"
+    )
+    public ResponseEntity<Map<String, Object>> startProfiling(
+            @Parameter(description = "Duração em segundos (limitada por admin.profiling.max-duration)", example = "60")
+            @RequestParam(defaultValue = "60") long durationSeconds,
+            @Parameter(description = "Configuração do JFR", example = "default")
+            @RequestParam(defaultValue = "default") String settings) {
+        log.info("Requisição para iniciar gravação JFR ({}s, {})", durationSeconds, settings);
+        if (durationSeconds <= 0 || !("default".equals(settings) || "profile".equals(settings))) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(profilingRecorder.start(Duration.ofSeconds(durationSeconds), settings));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        } catch (IOException | ParseException e) {
+            log.error("Erro ao iniciar gravação JFR: {}", e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * Encerra a gravação e devolve o arquivo .jfr
+     * @return Conteúdo da gravação, 404 se nenhuma foi iniciada
+     */
+    @PostMapping("/profiling/stop")
+    @Operation(
+        summary = "Encerra gravação JFR",
+        description = "Encerra a gravação em andamento (ou já concluída) e devolve o arquivo .jfr para análise no JDK Mission Control"
+    )
+    public ResponseEntity<StreamingResponseBody> stopProfiling() {
+        log.info("Requisição para encerrar gravação JFR");
+        Path file;
+        try {
+            file = profilingRecorder.stop();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IOException e) {
+            log.error("Erro ao encerrar gravação JFR: {}", e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+        String filename = "dashboard-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jfr";
+        StreamingResponseBody body = output -> {
+            try {
+                Files.copy(file, output);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+    
+    /**
+     * Estado da gravação atual
+     */
+    @GetMapping("/profiling")
+    @Operation(summary = "Estado da gravação JFR")
+    public ResponseEntity<Map<String, Object>> profilingStatus() {
+        return ResponseEntity.ok(profilingRecorder.status());
+    }
+    
+    /**
+     * Latência e volume por método de repositório e as consultas lentas recentes
+     * @param limit Quantidade máxima de consultas lentas retornadas
+     * @return Relatório de acesso ao banco
+     */
+    @GetMapping("/queries")
+    @Operation(
+        summary = "Estatísticas de consultas",
+        description = "Retorna histogramas de latência e linhas por método do repositório e as consultas mais lentas com o formato dos parâmetros"
+    )
+    public ResponseEntity<QueryReportDTO> getQueryReport(
+            @Parameter(description = "Quantidade de consultas lentas", example = "20")
+            @RequestParam(defaultValue = "20") int limit) {
+        log.info("Requisição para estatísticas de consultas");
+        return ResponseEntity.ok(queryLog.getReport(Math.max(0, limit)));
+    }
+}
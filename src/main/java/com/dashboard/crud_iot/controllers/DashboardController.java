@@ -1,8 +1,11 @@
 package com.dashboard.crud_iot.controllers;
 
+import com.dashboard.crud_iot.bulkhead.ExecutionLane;
+import com.dashboard.crud_iot.bulkhead.Lane;
 import com.dashboard.crud_iot.dto.*;
 import com.dashboard.crud_iot.service.DashboardService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -25,6 +28,7 @@ import java.util.Map;
 @Slf4j
 @CrossOrigin(origins = "*")
 @Tag(name = "Dashboard IoT", description = "APIs para estatísticas e métricas do dashboard em tempo real")
+@ExecutionLane(Lane.ANALYTICS)
 public class DashboardController {
     
     private final DashboardService dashboardService;
@@ -94,6 +98,32 @@ public class DashboardController {
         return ResponseEntity.ok(connectivity);
     }
     
+    /**
+     * Série histórica das contagens da frota
+     * @param range Período até agora
+     * @param step Passo de cada ponto
+     * @return Pontos reamostrados, 400 se range ou step forem inválidos
+     */
+    @GetMapping("/stats/history")
+    @Operation(
+        summary = "Histórico das estatísticas da frota",
+        description = "Retorna status, tipos, online e alertas capturados a cada dashboard.history.capture-interval-ms, "
+                + "com a média das capturas em cada passo"
+    )
+    public ResponseEntity<FleetStatsHistoryDTO> getStatsHistory(
+            @Parameter(description = "Período até agora", example = "24h")
+            @RequestParam(defaultValue = "24h") String range,
+            @Parameter(description = "Passo de cada ponto", example = "5m")
+            @RequestParam(defaultValue = "5m") String step) {
+        log.info("Requisição para histórico das estatísticas da frota");
+        try {
+            return ResponseEntity.ok(dashboardService.getStatsHistory(range, step));
+        } catch (IllegalArgumentException e) {
+            log.error("Erro ao consultar histórico: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     /**
      * Retorna alertas ativos do sistema
      * @return Lista de dispositivos que precisam de atenção
@@ -109,6 +139,127 @@ public class DashboardController {
         return ResponseEntity.ok(alerts);
     }
     
+    /**
+     * Retorna a árvore de localizações com totais agregados
+     * @param depth Profundidade máxima da árvore
+     * @return Lista de localizações de primeiro nível com suas sublocalizações
+     */
+    @GetMapping("/locations")
+    @Operation(
+        summary = "Árvore de localizações",
+        description = "Retorna as localizações derivadas do campo location com totais de dispositivos, online e alertas por nó"
+    )
+    public ResponseEntity<List<LocationNodeDTO>> getLocationTree(
+            @Parameter(description = "Profundidade máxima retornada", example = "3")
+            @RequestParam(defaultValue = "10") int depth) {
+        log.info("Requisição para árvore de localizações");
+        return ResponseEntity.ok(dashboardService.getLocationTree(depth));
+    }
+    
+    /**
+     * Retorna estatísticas agregadas de uma localização
+     * @param path Caminho da localização (ex.: "Prédio A - Andar 2")
+     * @return Estatísticas da localização ou 404 se não encontrada
+     */
+    @GetMapping("/locations/{path}/stats")
+    @Operation(
+        summary = "Estatísticas por localização",
+        description = "Retorna contagens por status, tipo, conectividade e alertas de uma localização e suas sublocalizações"
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Estatísticas retornadas com sucesso",
+        content = @Content(schema = @Schema(implementation = LocationStatsDTO.class))
+    )
+    @ApiResponse(responseCode = "404", description = "Localização não encontrada")
+    public ResponseEntity<LocationStatsDTO> getLocationStats(
+            @Parameter(description = "Caminho da localização", required = true, example = "Prédio A - Andar 2")
+            @PathVariable String path) {
+        log.info("Requisição para estatísticas da localização: {}", path);
+        return dashboardService.getLocationStats(path)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * Estado do rate limiting e do controle de admissão da ingestão
+     * @param limit Quantidade de maiores ofensores retornados
+     * @return Estatísticas de throttling
+     */
+    @GetMapping("/ingestion/throttling")
+    @Operation(
+        summary = "Throttling da ingestão",
+        description = "Retorna heartbeats rejeitados pelo limite por dispositivo, requisições descartadas por sobrecarga e os dispositivos mais limitados"
+    )
+    public ResponseEntity<ThrottlingStatsDTO> getThrottlingStats(
+            @Parameter(description = "Quantidade de maiores ofensores", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        log.info("Requisição para estatísticas de throttling da ingestão");
+        return ResponseEntity.ok(dashboardService.getThrottlingStats(limit));
+    }
+    
+    /**
+     * Dispositivos que mais enviaram heartbeats na janela recente
+     * @param limit Quantidade de dispositivos retornados
+     * @return Maiores emissores em ordem decrescente
+     */
+    @GetMapping("/ingestion/top-talkers")
+    @Operation(
+        summary = "Maiores emissores da ingestão",
+        description = "Retorna os dispositivos com mais heartbeats nos últimos 1 a 2 minutos, estimados com memória fixa (Space-Saving)"
+    )
+    public ResponseEntity<List<TopTalkerDTO>> getTopTalkers(
+            @Parameter(description = "Quantidade de dispositivos", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        log.info("Requisição para maiores emissores da ingestão");
+        return ResponseEntity.ok(dashboardService.getTopTalkers(limit));
+    }
+    
+    /**
+     * Heartbeats por segundo da frota e de cada tipo de dispositivo
+     * @param seconds Tamanho da série em segundos
+     * @return Séries por segundo até o último segundo completo
+     */
+    @GetMapping("/ingestion/rates")
+    @Operation(
+        summary = "Taxa de ingestão por segundo",
+        description = "Retorna a série de heartbeats por segundo da frota (FLEET) e de cada tipo, limitada a ingestion.rates.window-seconds"
+    )
+    public ResponseEntity<List<IngestRateSeriesDTO>> getIngestRates(
+            @Parameter(description = "Tamanho da série em segundos", example = "60")
+            @RequestParam(defaultValue = "60") int seconds) {
+        log.info("Requisição para taxa de ingestão por segundo");
+        return ResponseEntity.ok(dashboardService.getIngestRates(seconds));
+    }
+    
+    /**
+     * Saturação das faixas de execução (ingestão, CRUD e analytics)
+     * @return Métricas de cada bulkhead
+     */
+    @GetMapping("/lanes")
+    @Operation(
+        summary = "Saturação das faixas de execução",
+        description = "Retorna permits em uso, fila, recusas e espera p99 de cada faixa isolada"
+    )
+    public ResponseEntity<List<LaneStatsDTO>> getLaneStats() {
+        log.info("Requisição para saturação das faixas de execução");
+        return ResponseEntity.ok(dashboardService.getLaneStats());
+    }
+    
+    /**
+     * Vazão e atraso das notificações de alerta
+     * @return Fila de entrada e situação de cada destino
+     */
+    @GetMapping("/notifications")
+    @Operation(
+        summary = "Notificações de alerta",
+        description = "Retorna a fila de transições, descartes e, por destino, lotes pendentes, entregas, falhas e atraso da última entrega"
+    )
+    public ResponseEntity<NotificationStatsDTO> getNotificationStats() {
+        log.info("Requisição para estatísticas de notificações");
+        return ResponseEntity.ok(dashboardService.getNotificationStats());
+    }
+    
     /**
      * Health check específico do dashboard
      * @return Status do dashboard
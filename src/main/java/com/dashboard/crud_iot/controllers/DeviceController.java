@@ -1,11 +1,16 @@
 package com.dashboard.crud_iot.controllers;
 
+import com.dashboard.crud_iot.bulkhead.ExecutionLane;
+import com.dashboard.crud_iot.bulkhead.Lane;
 import com.dashboard.crud_iot.dto.DeviceCreateDTO;
 import com.dashboard.crud_iot.dto.DeviceResponseDTO;
 import com.dashboard.crud_iot.dto.DeviceUpdateDTO;
+import com.dashboard.crud_iot.dto.DeviceUptimeDTO;
+import com.dashboard.crud_iot.dto.ReadingSeriesDTO;
 import com.dashboard.crud_iot.enums.DeviceStatus;
 import com.dashboard.crud_iot.enums.DeviceType;
 import com.dashboard.crud_iot.services.DeviceService;
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -17,6 +22,7 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -33,8 +39,14 @@ import java.util.Optional;
 @Slf4j
 @CrossOrigin(origins = "*") // Para permitir requisições do frontend Angular
 @Tag(name = "Dispositivos IoT", description = "APIs para gerenciamento completo de dispositivos IoT")
+@ExecutionLane(Lane.CRUD)
 public class DeviceController {
 
+    private static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+    private static final String PREFER = "Prefer";
+    private static final String RETURN_MINIMAL = "return=minimal";
+    private static final String PREFERENCE_APPLIED = "Preference-Applied";
+
     private final DeviceService deviceService;
 
     /**
@@ -124,6 +136,85 @@ public class DeviceController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Consulta a disponibilidade de um dispositivo
+     * 
+     * @param id     ID do dispositivo
+     * @param window Janela de consulta (ex.: 24h, 7d, 30d)
+     * @return DeviceUptimeDTO, 400 se a janela for inválida ou 404 se o dispositivo não existir
+     */
+    @GetMapping("/{id}/uptime")
+    @Operation(
+        summary = "Consultar uptime do dispositivo",
+        description = "Percentual do tempo em que o dispositivo esteve online na janela, a partir dos "
+                + "intervalos derivados dos heartbeats desde o início do acompanhamento"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Uptime calculado",
+            content = @Content(schema = @Schema(implementation = DeviceUptimeDTO.class))
+        ),
+        @ApiResponse(responseCode = "400", description = "Janela inválida ou maior que a retenção"),
+        @ApiResponse(responseCode = "404", description = "Dispositivo não encontrado")
+    })
+    public ResponseEntity<DeviceUptimeDTO> getDeviceUptime(
+            @Parameter(description = "ID do dispositivo", required = true, example = "1")
+            @PathVariable Long id,
+            @Parameter(description = "Janela de consulta", example = "24h")
+            @RequestParam(defaultValue = "24h") String window) {
+        log.info("Recebida requisição de uptime do dispositivo ID: {}", id);
+        try {
+            return deviceService.getDeviceUptime(id, window)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            log.error("Erro ao consultar uptime: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Consulta a série de leituras numéricas de um dispositivo
+     * 
+     * @param id    ID do dispositivo
+     * @param range Período até agora (ex.: 1h, 24h)
+     * @param step  Passo de cada ponto (ex.: 1m)
+     * @return ReadingSeriesDTO, 400 se range ou step forem inválidos ou 404 se o dispositivo não existir
+     */
+    @GetMapping("/{id}/readings")
+    @Operation(
+        summary = "Consultar leituras do dispositivo",
+        description = "Contagem, mínimo, máximo e média das leituras numéricas em cada passo do período, "
+                + "decodificadas dos blocos comprimidos em memória e em disco"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Série calculada",
+            content = @Content(schema = @Schema(implementation = ReadingSeriesDTO.class))
+        ),
+        @ApiResponse(responseCode = "400", description = "Período ou passo inválido"),
+        @ApiResponse(responseCode = "404", description = "Dispositivo não encontrado")
+    })
+    public ResponseEntity<ReadingSeriesDTO> getDeviceReadings(
+            @Parameter(description = "ID do dispositivo", required = true, example = "1")
+            @PathVariable Long id,
+            @Parameter(description = "Período até agora", example = "1h")
+            @RequestParam(defaultValue = "1h") String range,
+            @Parameter(description = "Passo de cada ponto", example = "1m")
+            @RequestParam(defaultValue = "1m") String step) {
+        log.info("Recebida requisição de leituras do dispositivo ID: {}", id);
+        try {
+            return deviceService.getDeviceReadings(id, range, step)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            log.error("Erro ao consultar leituras: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     /**
      * Busca dispositivos por tipo
      * 
@@ -153,7 +244,7 @@ public class DeviceController {
     /**
      * Busca dispositivos online
      * 
-     * @return Lista de dispositivos que se comunicaram nos últimos 5 minutos
+     * @return Lista de dispositivos que se comunicaram dentro da janela online do seu tipo
      */
     @GetMapping("/online")
     public ResponseEntity<List<DeviceResponseDTO>> getOnlineDevices() {
@@ -165,7 +256,7 @@ public class DeviceController {
     /**
      * Busca dispositivos offline
      * 
-     * @return Lista de dispositivos que não se comunicam há mais de 5 minutos
+     * @return Lista de dispositivos sem comunicação dentro da janela online do seu tipo
      */
     @GetMapping("/offline")
     public ResponseEntity<List<DeviceResponseDTO>> getOfflineDevices() {
@@ -179,7 +270,7 @@ public class DeviceController {
      * 
      * @param id        ID do dispositivo a ser atualizado
      * @param updateDTO Dados para atualização
-     * @return DeviceResponseDTO com os dados atualizados
+     * @return DeviceResponseDTO com os dados atualizados, 404 se não existir, 400 se o nome já existir
      */
     @PutMapping("/{id}")
     public ResponseEntity<DeviceResponseDTO> updateDevice(
@@ -187,11 +278,12 @@ public class DeviceController {
             @Valid @RequestBody DeviceUpdateDTO updateDTO) {
         log.info("Recebida requisição para atualizar dispositivo ID: {}", id);
         try {
-            DeviceResponseDTO device = deviceService.updateDevice(id, updateDTO);
-            return ResponseEntity.ok(device);
+            return deviceService.updateDevice(id, updateDTO)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
         } catch (IllegalArgumentException e) {
             log.error("Erro ao atualizar dispositivo: {}", e.getMessage());
-            return ResponseEntity.notFound().build();
+            return ResponseEntity.badRequest().build();
         }
     }
 
@@ -219,20 +311,66 @@ public class DeviceController {
      * 
      * @param id      ID do dispositivo
      * @param reading Leitura/dados enviados pelo dispositivo (opcional)
-     * @return DeviceResponseDTO com os dados atualizados
+     * @param prefer  Header Prefer; return=minimal dispensa o dispositivo atualizado
+     * @return DeviceResponseDTO com os dados atualizados, ou 204 No Content com return=minimal
      */
     @PatchMapping("/{id}/communication")
+    @ExecutionLane(Lane.INGESTION)
+    @Operation(
+        summary = "Registrar heartbeat",
+        description = "Atualiza a última comunicação com um único UPDATE, sem ler o dispositivo. "
+                + "Devolve o dispositivo (uma consulta a mais); com 'Prefer: return=minimal' responde 204 sem corpo"
+    )
     public ResponseEntity<DeviceResponseDTO> updateLastCommunication(
             @PathVariable Long id,
-            @RequestParam(required = false) String reading) {
+            @RequestParam(required = false) String reading,
+            @RequestHeader(value = PREFER, required = false) String prefer) {
         log.info("Recebida requisição para atualizar comunicação do dispositivo ID: {}", id);
         try {
-            DeviceResponseDTO device = deviceService.updateLastCommunication(id, reading);
-            return ResponseEntity.ok(device);
+            deviceService.updateLastCommunication(id, reading);
         } catch (IllegalArgumentException e) {
             log.error("Erro ao atualizar comunicação: {}", e.getMessage());
             return ResponseEntity.notFound().build();
         }
+        if (prefer != null && prefer.contains(RETURN_MINIMAL)) {
+            return ResponseEntity.noContent()
+                    .header(PREFERENCE_APPLIED, RETURN_MINIMAL)
+                    .build();
+        }
+        return deviceService.getDeviceById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Atualiza parcialmente um dispositivo (JSON merge patch, RFC 7396)
+     * 
+     * @param id    ID do dispositivo
+     * @param patch Campos a alterar; null limpa o campo, campos ausentes não mudam
+     * @return DeviceResponseDTO com os dados atualizados
+     */
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(
+        summary = "Atualizar parcialmente dispositivo IoT",
+        description = "Aplica um JSON merge patch; apenas as colunas alteradas são gravadas"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Dispositivo atualizado"),
+        @ApiResponse(responseCode = "400", description = "Patch inválido ou nome já existente"),
+        @ApiResponse(responseCode = "404", description = "Dispositivo não encontrado")
+    })
+    public ResponseEntity<DeviceResponseDTO> patchDevice(
+            @PathVariable Long id,
+            @RequestBody JsonNode patch) {
+        log.info("Recebida requisição para atualizar parcialmente dispositivo ID: {}", id);
+        try {
+            return deviceService.patchDevice(id, patch)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            log.error("Erro ao atualizar parcialmente dispositivo: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
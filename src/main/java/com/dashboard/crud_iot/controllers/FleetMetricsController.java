@@ -0,0 +1,38 @@
+package com.dashboard.crud_iot.controllers;
+
+import com.dashboard.crud_iot.service.FleetMetricsExporter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Endpoint de coleta do Prometheus com as métricas da frota.
+ * Fica fora de /api: não passa pelas faixas de execução nem pela amostragem de logs.
+ */
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Métricas da frota", description = "Exposição Prometheus das contagens da frota")
+public class FleetMetricsController {
+    
+    private static final MediaType PROMETHEUS_TEXT = MediaType.parseMediaType("text/plain;version=0.0.4;charset=utf-8");
+    
+    private final FleetMetricsExporter fleetMetricsExporter;
+    
+    /**
+     * Métricas da frota no formato texto do Prometheus
+     */
+    @GetMapping("/metrics/fleet")
+    @Operation(
+        summary = "Métricas da frota",
+        description = "Dispositivos por status e tipo, online/offline, nunca comunicados, alertas por severidade e heartbeats por tipo"
+    )
+    public ResponseEntity<String> scrape() {
+        return ResponseEntity.ok()
+                .contentType(PROMETHEUS_TEXT)
+                .body(fleetMetricsExporter.scrape());
+    }
+}
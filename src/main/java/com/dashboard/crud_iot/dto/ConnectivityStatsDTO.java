@@ -34,10 +34,19 @@ public class ConnectivityStatsDTO {
     @Schema(description = "Tempo médio desde última comunicação (em minutos)", example = "45")
     private Double averageTimeSinceLastCommunication;
     
-    @Schema(description = "Percentual de uptime geral", example = "94.5")
+    @Schema(description = "Uptime da frota nas últimas 24 horas (0-100), pelos intervalos online de cada dispositivo", example = "94.5")
     private Double overallUptimePercentage;
     
-    @Schema(description = "Taxa de conectividade (0-100)", example = "87.2")
+    @Schema(description = "Uptime da frota na janela de retenção, 30 dias por padrão (0-100)", example = "99.62")
+    private Double slaUptimePercentage;
+    
+    @Schema(description = "Meta de SLA configurada (0-100)", example = "99.5")
+    private Double slaTarget;
+    
+    @Schema(description = "Indica se o uptime da janela de retenção atinge a meta", example = "true")
+    private Boolean slaMet;
+    
+    @Schema(description = "Percentual de dispositivos online pela janela do seu tipo (0-100)", example = "87.2")
     private Double connectivityRate;
     
     @Schema(description = "Dispositivos com comunicação irregular", example = "12")
@@ -66,7 +66,9 @@ public class DeviceAlertDTO {
         MAINTENANCE_REQUIRED,
         BATTERY_LOW,
         CONFIGURATION_ISSUE,
-        NETWORK_ISSUE
+        NETWORK_ISSUE,
+        THRESHOLD_EXCEEDED,
+        READING_ANOMALY
     }
     
     public enum AlertSeverity {
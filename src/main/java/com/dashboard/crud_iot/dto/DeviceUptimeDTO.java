@@ -0,0 +1,48 @@
+package com.dashboard.crud_iot.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO com a disponibilidade de um dispositivo em uma janela de tempo.
+ * Calculada a partir dos intervalos online derivados dos heartbeats.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Disponibilidade de um dispositivo IoT em uma janela de tempo")
+public class DeviceUptimeDTO {
+    
+    @Schema(description = "ID do dispositivo", example = "1")
+    private Long deviceId;
+    
+    @Schema(description = "Janela consultada", example = "24h")
+    private String window;
+    
+    @Schema(description = "Início da janela", example = "2024-01-14T14:30:00")
+    private LocalDateTime from;
+    
+    @Schema(description = "Fim da janela", example = "2024-01-15T14:30:00")
+    private LocalDateTime to;
+    
+    @Schema(description = "Início do acompanhamento do dispositivo (cadastro ou inicialização da aplicação)", example = "2024-01-10T08:00:00")
+    private LocalDateTime trackedSince;
+    
+    @Schema(description = "Segundos da janela em que o dispositivo foi acompanhado", example = "86400")
+    private Long observedSeconds;
+    
+    @Schema(description = "Segundos online dentro da janela", example = "85320")
+    private Long onlineSeconds;
+    
+    @Schema(description = "Percentual do tempo observado em que o dispositivo esteve online (nulo sem tempo observado)", example = "98.75")
+    private Double uptimePercentage;
+    
+    @Schema(description = "Quedas (intervalos online encerrados por falta de comunicação) na janela", example = "2")
+    private Integer outages;
+}
@@ -0,0 +1,32 @@
+package com.dashboard.crud_iot.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO com a série histórica das contagens da frota, reamostrada no passo pedido.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Série histórica das estatísticas da frota")
+public class FleetStatsHistoryDTO {
+    
+    @Schema(description = "Período consultado", example = "24h")
+    private String range;
+    
+    @Schema(description = "Passo de cada ponto", example = "5m")
+    private String step;
+    
+    @Schema(description = "Intervalo entre capturas (segundos)", example = "60")
+    private long captureIntervalSeconds;
+    
+    @Schema(description = "Pontos do mais antigo ao mais recente; intervalos sem captura são omitidos")
+    private List<FleetStatsPointDTO> points;
+}
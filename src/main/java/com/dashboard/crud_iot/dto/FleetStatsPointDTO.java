@@ -0,0 +1,44 @@
+package com.dashboard.crud_iot.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * DTO com um ponto da série histórica da frota: média das capturas de um intervalo.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Contagens médias da frota em um intervalo da série histórica")
+public class FleetStatsPointDTO {
+    
+    @Schema(description = "Início do intervalo (epoch em segundos)", example = "1760870400")
+    private long epochSecond;
+    
+    @Schema(description = "Capturas agregadas no intervalo", example = "5")
+    private int samples;
+    
+    @Schema(description = "Total de dispositivos", example = "150")
+    private long totalDevices;
+    
+    @Schema(description = "Dispositivos online pela janela do seu tipo", example = "128")
+    private long onlineDevices;
+    
+    @Schema(description = "Dispositivos que nunca se comunicaram", example = "2")
+    private long neverCommunicated;
+    
+    @Schema(description = "Dispositivos por status")
+    private Map<String, Long> statusCounts;
+    
+    @Schema(description = "Dispositivos por tipo")
+    private Map<String, Long> typeCounts;
+    
+    @Schema(description = "Alertas ativos por severidade")
+    private Map<String, Long> alertCounts;
+}
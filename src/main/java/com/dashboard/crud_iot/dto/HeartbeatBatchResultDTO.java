@@ -0,0 +1,33 @@
+package com.dashboard.crud_iot.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO com o resultado do processamento de um lote de heartbeats.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado de um lote de heartbeats")
+public class HeartbeatBatchResultDTO {
+    
+    @Schema(description = "Heartbeats recebidos no lote", example = "500")
+    private Long received;
+    
+    @Schema(description = "Heartbeats aplicados", example = "498")
+    private Long applied;
+    
+    @Schema(description = "Heartbeats de dispositivos inexistentes", example = "2")
+    private Long notFound;
+    
+    @Schema(description = "Heartbeats descartados pelo limite de taxa por dispositivo", example = "0")
+    private Long throttled;
+    
+    @Schema(description = "Heartbeats rejeitados por não informarem deviceId", example = "0")
+    private Long invalid;
+}
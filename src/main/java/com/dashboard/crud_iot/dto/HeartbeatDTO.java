@@ -0,0 +1,24 @@
+package com.dashboard.crud_iot.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO de um heartbeat recebido em lote (uma linha NDJSON por dispositivo).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Comunicação de um dispositivo recebida em lote")
+public class HeartbeatDTO {
+    
+    @Schema(description = "ID do dispositivo", example = "1")
+    private Long deviceId;
+    
+    @Schema(description = "Leitura enviada pelo dispositivo (opcional)", example = "23.5")
+    private String reading;
+}
@@ -0,0 +1,38 @@
+package com.dashboard.crud_iot.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO com a série de heartbeats por segundo da frota ou de um tipo de dispositivo.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Taxa de ingestão por segundo em uma janela recente")
+public class IngestRateSeriesDTO {
+    
+    @Schema(description = "Escopo da série: FLEET ou o tipo de dispositivo", example = "TEMPERATURE_SENSOR")
+    private String scope;
+    
+    @Schema(description = "Média de mensagens por segundo na série", example = "812.5")
+    private double averagePerSecond;
+    
+    @Schema(description = "Maior contagem em um segundo", example = "1024")
+    private long peakPerSecond;
+    
+    @Schema(description = "Total de mensagens na série", example = "48750")
+    private long total;
+    
+    @Schema(description = "Último segundo da série (epoch em segundos, inclusive)", example = "1760870400")
+    private long endEpochSecond;
+    
+    @Schema(description = "Mensagens por segundo, do mais antigo ao mais recente")
+    private List<Long> perSecond;
+}
@@ -0,0 +1,45 @@
+package com.dashboard.crud_iot.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO com a saturação de uma faixa de execução (bulkhead).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Saturação de uma faixa de execução")
+public class LaneStatsDTO {
+    
+    @Schema(description = "Faixa de execução", example = "INGESTION")
+    private String lane;
+    
+    @Schema(description = "Requisições simultâneas permitidas (partição de conexões)", example = "10")
+    private Integer permits;
+    
+    @Schema(description = "Requisições em execução", example = "3")
+    private Integer active;
+    
+    @Schema(description = "Requisições aguardando na fila", example = "0")
+    private Integer queued;
+    
+    @Schema(description = "Limite da fila", example = "200")
+    private Integer maxQueued;
+    
+    @Schema(description = "Percentual dos permits em uso", example = "30.0")
+    private Double saturation;
+    
+    @Schema(description = "Requisições admitidas", example = "15000")
+    private Long admitted;
+    
+    @Schema(description = "Requisições recusadas por fila cheia ou espera excedida", example = "0")
+    private Long rejected;
+    
+    @Schema(description = "Percentil 99 da espera na fila (µs)", example = "128")
+    private Long queueWaitP99Micros;
+}
@@ -0,0 +1,38 @@
+package com.dashboard.crud_iot.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO de um nó da árvore de localizações, usado para navegação (drill-down).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Nó da árvore de localizações")
+public class LocationNodeDTO {
+    
+    @Schema(description = "Nome do segmento da localização", example = "Prédio A")
+    private String name;
+    
+    @Schema(description = "Caminho completo da localização", example = "Prédio A")
+    private String path;
+    
+    @Schema(description = "Total de dispositivos na subárvore", example = "120")
+    private Long totalDevices;
+    
+    @Schema(description = "Dispositivos online na subárvore", example = "104")
+    private Long onlineDevices;
+    
+    @Schema(description = "Alertas ativos na subárvore", example = "6")
+    private Long activeAlerts;
+    
+    @Schema(description = "Sublocalizações (limitadas pela profundidade solicitada)")
+    private List<LocationNodeDTO> children;
+}
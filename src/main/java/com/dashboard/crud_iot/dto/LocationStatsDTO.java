@@ -0,0 +1,62 @@
+package com.dashboard.crud_iot.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO com as estatísticas agregadas de um nó da árvore de localizações.
+ * Os valores incluem todos os dispositivos das sublocalizações.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Estatísticas agregadas de uma localização")
+public class LocationStatsDTO {
+    
+    @Schema(description = "Caminho completo da localização", example = "Prédio A - Andar 2")
+    private String path;
+    
+    @Schema(description = "Nome do segmento da localização", example = "Andar 2")
+    private String name;
+    
+    @Schema(description = "Profundidade na árvore (1 = nível mais alto)", example = "2")
+    private Integer depth;
+    
+    @Schema(description = "Total de dispositivos na localização e sublocalizações", example = "42")
+    private Long totalDevices;
+    
+    @Schema(description = "Dispositivos online", example = "38")
+    private Long onlineDevices;
+    
+    @Schema(description = "Dispositivos offline", example = "4")
+    private Long offlineDevices;
+    
+    @Schema(description = "Percentual de dispositivos online", example = "90.5")
+    private Double onlinePercentage;
+    
+    @Schema(description = "Contagem por status", example = "{\"ACTIVE\": 36, \"ERROR\": 2}")
+    private Map<String, Long> statusCounts;
+    
+    @Schema(description = "Contagem por tipo", example = "{\"TEMPERATURE_SENSOR\": 30, \"TRACKER\": 12}")
+    private Map<String, Long> typeCounts;
+    
+    @Schema(description = "Contagem de alertas por severidade", example = "{\"HIGH\": 2, \"MEDIUM\": 1}")
+    private Map<String, Long> alertCounts;
+    
+    @Schema(description = "Número de alertas ativos", example = "3")
+    private Long activeAlerts;
+    
+    @Schema(description = "Nomes das sublocalizações diretas", example = "[\"Sala A1\", \"Sala A2\"]")
+    private List<String> children;
+    
+    @Schema(description = "Data e hora da consulta", example = "2024-01-15T14:30:00")
+    private LocalDateTime lastUpdated;
+}
@@ -0,0 +1,54 @@
+package com.dashboard.crud_iot.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO com a vazão, as falhas e o atraso de um destino de notificações.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Estado de um destino de notificações")
+public class NotificationDestinationStatsDTO {
+    
+    @Schema(description = "Nome do destino", example = "ops-webhook")
+    private String name;
+    
+    @Schema(description = "Transições aguardando na fila do destino", example = "0")
+    private Integer queued;
+    
+    @Schema(description = "Transições descartadas com a fila do destino cheia", example = "0")
+    private Long dropped;
+    
+    @Schema(description = "Transições acumulando no lote atual", example = "230")
+    private Integer accumulating;
+    
+    @Schema(description = "Lotes no outbox aguardando envio ou nova tentativa", example = "1")
+    private Integer pendingBatches;
+    
+    @Schema(description = "Lotes mesclados ao lote em espera enquanto o destino falhava", example = "0")
+    private Long mergedBatches;
+    
+    @Schema(description = "Lotes entregues", example = "42")
+    private Long deliveredBatches;
+    
+    @Schema(description = "Transições entregues (antes do agrupamento)", example = "1500")
+    private Long deliveredTransitions;
+    
+    @Schema(description = "Tentativas de envio com falha", example = "3")
+    private Long failedAttempts;
+    
+    @Schema(description = "Lotes descartados após esgotar as tentativas", example = "0")
+    private Long deadLettered;
+    
+    @Schema(description = "Atraso entre a transição mais antiga e a entrega do último lote (ms)", example = "5120")
+    private Long lastDeliveryLagMillis;
+    
+    @Schema(description = "Último erro de envio", example = "HTTP 503")
+    private String lastError;
+}
@@ -0,0 +1,38 @@
+package com.dashboard.crud_iot.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO com a vazão e o atraso do envio de notificações de alerta.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Estado do envio de notificações de alerta")
+public class NotificationStatsDTO {
+    
+    @Schema(description = "Transições de alerta aguardando nas filas dos destinos", example = "0")
+    private Integer queued;
+    
+    @Schema(description = "Capacidade da fila de cada destino", example = "10000")
+    private Integer queueCapacity;
+    
+    @Schema(description = "Idade da transição mais antiga nas filas (ms)", example = "12")
+    private Long queueLagMillis;
+    
+    @Schema(description = "Transições recebidas", example = "1520")
+    private Long received;
+    
+    @Schema(description = "Transições descartadas por fila cheia, somando os destinos", example = "0")
+    private Long dropped;
+    
+    @Schema(description = "Estado de cada destino")
+    private List<NotificationDestinationStatsDTO> destinations;
+}
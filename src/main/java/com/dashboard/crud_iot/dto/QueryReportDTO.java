@@ -0,0 +1,32 @@
+package com.dashboard.crud_iot.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO com as estatísticas de acesso ao banco por método e as consultas lentas recentes.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Estatísticas de acesso ao banco")
+public class QueryReportDTO {
+    
+    @Schema(description = "Limite a partir do qual a chamada é registrada como lenta (ms)", example = "50")
+    private Long slowThresholdMs;
+    
+    @Schema(description = "Consultas lentas registradas desde o início (o buffer guarda só as mais recentes)", example = "37")
+    private Long slowQueriesRecorded;
+    
+    @Schema(description = "Estatísticas por método, maior tempo total primeiro")
+    private List<QueryStatsDTO> methods;
+    
+    @Schema(description = "Consultas lentas do buffer, mais lentas primeiro")
+    private List<SlowQueryDTO> slowest;
+}
@@ -0,0 +1,45 @@
+package com.dashboard.crud_iot.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO com latência e volume de um método de repositório.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Latência e volume de um método de repositório")
+public class QueryStatsDTO {
+    
+    @Schema(description = "Repositório e método", example = "DeviceRepository.findAll")
+    private String method;
+    
+    @Schema(description = "Chamadas", example = "1200")
+    private Long calls;
+    
+    @Schema(description = "Chamadas que lançaram exceção", example = "0")
+    private Long errors;
+    
+    @Schema(description = "Linhas retornadas ou atualizadas", example = "120000")
+    private Long rows;
+    
+    @Schema(description = "Média de linhas por chamada", example = "100.0")
+    private Double avgRows;
+    
+    @Schema(description = "Tempo total gasto no método (ms)", example = "5400")
+    private Long totalMillis;
+    
+    @Schema(description = "Percentil 50 da latência (µs)", example = "2048")
+    private Long p50Micros;
+    
+    @Schema(description = "Percentil 99 da latência (µs)", example = "16384")
+    private Long p99Micros;
+    
+    @Schema(description = "Maior latência observada (µs)", example = "25310")
+    private Long maxMicros;
+}
@@ -0,0 +1,35 @@
+package com.dashboard.crud_iot.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO com as leituras de um dispositivo agregadas em um passo da série.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Leituras numéricas de um dispositivo agregadas em um intervalo")
+public class ReadingPointDTO {
+    
+    @Schema(description = "Início do intervalo", example = "2024-01-15T14:30:00")
+    private LocalDateTime timestamp;
+    
+    @Schema(description = "Leituras no intervalo", example = "12")
+    private long count;
+    
+    @Schema(description = "Menor leitura", example = "22.1")
+    private double min;
+    
+    @Schema(description = "Maior leitura", example = "23.4")
+    private double max;
+    
+    @Schema(description = "Média das leituras", example = "22.7")
+    private double avg;
+}
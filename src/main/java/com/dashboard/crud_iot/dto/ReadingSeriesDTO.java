@@ -0,0 +1,48 @@
+package com.dashboard.crud_iot.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO com a série das leituras numéricas de um dispositivo, agregada no passo pedido.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Série das leituras numéricas de um dispositivo IoT")
+public class ReadingSeriesDTO {
+    
+    @Schema(description = "ID do dispositivo", example = "1")
+    private Long deviceId;
+    
+    @Schema(description = "Período consultado", example = "1h")
+    private String range;
+    
+    @Schema(description = "Passo de cada ponto", example = "1m")
+    private String step;
+    
+    @Schema(description = "Início do período", example = "2024-01-15T13:30:00")
+    private LocalDateTime from;
+    
+    @Schema(description = "Fim do período", example = "2024-01-15T14:30:00")
+    private LocalDateTime to;
+    
+    @Schema(description = "Leituras no período", example = "720")
+    private long totalPoints;
+    
+    @Schema(description = "Leituras guardadas do dispositivo, em memória e em disco", example = "20160")
+    private long storedPoints;
+    
+    @Schema(description = "Bytes comprimidos por leitura guardada", example = "1.9")
+    private double bytesPerPoint;
+    
+    @Schema(description = "Pontos do mais antigo ao mais recente; intervalos sem leitura são omitidos")
+    private List<ReadingPointDTO> points;
+}
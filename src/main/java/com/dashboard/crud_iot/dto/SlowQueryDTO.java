@@ -0,0 +1,38 @@
+package com.dashboard.crud_iot.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO de uma chamada de repositório acima do limite de consulta lenta.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Chamada de repositório acima do limite de consulta lenta")
+public class SlowQueryDTO {
+    
+    @Schema(description = "Repositório e método", example = "DeviceRepository.findAllById")
+    private String method;
+    
+    @Schema(description = "Tipos e tamanhos dos parâmetros", example = "(ArrayList[500])")
+    private String parameterShape;
+    
+    @Schema(description = "Latência (µs)", example = "84210")
+    private Long durationMicros;
+    
+    @Schema(description = "Linhas retornadas ou atualizadas", example = "500")
+    private Long rows;
+    
+    @Schema(description = "Se a chamada lançou exceção", example = "false")
+    private Boolean failed;
+    
+    @Schema(description = "Momento da chamada")
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,27 @@
+package com.dashboard.crud_iot.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO com as rejeições de heartbeat de um dispositivo pelo limite de taxa.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Dispositivo com heartbeats rejeitados pelo limite de taxa")
+public class ThrottledDeviceDTO {
+    
+    @Schema(description = "ID do dispositivo", example = "42")
+    private Long deviceId;
+    
+    @Schema(description = "Nome do dispositivo", example = "Sensor de Temperatura 01")
+    private String deviceName;
+    
+    @Schema(description = "Heartbeats rejeitados", example = "1200")
+    private long rejectedHeartbeats;
+}
@@ -0,0 +1,41 @@
+package com.dashboard.crud_iot.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO com o estado do rate limiting e do controle de admissão da ingestão.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Estatísticas de rate limiting e controle de admissão")
+public class ThrottlingStatsDTO {
+    
+    @Schema(description = "Heartbeats aceitos pelo limite por dispositivo", example = "150000")
+    private Long allowedHeartbeats;
+    
+    @Schema(description = "Heartbeats rejeitados pelo limite por dispositivo", example = "320")
+    private Long throttledHeartbeats;
+    
+    @Schema(description = "Requisições descartadas pelo controle de admissão", example = "0")
+    private Long shedRequests;
+    
+    @Schema(description = "Dispositivos sem token disponível neste momento", example = "3")
+    private Long devicesThrottledNow;
+    
+    @Schema(description = "Indica se a ingestão está em sobrecarga", example = "false")
+    private Boolean overloaded;
+    
+    @Schema(description = "Menor latência de ingestão do último intervalo (ms)", example = "4.2")
+    private Double queueLatencyMs;
+    
+    @Schema(description = "Dispositivos com mais heartbeats rejeitados")
+    private List<ThrottledDeviceDTO> topOffenders;
+}
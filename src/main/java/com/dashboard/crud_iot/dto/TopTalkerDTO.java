@@ -0,0 +1,36 @@
+package com.dashboard.crud_iot.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO com o volume de heartbeats de um dos dispositivos que mais enviam mensagens.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Dispositivo entre os maiores emissores de heartbeats na janela recente")
+public class TopTalkerDTO {
+    
+    @Schema(description = "ID do dispositivo", example = "42")
+    private Long deviceId;
+    
+    @Schema(description = "Nome do dispositivo", example = "Sensor de Temperatura 01")
+    private String deviceName;
+    
+    @Schema(description = "Tipo do dispositivo", example = "TEMPERATURE_SENSOR")
+    private String deviceType;
+    
+    @Schema(description = "Heartbeats estimados na janela (podem superestimar o real em até maxOverestimate)", example = "3600")
+    private long messages;
+    
+    @Schema(description = "Erro máximo da estimativa (sketch Space-Saving)", example = "12")
+    private long maxOverestimate;
+    
+    @Schema(description = "Taxa média na janela, em mensagens por segundo", example = "30.0")
+    private double messagesPerSecond;
+}
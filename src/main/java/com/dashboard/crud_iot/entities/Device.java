@@ -11,6 +11,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
@@ -19,9 +20,14 @@ import java.time.LocalDateTime;
  * Entidade que representa um dispositivo IoT no sistema.
  * Contém todas as informações necessárias para gerenciar dispositivos
  * em uma plataforma de monitoramento e rastreamento.
+ * Atualizações escrevem apenas as colunas alteradas (@DynamicUpdate).
+ * O índice (status, device_type, last_communication) atende a varredura de dispositivos atrasados.
+ * Se está online depende do tipo: ver DeviceReportIntervals.
  */
 @Entity
-@Table(name = "devices")
+@Table(name = "devices", indexes = @Index(name = "idx_devices_status_type_communication",
+        columnList = "status, device_type, last_communication"))
+@DynamicUpdate
 @Data
 @Builder
 @NoArgsConstructor
@@ -124,17 +130,6 @@ public class Device {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
     
-    /**
-     * Método utilitário para verificar se o dispositivo está online
-     * Considera online se a última comunicação foi há menos de 5 minutos
-     */
-    public boolean isOnline() {
-        if (lastCommunication == null) {
-            return false;
-        }
-        return lastCommunication.isAfter(LocalDateTime.now().minusMinutes(5));
-    }
-    
     /**
      * Método utilitário para atualizar a última comunicação para agora
      */
@@ -0,0 +1,18 @@
+package com.dashboard.crud_iot.events;
+
+import com.dashboard.crud_iot.dto.DeviceAlertDTO;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Evento publicado pelo LocationIndex quando o alerta de um dispositivo muda.
+ * {@code resolved} indica que o alerta deixou de valer; nesse caso {@code alert}
+ * descreve o alerta encerrado.
+ */
+@Getter
+@RequiredArgsConstructor
+public class DeviceAlertTransitionEvent {
+    
+    private final DeviceAlertDTO alert;
+    private final boolean resolved;
+}
@@ -0,0 +1,24 @@
+package com.dashboard.crud_iot.events;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Evento publicado quando um dispositivo é criado, alterado ou removido.
+ * {@code before} é nulo na criação e {@code after} é nulo na remoção.
+ */
+@Getter
+@RequiredArgsConstructor
+public class DeviceChangedEvent {
+    
+    private final DeviceSnapshot before;
+    private final DeviceSnapshot after;
+    
+    public boolean isCreation() {
+        return before == null;
+    }
+    
+    public boolean isRemoval() {
+        return after == null;
+    }
+}
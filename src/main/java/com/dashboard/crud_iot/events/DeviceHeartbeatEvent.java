@@ -0,0 +1,20 @@
+package com.dashboard.crud_iot.events;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento publicado a cada comunicação (heartbeat) recebida de um dispositivo.
+ * Carrega apenas o necessário para atualizar os índices em memória,
+ * sem exigir a leitura da entidade completa.
+ */
+@Getter
+@RequiredArgsConstructor
+public class DeviceHeartbeatEvent {
+    
+    private final Long deviceId;
+    private final LocalDateTime communicationTime;
+    private final String reading;
+}
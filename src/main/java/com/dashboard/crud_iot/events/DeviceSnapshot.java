@@ -0,0 +1,45 @@
+package com.dashboard.crud_iot.events;
+
+import com.dashboard.crud_iot.entities.Device;
+import com.dashboard.crud_iot.enums.DeviceStatus;
+import com.dashboard.crud_iot.enums.DeviceType;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cópia imutável do estado relevante de um dispositivo no momento de uma alteração.
+ * Permite que os índices em memória sejam mantidos sem reler a entidade do banco.
+ */
+@Value
+@Builder(toBuilder = true)
+public class DeviceSnapshot {
+    
+    Long id;
+    String deviceName;
+    String deviceIdentifier;
+    DeviceType deviceType;
+    DeviceStatus status;
+    String location;
+    String lastReading;
+    LocalDateTime lastCommunication;
+    
+    /**
+     * Cria um snapshot a partir da entidade
+     * @param device Entidade de origem
+     * @return Snapshot com os campos atuais da entidade
+     */
+    public static DeviceSnapshot of(Device device) {
+        return DeviceSnapshot.builder()
+                .id(device.getId())
+                .deviceName(device.getDeviceName())
+                .deviceIdentifier(device.getDeviceIdentifier())
+                .deviceType(device.getDeviceType())
+                .status(device.getStatus())
+                .location(device.getLocation())
+                .lastReading(device.getLastReading())
+                .lastCommunication(device.getLastCommunication())
+                .build();
+    }
+}
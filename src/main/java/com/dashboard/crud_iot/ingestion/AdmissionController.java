@@ -0,0 +1,120 @@
+package com.dashboard.crud_iot.ingestion;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Controle de admissão global da ingestão, no estilo CoDel.
+ * 
+ * A cada intervalo observa a menor latência de ingestão medida; se nem a melhor
+ * requisição do intervalo ficou abaixo do alvo, há fila persistente (pool de conexões
+ * ou banco saturados) e o próximo intervalo passa a rejeitar novas requisições,
+ * deixando passar apenas uma fração como sonda para detectar a recuperação.
+ */
+@Component
+public class AdmissionController {
+    
+    private static final long NO_SAMPLE = Long.MAX_VALUE;
+    
+    private final boolean enabled;
+    private final long targetNanos;
+    private final long intervalNanos;
+    private final int probeEvery;
+    
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicLong windowMinLatency = new AtomicLong(NO_SAMPLE);
+    private final AtomicLong probeCounter = new AtomicLong();
+    private final LongAdder shed = new LongAdder();
+    private volatile boolean overloaded;
+    private volatile long lastWindowMinLatency;
+    
+    public AdmissionController(@Value("${ingestion.admission.enabled:true}") boolean enabled,
+                               @Value("${ingestion.admission.target-latency-ms:100}") long targetLatencyMs,
+                               @Value("${ingestion.admission.interval-ms:500}") long intervalMs,
+                               @Value("${ingestion.admission.probe-every:10}") int probeEvery) {
+        this.enabled = enabled;
+        this.targetNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMs);
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+        this.probeEvery = Math.max(1, probeEvery);
+    }
+    
+    /**
+     * Decide se uma nova requisição de ingestão deve ser aceita
+     * @return true se admitida; caso contrário responder 429 com getRetryAfterSeconds()
+     */
+    public boolean tryAdmit() {
+        return tryAdmit(System.nanoTime());
+    }
+    
+    /**
+     * Decide a admissão no instante informado
+     * @param now Leitura de System.nanoTime()
+     */
+    boolean tryAdmit(long now) {
+        if (!enabled) {
+            return true;
+        }
+        closeWindowIfElapsed(now);
+        if (!overloaded || probeCounter.incrementAndGet() % probeEvery == 0) {
+            return true;
+        }
+        shed.increment();
+        return false;
+    }
+    
+    /**
+     * Registra a latência de uma requisição (ou lote) de ingestão já concluída
+     */
+    public void recordLatency(long latencyNanos) {
+        recordLatency(latencyNanos, System.nanoTime());
+    }
+    
+    void recordLatency(long latencyNanos, long now) {
+        if (!enabled) {
+            return;
+        }
+        long current;
+        do {
+            current = windowMinLatency.get();
+        } while (latencyNanos < current && !windowMinLatency.compareAndSet(current, latencyNanos));
+        closeWindowIfElapsed(now);
+    }
+    
+    private void closeWindowIfElapsed(long now) {
+        long start = windowStart.get();
+        if (now - start < intervalNanos || !windowStart.compareAndSet(start, now)) {
+            return;
+        }
+        long minLatency = windowMinLatency.getAndSet(NO_SAMPLE);
+        // Intervalo sem amostras: nada indica fila, volta a admitir normalmente
+        overloaded = minLatency != NO_SAMPLE && minLatency > targetNanos;
+        lastWindowMinLatency = minLatency == NO_SAMPLE ? 0 : minLatency;
+    }
+    
+    public boolean isOverloaded() {
+        return overloaded;
+    }
+    
+    public long getShedCount() {
+        return shed.sum();
+    }
+    
+    public double getLastWindowMinLatencyMs() {
+        return lastWindowMinLatency / 1_000_000.0;
+    }
+    
+    public long getRetryAfterSeconds() {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(intervalNanos + 999_999_999L));
+    }
+    
+    /**
+     * Converte a espera do rate limiter em segundos para o header Retry-After
+     */
+    public static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+    }
+}
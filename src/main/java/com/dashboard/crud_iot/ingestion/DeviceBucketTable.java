@@ -0,0 +1,65 @@
+package com.dashboard.crud_iot.ingestion;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tabela hash de endereçamento aberto, sem locks e sem boxing, com o estado dos
+ * buckets de cada dispositivo.
+ * 
+ * As chaves são inseridas por CAS e nunca removidas individualmente; o
+ * DeviceRateLimiter substitui a tabela inteira quando ela enche de entradas ociosas.
+ */
+final class DeviceBucketTable {
+    
+    static final int NOT_FOUND = -1;
+    private static final int MAX_PROBES = 64;
+    
+    final AtomicLongArray keys;
+    final AtomicLongArray theoreticalArrivals;
+    final AtomicLongArray rejected;
+    private final int mask;
+    private final AtomicInteger size = new AtomicInteger();
+    
+    DeviceBucketTable(int capacity) {
+        int slots = Integer.highestOneBit(Math.max(16, capacity - 1)) << 1;
+        this.keys = new AtomicLongArray(slots);
+        this.theoreticalArrivals = new AtomicLongArray(slots);
+        this.rejected = new AtomicLongArray(slots);
+        this.mask = slots - 1;
+    }
+    
+    /**
+     * Localiza (ou cria) o slot do dispositivo
+     * @param deviceId ID positivo do dispositivo
+     * @return Índice do slot ou NOT_FOUND se a tabela estiver saturada
+     */
+    int slotOf(long deviceId) {
+        int index = DeviceIdHash.mix(deviceId) & mask;
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            long key = keys.get(index);
+            if (key == deviceId) {
+                return index;
+            }
+            if (key == 0) {
+                if (keys.compareAndSet(index, 0, deviceId)) {
+                    size.incrementAndGet();
+                    return index;
+                }
+                if (keys.get(index) == deviceId) {
+                    return index;
+                }
+            }
+            index = (index + 1) & mask;
+        }
+        return NOT_FOUND;
+    }
+    
+    int size() {
+        return size.get();
+    }
+    
+    int capacity() {
+        return keys.length();
+    }
+}
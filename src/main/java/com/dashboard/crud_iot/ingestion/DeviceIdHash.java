@@ -0,0 +1,19 @@
+package com.dashboard.crud_iot.ingestion;
+
+/**
+ * Espalhamento dos IDs de dispositivo para as tabelas de endereçamento aberto e stripes.
+ *
+ * IDs sequenciais caem em posições vizinhas se usados direto; a multiplicação pela
+ * constante de Fibonacci (2^64 / φ) seguida da dobra das metades espalha os bits
+ * baixos e os altos do resultado.
+ */
+public final class DeviceIdHash {
+    
+    private DeviceIdHash() {
+    }
+    
+    public static int mix(long deviceId) {
+        long h = deviceId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
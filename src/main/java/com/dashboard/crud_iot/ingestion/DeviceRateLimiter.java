@@ -0,0 +1,194 @@
+package com.dashboard.crud_iot.ingestion;
+
+import com.dashboard.crud_iot.dto.ThrottledDeviceDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limitador de taxa por dispositivo (token bucket) sem locks.
+ * 
+ * Cada bucket é implementado como GCRA: um único long com o "instante teórico de
+ * chegada" atualizado por CAS, equivalente a um token bucket com a taxa e a rajada
+ * configuradas. O estado fica em arrays primitivos (DeviceBucketTable), de modo que
+ * verificar um heartbeat não aloca memória, inclusive no listener de telemetria.
+ */
+@Component
+@Slf4j
+public class DeviceRateLimiter {
+    
+    private final boolean enabled;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final int capacity;
+    private final long origin = System.nanoTime();
+    
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder untracked = new LongAdder();
+    private volatile DeviceBucketTable table;
+    
+    public DeviceRateLimiter(@Value("${ingestion.rate-limit.enabled:true}") boolean enabled,
+                             @Value("${ingestion.rate-limit.per-device-per-second:1.0}") double ratePerSecond,
+                             @Value("${ingestion.rate-limit.burst:10}") int burst,
+                             @Value("${ingestion.rate-limit.capacity:131072}") int capacity) {
+        this.enabled = enabled;
+        this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * burst;
+        this.capacity = capacity;
+        this.table = new DeviceBucketTable(capacity);
+    }
+    
+    /**
+     * Consome um token do dispositivo
+     * @param deviceId ID do dispositivo
+     * @return 0 se permitido, ou os nanossegundos até o próximo token disponível
+     */
+    public long tryAcquire(long deviceId) {
+        return tryAcquire(deviceId, System.nanoTime());
+    }
+    
+    /**
+     * Consome um token do dispositivo no instante informado
+     * @param nanoTime Leitura de System.nanoTime()
+     */
+    long tryAcquire(long deviceId, long nanoTime) {
+        if (!enabled || deviceId <= 0) {
+            return 0;
+        }
+        DeviceBucketTable current = table;
+        int slot = current.slotOf(deviceId);
+        if (slot == DeviceBucketTable.NOT_FOUND) {
+            // Tabela saturada: prefere aceitar a rejeitar dispositivos legítimos
+            untracked.increment();
+            return 0;
+        }
+        long now = nanoTime - origin + 1;
+        while (true) {
+            long arrival = current.theoreticalArrivals.get(slot);
+            long next = Math.max(arrival, now) + emissionIntervalNanos;
+            long allowedAt = next - burstToleranceNanos;
+            if (allowedAt > now) {
+                current.rejected.incrementAndGet(slot);
+                throttled.increment();
+                return allowedAt - now;
+            }
+            if (current.theoreticalArrivals.compareAndSet(slot, arrival, next)) {
+                allowed.increment();
+                return 0;
+            }
+        }
+    }
+    
+    public long getAllowedCount() {
+        return allowed.sum();
+    }
+    
+    public long getThrottledCount() {
+        return throttled.sum();
+    }
+    
+    /**
+     * Dispositivos que neste momento não têm token disponível
+     */
+    public long countThrottledDevices() {
+        return countThrottledDevices(System.nanoTime());
+    }
+    
+    long countThrottledDevices(long nanoTime) {
+        DeviceBucketTable current = table;
+        long now = nanoTime - origin + 1;
+        long count = 0;
+        for (int i = 0; i < current.capacity(); i++) {
+            if (current.keys.get(i) != 0
+                    && current.theoreticalArrivals.get(i) + emissionIntervalNanos - burstToleranceNanos > now) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Dispositivos com mais heartbeats rejeitados desde que entraram na tabela
+     * @param limit Quantidade máxima retornada
+     */
+    public List<ThrottledDeviceDTO> getTopOffenders(int limit) {
+        DeviceBucketTable current = table;
+        PriorityQueue<ThrottledDeviceDTO> top = new PriorityQueue<>(
+                Comparator.comparingLong(ThrottledDeviceDTO::getRejectedHeartbeats));
+        for (int i = 0; i < current.capacity(); i++) {
+            long rejectedCount = current.rejected.get(i);
+            if (rejectedCount == 0) {
+                continue;
+            }
+            if (top.size() < limit || rejectedCount > top.peek().getRejectedHeartbeats()) {
+                top.offer(ThrottledDeviceDTO.builder()
+                        .deviceId(current.keys.get(i))
+                        .rejectedHeartbeats(rejectedCount)
+                        .build());
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+        List<ThrottledDeviceDTO> result = new ArrayList<>(top);
+        result.sort(Comparator.comparingLong(ThrottledDeviceDTO::getRejectedHeartbeats).reversed());
+        return result;
+    }
+    
+    /**
+     * Recria a tabela quando ela passa de 75% de ocupação, mantendo apenas os
+     * dispositivos cujo instante teórico de chegada ainda está no futuro (tokens em
+     * débito); o contador de rejeições é levado junto apenas para esses. Buckets
+     * ociosos equivalem a buckets cheios, então descartá-los não altera o limite aplicado.
+     * 
+     * Heartbeats que atualizam a tabela antiga durante a cópia são recuperados por uma
+     * segunda passada depois da troca, que leva para a nova o maior instante de chegada
+     * de cada dispositivo. Fica de fora apenas o CAS de uma thread que leu a referência
+     * antiga antes da troca e só o concluiu depois da segunda passada: no máximo um
+     * heartbeat por thread em andamento deixa de ser debitado, o que é aceito.
+     */
+    @Scheduled(fixedDelayString = "${ingestion.rate-limit.compaction-interval-ms:60000}")
+    public void compact() {
+        compact(System.nanoTime());
+    }
+    
+    void compact(long nanoTime) {
+        DeviceBucketTable current = table;
+        if (current.size() < current.capacity() * 3L / 4) {
+            return;
+        }
+        long now = nanoTime - origin + 1;
+        DeviceBucketTable compacted = new DeviceBucketTable(capacity);
+        copyInDebt(current, compacted, now);
+        table = compacted;
+        copyInDebt(current, compacted, now);
+        log.info("Tabela de rate limiting compactada: {} -> {} dispositivos", current.size(), compacted.size());
+    }
+    
+    /**
+     * Leva para target os dispositivos de source com tokens em débito, mantendo em cada
+     * slot o maior instante de chegada e a maior contagem de rejeições
+     */
+    private static void copyInDebt(DeviceBucketTable source, DeviceBucketTable target, long now) {
+        for (int i = 0; i < source.capacity(); i++) {
+            long key = source.keys.get(i);
+            long arrival = source.theoreticalArrivals.get(i);
+            if (key != 0 && arrival > now) {
+                int slot = target.slotOf(key);
+                if (slot != DeviceBucketTable.NOT_FOUND) {
+                    target.theoreticalArrivals.accumulateAndGet(slot, arrival, Math::max);
+                    target.rejected.accumulateAndGet(slot, source.rejected.get(i), Math::max);
+                }
+            }
+        }
+    }
+}
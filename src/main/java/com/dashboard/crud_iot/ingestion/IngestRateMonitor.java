@@ -0,0 +1,138 @@
+package com.dashboard.crud_iot.ingestion;
+
+import com.dashboard.crud_iot.dto.IngestRateSeriesDTO;
+import com.dashboard.crud_iot.dto.TopTalkerDTO;
+import com.dashboard.crud_iot.enums.DeviceType;
+import com.dashboard.crud_iot.events.DeviceHeartbeatEvent;
+import com.dashboard.crud_iot.service.LocationIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Taxas de ingestão por segundo (frota e por tipo) e maiores emissores por dispositivo.
+ *
+ * Alimentado pelos heartbeats aplicados nos caminhos HTTP, reativo e de telemetria.
+ * As taxas ficam em janelas deslizantes de buckets por segundo sem locks e os maiores
+ * emissores em um sketch Space-Saving, de modo que a memória usada não depende do
+ * tamanho da frota. O sketch é rotacionado a cada janela e a consulta soma a janela
+ * anterior com a atual, cobrindo sempre entre uma e duas janelas de tráfego recente.
+ */
+@Component
+public class IngestRateMonitor {
+    
+    private static final int STRIPES = 16;
+    
+    private final LocationIndex locationIndex;
+    private final int sketchCapacity;
+    private final SlidingWindowCounter fleet;
+    private final SlidingWindowCounter[] byType = new SlidingWindowCounter[DeviceType.values().length];
+    
+    private volatile SpaceSavingSketch currentTalkers;
+    private volatile SpaceSavingSketch previousTalkers;
+    private volatile long currentSince = System.currentTimeMillis();
+    private volatile long previousSince;
+    
+    public IngestRateMonitor(LocationIndex locationIndex,
+                             @Value("${ingestion.rates.window-seconds:300}") int windowSeconds,
+                             @Value("${ingestion.rates.top-talkers-capacity:1024}") int sketchCapacity) {
+        this.locationIndex = locationIndex;
+        this.sketchCapacity = sketchCapacity;
+        this.fleet = new SlidingWindowCounter(windowSeconds);
+        Arrays.setAll(byType, type -> new SlidingWindowCounter(windowSeconds));
+        this.currentTalkers = new SpaceSavingSketch(sketchCapacity, STRIPES);
+    }
+    
+    @EventListener
+    public void onHeartbeat(DeviceHeartbeatEvent event) {
+        long second = System.currentTimeMillis() / 1000;
+        fleet.increment(second);
+        DeviceType type = locationIndex.typeOf(event.getDeviceId());
+        if (type != null) {
+            byType[type.ordinal()].increment(second);
+        }
+        currentTalkers.offer(event.getDeviceId());
+    }
+    
+    /**
+     * Inicia uma nova janela do sketch de maiores emissores, mantendo a anterior para consulta
+     */
+    @Scheduled(fixedRateString = "${ingestion.rates.top-talkers-window-ms:60000}",
+               initialDelayString = "${ingestion.rates.top-talkers-window-ms:60000}")
+    public void rotateTopTalkers() {
+        previousSince = currentSince;
+        previousTalkers = currentTalkers;
+        currentSince = System.currentTimeMillis();
+        currentTalkers = new SpaceSavingSketch(sketchCapacity, STRIPES);
+    }
+    
+    /**
+     * Dispositivos com mais heartbeats na janela recente
+     * @param limit Quantidade máxima retornada
+     * @return Emissores em ordem decrescente, ainda sem nome
+     */
+    public List<TopTalkerDTO> getTopTalkers(int limit) {
+        SpaceSavingSketch.Counts counts = new SpaceSavingSketch.Counts();
+        SpaceSavingSketch previous = previousTalkers;
+        long since = currentSince;
+        if (previous != null) {
+            previous.collectInto(counts);
+            since = previousSince;
+        }
+        currentTalkers.collectInto(counts);
+        double elapsedSeconds = Math.max(1.0, (System.currentTimeMillis() - since) / 1000.0);
+        
+        List<TopTalkerDTO> result = new ArrayList<>();
+        for (long[] entry : counts.top(limit)) {
+            DeviceType type = locationIndex.typeOf(entry[0]);
+            result.add(TopTalkerDTO.builder()
+                    .deviceId(entry[0])
+                    .deviceType(type != null ? type.name() : null)
+                    .messages(entry[1])
+                    .maxOverestimate(entry[2])
+                    .messagesPerSecond(entry[1] / elapsedSeconds)
+                    .build());
+        }
+        return result;
+    }
+    
+    /**
+     * Séries por segundo da frota e de cada tipo, até o último segundo completo
+     * @param seconds Tamanho da série, limitado à janela configurada
+     * @return Série da frota seguida das séries por tipo
+     */
+    public List<IngestRateSeriesDTO> getRates(int seconds) {
+        long lastSecond = System.currentTimeMillis() / 1000 - 1;
+        int length = Math.max(1, seconds);
+        List<IngestRateSeriesDTO> result = new ArrayList<>();
+        result.add(toSeries("FLEET", fleet, lastSecond, length));
+        for (DeviceType type : DeviceType.values()) {
+            result.add(toSeries(type.name(), byType[type.ordinal()], lastSecond, length));
+        }
+        return result;
+    }
+    
+    private static IngestRateSeriesDTO toSeries(String scope, SlidingWindowCounter counter,
+                                                long lastSecond, int length) {
+        long[] series = counter.series(lastSecond, length);
+        long total = 0;
+        long peak = 0;
+        for (long count : series) {
+            total += count;
+            peak = Math.max(peak, count);
+        }
+        return IngestRateSeriesDTO.builder()
+                .scope(scope)
+                .averagePerSecond((double) total / series.length)
+                .peakPerSecond(peak)
+                .total(total)
+                .endEpochSecond(lastSecond)
+                .perSecond(Arrays.stream(series).boxed().toList())
+                .build();
+    }
+}
@@ -0,0 +1,64 @@
+package com.dashboard.crud_iot.ingestion;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Aplica o controle de admissão e o limite por dispositivo antes do endpoint
+ * PATCH /api/devices/{id}/communication, respondendo 429 com Retry-After.
+ */
+@Component
+@RequiredArgsConstructor
+public class IngestionAdmissionInterceptor implements HandlerInterceptor {
+    
+    private static final String START_ATTRIBUTE = IngestionAdmissionInterceptor.class.getName() + ".start";
+    
+    private final AdmissionController admissionController;
+    private final DeviceRateLimiter rateLimiter;
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!admissionController.tryAdmit()) {
+            return reject(response, admissionController.getRetryAfterSeconds());
+        }
+        long waitNanos = rateLimiter.tryAcquire(deviceIdOf(request));
+        if (waitNanos > 0) {
+            return reject(response, AdmissionController.toRetryAfterSeconds(waitNanos));
+        }
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(START_ATTRIBUTE) instanceof Long start) {
+            admissionController.recordLatency(System.nanoTime() - start);
+        }
+    }
+    
+    private boolean reject(HttpServletResponse response, long retryAfterSeconds) {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        return false;
+    }
+    
+    private long deviceIdOf(HttpServletRequest request) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables instanceof Map<?, ?> map && map.get("id") instanceof String id) {
+            try {
+                return Long.parseLong(id);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+}
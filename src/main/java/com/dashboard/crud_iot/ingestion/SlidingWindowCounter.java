@@ -0,0 +1,75 @@
+package com.dashboard.crud_iot.ingestion;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contador de eventos por segundo em janela deslizante, sem locks.
+ *
+ * Anel de buckets de um segundo: cada bucket guarda o segundo a que pertence e um
+ * LongAdder (striped, sem contenção entre threads). O bucket é reaproveitado por CAS
+ * no carimbo quando o anel dá a volta, então a memória é fixa. Incrementos que
+ * disputam a virada de um bucket com o reset podem cair no segundo anterior; para
+ * taxas de ingestão essa imprecisão é irrelevante.
+ */
+class SlidingWindowCounter {
+    
+    private final int size;
+    private final AtomicLongArray seconds;
+    private final LongAdder[] counts;
+    
+    /**
+     * @param windowSeconds Segundos completos que podem ser consultados
+     */
+    SlidingWindowCounter(int windowSeconds) {
+        // Um bucket extra para o segundo corrente, ainda incompleto
+        this.size = windowSeconds + 1;
+        this.seconds = new AtomicLongArray(size);
+        this.counts = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            seconds.set(i, -1);
+            counts[i] = new LongAdder();
+        }
+    }
+    
+    void increment(long epochSecond) {
+        int slot = (int) Math.floorMod(epochSecond, (long) size);
+        long stamp = seconds.get(slot);
+        if (stamp != epochSecond) {
+            if (stamp > epochSecond) {
+                // Relógio voltou ou evento atrasado além do anel: descarta
+                return;
+            }
+            if (seconds.compareAndSet(slot, stamp, epochSecond)) {
+                counts[slot].reset();
+            }
+        }
+        counts[slot].increment();
+    }
+    
+    /**
+     * Contagem de um segundo, ou 0 se ele já saiu do anel
+     */
+    long countAt(long epochSecond) {
+        int slot = (int) Math.floorMod(epochSecond, (long) size);
+        return seconds.get(slot) == epochSecond ? counts[slot].sum() : 0;
+    }
+    
+    /**
+     * Série dos segundos completos terminando em lastSecond, do mais antigo ao mais recente
+     * @param lastSecond Último segundo da série (inclusive)
+     * @param length Quantidade de segundos, limitada ao tamanho da janela
+     */
+    long[] series(long lastSecond, int length) {
+        int n = Math.min(length, size - 1);
+        long[] result = new long[n];
+        for (int i = 0; i < n; i++) {
+            result[i] = countAt(lastSecond - n + 1 + i);
+        }
+        return result;
+    }
+    
+    int windowSeconds() {
+        return size - 1;
+    }
+}
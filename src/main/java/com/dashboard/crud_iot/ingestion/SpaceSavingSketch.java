@@ -0,0 +1,131 @@
+package com.dashboard.crud_iot.ingestion;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sketch Space-Saving para os dispositivos que mais enviam mensagens, com memória fixa.
+ *
+ * Guarda no máximo {@code capacity} contadores: um dispositivo novo com a tabela cheia
+ * assume o contador de menor valor, herdando-o como erro máximo. Todo dispositivo com
+ * mais de N/capacity mensagens está garantidamente na tabela, e a contagem reportada
+ * superestima a real em no máximo {@code error}.
+ *
+ * A tabela é dividida em stripes pelo hash do ID, cada uma com seu próprio lock e
+ * arrays primitivos; um dispositivo sempre cai na mesma stripe, então as garantias
+ * valem por stripe e a contenção entre threads de ingestão fica diluída.
+ */
+class SpaceSavingSketch {
+    
+    private final Stripe[] stripes;
+    private final int mask;
+    
+    /**
+     * @param capacity Contadores no total, divididos entre as stripes
+     * @param stripeCount Quantidade de stripes (potência de 2)
+     */
+    SpaceSavingSketch(int capacity, int stripeCount) {
+        if (Integer.bitCount(stripeCount) != 1) {
+            throw new IllegalArgumentException("Quantidade de stripes deve ser potência de 2: " + stripeCount);
+        }
+        this.stripes = new Stripe[stripeCount];
+        this.mask = stripeCount - 1;
+        int perStripe = Math.max(1, capacity / stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+    
+    void offer(long key) {
+        stripes[DeviceIdHash.mix(key) & mask].offer(key);
+    }
+    
+    /**
+     * Copia os contadores de todas as stripes, somando-os aos já presentes em target
+     */
+    void collectInto(Counts target) {
+        for (Stripe stripe : stripes) {
+            stripe.collectInto(target);
+        }
+    }
+    
+    /**
+     * Contadores copiados de um ou mais sketches
+     */
+    static final class Counts {
+        private final Map<Long, long[]> entries = new HashMap<>();
+        
+        void add(long key, long count, long error) {
+            long[] entry = entries.computeIfAbsent(key, k -> new long[2]);
+            entry[0] += count;
+            entry[1] += error;
+        }
+        
+        /**
+         * Maiores contagens em ordem decrescente, como {chave, contagem, erro}
+         */
+        List<long[]> top(int limit) {
+            return entries.entrySet().stream()
+                    .sorted(Comparator.comparingLong((Map.Entry<Long, long[]> e) -> e.getValue()[0]).reversed())
+                    .limit(limit)
+                    .map(e -> new long[] {e.getKey(), e.getValue()[0], e.getValue()[1]})
+                    .toList();
+        }
+    }
+    
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final long[] keys;
+        private final long[] counts;
+        private final long[] errors;
+        private int size;
+        
+        Stripe(int capacity) {
+            this.keys = new long[capacity];
+            this.counts = new long[capacity];
+            this.errors = new long[capacity];
+        }
+        
+        void offer(long key) {
+            lock.lock();
+            try {
+                int min = 0;
+                for (int i = 0; i < size; i++) {
+                    if (keys[i] == key) {
+                        counts[i]++;
+                        return;
+                    }
+                    if (counts[i] < counts[min]) {
+                        min = i;
+                    }
+                }
+                if (size < keys.length) {
+                    keys[size] = key;
+                    counts[size] = 1;
+                    errors[size] = 0;
+                    size++;
+                    return;
+                }
+                keys[min] = key;
+                errors[min] = counts[min];
+                counts[min]++;
+            } finally {
+                lock.unlock();
+            }
+        }
+        
+        void collectInto(Counts target) {
+            lock.lock();
+            try {
+                for (int i = 0; i < size; i++) {
+                    target.add(keys[i], counts[i], errors[i]);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
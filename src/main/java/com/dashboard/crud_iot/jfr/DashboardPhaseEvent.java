@@ -0,0 +1,61 @@
+package com.dashboard.crud_iot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de uma fase de um cálculo do dashboard (carga, agregação, alertas, ordenação).
+ * 
+ * Sem gravação ativa o custo é só a checagem de habilitação, eliminada pelo JIT.
+ */
+@Name("com.dashboard.iot.DashboardPhase")
+@Label("Dashboard Phase")
+@Category({"IoT Dashboard", "Dashboard"})
+@Description("Fase de um cálculo do DashboardService")
+@StackTrace(false)
+public class DashboardPhaseEvent extends Event {
+    
+    public static final String LOAD = "load";
+    public static final String AGGREGATE = "aggregate";
+    public static final String ALERTS = "alerts";
+    public static final String SORT = "sort";
+    
+    @Label("Operation")
+    String operation;
+    
+    @Label("Phase")
+    String phase;
+    
+    @Label("Fleet Size")
+    long fleetSize;
+    
+    @Label("Rows")
+    @Description("Linhas carregadas ou itens produzidos pela fase")
+    long rowCount;
+    
+    /**
+     * Inicia a medição de uma fase
+     * @param operation Cálculo do dashboard (ex.: general-stats)
+     * @param phase Uma das constantes LOAD, AGGREGATE, ALERTS ou SORT
+     */
+    public static DashboardPhaseEvent start(String operation, String phase) {
+        DashboardPhaseEvent event = new DashboardPhaseEvent();
+        event.operation = operation;
+        event.phase = phase;
+        event.begin();
+        return event;
+    }
+    
+    public void finish(long fleetSize, long rowCount) {
+        end();
+        if (shouldCommit()) {
+            this.fleetSize = fleetSize;
+            this.rowCount = rowCount;
+            commit();
+        }
+    }
+}
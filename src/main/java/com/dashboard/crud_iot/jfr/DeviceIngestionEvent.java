@@ -0,0 +1,49 @@
+package com.dashboard.crud_iot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR da aplicação de heartbeats (individual ou em lote) no banco.
+ */
+@Name("com.dashboard.iot.DeviceIngestion")
+@Label("Device Ingestion")
+@Category({"IoT Dashboard", "Ingestion"})
+@Description("Aplicação de heartbeats de dispositivos")
+@StackTrace(false)
+public class DeviceIngestionEvent extends Event {
+    
+    public static final String HTTP = "http";
+    public static final String REACTIVE = "reactive";
+    public static final String TELEMETRY = "telemetry";
+    
+    @Label("Source")
+    String source;
+    
+    @Label("Heartbeats")
+    long heartbeats;
+    
+    @Label("Applied")
+    @Description("Heartbeats de dispositivos existentes efetivamente gravados")
+    long applied;
+    
+    public static DeviceIngestionEvent start(String source) {
+        DeviceIngestionEvent event = new DeviceIngestionEvent();
+        event.source = source;
+        event.begin();
+        return event;
+    }
+    
+    public void finish(long heartbeats, long applied) {
+        end();
+        if (shouldCommit()) {
+            this.heartbeats = heartbeats;
+            this.applied = applied;
+            commit();
+        }
+    }
+}
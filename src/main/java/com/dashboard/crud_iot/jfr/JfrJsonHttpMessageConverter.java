@@ -0,0 +1,31 @@
+package com.dashboard.crud_iot.jfr;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Conversor JSON do MVC que emite um JsonSerializationEvent por resposta, separando o
+ * tempo de serialização do tempo de cálculo nas gravações JFR.
+ */
+public class JfrJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+    
+    public JfrJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+    
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        JsonSerializationEvent event = JsonSerializationEvent.start();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            event.finish(object);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.dashboard.crud_iot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.Collection;
+
+/**
+ * Evento JFR da serialização JSON do corpo de uma resposta HTTP.
+ */
+@Name("com.dashboard.iot.JsonSerialization")
+@Label("JSON Serialization")
+@Category({"IoT Dashboard", "HTTP"})
+@StackTrace(false)
+public class JsonSerializationEvent extends Event {
+    
+    @Label("Type")
+    String type;
+    
+    @Label("Elements")
+    long elements;
+    
+    public static JsonSerializationEvent start() {
+        JsonSerializationEvent event = new JsonSerializationEvent();
+        event.begin();
+        return event;
+    }
+    
+    public void finish(Object body) {
+        end();
+        if (shouldCommit()) {
+            this.type = body == null ? "null" : body.getClass().getSimpleName();
+            this.elements = body instanceof Collection<?> collection ? collection.size() : 1;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.dashboard.crud_iot.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Controla gravações JFR sob demanda. Só uma gravação por vez, com duração e tamanho
+ * limitados, para que o profiling de um nó em produção não degrade o próprio nó.
+ */
+@Component
+@Slf4j
+public class ProfilingRecorder implements DisposableBean {
+    
+    private final Duration maxDuration;
+    private final long maxSizeBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private Recording recording;
+    
+    public ProfilingRecorder(@Value("${admin.profiling.max-duration:5m}") Duration maxDuration,
+                             @Value("${admin.profiling.max-size-mb:100}") long maxSizeMb) {
+        this.maxDuration = maxDuration;
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+    }
+    
+    /**
+     * Inicia uma gravação
+     * @param duration Duração desejada (limitada a admin.profiling.max-duration)
+     * @param settings Configuração do JFR: "default" (~1% de overhead) ou "profile"
+     * @return Estado da gravação iniciada
+     * @throws IllegalStateException se já houver uma gravação em andamento
+     */
+    public Map<String, Object> start(Duration duration, String settings) throws IOException, ParseException {
+        lock.lock();
+        try {
+            if (recording != null && recording.getState() == RecordingState.RUNNING) {
+                throw new IllegalStateException("Já existe uma gravação JFR em andamento");
+            }
+            closeCurrent();
+            Duration bounded = duration.compareTo(maxDuration) > 0 ? maxDuration : duration;
+            Recording started = new Recording(Configuration.getConfiguration(settings));
+            started.setName("dashboard-on-demand");
+            started.setToDisk(true);
+            started.setMaxSize(maxSizeBytes);
+            started.setDuration(bounded);
+            started.start();
+            recording = started;
+            log.info("Gravação JFR iniciada: {} por {}", settings, bounded);
+            return status();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Encerra a gravação (se ainda ativa) e grava o resultado em um arquivo temporário
+     * @return Arquivo .jfr; cabe ao chamador removê-lo
+     * @throws IllegalStateException se nenhuma gravação foi iniciada
+     */
+    public Path stop() throws IOException {
+        lock.lock();
+        try {
+            if (recording == null) {
+                throw new IllegalStateException("Nenhuma gravação JFR iniciada");
+            }
+            if (recording.getState() == RecordingState.RUNNING) {
+                recording.stop();
+            }
+            Path file = Files.createTempFile("dashboard-", ".jfr");
+            recording.dump(file);
+            closeCurrent();
+            log.info("Gravação JFR encerrada: {} bytes", Files.size(file));
+            return file;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public Map<String, Object> status() {
+        lock.lock();
+        try {
+            if (recording == null) {
+                return Map.of("state", "NONE");
+            }
+            return Map.of(
+                    "state", recording.getState().name(),
+                    "startTime", String.valueOf(recording.getStartTime()),
+                    "duration", String.valueOf(recording.getDuration()),
+                    "maxSizeBytes", recording.getMaxSize());
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @Override
+    public void destroy() {
+        lock.lock();
+        try {
+            closeCurrent();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void closeCurrent() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.dashboard.crud_iot.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de uma chamada a um repositório (JPA ou JDBC), com o número de linhas retornadas.
+ */
+@Name("com.dashboard.iot.RepositoryCall")
+@Label("Repository Call")
+@Category({"IoT Dashboard", "Persistence"})
+@StackTrace(false)
+public class RepositoryCallEvent extends Event {
+    
+    @Label("Method")
+    String method;
+    
+    @Label("Rows")
+    long rowCount;
+    
+    @Label("Failed")
+    boolean failed;
+    
+    public static RepositoryCallEvent start(String method) {
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        event.method = method;
+        event.begin();
+        return event;
+    }
+    
+    public void finish(long rowCount, boolean failed) {
+        end();
+        if (shouldCommit()) {
+            this.rowCount = rowCount;
+            this.failed = failed;
+            commit();
+        }
+    }
+}
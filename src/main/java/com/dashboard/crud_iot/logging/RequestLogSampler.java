@@ -0,0 +1,67 @@
+package com.dashboard.crud_iot.logging;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decide por requisição se os logs abaixo de WARN serão gravados, conforme a taxa de
+ * amostragem do endpoint (request-log.sampling.every[padrão de URI]=N grava 1 a cada N).
+ * 
+ * A decisão vale para a requisição inteira, então uma requisição amostrada aparece com
+ * todas as suas linhas. Avisos e erros são sempre gravados (SampledLogTurboFilter).
+ */
+@Component
+public class RequestLogSampler implements HandlerInterceptor {
+    
+    /**
+     * Padrão de URI do endpoint, incluído nos logs estruturados
+     */
+    public static final String ENDPOINT_KEY = "endpoint";
+    
+    /**
+     * Presente com valor "false" quando a requisição não foi amostrada
+     */
+    public static final String SAMPLED_KEY = "sampled";
+    
+    private final boolean enabled;
+    private final Map<String, Integer> sampleEvery;
+    
+    public RequestLogSampler(Environment environment) {
+        this.enabled = environment.getProperty("request-log.sampling.enabled", Boolean.class, true);
+        this.sampleEvery = Binder.get(environment)
+                .bind("request-log.sampling.every", Bindable.mapOf(String.class, Integer.class))
+                .orElse(Map.of());
+    }
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = pattern != null ? pattern.toString() : request.getRequestURI();
+        MDC.put(ENDPOINT_KEY, endpoint);
+        if (enabled && !isSampled(endpoint)) {
+            MDC.put(SAMPLED_KEY, "false");
+        }
+        return true;
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        MDC.remove(ENDPOINT_KEY);
+        MDC.remove(SAMPLED_KEY);
+    }
+    
+    private boolean isSampled(String endpoint) {
+        Integer every = sampleEvery.get(endpoint);
+        return every == null || every <= 1 || ThreadLocalRandom.current().nextInt(every) == 0;
+    }
+}
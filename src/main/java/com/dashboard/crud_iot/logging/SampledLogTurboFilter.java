@@ -0,0 +1,24 @@
+package com.dashboard.crud_iot.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Descarta logs abaixo de WARN de requisições não amostradas pelo RequestLogSampler.
+ * Roda antes da montagem do evento, então a linha descartada não custa formatação nem fila.
+ * Configurado no logback-spring.xml.
+ */
+public class SampledLogTurboFilter extends TurboFilter {
+    
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level == null || level.isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        return "false".equals(MDC.get(RequestLogSampler.SAMPLED_KEY)) ? FilterReply.DENY : FilterReply.NEUTRAL;
+    }
+}
@@ -0,0 +1,498 @@
+package com.dashboard.crud_iot.notifications;
+
+import com.dashboard.crud_iot.dto.DeviceAlertDTO;
+import com.dashboard.crud_iot.dto.DeviceAlertDTO.AlertSeverity;
+import com.dashboard.crud_iot.dto.DeviceAlertDTO.AlertType;
+import com.dashboard.crud_iot.dto.NotificationDestinationStatsDTO;
+import com.dashboard.crud_iot.dto.NotificationStatsDTO;
+import com.dashboard.crud_iot.events.DeviceAlertTransitionEvent;
+import com.dashboard.crud_iot.notifications.NotificationBatch.DeviceRef;
+import com.dashboard.crud_iot.notifications.NotificationBatch.Notification;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Envio assíncrono das transições de alerta para webhooks e relays de e-mail HTTP.
+ *
+ * As transições publicadas pelo LocationIndex entram, sem bloquear a thread que as gerou,
+ * na fila limitada de cada destino que aceita a sua severidade (descartadas e contadas
+ * quando ela enche). Cada destino tem a sua própria thread de envio: um destino lento ou
+ * fora do ar só atrasa as suas notificações, sem travar os demais. A thread acumula as
+ * transições durante a janela do lote e as agrupa por tipo de alerta, resolução e local
+ * de primeiro nível: 230 COMMUNICATION_LOST no "Prédio A" viram uma única notificação.
+ * Cada lote é gravado no outbox antes do envio e removido após o sucesso; falhas são
+ * repetidas com backoff exponencial, na ordem dos lotes do destino. Enquanto o primeiro lote
+ * espera nova tentativa, os lotes seguintes são mesclados num único lote de espera, então um
+ * destino fora do ar acumula no máximo dois lotes, e não um por janela.
+ * Lotes que sobram no outbox são reenviados na próxima inicialização.
+ */
+@Component
+@Slf4j
+public class AlertNotificationDispatcher implements SmartLifecycle {
+    
+    private static final long POLL_MILLIS = 50;
+    
+    private final List<DestinationState> destinations = new ArrayList<>();
+    private final int queueCapacity;
+    private final NotificationOutbox outbox;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final int maxAttempts;
+    private final Pattern separatorPattern;
+    
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile boolean running;
+    
+    private record QueuedTransition(DeviceAlertTransitionEvent event, long enqueuedMillis) {
+    }
+    
+    /**
+     * Estado de um destino. As listas só são acessadas pela thread de envio do destino;
+     * a fila e os contadores são lidos pelas estatísticas.
+     */
+    private static final class DestinationState {
+        final NotificationDestination config;
+        final URI uri;
+        final long windowMillis;
+        final int maxBatch;
+        final BlockingQueue<QueuedTransition> queue;
+        final List<QueuedTransition> accumulating = new ArrayList<>();
+        final Deque<NotificationBatch> ready = new ArrayDeque<>();
+        long firstAccumulatedMillis;
+        
+        final AtomicLong deliveredBatches = new AtomicLong();
+        final AtomicLong deliveredTransitions = new AtomicLong();
+        final AtomicLong failedAttempts = new AtomicLong();
+        final AtomicLong deadLettered = new AtomicLong();
+        final AtomicLong dropped = new AtomicLong();
+        final AtomicLong mergedBatches = new AtomicLong();
+        Thread worker;
+        volatile int accumulatingCount;
+        volatile int pendingBatches;
+        volatile long lastDeliveryLagMillis = -1;
+        volatile String lastError;
+        
+        DestinationState(NotificationDestination config, int queueCapacity) {
+            this.config = config;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.uri = URI.create(config.url());
+            this.windowMillis = config.batchWindow() != null ? config.batchWindow().toMillis() : 5_000;
+            this.maxBatch = config.maxBatch() != null ? config.maxBatch() : 1_000;
+        }
+        
+        boolean accepts(AlertSeverity severity) {
+            return config.minSeverity() == null || severity.compareTo(config.minSeverity()) >= 0;
+        }
+    }
+    
+    public AlertNotificationDispatcher(Environment environment, ObjectMapper objectMapper) {
+        this.queueCapacity = environment.getProperty("notifications.queue-capacity", Integer.class, 10_000);
+        Binder binder = Binder.get(environment);
+        List<NotificationDestination> configured = binder
+                .bind("notifications.destinations", Bindable.listOf(NotificationDestination.class))
+                .orElse(List.of());
+        for (int i = 0; i < configured.size(); i++) {
+            NotificationDestination destination = configured.get(i);
+            if (destination.name() == null || destination.url() == null) {
+                throw new IllegalStateException("notifications.destinations[" + i + "] requer name e url");
+            }
+            if (destination.format() == null) {
+                destination = new NotificationDestination(destination.name(), destination.url(),
+                        NotificationDestination.Format.WEBHOOK, destination.minSeverity(),
+                        destination.batchWindow(), destination.maxBatch());
+            }
+            destinations.add(new DestinationState(destination, queueCapacity));
+        }
+        this.objectMapper = objectMapper;
+        this.outbox = new NotificationOutbox(environment.getProperty("notifications.outbox-dir", ""), objectMapper);
+        this.requestTimeout = durationOf(environment, "notifications.request-timeout", "5s");
+        this.initialBackoff = durationOf(environment, "notifications.retry.initial-backoff", "1s");
+        this.maxBackoff = durationOf(environment, "notifications.retry.max-backoff", "5m");
+        this.maxAttempts = environment.getProperty("notifications.retry.max-attempts", Integer.class, 10);
+        String separator = environment.getProperty("dashboard.location.separator", "-");
+        this.separatorPattern = Pattern.compile("\\s+" + Pattern.quote(separator.trim()) + "\\s+");
+        this.httpClient = HttpClient.newBuilder().connectTimeout(requestTimeout).build();
+    }
+    
+    private static Duration durationOf(Environment environment, String key, String defaultValue) {
+        String value = environment.getProperty(key, defaultValue);
+        try {
+            return DurationStyle.detectAndParse(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Duração inválida em " + key + ": " + value, e);
+        }
+    }
+    
+    // ==================== ENTRADA ====================
+    
+    /**
+     * Enfileira a transição para cada destino que a aceita, sem bloquear; com a fila de
+     * um destino cheia ela é descartada e contada só para ele
+     */
+    @EventListener
+    public void onAlertTransition(DeviceAlertTransitionEvent event) {
+        if (destinations.isEmpty()) {
+            return;
+        }
+        received.incrementAndGet();
+        QueuedTransition transition = new QueuedTransition(event, System.currentTimeMillis());
+        for (DestinationState destination : destinations) {
+            if (destination.accepts(event.getAlert().getSeverity()) && !destination.queue.offer(transition)) {
+                destination.dropped.incrementAndGet();
+            }
+        }
+    }
+    
+    // ==================== CICLO DE VIDA ====================
+    
+    @Override
+    public void start() {
+        if (destinations.isEmpty()) {
+            log.info("Notificações de alerta desativadas: nenhum destino em notifications.destinations");
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (NotificationBatch batch : outbox.load()) {
+            DestinationState destination = destinationNamed(batch.destination());
+            if (destination == null) {
+                log.warn("Lote {} do outbox é de um destino não configurado ({}) e foi mantido", batch.id(), batch.destination());
+                continue;
+            }
+            destination.ready.add(new NotificationBatch(batch.id(), batch.destination(), batch.createdAtMillis(),
+                    batch.oldestEventMillis(), batch.attempts(), now, batch.notifications()));
+            destination.pendingBatches = destination.ready.size();
+        }
+        running = true;
+        for (DestinationState destination : destinations) {
+            destination.worker = Thread.ofPlatform()
+                    .name("alert-notifications-" + destination.config.name())
+                    .daemon()
+                    .start(() -> dispatchLoop(destination));
+        }
+        log.info("Notificações de alerta para {} destinos", destinations.size());
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        // Os destinos encerram em paralelo; o prazo vale para todos juntos
+        long deadline = System.currentTimeMillis() + requestTimeout.multipliedBy(2).toMillis() + 1_000;
+        for (DestinationState destination : destinations) {
+            if (destination.worker == null) {
+                continue;
+            }
+            try {
+                destination.worker.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    // ==================== THREADS DE ENVIO ====================
+    
+    private void dispatchLoop(DestinationState destination) {
+        List<QueuedTransition> drained = new ArrayList<>();
+        boolean draining = true;
+        while (draining) {
+            try {
+                QueuedTransition first = destination.queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    drained.add(first);
+                    destination.queue.drainTo(drained);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            // Na parada, esvazia a fila, fecha o lote em acumulação e tenta enviá-lo uma vez
+            draining = running || !destination.queue.isEmpty();
+            long now = System.currentTimeMillis();
+            if (!drained.isEmpty() && destination.accumulating.isEmpty()) {
+                destination.firstAccumulatedMillis = now;
+            }
+            destination.accumulating.addAll(drained);
+            destination.accumulatingCount = destination.accumulating.size();
+            closeBatchIfDue(destination, now, !draining);
+            sendDue(destination, now);
+            drained.clear();
+        }
+    }
+    
+    private void closeBatchIfDue(DestinationState destination, long now, boolean force) {
+        if (destination.accumulating.isEmpty()) {
+            return;
+        }
+        if (!force && destination.accumulating.size() < destination.maxBatch
+                && now - destination.firstAccumulatedMillis < destination.windowMillis) {
+            return;
+        }
+        NotificationBatch batch = coalesce(destination, now);
+        destination.accumulating.clear();
+        destination.accumulatingCount = 0;
+        // Com o primeiro lote em backoff, o lote novo entra no que já espera atrás dele
+        NotificationBatch head = destination.ready.peekFirst();
+        NotificationBatch waiting = destination.ready.peekLast();
+        if (head != null && head.attempts() > 0 && waiting != head && waiting.attempts() == 0) {
+            destination.ready.pollLast();
+            batch = merge(waiting, batch);
+            destination.mergedBatches.incrementAndGet();
+        }
+        outbox.save(batch);
+        destination.ready.add(batch);
+        destination.pendingBatches = destination.ready.size();
+    }
+    
+    /**
+     * Envia os lotes vencidos do destino em ordem; para no primeiro que falhar
+     */
+    private void sendDue(DestinationState destination, long now) {
+        NotificationBatch batch;
+        while ((batch = destination.ready.peek()) != null && batch.nextAttemptMillis() <= now) {
+            String error = send(destination, batch);
+            if (error == null) {
+                destination.ready.poll();
+                outbox.delete(batch);
+                destination.deliveredBatches.incrementAndGet();
+                destination.deliveredTransitions.addAndGet(batch.transitions());
+                destination.lastDeliveryLagMillis = System.currentTimeMillis() - batch.oldestEventMillis();
+            } else {
+                destination.failedAttempts.incrementAndGet();
+                destination.lastError = error;
+                destination.ready.poll();
+                if (batch.attempts() + 1 >= maxAttempts) {
+                    outbox.deadLetter(batch);
+                    destination.deadLettered.incrementAndGet();
+                    log.warn("Lote {} para {} descartado após {} tentativas: {}",
+                            batch.id(), destination.config.name(), maxAttempts, error);
+                } else {
+                    NotificationBatch retry = batch.retryAt(now + backoff(batch.attempts()).toMillis());
+                    outbox.save(retry);
+                    destination.ready.addFirst(retry);
+                    log.warn("Falha ao notificar {} (tentativa {}): {}", destination.config.name(), retry.attempts(), error);
+                    break;
+                }
+            }
+        }
+        destination.pendingBatches = destination.ready.size();
+    }
+    
+    private Duration backoff(int previousAttempts) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(previousAttempts, 20));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+    
+    /**
+     * @return null em caso de sucesso ou a descrição do erro
+     */
+    private String send(DestinationState destination, NotificationBatch batch) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(destination.uri)
+                    .timeout(requestTimeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(payloadOf(destination.config, batch)))
+                    .build();
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            int status = response.statusCode();
+            return status >= 200 && status < 300 ? null : "HTTP " + status;
+        } catch (IOException e) {
+            return e.getClass().getSimpleName() + ": " + e.getMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "interrompido";
+        }
+    }
+    
+    private byte[] payloadOf(NotificationDestination destination, NotificationBatch batch) throws IOException {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("batchId", batch.id());
+        payload.put("destination", batch.destination());
+        payload.put("createdAt", Instant.ofEpochMilli(batch.createdAtMillis()).toString());
+        if (destination.format() == NotificationDestination.Format.EMAIL) {
+            List<Notification> notifications = batch.notifications();
+            payload.put("subject", notifications.size() == 1
+                    ? "[IoT] " + notifications.get(0).message()
+                    : "[IoT] " + notifications.size() + " notificações de alerta");
+            payload.put("text", String.join("\n", notifications.stream().map(Notification::message).toList()));
+        } else {
+            payload.put("notifications", batch.notifications());
+        }
+        return objectMapper.writeValueAsBytes(payload);
+    }
+    
+    // ==================== AGRUPAMENTO ====================
+    
+    private record GroupKey(AlertType alertType, boolean resolved, String site) {
+    }
+    
+    private NotificationBatch coalesce(DestinationState destination, long now) {
+        Map<GroupKey, List<DeviceAlertDTO>> groups = new LinkedHashMap<>();
+        long oldest = Long.MAX_VALUE;
+        for (QueuedTransition transition : destination.accumulating) {
+            DeviceAlertDTO alert = transition.event().getAlert();
+            GroupKey key = new GroupKey(alert.getAlertType(), transition.event().isResolved(), siteOf(alert.getLocation()));
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(alert);
+            oldest = Math.min(oldest, transition.enqueuedMillis());
+        }
+        List<Notification> notifications = new ArrayList<>(groups.size());
+        groups.forEach((key, alerts) -> notifications.add(toNotification(key, alerts)));
+        String id = String.format("%d-%06d-%s", now, sequence.incrementAndGet(),
+                destination.config.name().replaceAll("[^A-Za-z0-9_-]", "_"));
+        return new NotificationBatch(id, destination.config.name(), now, oldest, 0, now, notifications);
+    }
+    
+    private static Notification toNotification(GroupKey key, List<DeviceAlertDTO> alerts) {
+        AlertSeverity severity = alerts.stream().map(DeviceAlertDTO::getSeverity).max(Enum::compareTo).orElseThrow();
+        String message;
+        if (alerts.size() == 1) {
+            DeviceAlertDTO alert = alerts.get(0);
+            message = alert.getDeviceName() + " (" + siteName(key) + "): " + alert.getAlertMessage()
+                    + (key.resolved() ? " - normalizado" : "");
+        } else {
+            message = groupMessage(key, alerts.size());
+        }
+        List<DeviceRef> devices = alerts.stream()
+                .limit(NotificationBatch.MAX_DEVICES)
+                .map(alert -> new DeviceRef(alert.getDeviceId(), alert.getDeviceName(), alert.getLocation()))
+                .toList();
+        return new Notification(key.alertType(), severity, key.resolved(), key.site(), alerts.size(), message, devices);
+    }
+    
+    /**
+     * Soma o lote recém-fechado ao lote que espera envio, mantendo id, criação e próxima
+     * tentativa do que espera; notificações do mesmo grupo viram uma só
+     */
+    private static NotificationBatch merge(NotificationBatch waiting, NotificationBatch closed) {
+        Map<GroupKey, Notification> merged = new LinkedHashMap<>();
+        for (Notification notification : waiting.notifications()) {
+            merged.put(keyOf(notification), notification);
+        }
+        for (Notification notification : closed.notifications()) {
+            merged.merge(keyOf(notification), notification, AlertNotificationDispatcher::combine);
+        }
+        return new NotificationBatch(waiting.id(), waiting.destination(), waiting.createdAtMillis(),
+                Math.min(waiting.oldestEventMillis(), closed.oldestEventMillis()), waiting.attempts(),
+                waiting.nextAttemptMillis(), List.copyOf(merged.values()));
+    }
+    
+    private static Notification combine(Notification first, Notification second) {
+        GroupKey key = keyOf(first);
+        int count = first.count() + second.count();
+        AlertSeverity severity = first.severity().compareTo(second.severity()) >= 0 ? first.severity() : second.severity();
+        List<DeviceRef> devices = new ArrayList<>(first.devices());
+        for (DeviceRef device : second.devices()) {
+            if (devices.size() >= NotificationBatch.MAX_DEVICES) {
+                break;
+            }
+            devices.add(device);
+        }
+        return new Notification(key.alertType(), severity, key.resolved(), key.site(), count,
+                groupMessage(key, count), List.copyOf(devices));
+    }
+    
+    private static GroupKey keyOf(Notification notification) {
+        return new GroupKey(notification.alertType(), notification.resolved(), notification.site());
+    }
+    
+    private static String groupMessage(GroupKey key, int count) {
+        return count + " dispositivos " + (key.resolved() ? "normalizados de " : "com ")
+                + key.alertType() + " em " + siteName(key);
+    }
+    
+    private static String siteName(GroupKey key) {
+        return key.site() != null ? key.site() : "sem localização";
+    }
+    
+    private String siteOf(String location) {
+        if (location == null || location.isBlank()) {
+            return null;
+        }
+        return separatorPattern.split(location.trim(), 2)[0].trim();
+    }
+    
+    private DestinationState destinationNamed(String name) {
+        for (DestinationState destination : destinations) {
+            if (destination.config.name().equals(name)) {
+                return destination;
+            }
+        }
+        return null;
+    }
+    
+    // ==================== ESTATÍSTICAS ====================
+    
+    public NotificationStatsDTO getStats() {
+        long now = System.currentTimeMillis();
+        int queued = 0;
+        long oldestEnqueued = now;
+        long dropped = 0;
+        for (DestinationState destination : destinations) {
+            queued += destination.queue.size();
+            dropped += destination.dropped.get();
+            QueuedTransition head = destination.queue.peek();
+            if (head != null) {
+                oldestEnqueued = Math.min(oldestEnqueued, head.enqueuedMillis());
+            }
+        }
+        List<NotificationDestinationStatsDTO> destinationStats = destinations.stream()
+                .map(destination -> NotificationDestinationStatsDTO.builder()
+                        .name(destination.config.name())
+                        .queued(destination.queue.size())
+                        .dropped(destination.dropped.get())
+                        .mergedBatches(destination.mergedBatches.get())
+                        .accumulating(destination.accumulatingCount)
+                        .pendingBatches(destination.pendingBatches)
+                        .deliveredBatches(destination.deliveredBatches.get())
+                        .deliveredTransitions(destination.deliveredTransitions.get())
+                        .failedAttempts(destination.failedAttempts.get())
+                        .deadLettered(destination.deadLettered.get())
+                        .lastDeliveryLagMillis(destination.lastDeliveryLagMillis < 0 ? null : destination.lastDeliveryLagMillis)
+                        .lastError(destination.lastError)
+                        .build())
+                .toList();
+        return NotificationStatsDTO.builder()
+                .queued(queued)
+                .queueCapacity(queueCapacity)
+                .queueLagMillis(now - oldestEnqueued)
+                .received(received.get())
+                .dropped(dropped)
+                .destinations(destinationStats)
+                .build();
+    }
+}
@@ -0,0 +1,39 @@
+package com.dashboard.crud_iot.notifications;
+
+import com.dashboard.crud_iot.dto.DeviceAlertDTO.AlertSeverity;
+import com.dashboard.crud_iot.dto.DeviceAlertDTO.AlertType;
+
+import java.util.List;
+
+/**
+ * Lote de notificações de um destino, como gravado no outbox
+ * @param oldestEventMillis Enfileiramento da transição mais antiga do lote, para medir o atraso
+ * @param attempts Tentativas de envio já feitas
+ * @param nextAttemptMillis Instante da próxima tentativa
+ */
+public record NotificationBatch(String id, String destination, long createdAtMillis, long oldestEventMillis,
+                                int attempts, long nextAttemptMillis, List<Notification> notifications) {
+    
+    /**
+     * Transições coalescidas por tipo de alerta, resolução e local de primeiro nível
+     * @param count Dispositivos na notificação
+     * @param devices Até MAX_DEVICES dispositivos, para identificação
+     */
+    public record Notification(AlertType alertType, AlertSeverity severity, boolean resolved, String site,
+                               int count, String message, List<DeviceRef> devices) {
+    }
+    
+    public record DeviceRef(Long id, String name, String location) {
+    }
+    
+    static final int MAX_DEVICES = 20;
+    
+    int transitions() {
+        return notifications.stream().mapToInt(Notification::count).sum();
+    }
+    
+    NotificationBatch retryAt(long nextAttemptMillis) {
+        return new NotificationBatch(id, destination, createdAtMillis, oldestEventMillis,
+                attempts + 1, nextAttemptMillis, notifications);
+    }
+}
@@ -0,0 +1,23 @@
+package com.dashboard.crud_iot.notifications;
+
+import com.dashboard.crud_iot.dto.DeviceAlertDTO.AlertSeverity;
+
+import java.time.Duration;
+
+/**
+ * Destino de notificações como configurado em notifications.destinations[n]
+ * @param name Nome do destino, usado nas estatísticas e no outbox
+ * @param url Endpoint HTTP que recebe os lotes (webhook ou relay de e-mail)
+ * @param format WEBHOOK envia o lote em JSON; EMAIL envia assunto e texto para um relay HTTP
+ * @param minSeverity Severidade mínima notificada (padrão LOW)
+ * @param batchWindow Tempo de acumulação de um lote a partir da primeira transição (padrão 5s)
+ * @param maxBatch Transições que fecham o lote antes da janela (padrão 1000)
+ */
+public record NotificationDestination(String name, String url, Format format, AlertSeverity minSeverity,
+                                      Duration batchWindow, Integer maxBatch) {
+    
+    public enum Format {
+        WEBHOOK,
+        EMAIL
+    }
+}
@@ -0,0 +1,96 @@
+package com.dashboard.crud_iot.notifications;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Outbox em disco: um arquivo JSON por lote ainda não entregue, gravado antes da
+ * primeira tentativa e apagado após o sucesso. Lotes que esgotam as tentativas vão
+ * para o subdiretório dead/. Sem diretório configurado os lotes ficam só em memória.
+ */
+@Slf4j
+final class NotificationOutbox {
+    
+    private static final String SUFFIX = ".json";
+    
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+    
+    NotificationOutbox(String directory, ObjectMapper objectMapper) {
+        this.directory = directory == null || directory.isBlank() ? null : Path.of(directory);
+        this.objectMapper = objectMapper;
+    }
+    
+    /**
+     * Lotes pendentes de uma execução anterior, do mais antigo para o mais novo
+     */
+    List<NotificationBatch> load() {
+        List<NotificationBatch> batches = new ArrayList<>();
+        if (directory == null || !Files.isDirectory(directory)) {
+            return batches;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(path -> path.toString().endsWith(SUFFIX)).toList()) {
+                try {
+                    batches.add(objectMapper.readValue(file.toFile(), NotificationBatch.class));
+                } catch (IOException e) {
+                    log.warn("Lote de notificação ilegível no outbox, ignorado: {} ({})", file, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Não foi possível ler o outbox de notificações {}: {}", directory, e.getMessage());
+        }
+        batches.sort(Comparator.comparingLong(NotificationBatch::createdAtMillis));
+        return batches;
+    }
+    
+    void save(NotificationBatch batch) {
+        if (directory == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            Path temporary = directory.resolve(batch.id() + ".tmp");
+            objectMapper.writeValue(temporary.toFile(), batch);
+            Files.move(temporary, fileOf(batch), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Falha ao gravar o lote {} no outbox: {}", batch.id(), e.getMessage());
+        }
+    }
+    
+    void delete(NotificationBatch batch) {
+        if (directory == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(fileOf(batch));
+        } catch (IOException e) {
+            log.warn("Falha ao remover o lote {} do outbox: {}", batch.id(), e.getMessage());
+        }
+    }
+    
+    void deadLetter(NotificationBatch batch) {
+        if (directory == null) {
+            return;
+        }
+        try {
+            Path dead = Files.createDirectories(directory.resolve("dead"));
+            Files.move(fileOf(batch), dead.resolve(batch.id() + SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.warn("Falha ao mover o lote {} para dead/: {}", batch.id(), e.getMessage());
+        }
+    }
+    
+    private Path fileOf(NotificationBatch batch) {
+        return directory.resolve(batch.id() + SUFFIX);
+    }
+}
@@ -0,0 +1,150 @@
+package com.dashboard.crud_iot.querylog;
+
+import com.dashboard.crud_iot.dto.QueryReportDTO;
+import com.dashboard.crud_iot.dto.QueryStatsDTO;
+import com.dashboard.crud_iot.dto.SlowQueryDTO;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Array;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Estatísticas por método de repositório e registro das consultas lentas.
+ * 
+ * Substitui o log de SQL em produção: o caminho rápido só incrementa contadores e o
+ * histograma; consultas acima de admin.queries.slow-threshold-ms entram em um buffer
+ * circular de tamanho fixo com o formato dos parâmetros (tipos, tamanhos e constantes de
+ * enum, nunca os valores informados).
+ */
+@Component
+public class QueryLog {
+    
+    private final ConcurrentHashMap<String, MethodStats> methods = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<SlowQueryDTO> slowQueries;
+    private final AtomicLong slowQueryCount = new AtomicLong();
+    private final long slowThresholdNanos;
+    
+    public QueryLog(@Value("${admin.queries.slow-threshold-ms:50}") long slowThresholdMs,
+                    @Value("${admin.queries.slow-capacity:100}") int slowCapacity) {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+        this.slowQueries = new AtomicReferenceArray<>(slowCapacity);
+    }
+    
+    /**
+     * Registra uma chamada de repositório
+     * @param method Repositório e método (ex.: DeviceRepository.findAll)
+     * @param args Argumentos da chamada, usados só para descrever consultas lentas
+     * @param nanos Latência da chamada
+     * @param rows Linhas retornadas ou atualizadas
+     * @param failed Se a chamada lançou exceção
+     */
+    public void record(String method, Object[] args, long nanos, long rows, boolean failed) {
+        MethodStats stats = methods.computeIfAbsent(method, key -> new MethodStats());
+        stats.calls.increment();
+        stats.totalNanos.add(nanos);
+        stats.rows.add(rows);
+        if (failed) {
+            stats.errors.increment();
+        }
+        stats.latency.recordValue(TimeUnit.NANOSECONDS.toMicros(nanos));
+        stats.maxNanos.accumulateAndGet(nanos, Math::max);
+        
+        if (nanos >= slowThresholdNanos) {
+            int slot = (int) (slowQueryCount.getAndIncrement() % slowQueries.length());
+            slowQueries.set(slot, SlowQueryDTO.builder()
+                    .method(method)
+                    .parameterShape(shapeOf(args))
+                    .durationMicros(TimeUnit.NANOSECONDS.toMicros(nanos))
+                    .rows(rows)
+                    .failed(failed)
+                    .timestamp(LocalDateTime.now())
+                    .build());
+        }
+    }
+    
+    /**
+     * @param limit Quantidade máxima de consultas lentas retornadas
+     * @return Estatísticas por método (maior tempo total primeiro) e consultas lentas (mais lentas primeiro)
+     */
+    public QueryReportDTO getReport(int limit) {
+        List<QueryStatsDTO> stats = new ArrayList<>();
+        for (Map.Entry<String, MethodStats> entry : methods.entrySet()) {
+            stats.add(entry.getValue().toDTO(entry.getKey()));
+        }
+        stats.sort(Comparator.comparingLong(QueryStatsDTO::getTotalMillis).reversed());
+        
+        List<SlowQueryDTO> slowest = new ArrayList<>();
+        for (int i = 0; i < slowQueries.length(); i++) {
+            SlowQueryDTO query = slowQueries.get(i);
+            if (query != null) {
+                slowest.add(query);
+            }
+        }
+        slowest.sort(Comparator.comparingLong(SlowQueryDTO::getDurationMicros).reversed());
+        
+        return QueryReportDTO.builder()
+                .slowThresholdMs(TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos))
+                .slowQueriesRecorded(slowQueryCount.get())
+                .methods(stats)
+                .slowest(slowest.subList(0, Math.min(limit, slowest.size())))
+                .build();
+    }
+    
+    /**
+     * Formato dos parâmetros, ex.: (List[25], LocalDateTime)
+     */
+    static String shapeOf(Object[] args) {
+        StringJoiner shape = new StringJoiner(", ", "(", ")");
+        for (Object arg : args) {
+            if (arg == null) {
+                shape.add("null");
+            } else if (arg instanceof Collection<?> collection) {
+                shape.add(arg.getClass().getSimpleName() + "[" + collection.size() + "]");
+            } else if (arg.getClass().isArray()) {
+                shape.add(arg.getClass().getComponentType().getSimpleName() + "[" + Array.getLength(arg) + "]");
+            } else if (arg instanceof Enum<?> value) {
+                shape.add(value.getDeclaringClass().getSimpleName() + "." + value.name());
+            } else {
+                shape.add(arg.getClass().getSimpleName());
+            }
+        }
+        return shape.toString();
+    }
+    
+    private static final class MethodStats {
+        final LongAdder calls = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+        final ConcurrentHistogram latency = new ConcurrentHistogram(2);
+        
+        QueryStatsDTO toDTO(String method) {
+            long callCount = calls.sum();
+            return QueryStatsDTO.builder()
+                    .method(method)
+                    .calls(callCount)
+                    .errors(errors.sum())
+                    .rows(rows.sum())
+                    .avgRows(callCount == 0 ? 0.0 : Math.round(rows.sum() * 10.0 / callCount) / 10.0)
+                    .totalMillis(TimeUnit.NANOSECONDS.toMillis(totalNanos.sum()))
+                    .p50Micros(latency.getValueAtPercentile(50.0))
+                    .p99Micros(latency.getValueAtPercentile(99.0))
+                    .maxMicros(TimeUnit.NANOSECONDS.toMicros(maxNanos.get()))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.dashboard.crud_iot.querylog;
+
+import com.dashboard.crud_iot.jfr.RepositoryCallEvent;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Intercepta as chamadas ao DeviceRepository, ao DeviceHeartbeatWriter e ao DeviceStatusWriter (SQL nativo),
+ * registrando latência e linhas no QueryLog e emitindo um RepositoryCallEvent para o JFR.
+ * Nas consultas contam as linhas retornadas; nos writers, as linhas atualizadas.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RepositoryCallRecorder {
+    
+    private final QueryLog queryLog;
+    
+    @Around("execution(* com.dashboard.crud_iot.repositories.DeviceRepository.*(..))")
+    public Object recordRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return record("DeviceRepository." + joinPoint.getSignature().getName(), joinPoint, false);
+    }
+    
+    @Around("execution(public * com.dashboard.crud_iot.repositories.DeviceHeartbeatWriter.*(..))")
+    public Object recordHeartbeatWriter(ProceedingJoinPoint joinPoint) throws Throwable {
+        return record("DeviceHeartbeatWriter." + joinPoint.getSignature().getName(), joinPoint, true);
+    }
+    
+    @Around("execution(public * com.dashboard.crud_iot.repositories.DeviceStatusWriter.*(..))")
+    public Object recordStatusWriter(ProceedingJoinPoint joinPoint) throws Throwable {
+        return record("DeviceStatusWriter." + joinPoint.getSignature().getName(), joinPoint, true);
+    }
+    
+    private Object record(String method, ProceedingJoinPoint joinPoint, boolean update) throws Throwable {
+        RepositoryCallEvent event = RepositoryCallEvent.start(method);
+        long start = System.nanoTime();
+        boolean failed = true;
+        Object result = null;
+        try {
+            result = joinPoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            long rows = update ? updatedRowsOf(result) : rowsOf(result);
+            queryLog.record(method, joinPoint.getArgs(), System.nanoTime() - start, rows, failed);
+            event.finish(rows, failed);
+        }
+    }
+    
+    /**
+     * Linhas retornadas por uma consulta. Resultados escalares (contagens, somas, existsBy)
+     * são uma única linha, qualquer que seja o valor.
+     */
+    private static long rowsOf(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Page<?> page) {
+            return page.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return result == null ? 0 : 1;
+    }
+    
+    /**
+     * Linhas atualizadas por um writer, a partir da contagem devolvida pelo JDBC
+     */
+    private static long updatedRowsOf(Object result) {
+        if (result instanceof Number number) {
+            return number.longValue();
+        }
+        if (result instanceof int[] updateCounts) {
+            long rows = 0;
+            for (int count : updateCounts) {
+                // Statement.SUCCESS_NO_INFO (-2) também indica uma linha atualizada
+                rows += count == -2 ? 1 : Math.max(count, 0);
+            }
+            return rows;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,215 @@
+package com.dashboard.crud_iot.reactive;
+
+import com.dashboard.crud_iot.dto.DeviceResponseDTO;
+import com.dashboard.crud_iot.dto.HeartbeatBatchResultDTO;
+import com.dashboard.crud_iot.dto.HeartbeatDTO;
+import com.dashboard.crud_iot.enums.DeviceStatus;
+import com.dashboard.crud_iot.enums.DeviceType;
+import com.dashboard.crud_iot.events.DeviceHeartbeatEvent;
+import com.dashboard.crud_iot.ingestion.AdmissionController;
+import com.dashboard.crud_iot.ingestion.DeviceRateLimiter;
+import com.dashboard.crud_iot.jfr.DeviceIngestionEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Handlers funcionais do caminho reativo de ingestão e consulta de dispositivos.
+ * 
+ * O backpressure é preservado de ponta a ponta: o corpo NDJSON dos lotes é lido sob
+ * demanda, no máximo maxConcurrency UPDATEs ficam em voo e o pool R2DBC limita as
+ * conexões. Quando o pool não entrega conexão a tempo a requisição recebe 503.
+ * O controle de admissão e o limite por dispositivo são os mesmos da API MVC (429).
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveDeviceHandler {
+    
+    private final ReactiveDeviceRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AdmissionController admissionController;
+    private final DeviceRateLimiter rateLimiter;
+    private final int maxConcurrency;
+    
+    /**
+     * PATCH /api/devices/{id}/communication
+     */
+    public Mono<ServerResponse> updateLastCommunication(ServerRequest request) {
+        Long id = parseId(request);
+        if (id == null) {
+            return ServerResponse.badRequest().build();
+        }
+        if (!admissionController.tryAdmit()) {
+            return tooManyRequests(admissionController.getRetryAfterSeconds());
+        }
+        long waitNanos = rateLimiter.tryAcquire(id);
+        if (waitNanos > 0) {
+            return tooManyRequests(AdmissionController.toRetryAfterSeconds(waitNanos));
+        }
+        String reading = request.queryParam("reading").filter(value -> !value.isBlank()).orElse(null);
+        LocalDateTime now = LocalDateTime.now();
+        long start = System.nanoTime();
+        DeviceIngestionEvent event = DeviceIngestionEvent.start(DeviceIngestionEvent.REACTIVE);
+        
+        return repository.touchCommunication(id, now, reading)
+                .doOnSuccess(rows -> {
+                    admissionController.recordLatency(System.nanoTime() - start);
+                    event.finish(1, rows == null ? 0 : rows);
+                })
+                .flatMap(rows -> rows == 0
+                        ? ServerResponse.notFound().build()
+                        : publishHeartbeat(id, now, reading).then(ServerResponse.noContent().build()))
+                .onErrorResume(this::unavailable);
+    }
+    
+    /**
+     * POST /api/devices/communication com corpo application/x-ndjson (um HeartbeatDTO por linha)
+     */
+    public Mono<ServerResponse> updateLastCommunicationBatch(ServerRequest request) {
+        if (!admissionController.tryAdmit()) {
+            return tooManyRequests(admissionController.getRetryAfterSeconds());
+        }
+        AtomicLong received = new AtomicLong();
+        AtomicLong applied = new AtomicLong();
+        AtomicLong throttled = new AtomicLong();
+        AtomicLong invalid = new AtomicLong();
+        long start = System.nanoTime();
+        DeviceIngestionEvent event = DeviceIngestionEvent.start(DeviceIngestionEvent.REACTIVE);
+        
+        Flux<HeartbeatDTO> heartbeats = request.bodyToFlux(HeartbeatDTO.class)
+                .doOnNext(heartbeat -> received.incrementAndGet())
+                .filter(heartbeat -> {
+                    if (heartbeat.getDeviceId() != null) {
+                        return true;
+                    }
+                    invalid.incrementAndGet();
+                    return false;
+                })
+                .filter(heartbeat -> {
+                    if (rateLimiter.tryAcquire(heartbeat.getDeviceId()) == 0) {
+                        return true;
+                    }
+                    throttled.incrementAndGet();
+                    return false;
+                });
+        
+        return heartbeats
+                .flatMap(heartbeat -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    String reading = heartbeat.getReading() == null || heartbeat.getReading().isBlank()
+                            ? null : heartbeat.getReading();
+                    return repository.touchCommunication(heartbeat.getDeviceId(), now, reading)
+                            .filter(rows -> rows > 0)
+                            .flatMap(rows -> {
+                                applied.incrementAndGet();
+                                return publishHeartbeat(heartbeat.getDeviceId(), now, reading);
+                            });
+                }, maxConcurrency)
+                .then(Mono.defer(() -> {
+                    admissionController.recordLatency(System.nanoTime() - start);
+                    event.finish(received.get(), applied.get());
+                    return ServerResponse.ok().bodyValue(HeartbeatBatchResultDTO.builder()
+                            .received(received.get())
+                            .applied(applied.get())
+                            .notFound(received.get() - applied.get() - throttled.get() - invalid.get())
+                            .throttled(throttled.get())
+                            .invalid(invalid.get())
+                            .build());
+                }))
+                .onErrorResume(this::unavailable);
+    }
+    
+    /**
+     * GET /api/devices/{id}
+     */
+    public Mono<ServerResponse> getDeviceById(ServerRequest request) {
+        Long id = parseId(request);
+        if (id == null) {
+            return ServerResponse.badRequest().build();
+        }
+        return repository.findById(id)
+                .flatMap(device -> ServerResponse.ok().bodyValue(device))
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+    
+    /**
+     * GET /api/devices — responde em NDJSON quando solicitado, transmitindo linha a linha
+     */
+    public Mono<ServerResponse> getAllDevices(ServerRequest request) {
+        return stream(request, repository.findAll());
+    }
+    
+    /**
+     * GET /api/devices/type/{type}
+     */
+    public Mono<ServerResponse> getDevicesByType(ServerRequest request) {
+        DeviceType type;
+        try {
+            type = DeviceType.valueOf(request.pathVariable("type"));
+        } catch (IllegalArgumentException e) {
+            return ServerResponse.badRequest().build();
+        }
+        return stream(request, repository.findByType(type));
+    }
+    
+    /**
+     * GET /api/devices/status/{status}
+     */
+    public Mono<ServerResponse> getDevicesByStatus(ServerRequest request) {
+        DeviceStatus status;
+        try {
+            status = DeviceStatus.valueOf(request.pathVariable("status"));
+        } catch (IllegalArgumentException e) {
+            return ServerResponse.badRequest().build();
+        }
+        return stream(request, repository.findByStatus(status));
+    }
+    
+    private Mono<ServerResponse> stream(ServerRequest request, Flux<DeviceResponseDTO> devices) {
+        MediaType mediaType = request.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+                ? MediaType.APPLICATION_NDJSON
+                : MediaType.APPLICATION_JSON;
+        return ServerResponse.ok().contentType(mediaType).body(devices, DeviceResponseDTO.class);
+    }
+    
+    /**
+     * Os listeners dos índices em memória usam locks; a publicação sai do event loop
+     */
+    private Mono<Void> publishHeartbeat(Long id, LocalDateTime now, String reading) {
+        return Mono.fromRunnable(() -> eventPublisher.publishEvent(new DeviceHeartbeatEvent(id, now, reading)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+    
+    private Mono<ServerResponse> tooManyRequests(long retryAfterSeconds) {
+        return ServerResponse.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .build();
+    }
+    
+    private Mono<ServerResponse> unavailable(Throwable error) {
+        log.warn("Ingestão reativa indisponível: {}", error.getMessage());
+        return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .build();
+    }
+    
+    private static Long parseId(ServerRequest request) {
+        try {
+            return Long.valueOf(request.pathVariable("id"));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.dashboard.crud_iot.reactive;
+
+import com.dashboard.crud_iot.dto.DeviceResponseDTO;
+import com.dashboard.crud_iot.enums.DeviceStatus;
+import com.dashboard.crud_iot.enums.DeviceType;
+import com.dashboard.crud_iot.service.DeviceAlertEvaluator;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Acesso não bloqueante à tabela devices via R2DBC.
+ * 
+ * Usa SQL portável entre H2 e PostgreSQL sobre o mesmo schema gerado pelo JPA,
+ * para que o caminho reativo e o caminho MVC enxerguem os mesmos dados.
+ * O pool R2DBC pertence a este repositório e é liberado no encerramento da aplicação.
+ */
+public class ReactiveDeviceRepository implements DisposableBean {
+    
+    private static final String SELECT_DEVICE = """
+            SELECT id, device_name, device_identifier, device_type, status, description, location,
+                   latitude, longitude, last_reading, last_communication, is_active, created_at, updated_at
+            FROM devices""";
+    
+    private final ConnectionPool connectionPool;
+    private final DatabaseClient databaseClient;
+    private final DeviceAlertEvaluator alertEvaluator;
+    
+    public ReactiveDeviceRepository(ConnectionPool connectionPool, DeviceAlertEvaluator alertEvaluator) {
+        this.connectionPool = connectionPool;
+        this.databaseClient = DatabaseClient.create(connectionPool);
+        this.alertEvaluator = alertEvaluator;
+    }
+    
+    @Override
+    public void destroy() {
+        connectionPool.dispose();
+    }
+    
+    /**
+     * Registra a comunicação de um dispositivo com um único UPDATE, sem leitura prévia
+     * @return Número de linhas atualizadas (0 se o dispositivo não existir)
+     */
+    public Mono<Long> touchCommunication(Long id, LocalDateTime communicationTime, String reading) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("""
+                        UPDATE devices
+                        SET last_communication = :time, updated_at = :time,
+                            last_reading = COALESCE(:reading, last_reading),
+                            status = CASE WHEN status = 'OFFLINE' THEN 'ACTIVE' ELSE status END
+                        WHERE id = :id""")
+                .bind("time", communicationTime)
+                .bind("id", id);
+        spec = reading != null ? spec.bind("reading", reading) : spec.bindNull("reading", String.class);
+        return spec.fetch().rowsUpdated();
+    }
+    
+    public Mono<DeviceResponseDTO> findById(Long id) {
+        LocalDateTime now = LocalDateTime.now();
+        return databaseClient.sql(SELECT_DEVICE + " WHERE id = :id")
+                .bind("id", id)
+                .map(row -> toResponseDTO(row, now))
+                .one();
+    }
+    
+    public Flux<DeviceResponseDTO> findAll() {
+        LocalDateTime now = LocalDateTime.now();
+        return databaseClient.sql(SELECT_DEVICE + " ORDER BY id")
+                .map(row -> toResponseDTO(row, now))
+                .all();
+    }
+    
+    public Flux<DeviceResponseDTO> findByType(DeviceType deviceType) {
+        LocalDateTime now = LocalDateTime.now();
+        return databaseClient.sql(SELECT_DEVICE + " WHERE device_type = CAST(:type AS VARCHAR(32)) ORDER BY id")
+                .bind("type", deviceType.name())
+                .map(row -> toResponseDTO(row, now))
+                .all();
+    }
+    
+    public Flux<DeviceResponseDTO> findByStatus(DeviceStatus status) {
+        LocalDateTime now = LocalDateTime.now();
+        return databaseClient.sql(SELECT_DEVICE + " WHERE status = CAST(:status AS VARCHAR(32)) ORDER BY id")
+                .bind("status", status.name())
+                .map(row -> toResponseDTO(row, now))
+                .all();
+    }
+    
+    private DeviceResponseDTO toResponseDTO(Readable row, LocalDateTime now) {
+        LocalDateTime lastCommunication = row.get("last_communication", LocalDateTime.class);
+        DeviceType deviceType = DeviceType.valueOf(row.get("device_type", String.class));
+        return DeviceResponseDTO.builder()
+                .id(row.get("id", Long.class))
+                .deviceName(row.get("device_name", String.class))
+                .deviceIdentifier(row.get("device_identifier", String.class))
+                .deviceType(deviceType)
+                .status(DeviceStatus.valueOf(row.get("status", String.class)))
+                .description(row.get("description", String.class))
+                .location(row.get("location", String.class))
+                .latitude(row.get("latitude", Double.class))
+                .longitude(row.get("longitude", Double.class))
+                .lastReading(row.get("last_reading", String.class))
+                .lastCommunication(lastCommunication)
+                .isActive(row.get("is_active", Boolean.class))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .updatedAt(row.get("updated_at", LocalDateTime.class))
+                .isOnline(alertEvaluator.isOnline(deviceType, lastCommunication, now))
+                .build();
+    }
+}
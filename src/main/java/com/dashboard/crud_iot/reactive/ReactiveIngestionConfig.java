@@ -0,0 +1,92 @@
+package com.dashboard.crud_iot.reactive;
+
+import com.dashboard.crud_iot.ingestion.AdmissionController;
+import com.dashboard.crud_iot.ingestion.DeviceRateLimiter;
+import com.dashboard.crud_iot.service.DeviceAlertEvaluator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.time.Duration;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.contentType;
+
+/**
+ * Configuração do caminho reativo (WebFlux + R2DBC) para ingestão e consultas de dispositivos.
+ * 
+ * Roda em porta separada (ingestion.reactive.port) ao lado dos controllers MVC.
+ * O pool R2DBC (ingestion.reactive.r2dbc.*, H2 ou PostgreSQL) não é exposto como bean
+ * ConnectionFactory: se fosse, o Spring Boot desativaria o DataSource JDBC usado pelo JPA.
+ */
+@Configuration
+@ConditionalOnProperty(name = "ingestion.reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveIngestionConfig {
+    
+    @Bean
+    public ReactiveDeviceRepository reactiveDeviceRepository(
+            DeviceAlertEvaluator alertEvaluator,
+            @Value("${ingestion.reactive.r2dbc.url}") String url,
+            @Value("${ingestion.reactive.r2dbc.username:}") String username,
+            @Value("${ingestion.reactive.r2dbc.password:}") String password,
+            @Value("${ingestion.reactive.r2dbc.pool.max-size:32}") int maxSize,
+            @Value("${ingestion.reactive.r2dbc.pool.max-acquire-time:3s}") Duration maxAcquireTime) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        ConnectionPool pool = new ConnectionPool(ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get(options))
+                .maxSize(maxSize)
+                .maxAcquireTime(maxAcquireTime)
+                .build());
+        return new ReactiveDeviceRepository(pool, alertEvaluator);
+    }
+    
+    @Bean
+    public ReactiveDeviceHandler reactiveDeviceHandler(ReactiveDeviceRepository repository,
+                                                       ApplicationEventPublisher eventPublisher,
+                                                       AdmissionController admissionController,
+                                                       DeviceRateLimiter rateLimiter,
+                                                       @Value("${ingestion.reactive.max-concurrency:32}") int maxConcurrency) {
+        return new ReactiveDeviceHandler(repository, eventPublisher, admissionController, rateLimiter, maxConcurrency);
+    }
+    
+    @Bean
+    public ReactiveIngestionServer reactiveIngestionServer(ReactiveDeviceHandler handler,
+                                                           ObjectMapper objectMapper,
+                                                           @Value("${ingestion.reactive.port:8081}") int port) {
+        RouterFunction<ServerResponse> routes = RouterFunctions.route()
+                .path("/api/devices", builder -> builder
+                        .PATCH("/{id}/communication", handler::updateLastCommunication)
+                        .POST("/communication", contentType(MediaType.APPLICATION_NDJSON),
+                                handler::updateLastCommunicationBatch)
+                        .GET("/type/{type}", handler::getDevicesByType)
+                        .GET("/status/{status}", handler::getDevicesByStatus)
+                        .GET("/{id}", handler::getDeviceById)
+                        .GET("", handler::getAllDevices))
+                .build();
+        
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        
+        return new ReactiveIngestionServer(RouterFunctions.toHttpHandler(routes, strategies), port);
+    }
+}
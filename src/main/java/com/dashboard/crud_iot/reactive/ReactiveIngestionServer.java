@@ -0,0 +1,51 @@
+package com.dashboard.crud_iot.reactive;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Servidor Reactor Netty do caminho reativo, executado em porta própria ao lado do Tomcat.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveIngestionServer implements SmartLifecycle {
+    
+    private final HttpHandler httpHandler;
+    private final int port;
+    
+    private volatile DisposableServer server;
+    
+    @Override
+    public void start() {
+        server = HttpServer.create()
+                .port(port)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+        log.info("Servidor de ingestão reativa iniciado na porta {}", server.port());
+    }
+    
+    @Override
+    public void stop() {
+        if (server != null) {
+            server.disposeNow();
+            server = null;
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+    
+    /**
+     * Porta efetivamente usada (útil quando configurada como 0)
+     */
+    public int getPort() {
+        return server != null ? server.port() : port;
+    }
+}
@@ -0,0 +1,29 @@
+package com.dashboard.crud_iot.repositories;
+
+import com.dashboard.crud_iot.dto.DeviceResponseDTO;
+import com.dashboard.crud_iot.enums.DeviceType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consultas de conectividade com corte por tipo de dispositivo, implementadas em
+ * DeviceConnectivityQueriesImpl e expostas pelo DeviceRepository.
+ */
+public interface DeviceConnectivityQueries {
+    
+    /**
+     * Busca dispositivos online já no formato de resposta
+     * @param onlineSince Para cada tipo, comunicações depois deste instante contam como online
+     * @return Lista de DTOs dos dispositivos online
+     */
+    List<DeviceResponseDTO> findResponsesOnline(Map<DeviceType, LocalDateTime> onlineSince);
+    
+    /**
+     * Busca dispositivos offline (sem comunicação ou com a última até o corte do tipo) já no formato de resposta
+     * @param onlineSince Para cada tipo, comunicações depois deste instante contam como online
+     * @return Lista de DTOs dos dispositivos offline
+     */
+    List<DeviceResponseDTO> findResponsesOffline(Map<DeviceType, LocalDateTime> onlineSince);
+}
@@ -0,0 +1,54 @@
+package com.dashboard.crud_iot.repositories;
+
+import com.dashboard.crud_iot.dto.DeviceResponseDTO;
+import com.dashboard.crud_iot.enums.DeviceType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Monta a projeção RESPONSE_SELECT com um par (tipo, corte) por tipo configurado, de modo
+ * que o banco devolva exatamente os dispositivos de cada lado da janela do seu tipo.
+ */
+class DeviceConnectivityQueriesImpl implements DeviceConnectivityQueries {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<DeviceResponseDTO> findResponsesOnline(Map<DeviceType, LocalDateTime> onlineSince) {
+        return query(" WHERE ", ">", onlineSince);
+    }
+    
+    @Override
+    public List<DeviceResponseDTO> findResponsesOffline(Map<DeviceType, LocalDateTime> onlineSince) {
+        return query(" WHERE d.lastCommunication IS NULL OR ", "<=", onlineSince);
+    }
+    
+    private List<DeviceResponseDTO> query(String where, String comparison, Map<DeviceType, LocalDateTime> onlineSince) {
+        StringBuilder jpql = new StringBuilder(DeviceRepository.RESPONSE_SELECT).append(where);
+        int i = 0;
+        for (DeviceType type : onlineSince.keySet()) {
+            jpql.append(i > 0 ? " OR " : "(")
+                    .append("(d.deviceType = :type").append(i)
+                    .append(" AND d.lastCommunication ").append(comparison).append(" :since").append(i).append(')');
+            i++;
+        }
+        jpql.append(i > 0 ? ")" : "1 = 0");
+        
+        TypedQuery<DeviceResponseDTO> query = entityManager.createQuery(jpql.toString(), DeviceResponseDTO.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, Integer.parseInt(DeviceRepository.SCAN_FETCH_SIZE));
+        i = 0;
+        for (Map.Entry<DeviceType, LocalDateTime> entry : onlineSince.entrySet()) {
+            query.setParameter("type" + i, entry.getKey());
+            query.setParameter("since" + i, entry.getValue());
+            i++;
+        }
+        return query.getResultList();
+    }
+}
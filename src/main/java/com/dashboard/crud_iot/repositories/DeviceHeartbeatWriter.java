@@ -0,0 +1,85 @@
+package com.dashboard.crud_iot.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+
+/**
+ * Escrita em lote de heartbeats via JDBC batch.
+ * 
+ * Cada heartbeat vira um UPDATE sem leitura prévia da entidade; o lote inteiro
+ * segue em uma única ida ao banco. O mesmo UPDATE devolve para ACTIVE os dispositivos
+ * marcados OFFLINE pelo DeviceOfflineSweeper. No lote, o UPDATE só se aplica se a
+ * comunicação for posterior à gravada, para que frames atrasados ou reordenados não
+ * façam last_communication voltar no tempo.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DeviceHeartbeatWriter {
+    
+    private static final String TOUCH_COMMUNICATION_SQL = """
+            UPDATE devices
+            SET last_communication = ?, updated_at = ?, last_reading = COALESCE(?, last_reading),
+                status = CASE WHEN status = 'OFFLINE' THEN 'ACTIVE' ELSE status END
+            WHERE id = ?""";
+    
+    private static final String TOUCH_LATER_COMMUNICATION_SQL = """
+            UPDATE devices
+            SET last_communication = ?, updated_at = ?, last_reading = COALESCE(?, last_reading),
+                status = CASE WHEN status = 'OFFLINE' THEN 'ACTIVE' ELSE status END
+            WHERE id = ? AND (last_communication IS NULL OR last_communication < ?)""";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Atualiza a última comunicação de um dispositivo com um único UPDATE condicional
+     * @param deviceId ID do dispositivo
+     * @param communicationTime Momento da comunicação
+     * @param reading Leitura da comunicação (null mantém a anterior)
+     * @return Linhas atualizadas (0 quando o dispositivo não existe)
+     */
+    public int touchCommunication(long deviceId, LocalDateTime communicationTime, String reading) {
+        Timestamp time = Timestamp.valueOf(communicationTime);
+        return jdbcTemplate.update(TOUCH_COMMUNICATION_SQL, time, time, reading, deviceId);
+    }
+    
+    /**
+     * Atualiza a última comunicação de vários dispositivos, ignorando as comunicações
+     * que não são posteriores à última gravada
+     * @param deviceIds IDs dos dispositivos
+     * @param communicationTimes Momento de cada comunicação
+     * @param readings Leitura de cada comunicação (null mantém a anterior)
+     * @param count Quantidade de posições válidas nos arrays
+     * @return Linhas atualizadas por posição (0 quando o dispositivo não existe ou a comunicação é antiga)
+     */
+    public int[] touchCommunications(long[] deviceIds, LocalDateTime[] communicationTimes,
+                                     String[] readings, int count) {
+        return jdbcTemplate.batchUpdate(TOUCH_LATER_COMMUNICATION_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Timestamp time = Timestamp.valueOf(communicationTimes[i]);
+                ps.setTimestamp(1, time);
+                ps.setTimestamp(2, time);
+                if (readings[i] != null) {
+                    ps.setString(3, readings[i]);
+                } else {
+                    ps.setNull(3, Types.VARCHAR);
+                }
+                ps.setLong(4, deviceIds[i]);
+                ps.setTimestamp(5, time);
+            }
+            
+            @Override
+            public int getBatchSize() {
+                return count;
+            }
+        });
+    }
+}
@@ -1,10 +1,15 @@
 package com.dashboard.crud_iot.repositories;
 
+import com.dashboard.crud_iot.dto.DeviceResponseDTO;
 import com.dashboard.crud_iot.entities.Device;
 import com.dashboard.crud_iot.enums.DeviceStatus;
 import com.dashboard.crud_iot.enums.DeviceType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -15,9 +20,26 @@ import java.util.Optional;
 /**
  * Repository para operações de banco de dados da entidade Device.
  * Estende JpaRepository para operações CRUD básicas e adiciona consultas customizadas.
+ * As consultas online/offline, com corte por tipo, vêm de DeviceConnectivityQueries.
  */
 @Repository
-public interface DeviceRepository extends JpaRepository<Device, Long> {
+public interface DeviceRepository extends JpaRepository<Device, Long>, DeviceConnectivityQueries {
+    
+    /**
+     * Projeção direta em DeviceResponseDTO, sem entidades gerenciadas no persistence context.
+     * isOnline não é calculado no SQL: sai como false e é preenchido pelo DeviceService com a
+     * janela do tipo de cada dispositivo (DeviceReportIntervals), usando o mesmo instante que
+     * define os cortes por tipo das consultas online/offline.
+     */
+    String RESPONSE_SELECT = "SELECT new com.dashboard.crud_iot.dto.DeviceResponseDTO("
+            + "d.id, d.deviceName, d.deviceIdentifier, d.deviceType, d.status, d.description, d.location, "
+            + "d.latitude, d.longitude, d.lastReading, d.lastCommunication, d.isActive, d.createdAt, d.updatedAt, "
+            + "false) FROM Device d";
+    
+    /**
+     * Linhas buscadas por round-trip nas varreduras da frota
+     */
+    String SCAN_FETCH_SIZE = "1000";
     
     /**
      * Busca um dispositivo pelo identificador único
@@ -71,13 +93,63 @@ public interface DeviceRepository extends JpaRepository<Device, Long> {
     List<Device> findDevicesOfflineSince(@Param("since") LocalDateTime since);
     
     /**
-     * Busca dispositivos online (comunicaram nos últimos 5 minutos)
+     * Busca dispositivos que comunicaram a partir de since, sem considerar a janela do tipo
      * @param since Data limite para considerar online
      * @return Lista de dispositivos online
      */
     @Query("SELECT d FROM Device d WHERE d.lastCommunication >= :since")
     List<Device> findDevicesOnlineSince(@Param("since") LocalDateTime since);
     
+    /**
+     * Lista todos os dispositivos já no formato de resposta
+     * @return Lista de DTOs de todos os dispositivos
+     */
+    @Query(RESPONSE_SELECT)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = SCAN_FETCH_SIZE))
+    List<DeviceResponseDTO> findAllResponses();
+    
+    /**
+     * Busca um dispositivo por ID já no formato de resposta
+     * @param id ID do dispositivo
+     * @return Optional com o DTO do dispositivo
+     */
+    @Query(RESPONSE_SELECT + " WHERE d.id = :id")
+    Optional<DeviceResponseDTO> findResponseById(@Param("id") Long id);
+    
+    /**
+     * Busca dispositivos por tipo já no formato de resposta
+     * @param deviceType Tipo do dispositivo
+     * @return Lista de DTOs dos dispositivos do tipo especificado
+     */
+    @Query(RESPONSE_SELECT + " WHERE d.deviceType = :deviceType")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = SCAN_FETCH_SIZE))
+    List<DeviceResponseDTO> findResponsesByDeviceType(@Param("deviceType") DeviceType deviceType);
+    
+    /**
+     * Busca dispositivos por status já no formato de resposta
+     * @param status Status do dispositivo
+     * @return Lista de DTOs dos dispositivos com o status especificado
+     */
+    @Query(RESPONSE_SELECT + " WHERE d.status = :status")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = SCAN_FETCH_SIZE))
+    List<DeviceResponseDTO> findResponsesByStatus(@Param("status") DeviceStatus status);
+    
+    /**
+     * Dispositivos de um tipo com o status informado e última comunicação até o corte.
+     * Percorre só a faixa do índice (status, device_type, last_communication) que vai mudar de estado.
+     * @param status Status atual
+     * @param deviceType Tipo do dispositivo
+     * @param cutoff Comunicações até este instante entram no resultado
+     * @param pageable Tamanho do lote
+     * @return Dispositivos atrasados, do mais antigo ao mais recente
+     */
+    @Query("SELECT d FROM Device d WHERE d.status = :status AND d.deviceType = :deviceType "
+            + "AND d.lastCommunication <= :cutoff ORDER BY d.lastCommunication")
+    List<Device> findOverdue(@Param("status") DeviceStatus status,
+                             @Param("deviceType") DeviceType deviceType,
+                             @Param("cutoff") LocalDateTime cutoff,
+                             Pageable pageable);
+    
     /**
      * Conta dispositivos por status
      * @param status Status para contar
@@ -92,6 +164,30 @@ public interface DeviceRepository extends JpaRepository<Device, Long> {
      */
     long countByDeviceType(DeviceType deviceType);
     
+    /**
+     * Nome e identificador de todos os dispositivos, para o índice de unicidade
+     * @return Chaves únicas de cada dispositivo
+     */
+    @Query("SELECT d.deviceName AS deviceName, d.deviceIdentifier AS deviceIdentifier FROM Device d")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = SCAN_FETCH_SIZE))
+    List<UniqueKeys> findAllUniqueKeys();
+    
+    /**
+     * Tipo e última comunicação de todos os dispositivos, para o rastreamento de uptime
+     * @return Estado de comunicação de cada dispositivo
+     */
+    @Query("SELECT d.id AS id, d.deviceType AS deviceType, d.lastCommunication AS lastCommunication FROM Device d")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = SCAN_FETCH_SIZE))
+    List<LastCommunication> findAllLastCommunications();
+    
+    /**
+     * Data de criação de todos os dispositivos, para conferir as leituras gravadas em disco
+     * @return Id e criação de cada dispositivo
+     */
+    @Query("SELECT d.id AS id, d.createdAt AS createdAt FROM Device d")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = SCAN_FETCH_SIZE))
+    List<CreationTime> findAllCreationTimes();
+    
     /**
      * Verifica se existe um dispositivo com o identificador especificado
      * @param deviceIdentifier Identificador para verificar
@@ -105,4 +201,29 @@ public interface DeviceRepository extends JpaRepository<Device, Long> {
      * @return true se existe, false caso contrário
      */
     boolean existsByDeviceName(String deviceName);
+    
+    /**
+     * Projeção com as colunas unique de devices
+     */
+    interface UniqueKeys {
+        String getDeviceName();
+        String getDeviceIdentifier();
+    }
+    
+    /**
+     * Projeção com o estado de comunicação de um dispositivo
+     */
+    interface LastCommunication {
+        Long getId();
+        DeviceType getDeviceType();
+        LocalDateTime getLastCommunication();
+    }
+    
+    /**
+     * Projeção com a criação de um dispositivo
+     */
+    interface CreationTime {
+        Long getId();
+        LocalDateTime getCreatedAt();
+    }
 }
@@ -0,0 +1,55 @@
+package com.dashboard.crud_iot.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Transições automáticas de status via JDBC batch.
+ *
+ * Cada dispositivo vira um UPDATE condicional: só passa a OFFLINE se ainda estiver ACTIVE
+ * e sem comunicação depois do corte do seu tipo, de modo que um heartbeat que chegue entre
+ * a varredura e a escrita prevalece. O lote inteiro segue em uma única ida ao banco.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DeviceStatusWriter {
+    
+    private static final String MARK_OFFLINE_SQL = """
+            UPDATE devices
+            SET status = 'OFFLINE', updated_at = ?
+            WHERE id = ? AND status = 'ACTIVE' AND last_communication <= ?""";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Marca como OFFLINE os dispositivos ativos ainda sem comunicação depois do corte
+     * @param deviceIds IDs dos dispositivos
+     * @param cutoffs Corte de cada dispositivo (janela online do seu tipo)
+     * @param now Momento da transição
+     * @param count Quantidade de posições válidas nos arrays
+     * @return Linhas atualizadas por posição (0 quando o dispositivo já comunicou ou mudou de status)
+     */
+    public int[] markOffline(long[] deviceIds, LocalDateTime[] cutoffs, LocalDateTime now, int count) {
+        Timestamp updatedAt = Timestamp.valueOf(now);
+        return jdbcTemplate.batchUpdate(MARK_OFFLINE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setTimestamp(1, updatedAt);
+                ps.setLong(2, deviceIds[i]);
+                ps.setTimestamp(3, Timestamp.valueOf(cutoffs[i]));
+            }
+            
+            @Override
+            public int getBatchSize() {
+                return count;
+            }
+        });
+    }
+}
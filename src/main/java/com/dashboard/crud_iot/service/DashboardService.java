@@ -1,13 +1,21 @@
 package com.dashboard.crud_iot.service;
 
+import com.dashboard.crud_iot.bulkhead.ExecutionLanes;
 import com.dashboard.crud_iot.dto.*;
 import com.dashboard.crud_iot.entities.Device;
 import com.dashboard.crud_iot.enums.DeviceStatus;
+import com.dashboard.crud_iot.ingestion.AdmissionController;
+import com.dashboard.crud_iot.ingestion.DeviceRateLimiter;
+import com.dashboard.crud_iot.ingestion.IngestRateMonitor;
+import com.dashboard.crud_iot.jfr.DashboardPhaseEvent;
+import com.dashboard.crud_iot.notifications.AlertNotificationDispatcher;
 import com.dashboard.crud_iot.repositories.DeviceRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
@@ -25,32 +33,41 @@ import java.util.stream.Collectors;
 public class DashboardService {
     
     private final DeviceRepository deviceRepository;
+    private final DeviceAlertEvaluator alertEvaluator;
+    private final LocationIndex locationIndex;
+    private final DeviceRateLimiter rateLimiter;
+    private final AdmissionController admissionController;
+    private final ExecutionLanes executionLanes;
+    private final IngestRateMonitor ingestRateMonitor;
+    private final UptimeTracker uptimeTracker;
+    private final FleetStatsHistory statsHistory;
+    private final AlertNotificationDispatcher notificationDispatcher;
     
     // Constantes para cálculos de conectividade
-    private static final int ONLINE_THRESHOLD_MINUTES = 5;
-    private static final int IRREGULAR_COMMUNICATION_THRESHOLD_MINUTES = 30;
+    private static final int RECENT_COMMUNICATION_MINUTES = 5;
     
     /**
      * Calcula as estatísticas gerais do dashboard.
      * 
      * @return DashboardStatsDTO com todas as métricas principais
      */
+    @Timed(value = "dashboard.computation", extraTags = {"operation", "general-stats"})
     public DashboardStatsDTO getGeneralStats() {
         log.info("Calculando estatísticas gerais do dashboard");
         
         LocalDateTime now = LocalDateTime.now();
-        LocalDateTime onlineThreshold = now.minusMinutes(ONLINE_THRESHOLD_MINUTES);
         
         // Busca todos os dispositivos para cálculos
-        List<Device> allDevices = deviceRepository.findAll();
+        List<Device> allDevices = loadAllDevices("general-stats");
         
         if (allDevices.isEmpty()) {
             return createEmptyStats(now);
         }
         
+        DashboardPhaseEvent aggregate = DashboardPhaseEvent.start("general-stats", DashboardPhaseEvent.AGGREGATE);
         // Cálculos básicos
         long totalDevices = allDevices.size();
-        long onlineDevices = countDevicesOnlineSince(allDevices, onlineThreshold);
+        long onlineDevices = countDevicesOnline(allDevices, now);
         long offlineDevices = totalDevices - onlineDevices;
         
         // Contagem por status
@@ -72,11 +89,12 @@ public class DashboardService {
                 .map(Device::getDeviceType)
                 .distinct()
                 .count();
+        aggregate.finish(totalDevices, statusCounts.size());
         
-        // Verificação de alertas críticos
-        List<DeviceAlertDTO> alerts = getActiveAlerts();
-        boolean hasCriticalAlerts = alerts.stream()
-                .anyMatch(alert -> alert.getSeverity() == DeviceAlertDTO.AlertSeverity.CRITICAL);
+        // Verificação de alertas críticos, a partir das contagens já mantidas pelo índice
+        long[] alertCounts = locationIndex.getAlertCounts(now);
+        boolean hasCriticalAlerts = alertCounts[DeviceAlertDTO.AlertSeverity.CRITICAL.ordinal()] > 0;
+        long activeAlerts = Arrays.stream(alertCounts).sum();
         
         // Status geral do sistema
         String systemStatus = determineSystemStatus(onlinePercentage, errorDevices, totalDevices);
@@ -96,7 +114,7 @@ public class DashboardService {
                 .lastUpdated(now)
                 .systemStatus(systemStatus)
                 .hasCriticalAlerts(hasCriticalAlerts)
-                .activeAlerts((long) alerts.size())
+                .activeAlerts(activeAlerts)
                 .build();
     }
     
@@ -105,11 +123,13 @@ public class DashboardService {
      * 
      * @return StatusDistributionDTO com contagem por cada status
      */
+    @Timed(value = "dashboard.computation", extraTags = {"operation", "status-distribution"})
     public StatusDistributionDTO getStatusDistribution() {
         log.info("Calculando distribuição por status");
         
-        List<Device> allDevices = deviceRepository.findAll();
+        List<Device> allDevices = loadAllDevices("status-distribution");
         
+        DashboardPhaseEvent aggregate = DashboardPhaseEvent.start("status-distribution", DashboardPhaseEvent.AGGREGATE);
         Map<String, Long> statusCounts = allDevices.stream()
                 .collect(Collectors.groupingBy(
                         device -> device.getStatus().name(),
@@ -119,6 +139,7 @@ public class DashboardService {
         // Encontra o status mais comum
         Optional<Map.Entry<String, Long>> mostCommon = statusCounts.entrySet().stream()
                 .max(Map.Entry.comparingByValue());
+        aggregate.finish(allDevices.size(), statusCounts.size());
         
         return StatusDistributionDTO.builder()
                 .statusCounts(statusCounts)
@@ -133,11 +154,13 @@ public class DashboardService {
      * 
      * @return TypeDistributionDTO com contagem por cada tipo
      */
+    @Timed(value = "dashboard.computation", extraTags = {"operation", "type-distribution"})
     public TypeDistributionDTO getTypeDistribution() {
         log.info("Calculando distribuição por tipo");
         
-        List<Device> allDevices = deviceRepository.findAll();
+        List<Device> allDevices = loadAllDevices("type-distribution");
         
+        DashboardPhaseEvent aggregate = DashboardPhaseEvent.start("type-distribution", DashboardPhaseEvent.AGGREGATE);
         Map<String, Long> typeCounts = allDevices.stream()
                 .collect(Collectors.groupingBy(
                         device -> device.getDeviceType().name(),
@@ -147,6 +170,7 @@ public class DashboardService {
         // Encontra o tipo mais comum
         Optional<Map.Entry<String, Long>> mostCommon = typeCounts.entrySet().stream()
                 .max(Map.Entry.comparingByValue());
+        aggregate.finish(allDevices.size(), typeCounts.size());
         
         return TypeDistributionDTO.builder()
                 .typeCounts(typeCounts)
@@ -162,18 +186,20 @@ public class DashboardService {
      * 
      * @return ConnectivityStatsDTO com métricas de comunicação
      */
+    @Timed(value = "dashboard.computation", extraTags = {"operation", "connectivity-stats"})
     public ConnectivityStatsDTO getConnectivityStats() {
         log.info("Calculando estatísticas de conectividade");
         
         LocalDateTime now = LocalDateTime.now();
-        List<Device> allDevices = deviceRepository.findAll();
+        List<Device> allDevices = loadAllDevices("connectivity-stats");
         
         if (allDevices.isEmpty()) {
             return createEmptyConnectivityStats(now);
         }
         
+        DashboardPhaseEvent aggregate = DashboardPhaseEvent.start("connectivity-stats", DashboardPhaseEvent.AGGREGATE);
         // Dispositivos online em diferentes períodos
-        long onlineLast5Min = countDevicesOnlineSince(allDevices, now.minusMinutes(5));
+        long onlineLast5Min = countDevicesOnlineSince(allDevices, now.minusMinutes(RECENT_COMMUNICATION_MINUTES));
         long onlineLastHour = countDevicesOnlineSince(allDevices, now.minusHours(1));
         long onlineToday = countDevicesOnlineSince(allDevices, now.toLocalDate().atStartOfDay());
         
@@ -185,12 +211,14 @@ public class DashboardService {
         // Tempo médio desde última comunicação
         double avgTimeSinceLastCommunication = calculateAverageTimeSinceLastCommunication(allDevices, now);
         
-        // Cálculo de uptime e conectividade
-        double uptimePercentage = calculateUptimePercentage(allDevices);
-        double connectivityRate = calculatePercentage(onlineLast5Min, allDevices.size());
+        // Uptime pelos intervalos online acompanhados e conectividade pela janela de cada tipo
+        Double uptimePercentage = uptimeTracker.getFleetUptime(Duration.ofDays(1), now);
+        Double slaUptimePercentage = uptimeTracker.getFleetUptime(uptimeTracker.getRetention(), now);
+        double connectivityRate = calculatePercentage(countDevicesOnline(allDevices, now), allDevices.size());
         
         // Dispositivos com comunicação irregular
         long irregularCommunication = countDevicesWithIrregularCommunication(allDevices, now);
+        aggregate.finish(allDevices.size(), allDevices.size());
         
         return ConnectivityStatsDTO.builder()
                 .devicesOnlineLast5Min(onlineLast5Min)
@@ -199,6 +227,9 @@ public class DashboardService {
                 .devicesNeverCommunicated(neverCommunicated)
                 .averageTimeSinceLastCommunication(avgTimeSinceLastCommunication)
                 .overallUptimePercentage(uptimePercentage)
+                .slaUptimePercentage(slaUptimePercentage)
+                .slaTarget(uptimeTracker.getSlaTarget())
+                .slaMet(slaUptimePercentage == null ? null : slaUptimePercentage >= uptimeTracker.getSlaTarget())
                 .connectivityRate(connectivityRate)
                 .devicesWithIrregularCommunication(irregularCommunication)
                 .lastCheckTime(now)
@@ -208,36 +239,165 @@ public class DashboardService {
     /**
      * Gera lista de alertas ativos do sistema.
      * 
+     * As regras são avaliadas incrementalmente pelo LocationIndex a cada alteração de
+     * dispositivo; aqui só se montam e ordenam os alertas, sem consultar o banco.
+     * 
      * @return Lista de DeviceAlertDTO com dispositivos que requerem atenção
      */
+    @Timed(value = "dashboard.computation", extraTags = {"operation", "active-alerts"})
     public List<DeviceAlertDTO> getActiveAlerts() {
         log.info("Gerando alertas ativos");
         
         LocalDateTime now = LocalDateTime.now();
-        List<Device> allDevices = deviceRepository.findAll();
-        List<DeviceAlertDTO> alerts = new ArrayList<>();
-        
-        for (Device device : allDevices) {
-            DeviceAlertDTO alert = generateAlertForDevice(device, now);
-            if (alert != null) {
-                alerts.add(alert);
-            }
-        }
+        
+        DashboardPhaseEvent evaluation = DashboardPhaseEvent.start("active-alerts", DashboardPhaseEvent.ALERTS);
+        List<DeviceAlertDTO> alerts = locationIndex.getActiveAlerts(now);
+        evaluation.finish(alerts.size(), alerts.size());
         
         // Ordena por severidade (críticos primeiro) e depois por tempo
+        DashboardPhaseEvent sort = DashboardPhaseEvent.start("active-alerts", DashboardPhaseEvent.SORT);
         alerts.sort((a, b) -> {
             int severityCompare = b.getSeverity().ordinal() - a.getSeverity().ordinal();
             if (severityCompare != 0) return severityCompare;
             return b.getAlertTimestamp().compareTo(a.getAlertTimestamp());
         });
+        sort.finish(alerts.size(), alerts.size());
         
         return alerts;
     }
     
+    /**
+     * Retorna a árvore de localizações com os totais agregados de cada nó.
+     * 
+     * @param maxDepth Profundidade máxima da árvore retornada
+     * @return Lista de localizações de primeiro nível
+     */
+    @Timed(value = "dashboard.computation", extraTags = {"operation", "location-tree"})
+    public List<LocationNodeDTO> getLocationTree(int maxDepth) {
+        log.info("Consultando árvore de localizações (profundidade {})", maxDepth);
+        return locationIndex.getTree(maxDepth);
+    }
+    
+    /**
+     * Retorna as estatísticas agregadas de uma localização e suas sublocalizações.
+     * 
+     * @param path Caminho da localização (ex.: "Prédio A - Andar 2")
+     * @return Optional vazio se a localização não possuir dispositivos
+     */
+    @Timed(value = "dashboard.computation", extraTags = {"operation", "location-stats"})
+    public Optional<LocationStatsDTO> getLocationStats(String path) {
+        log.info("Consultando estatísticas da localização: {}", path);
+        return locationIndex.getStats(path);
+    }
+    
+    /**
+     * Retorna o estado do rate limiting por dispositivo e do controle de admissão.
+     * 
+     * @param limit Quantidade máxima de dispositivos na lista de maiores ofensores
+     * @return Estatísticas de throttling da ingestão
+     */
+    @Timed(value = "dashboard.computation", extraTags = {"operation", "throttling-stats"})
+    public ThrottlingStatsDTO getThrottlingStats(int limit) {
+        log.info("Consultando estatísticas de throttling da ingestão");
+        List<ThrottledDeviceDTO> offenders = rateLimiter.getTopOffenders(limit);
+        Map<Long, String> names = deviceRepository.findAllById(offenders.stream()
+                        .map(ThrottledDeviceDTO::getDeviceId)
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(Device::getId, Device::getDeviceName));
+        offenders.forEach(offender -> offender.setDeviceName(names.get(offender.getDeviceId())));
+        
+        return ThrottlingStatsDTO.builder()
+                .allowedHeartbeats(rateLimiter.getAllowedCount())
+                .throttledHeartbeats(rateLimiter.getThrottledCount())
+                .shedRequests(admissionController.getShedCount())
+                .devicesThrottledNow(rateLimiter.countThrottledDevices())
+                .overloaded(admissionController.isOverloaded())
+                .queueLatencyMs(admissionController.getLastWindowMinLatencyMs())
+                .topOffenders(offenders)
+                .build();
+    }
+    
+    /**
+     * Retorna os dispositivos que mais enviaram heartbeats na janela recente.
+     * 
+     * @param limit Quantidade máxima de dispositivos
+     * @return Maiores emissores com nome, tipo e taxa estimada
+     */
+    public List<TopTalkerDTO> getTopTalkers(int limit) {
+        log.info("Consultando maiores emissores de heartbeats");
+        List<TopTalkerDTO> talkers = ingestRateMonitor.getTopTalkers(limit);
+        Map<Long, String> names = deviceRepository.findAllById(talkers.stream()
+                        .map(TopTalkerDTO::getDeviceId)
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(Device::getId, Device::getDeviceName));
+        talkers.forEach(talker -> talker.setDeviceName(names.get(talker.getDeviceId())));
+        return talkers;
+    }
+    
+    /**
+     * Retorna as séries de heartbeats por segundo da frota e de cada tipo.
+     * 
+     * @param seconds Tamanho da série em segundos
+     * @return Série da frota seguida das séries por tipo
+     */
+    public List<IngestRateSeriesDTO> getIngestRates(int seconds) {
+        return ingestRateMonitor.getRates(seconds);
+    }
+    
+    /**
+     * Retorna a série histórica das contagens da frota, sem acessar o banco.
+     * 
+     * @param range Período até agora (ex.: 24h)
+     * @param step Passo de cada ponto (ex.: 5m)
+     * @return Pontos com a média das capturas de cada passo
+     */
+    public FleetStatsHistoryDTO getStatsHistory(String range, String step) {
+        return statsHistory.getHistory(range, step);
+    }
+    
+    /**
+     * Retorna a saturação de cada faixa de execução.
+     * 
+     * @return Métricas dos bulkheads de ingestão, CRUD e analytics
+     */
+    public List<LaneStatsDTO> getLaneStats() {
+        return executionLanes.getStats();
+    }
+    
+    /**
+     * Retorna a vazão e o atraso das notificações de alerta.
+     * 
+     * @return Fila de entrada e estatísticas por destino
+     */
+    public NotificationStatsDTO getNotificationStats() {
+        return notificationDispatcher.getStats();
+    }
+    
     // ==================== MÉTODOS AUXILIARES ====================
     
     /**
-     * Conta dispositivos online desde um determinado momento.
+     * Carrega a frota inteira, registrando a fase de carga no JFR.
+     */
+    private List<Device> loadAllDevices(String operation) {
+        DashboardPhaseEvent load = DashboardPhaseEvent.start(operation, DashboardPhaseEvent.LOAD);
+        List<Device> devices = deviceRepository.findAll();
+        load.finish(devices.size(), devices.size());
+        return devices;
+    }
+    
+    /**
+     * Conta dispositivos online pela janela do tipo de cada um.
+     */
+    private long countDevicesOnline(List<Device> devices, LocalDateTime now) {
+        return devices.stream()
+                .filter(device -> alertEvaluator.isOnline(device.getDeviceType(), device.getLastCommunication(), now))
+                .count();
+    }
+    
+    /**
+     * Conta dispositivos que comunicaram depois de um instante, independente do tipo.
      */
     private long countDevicesOnlineSince(List<Device> devices, LocalDateTime since) {
         return devices.stream()
@@ -287,96 +447,18 @@ public class DashboardService {
     }
     
     /**
-     * Calcula percentual de uptime baseado no status dos dispositivos.
-     */
-    private double calculateUptimePercentage(List<Device> devices) {
-        long activeDevices = devices.stream()
-                .filter(device -> device.getStatus() == DeviceStatus.ACTIVE)
-                .count();
-        
-        return calculatePercentage(activeDevices, devices.size());
-    }
-    
-    /**
-     * Conta dispositivos com comunicação irregular.
+     * Conta dispositivos com comunicação irregular: ativos que já perderam pelo menos
+     * um reporte esperado para o seu tipo, mas ainda não foram marcados como offline.
+     * Uma janela fixa não serve aqui, já que o DeviceOfflineSweeper marca OFFLINE
+     * depois de poucos intervalos do tipo (30 s para um rastreador).
      */
     private long countDevicesWithIrregularCommunication(List<Device> devices, LocalDateTime now) {
-        LocalDateTime threshold = now.minusMinutes(IRREGULAR_COMMUNICATION_THRESHOLD_MINUTES);
-        
         return devices.stream()
                 .filter(device -> device.getStatus() == DeviceStatus.ACTIVE) // Apenas ativos
-                .filter(device -> device.getLastCommunication() != null)
-                .filter(device -> device.getLastCommunication().isBefore(threshold))
+                .filter(device -> alertEvaluator.isLate(device.getDeviceType(), device.getLastCommunication(), now))
                 .count();
     }
     
-    /**
-     * Gera alerta para um dispositivo específico se necessário.
-     */
-    private DeviceAlertDTO generateAlertForDevice(Device device, LocalDateTime now) {
-        DeviceAlertDTO.AlertType alertType = null;
-        DeviceAlertDTO.AlertSeverity severity = null;
-        String message = null;
-        boolean isCritical = false;
-        
-        // Verifica se dispositivo tem erro
-        if (device.getStatus() == DeviceStatus.ERROR) {
-            alertType = DeviceAlertDTO.AlertType.DEVICE_ERROR;
-            severity = DeviceAlertDTO.AlertSeverity.HIGH;
-            message = "Dispositivo apresenta status de erro";
-            isCritical = true;
-        }
-        // Verifica se precisa de manutenção
-        else if (device.getStatus() == DeviceStatus.MAINTENANCE) {
-            alertType = DeviceAlertDTO.AlertType.MAINTENANCE_REQUIRED;
-            severity = DeviceAlertDTO.AlertSeverity.MEDIUM;
-            message = "Dispositivo requer manutenção";
-        }
-        // Verifica comunicação offline
-        else if (device.getLastCommunication() == null) {
-            alertType = DeviceAlertDTO.AlertType.DEVICE_OFFLINE;
-            severity = DeviceAlertDTO.AlertSeverity.CRITICAL;
-            message = "Dispositivo nunca se comunicou";
-            isCritical = true;
-        }
-        else if (device.getLastCommunication().isBefore(now.minusMinutes(ONLINE_THRESHOLD_MINUTES * 6))) { // 30 min
-            alertType = DeviceAlertDTO.AlertType.COMMUNICATION_LOST;
-            severity = DeviceAlertDTO.AlertSeverity.HIGH;
-            message = "Dispositivo não responde há mais de 30 minutos";
-            isCritical = true;
-        }
-        else if (device.getLastCommunication().isBefore(now.minusMinutes(IRREGULAR_COMMUNICATION_THRESHOLD_MINUTES))) {
-            alertType = DeviceAlertDTO.AlertType.COMMUNICATION_LOST;
-            severity = DeviceAlertDTO.AlertSeverity.MEDIUM;
-            message = "Comunicação irregular detectada";
-        }
-        
-        // Se não há alerta, retorna null
-        if (alertType == null) {
-            return null;
-        }
-        
-        // Calcula tempo desde última comunicação
-        Long minutesSinceLastCommunication = device.getLastCommunication() != null 
-            ? ChronoUnit.MINUTES.between(device.getLastCommunication(), now)
-            : null;
-        
-        return DeviceAlertDTO.builder()
-                .deviceId(device.getId())
-                .deviceName(device.getDeviceName())
-                .deviceType(device.getDeviceType())
-                .deviceStatus(device.getStatus())
-                .alertType(alertType)
-                .severity(severity)
-                .alertMessage(message)
-                .location(device.getLocation())
-                .lastCommunication(device.getLastCommunication())
-                .minutesSinceLastCommunication(minutesSinceLastCommunication)
-                .alertTimestamp(now)
-                .isCritical(isCritical)
-                .build();
-    }
-    
     /**
      * Cria estatísticas vazias quando não há dispositivos.
      */
@@ -411,6 +493,7 @@ public class DashboardService {
                 .devicesNeverCommunicated(0L)
                 .averageTimeSinceLastCommunication(0.0)
                 .overallUptimePercentage(0.0)
+                .slaTarget(uptimeTracker.getSlaTarget())
                 .connectivityRate(0.0)
                 .devicesWithIrregularCommunication(0L)
                 .lastCheckTime(now)
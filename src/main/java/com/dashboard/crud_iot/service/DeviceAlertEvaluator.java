@@ -0,0 +1,128 @@
+package com.dashboard.crud_iot.service;
+
+import com.dashboard.crud_iot.alerts.AlertRule;
+import com.dashboard.crud_iot.alerts.AlertRuleEngine;
+import com.dashboard.crud_iot.dto.DeviceAlertDTO;
+import com.dashboard.crud_iot.enums.DeviceStatus;
+import com.dashboard.crud_iot.enums.DeviceType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Regras de geração de alertas por dispositivo.
+ * 
+ * Extraído do DashboardService para que a mesma classificação seja usada tanto
+ * na listagem de alertas quanto nos índices mantidos em memória. As condições em si
+ * vêm do AlertRuleEngine, configuradas por tipo de dispositivo.
+ */
+@Component
+@RequiredArgsConstructor
+public class DeviceAlertEvaluator {
+    
+    private final DeviceReportIntervals reportIntervals;
+    private final AlertRuleEngine ruleEngine;
+    
+    /**
+     * Avalia as regras de alerta do tipo para o estado informado.
+     * @param metrics Métricas da última leitura, obtidas por parseReading
+     * @param now Momento de referência da avaliação
+     * @return Regra vencedora ou null se o dispositivo não requer atenção
+     */
+    public AlertRule match(DeviceType type, DeviceStatus status, LocalDateTime lastCommunication,
+                           double[] metrics, LocalDateTime now) {
+        return ruleEngine.match(type, status, silenceSeconds(lastCommunication, now), metrics);
+    }
+    
+    /**
+     * Converte a leitura textual do dispositivo nas métricas usadas pelas regras
+     */
+    public double[] parseReading(String reading) {
+        return ruleEngine.parseReading(reading);
+    }
+    
+    /**
+     * Próximo instante em que o estado online ou o resultado das regras pode mudar só
+     * pela passagem do tempo, sem nova comunicação
+     * @return Instante após now, ou null se o estado não muda mais sem um novo evento
+     */
+    public LocalDateTime nextChange(DeviceType type, LocalDateTime lastCommunication, LocalDateTime now) {
+        if (lastCommunication == null) {
+            return null;
+        }
+        long silence = silenceSeconds(lastCommunication, now);
+        LocalDateTime next = null;
+        LocalDateTime offlineAt = lastCommunication.plus(reportIntervals.offlineAfter(type));
+        if (offlineAt.isAfter(now)) {
+            next = offlineAt;
+        }
+        // "silence > T" muda em T + 1 s e "silence >= T" / "silence < T" em T
+        for (long threshold : ruleEngine.silenceThresholds(type)) {
+            if (threshold + 1 <= silence) {
+                continue;
+            }
+            LocalDateTime candidate = lastCommunication.plusSeconds(threshold > silence ? threshold : threshold + 1);
+            if (next == null || candidate.isBefore(next)) {
+                next = candidate;
+            }
+            break;
+        }
+        return next;
+    }
+    
+    /**
+     * Monta o alerta de um dispositivo a partir da regra satisfeita.
+     * @return DeviceAlertDTO ou null se rule for null
+     */
+    public DeviceAlertDTO toAlert(AlertRule rule, Long deviceId, String deviceName, DeviceType type,
+                                  DeviceStatus status, String location, LocalDateTime lastCommunication,
+                                  LocalDateTime now) {
+        if (rule == null) {
+            return null;
+        }
+        
+        // Calcula tempo desde última comunicação
+        Long minutesSinceLastCommunication = lastCommunication != null 
+            ? ChronoUnit.MINUTES.between(lastCommunication, now)
+            : null;
+        
+        return DeviceAlertDTO.builder()
+                .deviceId(deviceId)
+                .deviceName(deviceName)
+                .deviceType(type)
+                .deviceStatus(status)
+                .alertType(rule.alertType())
+                .severity(rule.severity())
+                .alertMessage(rule.message())
+                .location(location)
+                .lastCommunication(lastCommunication)
+                .minutesSinceLastCommunication(minutesSinceLastCommunication)
+                .alertTimestamp(now)
+                .isCritical(rule.critical())
+                .build();
+    }
+    
+    /**
+     * Indica se a última comunicação ainda está dentro da janela online do tipo do dispositivo.
+     */
+    public boolean isOnline(DeviceType type, LocalDateTime lastCommunication, LocalDateTime now) {
+        return reportIntervals.isOnline(type, lastCommunication, now);
+    }
+    
+    /**
+     * Indica se o dispositivo está atrasado: perdeu comunicações esperadas, mas ainda não ficou offline.
+     */
+    public boolean isLate(DeviceType type, LocalDateTime lastCommunication, LocalDateTime now) {
+        return reportIntervals.isLate(type, lastCommunication, now);
+    }
+    
+    private static long silenceSeconds(LocalDateTime lastCommunication, LocalDateTime now) {
+        if (lastCommunication == null) {
+            return -1;
+        }
+        return Math.max(0, Duration.between(lastCommunication, now).getSeconds());
+    }
+}
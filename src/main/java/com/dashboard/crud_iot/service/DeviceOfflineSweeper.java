@@ -0,0 +1,111 @@
+package com.dashboard.crud_iot.service;
+
+import com.dashboard.crud_iot.entities.Device;
+import com.dashboard.crud_iot.enums.DeviceStatus;
+import com.dashboard.crud_iot.enums.DeviceType;
+import com.dashboard.crud_iot.events.DeviceChangedEvent;
+import com.dashboard.crud_iot.events.DeviceSnapshot;
+import com.dashboard.crud_iot.repositories.DeviceRepository;
+import com.dashboard.crud_iot.repositories.DeviceStatusWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Marca como OFFLINE os dispositivos ACTIVE que passaram da janela online do seu tipo.
+ *
+ * Cada varredura faz, por tipo, uma consulta de faixa no índice (status, device_type,
+ * last_communication) que devolve só os dispositivos que vão mudar de estado, e aplica
+ * as transições em um único JDBC batch. O custo acompanha o número de transições, não o
+ * tamanho da frota. A volta para ACTIVE acontece no próprio UPDATE do próximo heartbeat.
+ * Dispositivos que nunca comunicaram continuam com o status cadastrado.
+ */
+@Component
+@ConditionalOnProperty(name = "devices.offline.sweeper.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class DeviceOfflineSweeper {
+    
+    private final DeviceRepository deviceRepository;
+    private final DeviceStatusWriter statusWriter;
+    private final DeviceReportIntervals reportIntervals;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    
+    public DeviceOfflineSweeper(DeviceRepository deviceRepository,
+                                DeviceStatusWriter statusWriter,
+                                DeviceReportIntervals reportIntervals,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${devices.offline.sweeper.batch-size:1000}") int batchSize) {
+        this.deviceRepository = deviceRepository;
+        this.statusWriter = statusWriter;
+        this.reportIntervals = reportIntervals;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+    
+    @Scheduled(fixedDelayString = "${devices.offline.sweeper.interval-ms:10000}",
+               initialDelayString = "${devices.offline.sweeper.interval-ms:10000}")
+    public void sweep() {
+        int total = 0;
+        int applied;
+        do {
+            applied = sweepBatch(LocalDateTime.now());
+            total += applied;
+        } while (applied == batchSize);
+        if (total > 0) {
+            log.info("Dispositivos marcados como OFFLINE: {}", total);
+        }
+    }
+    
+    /**
+     * Aplica até batchSize transições e publica um DeviceChangedEvent para cada uma
+     * @return Quantidade de dispositivos que passaram a OFFLINE
+     */
+    int sweepBatch(LocalDateTime now) {
+        List<Device> overdue = new ArrayList<>();
+        List<LocalDateTime> cutoffs = new ArrayList<>();
+        for (DeviceType type : DeviceType.values()) {
+            int remaining = batchSize - overdue.size();
+            if (remaining == 0) {
+                break;
+            }
+            LocalDateTime cutoff = reportIntervals.onlineSince(type, now);
+            for (Device device : deviceRepository.findOverdue(DeviceStatus.ACTIVE, type, cutoff,
+                    PageRequest.of(0, remaining))) {
+                overdue.add(device);
+                cutoffs.add(cutoff);
+            }
+        }
+        if (overdue.isEmpty()) {
+            return 0;
+        }
+        
+        int count = overdue.size();
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = overdue.get(i).getId();
+        }
+        int[] updated = statusWriter.markOffline(ids, cutoffs.toArray(LocalDateTime[]::new), now, count);
+        
+        int applied = 0;
+        for (int i = 0; i < count; i++) {
+            // Statement.SUCCESS_NO_INFO também indica sucesso em alguns drivers; EXECUTE_FAILED não
+            if (updated[i] > 0 || updated[i] == Statement.SUCCESS_NO_INFO) {
+                applied++;
+                DeviceSnapshot before = DeviceSnapshot.of(overdue.get(i));
+                eventPublisher.publishEvent(new DeviceChangedEvent(before,
+                        before.toBuilder().status(DeviceStatus.OFFLINE).build()));
+            }
+        }
+        return applied;
+    }
+}
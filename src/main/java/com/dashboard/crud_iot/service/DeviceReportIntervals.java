@@ -0,0 +1,88 @@
+package com.dashboard.crud_iot.service;
+
+import com.dashboard.crud_iot.enums.DeviceType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Intervalo esperado entre comunicações de cada tipo de dispositivo, configurado por
+ * devices.report-interval.{tipo}.
+ *
+ * Um dispositivo é considerado online enquanto a última comunicação estiver dentro de
+ * devices.offline.missed-reports intervalos do seu tipo: um rastreador que reporta a cada
+ * 10 s fica offline em 30 s, um sensor de umidade de 15 min só depois de 45 min.
+ */
+@Component
+@Slf4j
+public class DeviceReportIntervals {
+    
+    // 3 x 100 s = 5 min, a janela fixa usada antes da configuração por tipo
+    private static final Duration DEFAULT_REPORT_INTERVAL = Duration.ofSeconds(100);
+    private static final int DEFAULT_MISSED_REPORTS = 3;
+    
+    private final Map<DeviceType, Duration> reportInterval = new EnumMap<>(DeviceType.class);
+    private final Map<DeviceType, Duration> offlineAfter = new EnumMap<>(DeviceType.class);
+    
+    public DeviceReportIntervals(Environment environment) {
+        int missedReports = environment.getProperty("devices.offline.missed-reports", Integer.class, DEFAULT_MISSED_REPORTS);
+        if (missedReports < 1) {
+            throw new IllegalStateException("devices.offline.missed-reports deve ser pelo menos 1: " + missedReports);
+        }
+        for (DeviceType type : DeviceType.values()) {
+            String value = environment.getProperty("devices.report-interval." + type.name().toLowerCase());
+            Duration interval = value != null ? DurationStyle.detectAndParse(value) : DEFAULT_REPORT_INTERVAL;
+            if (interval.isNegative() || interval.isZero()) {
+                throw new IllegalStateException("Intervalo de comunicação inválido para " + type + ": " + value);
+            }
+            reportInterval.put(type, interval);
+            offlineAfter.put(type, interval.multipliedBy(missedReports));
+        }
+        log.info("Janelas de dispositivo online por tipo: {}", offlineAfter);
+    }
+    
+    /**
+     * Tempo sem comunicação a partir do qual um dispositivo do tipo fica offline
+     */
+    public Duration offlineAfter(DeviceType type) {
+        return offlineAfter.get(type);
+    }
+    
+    /**
+     * Instante a partir do qual uma comunicação ainda conta como online para o tipo
+     */
+    public LocalDateTime onlineSince(DeviceType type, LocalDateTime now) {
+        return now.minus(offlineAfter.get(type));
+    }
+    
+    /**
+     * Corte de cada tipo para um mesmo instante de referência
+     */
+    public Map<DeviceType, LocalDateTime> onlineSinceByType(LocalDateTime now) {
+        Map<DeviceType, LocalDateTime> result = new EnumMap<>(DeviceType.class);
+        offlineAfter.forEach((type, window) -> result.put(type, now.minus(window)));
+        return result;
+    }
+    
+    /**
+     * Indica se a última comunicação ainda está dentro da janela online do tipo
+     */
+    public boolean isOnline(DeviceType type, LocalDateTime lastCommunication, LocalDateTime now) {
+        return lastCommunication != null && lastCommunication.isAfter(onlineSince(type, now));
+    }
+    
+    /**
+     * Indica se o dispositivo já perdeu pelo menos uma comunicação esperada, mas ainda
+     * está dentro da janela online (com missed-reports = 1 nunca há atraso antes de offline)
+     */
+    public boolean isLate(DeviceType type, LocalDateTime lastCommunication, LocalDateTime now) {
+        return isOnline(type, lastCommunication, now)
+                && !lastCommunication.isAfter(now.minus(reportInterval.get(type)));
+    }
+}
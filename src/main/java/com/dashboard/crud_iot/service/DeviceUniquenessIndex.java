@@ -0,0 +1,94 @@
+package com.dashboard.crud_iot.service;
+
+import com.dashboard.crud_iot.events.DeviceChangedEvent;
+import com.dashboard.crud_iot.events.DeviceSnapshot;
+import com.dashboard.crud_iot.repositories.DeviceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Índice em memória dos nomes e identificadores de dispositivo já usados.
+ * 
+ * Responde sem ir ao banco quando um nome ou identificador certamente está livre, que é
+ * o caso comum em cadastros. Quando o índice acusa a chave, quem chama confirma com
+ * existsBy... no banco. As constraints unique de {@code devices} continuam sendo o árbitro
+ * final para cadastros concorrentes ainda não refletidos aqui.
+ * 
+ * Carregado na inicialização e mantido pelos DeviceChangedEvent após o commit. O modo
+ * {@code bloom} troca os conjuntos exatos por filtros de Bloom de memória fixa.
+ */
+@Component
+@Slf4j
+public class DeviceUniquenessIndex {
+    
+    private final DeviceRepository deviceRepository;
+    private final UniqueKeySet names;
+    private final UniqueKeySet identifiers;
+    private volatile boolean loaded;
+    
+    public DeviceUniquenessIndex(DeviceRepository deviceRepository,
+                                 @Value("${devices.uniqueness.mode:hash}") String mode,
+                                 @Value("${devices.uniqueness.bloom.expected-devices:1000000}") long expectedDevices,
+                                 @Value("${devices.uniqueness.bloom.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.deviceRepository = deviceRepository;
+        if ("bloom".equalsIgnoreCase(mode)) {
+            this.names = new UniqueKeySet.Bloom(expectedDevices, falsePositiveRate);
+            this.identifiers = new UniqueKeySet.Bloom(expectedDevices, falsePositiveRate);
+        } else {
+            this.names = new UniqueKeySet.Exact();
+            this.identifiers = new UniqueKeySet.Exact();
+        }
+    }
+    
+    /**
+     * Carrega o índice a partir do banco na inicialização da aplicação
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        names.clear();
+        identifiers.clear();
+        List<DeviceRepository.UniqueKeys> keys = deviceRepository.findAllUniqueKeys();
+        for (DeviceRepository.UniqueKeys key : keys) {
+            names.add(key.getDeviceName());
+            identifiers.add(key.getDeviceIdentifier());
+        }
+        loaded = true;
+        log.info("Índice de unicidade carregado: {} dispositivos", keys.size());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeviceChanged(DeviceChangedEvent event) {
+        DeviceSnapshot before = event.getBefore();
+        DeviceSnapshot after = event.getAfter();
+        if (before != null && (after == null || !before.getDeviceName().equals(after.getDeviceName()))) {
+            names.remove(before.getDeviceName());
+        }
+        if (before != null && (after == null || !before.getDeviceIdentifier().equals(after.getDeviceIdentifier()))) {
+            identifiers.remove(before.getDeviceIdentifier());
+        }
+        if (after != null) {
+            names.add(after.getDeviceName());
+            identifiers.add(after.getDeviceIdentifier());
+        }
+    }
+    
+    /**
+     * @return false se nenhum dispositivo usa o nome; true se pode usar (confirmar no banco)
+     */
+    public boolean mightContainName(String deviceName) {
+        return !loaded || names.mightContain(deviceName);
+    }
+    
+    /**
+     * @return false se nenhum dispositivo usa o identificador; true se pode usar (confirmar no banco)
+     */
+    public boolean mightContainIdentifier(String deviceIdentifier) {
+        return !loaded || identifiers.mightContain(deviceIdentifier);
+    }
+}
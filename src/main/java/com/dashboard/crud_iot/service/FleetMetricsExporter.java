@@ -0,0 +1,65 @@
+package com.dashboard.crud_iot.service;
+
+import com.dashboard.crud_iot.dto.DeviceAlertDTO.AlertSeverity;
+import com.dashboard.crud_iot.enums.DeviceStatus;
+import com.dashboard.crud_iot.enums.DeviceType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gera as métricas da frota no formato de exposição texto do Prometheus.
+ * 
+ * Os valores vêm dos contadores do LocationIndex, mantidos a cada alteração e heartbeat,
+ * então o custo de uma coleta não depende do tamanho da frota e nunca envolve o banco.
+ */
+@Component
+@RequiredArgsConstructor
+public class FleetMetricsExporter {
+    
+    private final LocationIndex locationIndex;
+    
+    public String scrape() {
+        LocationIndex.FleetCounters counters = locationIndex.getFleetCounters();
+        StringBuilder out = new StringBuilder(4096);
+        
+        gauge(out, "iot_fleet_devices", "Dispositivos cadastrados", counters.totalDevices());
+        gauge(out, "iot_fleet_devices_online", "Dispositivos online", counters.onlineDevices());
+        gauge(out, "iot_fleet_devices_offline", "Dispositivos offline",
+                counters.totalDevices() - counters.onlineDevices());
+        gauge(out, "iot_fleet_devices_never_communicated", "Dispositivos que nunca se comunicaram",
+                counters.neverCommunicated());
+        
+        header(out, "iot_fleet_devices_by_status", "Dispositivos por status", "gauge");
+        for (DeviceStatus status : DeviceStatus.values()) {
+            sample(out, "iot_fleet_devices_by_status", "status", status.name(), counters.statusCounts()[status.ordinal()]);
+        }
+        header(out, "iot_fleet_devices_by_type", "Dispositivos por tipo", "gauge");
+        for (DeviceType type : DeviceType.values()) {
+            sample(out, "iot_fleet_devices_by_type", "type", type.name(), counters.typeCounts()[type.ordinal()]);
+        }
+        header(out, "iot_fleet_active_alerts", "Alertas ativos por severidade", "gauge");
+        for (AlertSeverity severity : AlertSeverity.values()) {
+            sample(out, "iot_fleet_active_alerts", "severity", severity.name(), counters.alertCounts()[severity.ordinal()]);
+        }
+        header(out, "iot_fleet_heartbeats_total", "Heartbeats recebidos por tipo de dispositivo", "counter");
+        for (DeviceType type : DeviceType.values()) {
+            sample(out, "iot_fleet_heartbeats_total", "type", type.name(), counters.heartbeatsByType()[type.ordinal()]);
+        }
+        return out.toString();
+    }
+    
+    private static void gauge(StringBuilder out, String name, String help, long value) {
+        header(out, name, help, "gauge");
+        out.append(name).append(' ').append(value).append('\n');
+    }
+    
+    private static void header(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+    
+    private static void sample(StringBuilder out, String name, String label, String labelValue, long value) {
+        out.append(name).append('{').append(label).append("=\"").append(labelValue).append("\"} ")
+                .append(value).append('\n');
+    }
+}
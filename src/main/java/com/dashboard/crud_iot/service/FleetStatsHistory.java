@@ -0,0 +1,276 @@
+package com.dashboard.crud_iot.service;
+
+import com.dashboard.crud_iot.dto.DeviceAlertDTO.AlertSeverity;
+import com.dashboard.crud_iot.dto.FleetStatsHistoryDTO;
+import com.dashboard.crud_iot.dto.FleetStatsPointDTO;
+import com.dashboard.crud_iot.enums.DeviceStatus;
+import com.dashboard.crud_iot.enums.DeviceType;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Histórico das contagens da frota em um ring buffer de tamanho fixo.
+ *
+ * A cada captura os contadores da raiz do LocationIndex são copiados para uma linha de
+ * um long[] pré-alocado (epoch, total, online, nunca comunicaram, status, tipos, alertas)
+ * e a mesma linha é gravada na sua posição do arquivo, junto com o cabeçalho, a partir de
+ * buffers diretos também pré-alocados: a captura não aloca. Na inicialização o arquivo é
+ * lido de volta se o layout (largura da linha e capacidade) for o mesmo; caso contrário o
+ * histórico recomeça. As consultas reamostram as linhas no passo pedido pela média.
+ */
+@Component
+@Slf4j
+public class FleetStatsHistory {
+    
+    private static final int MAGIC = 0x46534831; // "FSH1"
+    private static final int HEADER_BYTES = 32;
+    private static final int ROW_WIDTH = 1 + LocationIndex.FLEET_COUNTERS_WIDTH;
+    private static final int STATUS_OFFSET = 4;
+    private static final int TYPE_OFFSET = STATUS_OFFSET + DeviceStatus.values().length;
+    private static final int ALERT_OFFSET = TYPE_OFFSET + DeviceType.values().length;
+    
+    private final LocationIndex locationIndex;
+    private final Duration captureInterval;
+    private final int capacity;
+    private final long[] rows;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long written;
+    
+    private final FileChannel channel;
+    private final ByteBuffer rowBuffer = ByteBuffer.allocateDirect(ROW_WIDTH * Long.BYTES);
+    private final ByteBuffer headerBuffer = ByteBuffer.allocateDirect(HEADER_BYTES);
+    
+    public FleetStatsHistory(LocationIndex locationIndex,
+                             @Value("${dashboard.history.capture-interval-ms:60000}") long captureIntervalMs,
+                             @Value("${dashboard.history.capacity:10080}") int capacity,
+                             @Value("${dashboard.history.file:}") String file) {
+        if (capacity < 1) {
+            throw new IllegalStateException("dashboard.history.capacity deve ser pelo menos 1: " + capacity);
+        }
+        this.locationIndex = locationIndex;
+        this.captureInterval = Duration.ofMillis(captureIntervalMs);
+        this.capacity = capacity;
+        this.rows = new long[capacity * ROW_WIDTH];
+        this.channel = file.isBlank() ? null : open(Path.of(file));
+    }
+    
+    // ==================== CAPTURA ====================
+    
+    /**
+     * Copia as contagens atuais da frota para a próxima linha do ring buffer
+     */
+    @Scheduled(fixedRateString = "${dashboard.history.capture-interval-ms:60000}",
+               initialDelayString = "${dashboard.history.capture-interval-ms:60000}")
+    public void capture() {
+        lock.lock();
+        try {
+            int slot = (int) (written % capacity);
+            int offset = slot * ROW_WIDTH;
+            rows[offset] = System.currentTimeMillis() / 1000;
+            locationIndex.copyFleetCounters(rows, offset + 1);
+            written++;
+            persist(slot, offset);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void persist(int slot, int offset) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            rowBuffer.clear();
+            for (int i = 0; i < ROW_WIDTH; i++) {
+                rowBuffer.putLong(rows[offset + i]);
+            }
+            rowBuffer.flip();
+            channel.write(rowBuffer, HEADER_BYTES + (long) slot * ROW_WIDTH * Long.BYTES);
+            writeHeader(channel);
+        } catch (IOException e) {
+            log.warn("Falha ao gravar o histórico da frota: {}", e.getMessage());
+        }
+    }
+    
+    private void writeHeader(FileChannel target) throws IOException {
+        headerBuffer.clear();
+        headerBuffer.putInt(MAGIC).putInt(ROW_WIDTH).putInt(capacity).putInt(0).putLong(written).putLong(0);
+        headerBuffer.flip();
+        target.write(headerBuffer, 0);
+    }
+    
+    /**
+     * Abre o arquivo e recupera as linhas gravadas, se o layout for compatível
+     */
+    private FileChannel open(Path path) {
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            FileChannel opened = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long expectedSize = HEADER_BYTES + (long) capacity * ROW_WIDTH * Long.BYTES;
+            if (opened.size() == expectedSize && load(opened)) {
+                log.info("Histórico da frota recuperado de {}: {} capturas", path, Math.min(written, capacity));
+            } else {
+                if (opened.size() > 0) {
+                    log.warn("Histórico da frota em {} tem outro layout e será reiniciado", path);
+                }
+                // Arquivo pré-alocado no tamanho final: as capturas só sobrescrevem posições
+                opened.truncate(0);
+                opened.write(ByteBuffer.allocate(1), expectedSize - 1);
+                written = 0;
+                writeHeader(opened);
+            }
+            return opened;
+        } catch (IOException e) {
+            log.warn("Histórico da frota mantido só em memória, arquivo {} indisponível: {}", path, e.getMessage());
+            return null;
+        }
+    }
+    
+    private boolean load(FileChannel opened) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) opened.size());
+        while (buffer.hasRemaining()) {
+            if (opened.read(buffer, buffer.position()) < 0) {
+                return false;
+            }
+        }
+        buffer.flip();
+        if (buffer.getInt() != MAGIC || buffer.getInt() != ROW_WIDTH || buffer.getInt() != capacity) {
+            return false;
+        }
+        buffer.getInt();
+        written = buffer.getLong();
+        buffer.position(HEADER_BYTES);
+        buffer.asLongBuffer().get(rows);
+        return true;
+    }
+    
+    @PreDestroy
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.force(true);
+            channel.close();
+        }
+    }
+    
+    // ==================== CONSULTAS ====================
+    
+    /**
+     * Série histórica reamostrada
+     * @param range Período até agora (ex.: 24h), limitado a capacidade x intervalo de captura
+     * @param step Passo de cada ponto (ex.: 5m), não menor que o intervalo de captura
+     * @throws IllegalArgumentException se range ou step forem inválidos
+     */
+    public FleetStatsHistoryDTO getHistory(String range, String step) {
+        long rangeSeconds = parse("range", range).toSeconds();
+        long stepSeconds = parse("step", step).toSeconds();
+        long retentionSeconds = captureInterval.toSeconds() * capacity;
+        if (rangeSeconds > retentionSeconds) {
+            throw new IllegalArgumentException("range maior que o histórico retido (" + retentionSeconds + "s): " + range);
+        }
+        if (stepSeconds < captureInterval.toSeconds() || stepSeconds > rangeSeconds) {
+            throw new IllegalArgumentException("step deve estar entre o intervalo de captura e o range: " + step);
+        }
+        
+        long since = System.currentTimeMillis() / 1000 - rangeSeconds;
+        List<FleetStatsPointDTO> points = new ArrayList<>();
+        long[] sums = new long[ROW_WIDTH];
+        long bucket = Long.MIN_VALUE;
+        int samples = 0;
+        lock.lock();
+        try {
+            long available = Math.min(written, capacity);
+            for (long i = written - available; i < written; i++) {
+                int offset = (int) (i % capacity) * ROW_WIDTH;
+                long epochSecond = rows[offset];
+                if (epochSecond < since) {
+                    continue;
+                }
+                long rowBucket = Math.floorDiv(epochSecond, stepSeconds);
+                if (rowBucket != bucket && samples > 0) {
+                    points.add(toPoint(bucket * stepSeconds, sums, samples));
+                    Arrays.fill(sums, 0);
+                    samples = 0;
+                }
+                bucket = rowBucket;
+                for (int field = 1; field < ROW_WIDTH; field++) {
+                    sums[field] += rows[offset + field];
+                }
+                samples++;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (samples > 0) {
+            points.add(toPoint(bucket * stepSeconds, sums, samples));
+        }
+        
+        return FleetStatsHistoryDTO.builder()
+                .range(range)
+                .step(step)
+                .captureIntervalSeconds(captureInterval.toSeconds())
+                .points(points)
+                .build();
+    }
+    
+    private static Duration parse(String name, String value) {
+        Duration duration;
+        try {
+            duration = DurationStyle.detectAndParse(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(name + " inválido: " + value);
+        }
+        if (duration.toSeconds() <= 0) {
+            throw new IllegalArgumentException(name + " deve ser de pelo menos 1s: " + value);
+        }
+        return duration;
+    }
+    
+    private static FleetStatsPointDTO toPoint(long epochSecond, long[] sums, int samples) {
+        return FleetStatsPointDTO.builder()
+                .epochSecond(epochSecond)
+                .samples(samples)
+                .totalDevices(average(sums[1], samples))
+                .onlineDevices(average(sums[2], samples))
+                .neverCommunicated(average(sums[3], samples))
+                .statusCounts(toCountMap(sums, STATUS_OFFSET, DeviceStatus.values(), samples))
+                .typeCounts(toCountMap(sums, TYPE_OFFSET, DeviceType.values(), samples))
+                .alertCounts(toCountMap(sums, ALERT_OFFSET, AlertSeverity.values(), samples))
+                .build();
+    }
+    
+    private static long average(long sum, int samples) {
+        return Math.round((double) sum / samples);
+    }
+    
+    private static Map<String, Long> toCountMap(long[] sums, int offset, Enum<?>[] keys, int samples) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Enum<?> key : keys) {
+            long count = average(sums[offset + key.ordinal()], samples);
+            if (count > 0) {
+                result.put(key.name(), count);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,602 @@
+package com.dashboard.crud_iot.service;
+
+import com.dashboard.crud_iot.alerts.AlertRule;
+import com.dashboard.crud_iot.dto.DeviceAlertDTO;
+import com.dashboard.crud_iot.dto.DeviceAlertDTO.AlertSeverity;
+import com.dashboard.crud_iot.dto.LocationNodeDTO;
+import com.dashboard.crud_iot.dto.LocationStatsDTO;
+import com.dashboard.crud_iot.entities.Device;
+import com.dashboard.crud_iot.enums.DeviceStatus;
+import com.dashboard.crud_iot.enums.DeviceType;
+import com.dashboard.crud_iot.events.DeviceAlertTransitionEvent;
+import com.dashboard.crud_iot.events.DeviceChangedEvent;
+import com.dashboard.crud_iot.events.DeviceHeartbeatEvent;
+import com.dashboard.crud_iot.events.DeviceSnapshot;
+import com.dashboard.crud_iot.repositories.DeviceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Índice hierárquico de localizações mantido em memória.
+ * 
+ * A localização de cada dispositivo (ex.: "Prédio A - Andar 2 - Sala A1") é
+ * quebrada em segmentos pelo separador configurado e cada nó da árvore mantém
+ * contadores agregados de status, tipo, conectividade e alertas da sua subárvore.
+ * Os contadores são atualizados a partir dos eventos de alteração e de heartbeat,
+ * de modo que as consultas de drill-down nunca varrem a frota.
+ * Os contadores da raiz alimentam também as métricas da frota (getFleetCounters).
+ * 
+ * As regras de alerta são avaliadas por dispositivo a cada evento. O que muda só com
+ * o tempo (online e regras de silêncio) é reavaliado a partir de uma fila de prazos,
+ * com o próximo instante em que o resultado de cada dispositivo pode mudar. As anomalias
+ * de leitura do ReadingAnomalyDetector entram como mais uma fonte de alerta.
+ * Cada alerta que surge, muda de regra ou se resolve é publicado como
+ * DeviceAlertTransitionEvent (exceto na carga inicial).
+ * 
+ * Não há lock global: o estado de cada dispositivo só muda dentro do compute do seu ID
+ * no mapa de dispositivos, e os contadores dos nós são atômicos. A leitura é convertida
+ * em métricas e passada ao detector de anomalias antes do compute, e as transições de
+ * alerta são publicadas depois dele.
+ */
+@Component
+@Slf4j
+public class LocationIndex {
+    
+    /**
+     * Posições escritas por copyFleetCounters
+     */
+    public static final int FLEET_COUNTERS_WIDTH = 3 + DeviceStatus.values().length
+            + DeviceType.values().length + AlertSeverity.values().length;
+    
+    private static final Comparator<Deadline> DEADLINE_ORDER =
+            Comparator.comparing(Deadline::at).thenComparingLong(Deadline::deviceId);
+    
+    private final DeviceRepository deviceRepository;
+    private final DeviceAlertEvaluator alertEvaluator;
+    private final ReadingAnomalyDetector anomalyDetector;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Pattern separatorPattern;
+    private final String pathDelimiter;
+    
+    private final SegmentDictionary dictionary = new SegmentDictionary();
+    private final LocationNode root = new LocationNode(LocationNode.ROOT_SEGMENT, null);
+    private final Map<Long, TrackedDevice> devices = new ConcurrentHashMap<>();
+    private final LongAdder[] heartbeatsByType = new LongAdder[DeviceType.values().length];
+    private final Map<Long, AlertingDevice> alerting = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Deadline, TrackedDevice> deadlines = new ConcurrentSkipListMap<>(DEADLINE_ORDER);
+    
+    public LocationIndex(DeviceRepository deviceRepository,
+                         DeviceAlertEvaluator alertEvaluator,
+                         ReadingAnomalyDetector anomalyDetector,
+                         ApplicationEventPublisher eventPublisher,
+                         @Value("${dashboard.location.separator:-}") String separator) {
+        this.deviceRepository = deviceRepository;
+        this.alertEvaluator = alertEvaluator;
+        this.anomalyDetector = anomalyDetector;
+        this.eventPublisher = eventPublisher;
+        // O separador precisa estar cercado por espaços para não quebrar nomes como "Sala A-1"
+        this.separatorPattern = Pattern.compile("\\s+" + Pattern.quote(separator.trim()) + "\\s+");
+        this.pathDelimiter = " " + separator.trim() + " ";
+        Arrays.setAll(heartbeatsByType, type -> new LongAdder());
+    }
+    
+    /**
+     * Estado de um dispositivo acompanhado pelo índice. Os campos mutáveis só são
+     * alterados dentro do compute do ID do dispositivo em devices. A localização não é
+     * guardada como texto: é remontada a partir do nó folha (codificado no dicionário)
+     * quando um alerta é montado.
+     */
+    private static class TrackedDevice {
+        final Long id;
+        final String name;
+        final LocationNode leaf;
+        final DeviceType type;
+        DeviceStatus status;
+        LocalDateTime lastCommunication;
+        double[] metrics;
+        AlertRule anomaly;
+        boolean online;
+        AlertRule alert;
+        Deadline deadline;
+        
+        TrackedDevice(DeviceSnapshot snapshot, LocationNode leaf) {
+            this.id = snapshot.getId();
+            this.name = snapshot.getDeviceName();
+            this.leaf = leaf;
+            this.type = snapshot.getDeviceType();
+        }
+    }
+    
+    /**
+     * Prazo de reavaliação de um dispositivo. Cada dispositivo tem no máximo um prazo
+     * na fila: ao ser reavaliado, o prazo anterior é substituído.
+     */
+    private record Deadline(LocalDateTime at, long deviceId) {
+    }
+    
+    /**
+     * Cópia imutável de um dispositivo em alerta, lida sem bloqueio por getActiveAlerts.
+     * Referencia o nó folha em vez de copiar a localização.
+     */
+    private record AlertingDevice(AlertRule rule, Long id, String name, DeviceType type, DeviceStatus status,
+                                  LocationNode leaf, LocalDateTime lastCommunication) {
+    }
+    
+    // ==================== MANUTENÇÃO DO ÍNDICE ====================
+    
+    /**
+     * Carrega o índice a partir do banco na inicialização da aplicação. Cada dispositivo
+     * é substituído no seu próprio compute; os que não existem mais no banco saem do índice.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> loaded = new HashSet<>();
+        for (Device device : deviceRepository.findAll()) {
+            DeviceSnapshot snapshot = DeviceSnapshot.of(device);
+            double[] metrics = alertEvaluator.parseReading(snapshot.getLastReading());
+            AlertRule anomaly = anomalyDetector.anomalyOf(snapshot.getId());
+            loaded.add(snapshot.getId());
+            devices.compute(snapshot.getId(), (id, previous) -> {
+                if (previous != null) {
+                    untrack(previous);
+                }
+                return track(snapshot, metrics, anomaly, now);
+            });
+        }
+        for (Long id : devices.keySet()) {
+            if (!loaded.contains(id)) {
+                devices.computeIfPresent(id, (key, previous) -> {
+                    untrack(previous);
+                    return null;
+                });
+            }
+        }
+        log.info("Índice de localizações carregado: {} dispositivos, {} segmentos",
+                devices.size(), dictionary.size());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeviceChanged(DeviceChangedEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        DeviceSnapshot before = event.getBefore();
+        DeviceSnapshot after = event.getAfter();
+        DeviceAlertTransitionEvent[] transitions = new DeviceAlertTransitionEvent[2];
+        if (before != null && (after == null || !before.getId().equals(after.getId()))) {
+            if (after == null) {
+                anomalyDetector.forget(before.getId());
+            }
+            devices.computeIfPresent(before.getId(), (id, previous) -> {
+                // O dispositivo removido já saiu do índice; seus alertas deixam de existir
+                untrack(previous);
+                AlertRule previousAlert = previous.alert;
+                previous.alert = null;
+                transitions[0] = transitionOf(previousAlert, previous, now);
+                return null;
+            });
+        }
+        if (after != null) {
+            double[] metrics = alertEvaluator.parseReading(after.getLastReading());
+            AlertRule anomaly = anomalyDetector.anomalyOf(after.getId());
+            devices.compute(after.getId(), (id, previous) -> {
+                if (previous != null) {
+                    untrack(previous);
+                }
+                TrackedDevice tracked = track(after, metrics, anomaly, now);
+                transitions[1] = transitionOf(previous != null ? previous.alert : null, tracked, now);
+                return tracked;
+            });
+        }
+        publish(transitions[0]);
+        publish(transitions[1]);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHeartbeat(DeviceHeartbeatEvent event) {
+        TrackedDevice current = devices.get(event.getDeviceId());
+        if (current == null) {
+            return;
+        }
+        LocalDateTime communication = event.getCommunicationTime();
+        String reading = event.getReading();
+        // Assim como no banco, heartbeat sem leitura mantém a anterior
+        double[] metrics = reading != null && !reading.isBlank() ? alertEvaluator.parseReading(reading) : null;
+        AlertRule anomaly = anomalyDetector.observe(current.id, current.type, communication, reading);
+        heartbeatsByType[current.type.ordinal()].increment();
+        LocalDateTime now = LocalDateTime.now();
+        
+        DeviceAlertTransitionEvent[] transition = new DeviceAlertTransitionEvent[1];
+        devices.computeIfPresent(event.getDeviceId(), (id, tracked) -> {
+            AlertRule previousAlert = tracked.alert;
+            apply(tracked, -1);
+            // Heartbeats fora de ordem não fazem a última comunicação voltar no tempo
+            if (tracked.lastCommunication == null || communication.isAfter(tracked.lastCommunication)) {
+                tracked.lastCommunication = communication;
+            }
+            if (metrics != null) {
+                tracked.metrics = metrics;
+            }
+            tracked.anomaly = anomaly;
+            // O mesmo UPDATE do heartbeat devolve dispositivos OFFLINE para ACTIVE
+            if (tracked.status == DeviceStatus.OFFLINE) {
+                tracked.status = DeviceStatus.ACTIVE;
+            }
+            evaluate(tracked, now);
+            apply(tracked, 1);
+            transition[0] = transitionOf(previousAlert, tracked, now);
+            return tracked;
+        });
+        publish(transition[0]);
+    }
+    
+    /**
+     * Reavalia periodicamente o estado dependente do tempo (online e alertas por
+     * falta de comunicação). Só os dispositivos com prazo vencido são reavaliados,
+     * a partir do estado em memória e sem acessar o banco.
+     */
+    @Scheduled(fixedDelayString = "${dashboard.location.refresh-interval-ms:5000}")
+    public void refreshTimeDependentState() {
+        refreshDue(LocalDateTime.now());
+    }
+    
+    private void refreshDue(LocalDateTime now) {
+        Map.Entry<Deadline, TrackedDevice> due;
+        while ((due = deadlines.firstEntry()) != null && !due.getKey().at().isAfter(now)) {
+            Deadline deadline = due.getKey();
+            // Só quem remove o prazo o reavalia; um heartbeat concorrente pode tê-lo substituído
+            if (!deadlines.remove(deadline, due.getValue())) {
+                continue;
+            }
+            DeviceAlertTransitionEvent[] transition = new DeviceAlertTransitionEvent[1];
+            devices.computeIfPresent(deadline.deviceId(), (id, tracked) -> {
+                if (deadline.equals(tracked.deadline)) {
+                    AlertRule previousAlert = tracked.alert;
+                    tracked.deadline = null;
+                    apply(tracked, -1);
+                    evaluate(tracked, now);
+                    apply(tracked, 1);
+                    transition[0] = transitionOf(previousAlert, tracked, now);
+                }
+                return tracked;
+            });
+            publish(transition[0]);
+        }
+    }
+    
+    /**
+     * Cria o estado do dispositivo e soma a sua contribuição. Chamado dentro do compute do ID.
+     */
+    private TrackedDevice track(DeviceSnapshot snapshot, double[] metrics, AlertRule anomaly, LocalDateTime now) {
+        TrackedDevice tracked = new TrackedDevice(snapshot, resolveForWrite(snapshot.getLocation()));
+        tracked.status = snapshot.getStatus();
+        tracked.lastCommunication = snapshot.getLastCommunication();
+        tracked.metrics = metrics;
+        tracked.anomaly = anomaly;
+        evaluate(tracked, now);
+        apply(tracked, 1);
+        return tracked;
+    }
+    
+    /**
+     * Subtrai a contribuição do dispositivo e descarta o seu prazo e o seu alerta.
+     * Chamado dentro do compute do ID.
+     */
+    private void untrack(TrackedDevice tracked) {
+        apply(tracked, -1);
+        if (tracked.deadline != null) {
+            deadlines.remove(tracked.deadline, tracked);
+            tracked.deadline = null;
+        }
+        alerting.remove(tracked.id);
+    }
+    
+    /**
+     * Transição entre o alerta anterior e o atual do dispositivo, para publicar fora do compute
+     * @return Evento de surgimento, troca de regra ou resolução, ou null se o alerta não mudou
+     */
+    private DeviceAlertTransitionEvent transitionOf(AlertRule previous, TrackedDevice tracked, LocalDateTime now) {
+        if (tracked.alert == previous) {
+            return null;
+        }
+        boolean resolved = tracked.alert == null;
+        AlertRule rule = resolved ? previous : tracked.alert;
+        return new DeviceAlertTransitionEvent(alertEvaluator.toAlert(rule, tracked.id, tracked.name, tracked.type,
+                tracked.status, locationOf(tracked.leaf), tracked.lastCommunication, now), resolved);
+    }
+    
+    private void publish(DeviceAlertTransitionEvent transition) {
+        if (transition != null) {
+            eventPublisher.publishEvent(transition);
+        }
+    }
+    
+    /**
+     * Avalia o dispositivo e substitui o seu prazo na fila. Chamado dentro do compute do ID.
+     */
+    private void evaluate(TrackedDevice tracked, LocalDateTime now) {
+        tracked.online = alertEvaluator.isOnline(tracked.type, tracked.lastCommunication, now);
+        AlertRule rule = alertEvaluator.match(tracked.type, tracked.status, tracked.lastCommunication,
+                tracked.metrics, now);
+        AlertRule anomaly = tracked.anomaly;
+        // Como entre as regras, vence a maior severidade e no empate a regra configurada
+        tracked.alert = anomaly != null && (rule == null || anomaly.severity().compareTo(rule.severity()) > 0)
+                ? anomaly : rule;
+        if (tracked.alert != null) {
+            alerting.put(tracked.id, new AlertingDevice(tracked.alert, tracked.id, tracked.name, tracked.type,
+                    tracked.status, tracked.leaf, tracked.lastCommunication));
+        } else {
+            alerting.remove(tracked.id);
+        }
+        
+        LocalDateTime nextChange = alertEvaluator.nextChange(tracked.type, tracked.lastCommunication, now);
+        Deadline deadline = nextChange == null ? null : new Deadline(nextChange, tracked.id);
+        if (!Objects.equals(deadline, tracked.deadline)) {
+            if (tracked.deadline != null) {
+                deadlines.remove(tracked.deadline, tracked);
+            }
+            if (deadline != null) {
+                deadlines.put(deadline, tracked);
+            }
+            tracked.deadline = deadline;
+        }
+    }
+    
+    /**
+     * Soma (ou subtrai) a contribuição do dispositivo em todos os nós do caminho até a raiz
+     */
+    private void apply(TrackedDevice tracked, int delta) {
+        for (LocationNode node = tracked.leaf; node != null; node = node.parent) {
+            node.totalDevices.addAndGet(delta);
+            node.statusCounts.addAndGet(tracked.status.ordinal(), delta);
+            node.typeCounts.addAndGet(tracked.type.ordinal(), delta);
+            if (tracked.online) {
+                node.onlineDevices.addAndGet(delta);
+            }
+            if (tracked.lastCommunication == null) {
+                node.neverCommunicated.addAndGet(delta);
+            }
+            if (tracked.alert != null) {
+                node.alertCounts.addAndGet(tracked.alert.severity().ordinal(), delta);
+            }
+        }
+    }
+    
+    private LocationNode resolveForWrite(String location) {
+        LocationNode node = root;
+        for (String segment : split(location)) {
+            node = node.child(dictionary.encode(segment));
+        }
+        return node;
+    }
+    
+    private List<String> split(String location) {
+        if (location == null || location.isBlank()) {
+            return List.of();
+        }
+        List<String> segments = new ArrayList<>();
+        for (String segment : separatorPattern.split(location.trim())) {
+            if (!segment.isBlank()) {
+                segments.add(segment.trim());
+            }
+        }
+        return segments;
+    }
+    
+    // ==================== CONSULTAS ====================
+    
+    /**
+     * Retorna a árvore de localizações a partir do nível mais alto
+     * @param maxDepth Profundidade máxima retornada
+     * @return Lista de nós de primeiro nível com seus filhos
+     */
+    public List<LocationNodeDTO> getTree(int maxDepth) {
+        return toNodeDTOs(root, maxDepth);
+    }
+    
+    /**
+     * Retorna as estatísticas agregadas de uma localização
+     * @param path Caminho da localização no mesmo formato do campo location
+     * @return Optional vazio se a localização não existir
+     */
+    public Optional<LocationStatsDTO> getStats(String path) {
+        List<String> segments = split(path);
+        if (segments.isEmpty()) {
+            return Optional.empty();
+        }
+        LocationNode node = root;
+        for (String segment : segments) {
+            int code = dictionary.lookup(segment);
+            node = code == SegmentDictionary.NOT_FOUND ? null : node.children.get(code);
+            if (node == null || node.totalDevices.get() == 0) {
+                return Optional.empty();
+            }
+        }
+        return Optional.of(toStatsDTO(node));
+    }
+    
+    /**
+     * Lê os contadores da frota inteira (raiz da árvore) sem bloqueio e sem acessar o banco
+     * @return Contagens atuais, indexadas pelo ordinal de cada enum
+     */
+    public FleetCounters getFleetCounters() {
+        long[] heartbeats = new long[heartbeatsByType.length];
+        for (int i = 0; i < heartbeats.length; i++) {
+            heartbeats[i] = heartbeatsByType[i].sum();
+        }
+        return new FleetCounters(
+                root.totalDevices.get(),
+                root.onlineDevices.get(),
+                root.neverCommunicated.get(),
+                toArray(root.statusCounts),
+                toArray(root.typeCounts),
+                toArray(root.alertCounts),
+                heartbeats);
+    }
+    
+    /**
+     * Copia os contadores da frota para um array do chamador, sem alocar: total, online,
+     * nunca comunicaram e as contagens por DeviceStatus, DeviceType e AlertSeverity (ordinal)
+     * @param target Array de destino
+     * @param offset Posição inicial em target
+     * @return Quantidade de posições escritas (FLEET_COUNTERS_WIDTH)
+     */
+    public int copyFleetCounters(long[] target, int offset) {
+        int position = offset;
+        target[position++] = root.totalDevices.get();
+        target[position++] = root.onlineDevices.get();
+        target[position++] = root.neverCommunicated.get();
+        position = copy(root.statusCounts, target, position);
+        position = copy(root.typeCounts, target, position);
+        position = copy(root.alertCounts, target, position);
+        return position - offset;
+    }
+    
+    private static int copy(AtomicLongArray counts, long[] target, int position) {
+        for (int i = 0; i < counts.length(); i++) {
+            target[position++] = counts.get(i);
+        }
+        return position;
+    }
+    
+    /**
+     * Alertas ativos da frota, montados a partir das regras já avaliadas em memória
+     * @param now Momento de referência; prazos vencidos até ele são reavaliados antes
+     * @return Alertas em ordem arbitrária
+     */
+    public List<DeviceAlertDTO> getActiveAlerts(LocalDateTime now) {
+        refreshDue(now);
+        List<DeviceAlertDTO> alerts = new ArrayList<>(alerting.size());
+        for (AlertingDevice device : alerting.values()) {
+            alerts.add(alertEvaluator.toAlert(device.rule(), device.id(), device.name(), device.type(),
+                    device.status(), locationOf(device.leaf()), device.lastCommunication(), now));
+        }
+        return alerts;
+    }
+    
+    /**
+     * Alertas ativos por AlertSeverity (ordinal), com os prazos vencidos até now já reavaliados
+     */
+    public long[] getAlertCounts(LocalDateTime now) {
+        refreshDue(now);
+        return toArray(root.alertCounts);
+    }
+    
+    /**
+     * Tipo de um dispositivo acompanhado, lido sem bloqueio
+     * @param deviceId ID do dispositivo
+     * @return Tipo ou null se o dispositivo não estiver no índice
+     */
+    public DeviceType typeOf(Long deviceId) {
+        TrackedDevice tracked = devices.get(deviceId);
+        return tracked == null ? null : tracked.type;
+    }
+    
+    /**
+     * Contagens da frota inteira
+     * @param statusCounts Dispositivos por DeviceStatus (ordinal)
+     * @param typeCounts Dispositivos por DeviceType (ordinal)
+     * @param alertCounts Alertas ativos por AlertSeverity (ordinal)
+     * @param heartbeatsByType Heartbeats recebidos por DeviceType (ordinal) desde o início
+     */
+    public record FleetCounters(long totalDevices, long onlineDevices, long neverCommunicated,
+                                long[] statusCounts, long[] typeCounts, long[] alertCounts,
+                                long[] heartbeatsByType) {
+    }
+    
+    private static long[] toArray(AtomicLongArray counts) {
+        long[] result = new long[counts.length()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = counts.get(i);
+        }
+        return result;
+    }
+    
+    private List<LocationNodeDTO> toNodeDTOs(LocationNode parent, int remainingDepth) {
+        if (remainingDepth <= 0) {
+            return List.of();
+        }
+        List<LocationNodeDTO> result = new ArrayList<>();
+        for (LocationNode child : parent.children.values()) {
+            if (child.totalDevices.get() == 0) {
+                continue;
+            }
+            result.add(LocationNodeDTO.builder()
+                    .name(dictionary.decode(child.segment))
+                    .path(pathOf(child))
+                    .totalDevices(child.totalDevices.get())
+                    .onlineDevices(child.onlineDevices.get())
+                    .activeAlerts(child.activeAlerts())
+                    .children(toNodeDTOs(child, remainingDepth - 1))
+                    .build());
+        }
+        result.sort(Comparator.comparing(LocationNodeDTO::getName));
+        return result;
+    }
+    
+    private LocationStatsDTO toStatsDTO(LocationNode node) {
+        long total = node.totalDevices.get();
+        long online = node.onlineDevices.get();
+        List<String> children = node.children.values().stream()
+                .filter(child -> child.totalDevices.get() > 0)
+                .map(child -> dictionary.decode(child.segment))
+                .sorted()
+                .toList();
+        
+        return LocationStatsDTO.builder()
+                .path(pathOf(node))
+                .name(dictionary.decode(node.segment))
+                .depth(node.depth)
+                .totalDevices(total)
+                .onlineDevices(online)
+                .offlineDevices(total - online)
+                .onlinePercentage(total == 0 ? 0.0 : Math.round((online * 100.0 / total) * 10.0) / 10.0)
+                .statusCounts(toCountMap(node.statusCounts, DeviceStatus.values()))
+                .typeCounts(toCountMap(node.typeCounts, DeviceType.values()))
+                .alertCounts(toCountMap(node.alertCounts, AlertSeverity.values()))
+                .activeAlerts(node.activeAlerts())
+                .children(children)
+                .lastUpdated(LocalDateTime.now())
+                .build();
+    }
+    
+    /**
+     * Localização de um dispositivo remontada a partir do seu nó folha
+     * @return Caminho normalizado com o separador configurado, ou null se o dispositivo não tem localização
+     */
+    private String locationOf(LocationNode leaf) {
+        return leaf.isRoot() ? null : pathOf(leaf);
+    }
+    
+    private String pathOf(LocationNode node) {
+        Deque<String> segments = new ArrayDeque<>();
+        for (LocationNode current = node; !current.isRoot(); current = current.parent) {
+            segments.addFirst(dictionary.decode(current.segment));
+        }
+        return String.join(pathDelimiter, segments);
+    }
+    
+    private static Map<String, Long> toCountMap(AtomicLongArray counts, Enum<?>[] keys) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Enum<?> key : keys) {
+            long count = counts.get(key.ordinal());
+            if (count > 0) {
+                result.put(key.name(), count);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,56 @@
+package com.dashboard.crud_iot.service;
+
+import com.dashboard.crud_iot.dto.DeviceAlertDTO.AlertSeverity;
+import com.dashboard.crud_iot.enums.DeviceStatus;
+import com.dashboard.crud_iot.enums.DeviceType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Nó da árvore de localizações com contadores agregados de todos os
+ * dispositivos da sua subárvore.
+ * 
+ * Os contadores são atômicos para que as consultas leiam sem bloqueio e para
+ * que dispositivos diferentes sejam atualizados em paralelo pelo LocationIndex.
+ */
+class LocationNode {
+    
+    static final int ROOT_SEGMENT = -1;
+    
+    final int segment;
+    final LocationNode parent;
+    final int depth;
+    final Map<Integer, LocationNode> children = new ConcurrentHashMap<>();
+    
+    final AtomicLong totalDevices = new AtomicLong();
+    final AtomicLong onlineDevices = new AtomicLong();
+    final AtomicLong neverCommunicated = new AtomicLong();
+    final AtomicLongArray statusCounts = new AtomicLongArray(DeviceStatus.values().length);
+    final AtomicLongArray typeCounts = new AtomicLongArray(DeviceType.values().length);
+    final AtomicLongArray alertCounts = new AtomicLongArray(AlertSeverity.values().length);
+    
+    LocationNode(int segment, LocationNode parent) {
+        this.segment = segment;
+        this.parent = parent;
+        this.depth = parent == null ? 0 : parent.depth + 1;
+    }
+    
+    boolean isRoot() {
+        return parent == null;
+    }
+    
+    LocationNode child(int segment) {
+        return children.computeIfAbsent(segment, code -> new LocationNode(code, this));
+    }
+    
+    long activeAlerts() {
+        long total = 0;
+        for (int i = 0; i < alertCounts.length(); i++) {
+            total += alertCounts.get(i);
+        }
+        return total;
+    }
+}
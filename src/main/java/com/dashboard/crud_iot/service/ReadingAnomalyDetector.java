@@ -0,0 +1,363 @@
+package com.dashboard.crud_iot.service;
+
+import com.dashboard.crud_iot.alerts.AlertRule;
+import com.dashboard.crud_iot.alerts.ReadingNumbers;
+import com.dashboard.crud_iot.dto.DeviceAlertDTO.AlertSeverity;
+import com.dashboard.crud_iot.dto.DeviceAlertDTO.AlertType;
+import com.dashboard.crud_iot.enums.DeviceType;
+import com.dashboard.crud_iot.ingestion.DeviceIdHash;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Detecção de anomalias nas leituras numéricas, em streaming, por dispositivo.
+ *
+ * Cada dispositivo ocupa um slot de uma tabela hash de endereçamento aberto sobre long[]
+ * e o seu estado (média e variância EWMA, último valor e instante) fica em arrays
+ * primitivos paralelos indexados pelo slot. Uma leitura é anômala quando o z-score em
+ * relação à média recente passa de alerts.anomaly.z-threshold ou quando a variação por
+ * segundo passa de alerts.anomaly.rate-limit.{tipo}. A anomalia vale até a próxima
+ * leitura normal. A observação não aloca: o valor é lido direto da String da leitura.
+ *
+ * Como no SpaceSavingSketch, a tabela é dividida em alerts.anomaly.stripes stripes pelos
+ * bits altos do hash do ID, cada uma com seu próprio lock e arrays; leituras de
+ * dispositivos diferentes raramente disputam o mesmo lock.
+ */
+@Component
+@Slf4j
+public class ReadingAnomalyDetector {
+    
+    static final AlertRule RATE_ANOMALY = new AlertRule("alerts.anomaly.rate-limit", null,
+            AlertType.READING_ANOMALY, AlertSeverity.HIGH, false,
+            "Leitura variou mais rápido que o limite do tipo");
+    
+    private static final byte NORMAL = 0;
+    private static final byte Z_SCORE = 1;
+    private static final byte RATE = 2;
+    
+    private final boolean enabled;
+    private final double alpha;
+    private final double zThreshold;
+    private final double minStdDev;
+    private final int warmupSamples;
+    private final double[] rateLimitByType = new double[DeviceType.values().length];
+    private final AlertRule zScoreAnomaly;
+    private final Stripe[] stripes;
+    private final int stripeShift;
+    
+    public ReadingAnomalyDetector(Environment environment) {
+        this.enabled = environment.getProperty("alerts.anomaly.enabled", Boolean.class, true);
+        this.alpha = environment.getProperty("alerts.anomaly.ewma-alpha", Double.class, 0.05);
+        this.zThreshold = environment.getProperty("alerts.anomaly.z-threshold", Double.class, 4.0);
+        this.minStdDev = environment.getProperty("alerts.anomaly.min-stddev", Double.class, 0.1);
+        this.warmupSamples = environment.getProperty("alerts.anomaly.warmup-samples", Integer.class, 30);
+        int stripeCount = environment.getProperty("alerts.anomaly.stripes", Integer.class, 64);
+        if (alpha <= 0 || alpha >= 1) {
+            throw new IllegalStateException("alerts.anomaly.ewma-alpha deve estar entre 0 e 1: " + alpha);
+        }
+        if (zThreshold <= 0 || minStdDev <= 0 || warmupSamples < 1) {
+            throw new IllegalStateException("alerts.anomaly.z-threshold, min-stddev e warmup-samples devem ser positivos");
+        }
+        if (Integer.bitCount(stripeCount) != 1 || stripeCount > 1 << 16) {
+            throw new IllegalStateException("alerts.anomaly.stripes deve ser potência de 2 até 65536: " + stripeCount);
+        }
+        for (DeviceType type : DeviceType.values()) {
+            Double limit = environment.getProperty("alerts.anomaly.rate-limit." + type.name().toLowerCase(), Double.class);
+            if (limit != null && limit <= 0) {
+                throw new IllegalStateException("Limite de variação inválido para " + type + ": " + limit);
+            }
+            rateLimitByType[type.ordinal()] = limit != null ? limit : Double.POSITIVE_INFINITY;
+        }
+        this.zScoreAnomaly = new AlertRule("alerts.anomaly.z-threshold", null, AlertType.READING_ANOMALY,
+                AlertSeverity.MEDIUM, false,
+                "Leitura a mais de " + zThreshold + " desvios-padrão da média recente");
+        int capacity = environment.getProperty("alerts.anomaly.initial-capacity", Integer.class, 1024);
+        this.stripes = new Stripe[stripeCount];
+        // A stripe sai dos bits altos do hash e o slot dentro dela dos baixos
+        this.stripeShift = 32 - Integer.numberOfTrailingZeros(stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(Math.max(16, capacity / stripeCount));
+        }
+        log.info("Detecção de anomalias {}: alpha={}, z={}, aquecimento de {} leituras, {} stripes",
+                enabled ? "ativa" : "desativada", alpha, zThreshold, warmupSamples, stripeCount);
+    }
+    
+    /**
+     * Registra uma leitura e atualiza o estado do dispositivo
+     * @param reading Leitura textual: número simples ou par value=... / value:...
+     * @return Regra da anomalia do dispositivo após a leitura, ou null sem anomalia. Leituras
+     *         sem valor numérico não alteram o estado
+     */
+    public AlertRule observe(long deviceId, DeviceType type, LocalDateTime time, String reading) {
+        if (!enabled) {
+            return null;
+        }
+        double value = reading == null ? Double.NaN : parseValue(reading);
+        if (Double.isNaN(value)) {
+            return anomalyOf(deviceId);
+        }
+        long millis = time.toEpochSecond(ZoneOffset.UTC) * 1000 + time.getNano() / 1_000_000;
+        int hash = DeviceIdHash.mix(deviceId);
+        Stripe stripe = stripeOf(hash);
+        stripe.lock.lock();
+        try {
+            int slot = stripe.slotFor(deviceId, hash);
+            byte next = NORMAL;
+            if (stripe.samples[slot] >= warmupSamples) {
+                double stdDev = Math.max(Math.sqrt(stripe.variance[slot]), minStdDev);
+                if (Math.abs(value - stripe.mean[slot]) / stdDev > zThreshold) {
+                    next = Z_SCORE;
+                }
+                // Leituras no mesmo segundo contam como 1 s de intervalo
+                double seconds = Math.max(1.0, (millis - stripe.lastMillis[slot]) / 1000.0);
+                if (Math.abs(value - stripe.lastValue[slot]) / seconds > rateLimitByType[type.ordinal()]) {
+                    next = RATE;
+                }
+            }
+            stripe.state[slot] = next;
+            
+            // EWMA da média e da variância
+            if (stripe.samples[slot] == 0) {
+                stripe.mean[slot] = value;
+                stripe.variance[slot] = 0;
+            } else {
+                double diff = value - stripe.mean[slot];
+                double increment = alpha * diff;
+                stripe.mean[slot] += increment;
+                stripe.variance[slot] = (1 - alpha) * (stripe.variance[slot] + diff * increment);
+            }
+            stripe.lastValue[slot] = value;
+            stripe.lastMillis[slot] = millis;
+            if (stripe.samples[slot] < Integer.MAX_VALUE) {
+                stripe.samples[slot]++;
+            }
+            return ruleOf(next);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+    
+    /**
+     * Regra de alerta correspondente à anomalia atual do dispositivo
+     * @return READING_ANOMALY por z-score ou por taxa de variação, ou null sem anomalia
+     */
+    public AlertRule anomalyOf(long deviceId) {
+        int hash = DeviceIdHash.mix(deviceId);
+        Stripe stripe = stripeOf(hash);
+        stripe.lock.lock();
+        try {
+            int slot = stripe.find(deviceId, hash);
+            return slot < 0 ? null : ruleOf(stripe.state[slot]);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+    
+    private AlertRule ruleOf(byte anomaly) {
+        return switch (anomaly) {
+            case Z_SCORE -> zScoreAnomaly;
+            case RATE -> RATE_ANOMALY;
+            default -> null;
+        };
+    }
+    
+    public boolean isAnomalous(long deviceId) {
+        return anomalyOf(deviceId) != null;
+    }
+    
+    /**
+     * Descarta o estado de um dispositivo removido
+     */
+    public void forget(long deviceId) {
+        int hash = DeviceIdHash.mix(deviceId);
+        Stripe stripe = stripeOf(hash);
+        stripe.lock.lock();
+        try {
+            int slot = stripe.find(deviceId, hash);
+            if (slot >= 0) {
+                stripe.removeAt(slot);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+    
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size;
+        }
+        return size;
+    }
+    
+    private Stripe stripeOf(int hash) {
+        return stripes.length == 1 ? stripes[0] : stripes[hash >>> stripeShift];
+    }
+    
+    // ==================== TABELA DE SLOTS ====================
+    
+    /**
+     * Uma fatia da tabela: slots (chave 0 = livre) e estado por slot, protegidos por lock
+     */
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        long[] keys;
+        double[] mean;
+        double[] variance;
+        double[] lastValue;
+        long[] lastMillis;
+        int[] samples;
+        byte[] state;
+        volatile int size;
+        
+        Stripe(int capacity) {
+            allocate(capacity);
+        }
+        
+        int find(long deviceId, int hash) {
+            int mask = keys.length - 1;
+            for (int index = hash & mask; ; index = (index + 1) & mask) {
+                if (keys[index] == deviceId) {
+                    return index;
+                }
+                if (keys[index] == 0) {
+                    return -1;
+                }
+            }
+        }
+        
+        int slotFor(long deviceId, int hash) {
+            int slot = find(deviceId, hash);
+            if (slot >= 0) {
+                return slot;
+            }
+            // Carga máxima de 1/2 para manter as sondagens curtas
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+            }
+            int mask = keys.length - 1;
+            int index = hash & mask;
+            while (keys[index] != 0) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = deviceId;
+            samples[index] = 0;
+            state[index] = NORMAL;
+            size++;
+            return index;
+        }
+        
+        /**
+         * Remoção por deslocamento para trás, sem marcadores de remoção
+         */
+        void removeAt(int slot) {
+            int mask = keys.length - 1;
+            int hole = slot;
+            for (int index = (slot + 1) & mask; keys[index] != 0; index = (index + 1) & mask) {
+                int home = DeviceIdHash.mix(keys[index]) & mask;
+                // Move a entrada se o buraco está entre a posição ideal dela e a posição atual
+                if (((index - home) & mask) >= ((index - hole) & mask)) {
+                    moveSlot(index, hole);
+                    hole = index;
+                }
+            }
+            keys[hole] = 0;
+            size--;
+        }
+        
+        private void moveSlot(int from, int to) {
+            keys[to] = keys[from];
+            mean[to] = mean[from];
+            variance[to] = variance[from];
+            lastValue[to] = lastValue[from];
+            lastMillis[to] = lastMillis[from];
+            samples[to] = samples[from];
+            state[to] = state[from];
+        }
+        
+        private void allocate(int capacity) {
+            int slots = Integer.highestOneBit(Math.max(16, capacity - 1)) << 1;
+            keys = new long[slots];
+            mean = new double[slots];
+            variance = new double[slots];
+            lastValue = new double[slots];
+            lastMillis = new long[slots];
+            samples = new int[slots];
+            state = new byte[slots];
+        }
+        
+        private void grow() {
+            long[] oldKeys = keys;
+            double[] oldMean = mean;
+            double[] oldVariance = variance;
+            double[] oldLastValue = lastValue;
+            long[] oldLastMillis = lastMillis;
+            int[] oldSamples = samples;
+            byte[] oldState = state;
+            allocate(oldKeys.length * 2);
+            int mask = keys.length - 1;
+            for (int old = 0; old < oldKeys.length; old++) {
+                if (oldKeys[old] == 0) {
+                    continue;
+                }
+                int index = DeviceIdHash.mix(oldKeys[old]) & mask;
+                while (keys[index] != 0) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[old];
+                mean[index] = oldMean[old];
+                variance[index] = oldVariance[old];
+                lastValue[index] = oldLastValue[old];
+                lastMillis[index] = oldLastMillis[old];
+                samples[index] = oldSamples[old];
+                state[index] = oldState[old];
+            }
+        }
+    }
+    
+    // ==================== LEITURA DO VALOR ====================
+    
+    /**
+     * Extrai o valor principal da leitura sem criar Strings: o número inteiro da leitura
+     * ("23.5", "23,5") ou o da chave value ("value=23.5;battery=80")
+     * @return Valor ou NaN se não houver
+     */
+    static double parseValue(String reading) {
+        int start = 0;
+        int end = reading.length();
+        while (start < end && reading.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && reading.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        double plain = ReadingNumbers.parse(reading, start, end);
+        if (!Double.isNaN(plain)) {
+            return plain;
+        }
+        int key = start;
+        while ((key = reading.indexOf("value", key)) >= 0 && key < end) {
+            int separator = key + 5;
+            boolean boundary = key == start || !Character.isLetterOrDigit(reading.charAt(key - 1));
+            if (boundary && separator < end && (reading.charAt(separator) == '=' || reading.charAt(separator) == ':')) {
+                int valueEnd = separator + 1;
+                while (valueEnd < end && !endsValue(reading, valueEnd)) {
+                    valueEnd++;
+                }
+                return ReadingNumbers.parse(reading, separator + 1, valueEnd);
+            }
+            key = separator;
+        }
+        return Double.NaN;
+    }
+    
+    private static boolean endsValue(String reading, int index) {
+        char c = reading.charAt(index);
+        return c == ';' || c == '&' || c == ' ' || (c == ',' && !ReadingNumbers.isDecimalComma(reading, index));
+    }
+}
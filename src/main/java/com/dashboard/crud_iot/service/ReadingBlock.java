@@ -0,0 +1,330 @@
+package com.dashboard.crud_iot.service;
+
+import java.util.Arrays;
+
+/**
+ * Bloco de leituras (segundo, valor) comprimido no esquema do Gorilla (Facebook).
+ *
+ * Os instantes são gravados como delta-of-delta em prefixos de 1 a 4 bits e os valores
+ * como o XOR com o valor anterior, guardando só os bits significativos. Leituras periódicas
+ * que mudam pouco ocupam poucos bits: instantes regulares custam 1 bit e valores repetidos
+ * outro bit. Os bits ficam num long[] de tamanho fixo (WORDS); ao selar, o array é reduzido
+ * às palavras usadas. O bloco guarda ainda contagem, mínimo, máximo e soma, para agregar
+ * blocos inteiros sem decodificá-los.
+ *
+ * Um bloco aberto não é thread-safe; blocos selados são imutáveis.
+ */
+public final class ReadingBlock {
+    
+    /**
+     * Palavras de 64 bits de um bloco aberto (1 KB)
+     */
+    public static final int WORDS = 128;
+    
+    // Pior caso de um ponto: '1111' + 32 bits de instante e '11' + 5 + 6 + 64 bits de valor
+    private static final int MAX_POINT_BITS = 4 + 32 + 2 + 5 + 6 + 64;
+    
+    private long[] words;
+    private int bitLength;
+    private int count;
+    private long firstSecond;
+    private long lastSecond;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private double sum;
+    private boolean sealed;
+    
+    // Estado do codificador
+    private long lastDelta;
+    private long lastBits;
+    private int lastLeading = -1;
+    private int lastTrailing;
+    
+    public ReadingBlock() {
+        this.words = new long[WORDS];
+    }
+    
+    /**
+     * Reconstrói um bloco selado a partir das palavras e do resumo gravados
+     */
+    public static ReadingBlock sealed(long[] words, int bitLength, int count, long firstSecond, long lastSecond,
+                                      double min, double max, double sum) {
+        ReadingBlock block = new ReadingBlock(words);
+        block.bitLength = bitLength;
+        block.count = count;
+        block.firstSecond = firstSecond;
+        block.lastSecond = lastSecond;
+        block.min = min;
+        block.max = max;
+        block.sum = sum;
+        block.sealed = true;
+        return block;
+    }
+    
+    private ReadingBlock(long[] words) {
+        this.words = words;
+    }
+    
+    /**
+     * Acrescenta um ponto ao bloco aberto
+     * @param epochSecond Instante, não anterior ao último ponto do bloco
+     * @return false se o bloco não comporta o ponto e deve ser selado
+     */
+    public boolean append(long epochSecond, double value) {
+        if (sealed) {
+            throw new IllegalStateException("Bloco selado");
+        }
+        if (count > 0 && epochSecond < lastSecond) {
+            throw new IllegalArgumentException("Instante anterior ao último ponto do bloco: " + epochSecond);
+        }
+        if (bitLength + MAX_POINT_BITS > words.length * 64) {
+            return false;
+        }
+        long bits = Double.doubleToRawLongBits(value);
+        if (count == 0) {
+            firstSecond = epochSecond;
+            writeBits(bits, 64);
+        } else {
+            long delta = epochSecond - lastSecond;
+            long deltaOfDelta = delta - lastDelta;
+            if (deltaOfDelta < Integer.MIN_VALUE || deltaOfDelta > Integer.MAX_VALUE) {
+                return false;
+            }
+            writeDeltaOfDelta(deltaOfDelta);
+            writeXor(bits ^ lastBits);
+            lastDelta = delta;
+        }
+        lastSecond = epochSecond;
+        lastBits = bits;
+        count++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        sum += value;
+        return true;
+    }
+    
+    /**
+     * Fecha o bloco para escrita e libera as palavras não usadas
+     */
+    public void seal() {
+        if (!sealed) {
+            words = Arrays.copyOf(words, usedWords());
+            sealed = true;
+        }
+    }
+    
+    /**
+     * Cópia selada dos pontos gravados até agora, para decodificar fora do dono do bloco
+     */
+    public ReadingBlock snapshot() {
+        if (sealed) {
+            return this;
+        }
+        return sealed(Arrays.copyOf(words, usedWords()), bitLength, count, firstSecond, lastSecond, min, max, sum);
+    }
+    
+    private void writeDeltaOfDelta(long deltaOfDelta) {
+        if (deltaOfDelta == 0) {
+            writeBits(0b0, 1);
+        } else if (deltaOfDelta >= -64 && deltaOfDelta <= 63) {
+            writeBits(0b10, 2);
+            writeBits(deltaOfDelta, 7);
+        } else if (deltaOfDelta >= -256 && deltaOfDelta <= 255) {
+            writeBits(0b110, 3);
+            writeBits(deltaOfDelta, 9);
+        } else if (deltaOfDelta >= -2048 && deltaOfDelta <= 2047) {
+            writeBits(0b1110, 4);
+            writeBits(deltaOfDelta, 12);
+        } else {
+            writeBits(0b1111, 4);
+            writeBits(deltaOfDelta, 32);
+        }
+    }
+    
+    private void writeXor(long xor) {
+        if (xor == 0) {
+            writeBits(0b0, 1);
+            return;
+        }
+        // O campo de zeros à esquerda tem 5 bits
+        int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+        int trailing = Long.numberOfTrailingZeros(xor);
+        if (lastLeading >= 0 && leading >= lastLeading && trailing >= lastTrailing) {
+            // Os bits significativos cabem na janela do valor anterior
+            writeBits(0b10, 2);
+            writeBits(xor >>> lastTrailing, 64 - lastLeading - lastTrailing);
+        } else {
+            int significant = 64 - leading - trailing;
+            writeBits(0b11, 2);
+            writeBits(leading, 5);
+            writeBits(significant - 1, 6);
+            writeBits(xor >>> trailing, significant);
+            lastLeading = leading;
+            lastTrailing = trailing;
+        }
+    }
+    
+    /**
+     * Grava os bits menos significativos de value, do mais significativo para o menos
+     */
+    private void writeBits(long value, int bits) {
+        int index = bitLength >>> 6;
+        int free = 64 - (bitLength & 63);
+        long masked = bits == 64 ? value : value & ((1L << bits) - 1);
+        if (bits <= free) {
+            words[index] |= masked << (free - bits);
+        } else {
+            words[index] |= masked >>> (bits - free);
+            words[index + 1] |= masked << (64 - (bits - free));
+        }
+        bitLength += bits;
+    }
+    
+    // ==================== LEITURA ====================
+    
+    /**
+     * Percorre os pontos de um bloco sem alocar por ponto. Reutilizável com reset.
+     * Sobre um bloco aberto, vê os pontos gravados até o reset.
+     */
+    public static final class Cursor {
+        
+        private long[] words;
+        private int position;
+        private int remaining;
+        private boolean first;
+        private long second;
+        private long delta;
+        private long bits;
+        private int leading;
+        private int trailing;
+        
+        public Cursor reset(ReadingBlock block) {
+            this.words = block.words;
+            this.position = 0;
+            this.remaining = block.count;
+            this.first = true;
+            this.second = block.firstSecond;
+            this.delta = 0;
+            this.bits = 0;
+            return this;
+        }
+        
+        /**
+         * Avança para o próximo ponto
+         * @return false ao fim do bloco
+         */
+        public boolean next() {
+            if (remaining == 0) {
+                return false;
+            }
+            remaining--;
+            if (first) {
+                first = false;
+                bits = readBits(64);
+                return true;
+            }
+            delta += readDeltaOfDelta();
+            second += delta;
+            if (readBits(1) != 0) {
+                if (readBits(1) != 0) {
+                    leading = (int) readBits(5);
+                    int significant = (int) readBits(6) + 1;
+                    trailing = 64 - leading - significant;
+                }
+                bits ^= readBits(64 - leading - trailing) << trailing;
+            }
+            return true;
+        }
+        
+        public long epochSecond() {
+            return second;
+        }
+        
+        public double value() {
+            return Double.longBitsToDouble(bits);
+        }
+        
+        private long readDeltaOfDelta() {
+            if (readBits(1) == 0) {
+                return 0;
+            }
+            if (readBits(1) == 0) {
+                return signed(readBits(7), 7);
+            }
+            if (readBits(1) == 0) {
+                return signed(readBits(9), 9);
+            }
+            if (readBits(1) == 0) {
+                return signed(readBits(12), 12);
+            }
+            return signed(readBits(32), 32);
+        }
+        
+        private static long signed(long value, int bits) {
+            return (value << (64 - bits)) >> (64 - bits);
+        }
+        
+        private long readBits(int bits) {
+            int index = position >>> 6;
+            int offset = position & 63;
+            int available = 64 - offset;
+            long result = (words[index] << offset) >>> (64 - bits);
+            if (bits > available) {
+                result |= words[index + 1] >>> (64 - (bits - available));
+            }
+            position += bits;
+            return result;
+        }
+    }
+    
+    // ==================== RESUMO ====================
+    
+    public int count() {
+        return count;
+    }
+    
+    public long firstSecond() {
+        return firstSecond;
+    }
+    
+    public long lastSecond() {
+        return lastSecond;
+    }
+    
+    public double min() {
+        return min;
+    }
+    
+    public double max() {
+        return max;
+    }
+    
+    public double sum() {
+        return sum;
+    }
+    
+    public boolean isSealed() {
+        return sealed;
+    }
+    
+    /**
+     * Bits gravados, sem contar o resumo
+     */
+    public int bitLength() {
+        return bitLength;
+    }
+    
+    /**
+     * Palavras com bits gravados
+     */
+    public int usedWords() {
+        return (bitLength + 63) >>> 6;
+    }
+    
+    /**
+     * Palavras do bloco; no bloco selado, exatamente as usadas. Não deve ser alterado.
+     */
+    long[] words() {
+        return words;
+    }
+}
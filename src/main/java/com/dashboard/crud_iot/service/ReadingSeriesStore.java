@@ -0,0 +1,701 @@
+package com.dashboard.crud_iot.service;
+
+import com.dashboard.crud_iot.dto.ReadingPointDTO;
+import com.dashboard.crud_iot.dto.ReadingSeriesDTO;
+import com.dashboard.crud_iot.events.DeviceChangedEvent;
+import com.dashboard.crud_iot.events.DeviceHeartbeatEvent;
+import com.dashboard.crud_iot.repositories.DeviceRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Séries das leituras numéricas por dispositivo, comprimidas em ReadingBlock.
+ *
+ * Cada heartbeat com valor numérico entra no bloco aberto do dispositivo; o bloco cheio é
+ * selado e o flush periódico o acrescenta ao arquivo do dispositivo em dashboard.readings.dir.
+ * Só os dashboard.readings.hot-blocks blocos selados mais recentes ficam em memória; os mais
+ * antigos são lidos do arquivo quando a consulta os alcança. Sem diretório os blocos mais
+ * antigos são descartados. As consultas agregam por passo decodificando ponto a ponto, e
+ * blocos inteiramente dentro de um passo entram pelo resumo, sem decodificação.
+ * No desligamento os blocos abertos são selados e gravados, e a série recomeça do arquivo.
+ * Na inicialização os arquivos de dispositivos que não existem mais no banco, ou cujo id foi
+ * reaproveitado por um dispositivo criado depois das leituras, são removidos.
+ * Como no UptimeTracker, os instantes são os LocalDateTime convertidos como UTC.
+ */
+@Component
+@Slf4j
+public class ReadingSeriesStore {
+    
+    private static final int MAGIC = 0x52534231; // "RSB1"
+    private static final int RECORD_HEADER_BYTES = 4 + 4 + 4 + 4 + 8 * 5;
+    private static final String FILE_SUFFIX = ".blocks";
+    private static final int MAX_POINTS_PER_QUERY = 10_000;
+    private static final int MAX_FORGOTTEN = 100_000;
+    
+    private final DeviceRepository deviceRepository;
+    private final boolean enabled;
+    private final int hotBlocks;
+    private final Path directory;
+    private final Map<Long, Series> series = new ConcurrentHashMap<>();
+    // Último instante gravado de cada arquivo encontrado na inicialização, até a conferência com o banco
+    private final Map<Long, Long> loadedUntil = new ConcurrentHashMap<>();
+    // Dispositivos removidos, os MAX_FORGOTTEN mais recentes: um heartbeat atrasado não recria a série
+    private final Set<Long> forgotten = ConcurrentHashMap.newKeySet();
+    private final Queue<Long> forgottenOrder = new ConcurrentLinkedQueue<>();
+    private final LongAdder outOfOrder = new LongAdder();
+    
+    /**
+     * Série de um dispositivo. O estado em memória é protegido por lock, que o append também
+     * toma; a gravação e a remoção do arquivo são serializadas por fileLock, sem segurar lock
+     * durante o I/O.
+     */
+    private static final class Series {
+        final ReentrantLock lock = new ReentrantLock();
+        final ReentrantLock fileLock = new ReentrantLock();
+        ReadingBlock open = new ReadingBlock();
+        // Selados em memória, do mais antigo ao mais recente; os flushed primeiros já estão no arquivo
+        final List<ReadingBlock> sealed = new ArrayList<>();
+        int flushed;
+        // Blocos no arquivo, do mais antigo ao mais recente; os últimos flushed também estão em memória
+        final List<StoredBlock> stored = new ArrayList<>();
+        long fileSize;
+        long lastSecond = Long.MIN_VALUE;
+        boolean removed;
+    }
+    
+    /**
+     * Posição e resumo de um bloco gravado no arquivo do dispositivo
+     */
+    private record StoredBlock(long offset, int words, int bitLength, int count, long firstSecond, long lastSecond,
+                               double min, double max, double sum) {
+        
+        boolean overlaps(long fromSecond, long toSecond) {
+            return lastSecond >= fromSecond && firstSecond <= toSecond;
+        }
+    }
+    
+    /**
+     * Recebe os pontos de uma consulta em ordem cronológica
+     */
+    @FunctionalInterface
+    public interface PointVisitor {
+        void accept(long epochSecond, double value);
+    }
+    
+    public ReadingSeriesStore(DeviceRepository deviceRepository,
+                              @Value("${dashboard.readings.enabled:true}") boolean enabled,
+                              @Value("${dashboard.readings.hot-blocks:8}") int hotBlocks,
+                              @Value("${dashboard.readings.dir:}") String directory) {
+        if (hotBlocks < 1) {
+            throw new IllegalStateException("dashboard.readings.hot-blocks deve ser pelo menos 1: " + hotBlocks);
+        }
+        this.deviceRepository = deviceRepository;
+        this.enabled = enabled;
+        this.hotBlocks = hotBlocks;
+        this.directory = directory.isBlank() ? null : open(Path.of(directory));
+    }
+    
+    // ==================== ESCRITA ====================
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHeartbeat(DeviceHeartbeatEvent event) {
+        if (!enabled || event.getReading() == null || event.getCommunicationTime() == null) {
+            return;
+        }
+        double value = ReadingAnomalyDetector.parseValue(event.getReading());
+        if (!Double.isNaN(value)) {
+            append(event.getDeviceId(), epochSecond(event.getCommunicationTime()), value);
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeviceChanged(DeviceChangedEvent event) {
+        if (event.getAfter() == null && event.getBefore() != null) {
+            forget(event.getBefore().getId());
+        }
+    }
+    
+    /**
+     * Acrescenta um ponto à série do dispositivo. Pontos anteriores ao último da série são
+     * descartados e contados; os de dispositivos removidos, ignorados
+     */
+    public void append(long deviceId, long epochSecond, double value) {
+        Series target = series.computeIfAbsent(deviceId, id -> forgotten.contains(id) ? null : new Series());
+        if (target == null) {
+            return;
+        }
+        target.lock.lock();
+        try {
+            if (target.removed) {
+                return;
+            }
+            if (epochSecond < target.lastSecond) {
+                outOfOrder.increment();
+                return;
+            }
+            target.lastSecond = epochSecond;
+            ReadingBlock open = target.open;
+            if (!open.append(epochSecond, value)) {
+                open.seal();
+                target.sealed.add(open);
+                target.open = new ReadingBlock();
+                target.open.append(epochSecond, value);
+                if (directory == null) {
+                    evict(target);
+                }
+            }
+        } finally {
+            target.lock.unlock();
+        }
+    }
+    
+    /**
+     * Remove a série e o arquivo do dispositivo. O id fica marcado antes da remoção, para que
+     * um append concorrente não recrie a série
+     */
+    public void forget(long deviceId) {
+        if (forgotten.add(deviceId)) {
+            forgottenOrder.add(deviceId);
+            while (forgotten.size() > MAX_FORGOTTEN) {
+                Long oldest = forgottenOrder.poll();
+                if (oldest == null) {
+                    break;
+                }
+                forgotten.remove(oldest);
+            }
+        }
+        discard(deviceId);
+    }
+    
+    /**
+     * Confere as séries carregadas do diretório com o banco e remove as de dispositivos que não
+     * existem mais ou que foram criados depois da última leitura gravada (id reaproveitado)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+        if (loadedUntil.isEmpty()) {
+            return;
+        }
+        Map<Long, LocalDateTime> createdAt = new HashMap<>();
+        for (DeviceRepository.CreationTime row : deviceRepository.findAllCreationTimes()) {
+            createdAt.put(row.getId(), row.getCreatedAt());
+        }
+        int removed = 0;
+        for (Map.Entry<Long, Long> loaded : loadedUntil.entrySet()) {
+            LocalDateTime created = createdAt.get(loaded.getKey());
+            if (created == null || epochSecond(created) > loaded.getValue()) {
+                discard(loaded.getKey());
+                removed++;
+            }
+        }
+        loadedUntil.clear();
+        if (removed > 0) {
+            log.info("Leituras de {} dispositivos inexistentes ou recriados removidas", removed);
+        }
+    }
+    
+    private void discard(long deviceId) {
+        Series removed = series.remove(deviceId);
+        if (removed == null) {
+            return;
+        }
+        removed.lock.lock();
+        try {
+            removed.removed = true;
+        } finally {
+            removed.lock.unlock();
+        }
+        if (directory == null) {
+            return;
+        }
+        // Espera uma gravação em andamento terminar, para não deixar o arquivo para trás
+        removed.fileLock.lock();
+        try {
+            Files.deleteIfExists(fileOf(deviceId));
+        } catch (IOException e) {
+            log.warn("Falha ao remover as leituras do dispositivo {}: {}", deviceId, e.getMessage());
+        } finally {
+            removed.fileLock.unlock();
+        }
+    }
+    
+    /**
+     * Acrescenta os blocos selados ainda não gravados ao arquivo de cada dispositivo
+     */
+    @Scheduled(fixedDelayString = "${dashboard.readings.flush-interval-ms:10000}")
+    public void flush() {
+        if (directory == null) {
+            return;
+        }
+        series.forEach((deviceId, target) -> {
+            target.fileLock.lock();
+            try {
+                write(deviceId, target);
+            } finally {
+                target.fileLock.unlock();
+            }
+        });
+    }
+    
+    /**
+     * Sela os blocos abertos e grava tudo antes do desligamento; sem isso os pontos do bloco
+     * aberto de cada dispositivo se perderiam no reinício
+     */
+    @PreDestroy
+    public void close() {
+        if (directory == null) {
+            return;
+        }
+        for (Series target : series.values()) {
+            target.lock.lock();
+            try {
+                if (target.open.count() > 0) {
+                    target.open.seal();
+                    target.sealed.add(target.open);
+                    target.open = new ReadingBlock();
+                }
+            } finally {
+                target.lock.unlock();
+            }
+        }
+        flush();
+    }
+    
+    /**
+     * Grava os blocos pendentes com fileLock. Os blocos selados são imutáveis: a lista é
+     * copiada sob lock, o arquivo é escrito fora dele e o índice é atualizado sob lock de novo.
+     * Só esta gravação avança flushed, então os pendentes continuam na mesma posição
+     */
+    private void write(long deviceId, Series target) {
+        List<ReadingBlock> pending;
+        long offset;
+        target.lock.lock();
+        try {
+            if (target.removed || target.flushed == target.sealed.size()) {
+                return;
+            }
+            pending = List.copyOf(target.sealed.subList(target.flushed, target.sealed.size()));
+            offset = target.fileSize;
+        } finally {
+            target.lock.unlock();
+        }
+        
+        int bytes = 0;
+        for (ReadingBlock block : pending) {
+            bytes += RECORD_HEADER_BYTES + block.usedWords() * Long.BYTES;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(bytes);
+        List<StoredBlock> written = new ArrayList<>(pending.size());
+        long start = offset;
+        for (ReadingBlock block : pending) {
+            buffer.putInt(MAGIC).putInt(block.usedWords()).putInt(block.bitLength()).putInt(block.count())
+                    .putLong(block.firstSecond()).putLong(block.lastSecond())
+                    .putDouble(block.min()).putDouble(block.max()).putDouble(block.sum());
+            buffer.asLongBuffer().put(block.words());
+            buffer.position(buffer.position() + block.usedWords() * Long.BYTES);
+            written.add(new StoredBlock(offset, block.usedWords(), block.bitLength(), block.count(),
+                    block.firstSecond(), block.lastSecond(), block.min(), block.max(), block.sum()));
+            offset += RECORD_HEADER_BYTES + block.usedWords() * Long.BYTES;
+        }
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(fileOf(deviceId), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, start + buffer.position());
+            }
+        } catch (IOException e) {
+            // Os blocos continuam em memória e o próximo flush tenta de novo a partir do mesmo ponto
+            log.warn("Falha ao gravar as leituras do dispositivo {}: {}", deviceId, e.getMessage());
+            return;
+        }
+        
+        target.lock.lock();
+        try {
+            // Removido durante a gravação: quem removeu apaga o arquivo ao obter o fileLock
+            if (target.removed) {
+                return;
+            }
+            target.stored.addAll(written);
+            target.fileSize = offset;
+            target.flushed += pending.size();
+            evict(target);
+        } finally {
+            target.lock.unlock();
+        }
+    }
+    
+    /**
+     * Mantém em memória só os hot-blocks selados mais recentes; com diretório, só descarta
+     * os que já estão no arquivo
+     */
+    private void evict(Series target) {
+        int removable = target.sealed.size() - hotBlocks;
+        if (directory != null) {
+            removable = Math.min(removable, target.flushed);
+        }
+        if (removable > 0) {
+            target.sealed.subList(0, removable).clear();
+            if (directory != null) {
+                target.flushed -= removable;
+            }
+        }
+    }
+    
+    // ==================== CONSULTAS ====================
+    
+    /**
+     * Percorre os pontos do dispositivo entre from e to (inclusive, em segundos UTC), do mais
+     * antigo ao mais recente
+     * @return Quantidade de pontos visitados
+     */
+    public long scan(long deviceId, long fromSecond, long toSecond, PointVisitor visitor) {
+        Aggregation aggregation = new Aggregation(fromSecond, toSecond, 0, visitor);
+        visit(deviceId, aggregation);
+        return aggregation.visited;
+    }
+    
+    /**
+     * Série de leituras do dispositivo agregada por passo
+     * @param range Período até agora (ex.: 1h)
+     * @param step Passo de cada ponto (ex.: 1m), no máximo 10.000 pontos no período
+     * @throws IllegalArgumentException se range ou step forem inválidos
+     */
+    public ReadingSeriesDTO getSeries(long deviceId, String range, String step, LocalDateTime now) {
+        long rangeSeconds = parse("range", range).toSeconds();
+        long stepSeconds = parse("step", step).toSeconds();
+        if (stepSeconds > rangeSeconds || rangeSeconds / stepSeconds > MAX_POINTS_PER_QUERY) {
+            throw new IllegalArgumentException("step deve estar entre range/" + MAX_POINTS_PER_QUERY + " e o range: " + step);
+        }
+        long to = epochSecond(now);
+        Aggregation aggregation = new Aggregation(to - rangeSeconds, to, stepSeconds, null);
+        long[] footprint = visit(deviceId, aggregation);
+        aggregation.closeBucket();
+        
+        return ReadingSeriesDTO.builder()
+                .deviceId(deviceId)
+                .range(range)
+                .step(step)
+                .from(toDateTime(to - rangeSeconds))
+                .to(now)
+                .totalPoints(aggregation.visited)
+                .storedPoints(footprint[0])
+                .bytesPerPoint(footprint[0] == 0 ? 0.0 : Math.round(footprint[1] * 100.0 / footprint[0]) / 100.0)
+                .points(aggregation.points)
+                .build();
+    }
+    
+    /**
+     * Pontos e bytes comprimidos guardados, somando memória e disco
+     */
+    public long[] footprint() {
+        long[] total = new long[2];
+        for (Series target : series.values()) {
+            target.lock.lock();
+            try {
+                addFootprint(target, total);
+            } finally {
+                target.lock.unlock();
+            }
+        }
+        return total;
+    }
+    
+    public long getOutOfOrderPoints() {
+        return outOfOrder.sum();
+    }
+    
+    /**
+     * Passa os blocos do dispositivo que cruzam o período pela agregação, em ordem: os que só
+     * estão no arquivo, os selados em memória e uma cópia do aberto. A lista de blocos é
+     * copiada sob o lock da série e a decodificação acontece fora dele
+     * @return Pontos e bytes guardados do dispositivo
+     */
+    private long[] visit(long deviceId, Aggregation aggregation) {
+        long[] footprint = new long[2];
+        Series target = series.get(deviceId);
+        if (target == null) {
+            return footprint;
+        }
+        List<StoredBlock> onDisk;
+        List<ReadingBlock> inMemory;
+        target.lock.lock();
+        try {
+            addFootprint(target, footprint);
+            onDisk = List.copyOf(target.stored.subList(0, target.stored.size() - target.flushed));
+            inMemory = new ArrayList<>(target.sealed.size() + 1);
+            inMemory.addAll(target.sealed);
+            inMemory.add(target.open.snapshot());
+        } finally {
+            target.lock.unlock();
+        }
+        ReadingBlock.Cursor cursor = new ReadingBlock.Cursor();
+        if (!onDisk.isEmpty() && onDisk.get(onDisk.size() - 1).lastSecond() >= aggregation.fromSecond) {
+            readStored(deviceId, onDisk, aggregation, cursor);
+        }
+        for (ReadingBlock block : inMemory) {
+            aggregation.add(block, cursor);
+        }
+        return footprint;
+    }
+    
+    private static void addFootprint(Series target, long[] footprint) {
+        int storedOnly = target.stored.size() - target.flushed;
+        for (int i = 0; i < storedOnly; i++) {
+            footprint[0] += target.stored.get(i).count();
+            footprint[1] += target.stored.get(i).words() * (long) Long.BYTES;
+        }
+        for (ReadingBlock block : target.sealed) {
+            footprint[0] += block.count();
+            footprint[1] += block.usedWords() * (long) Long.BYTES;
+        }
+        footprint[0] += target.open.count();
+        footprint[1] += target.open.usedWords() * (long) Long.BYTES;
+    }
+    
+    private void readStored(long deviceId, List<StoredBlock> blocks, Aggregation aggregation, ReadingBlock.Cursor cursor) {
+        try (FileChannel channel = FileChannel.open(fileOf(deviceId), StandardOpenOption.READ)) {
+            for (StoredBlock stored : blocks) {
+                if (!stored.overlaps(aggregation.fromSecond, aggregation.toSecond)) {
+                    continue;
+                }
+                if (aggregation.coversWhole(stored.firstSecond(), stored.lastSecond())) {
+                    aggregation.addSummary(stored.count(), stored.firstSecond(), stored.min(), stored.max(), stored.sum());
+                    continue;
+                }
+                ByteBuffer buffer = ByteBuffer.allocate(stored.words() * Long.BYTES);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, stored.offset() + RECORD_HEADER_BYTES + buffer.position()) < 0) {
+                        throw new IOException("arquivo truncado");
+                    }
+                }
+                buffer.flip();
+                long[] words = new long[stored.words()];
+                buffer.asLongBuffer().get(words);
+                aggregation.add(ReadingBlock.sealed(words, stored.bitLength(), stored.count(), stored.firstSecond(),
+                        stored.lastSecond(), stored.min(), stored.max(), stored.sum()), cursor);
+            }
+        } catch (IOException e) {
+            log.warn("Falha ao ler as leituras do dispositivo {}: {}", deviceId, e.getMessage());
+        }
+    }
+    
+    /**
+     * Agrega os pontos do período por passo; com passo 0 só repassa os pontos ao visitante
+     */
+    private static final class Aggregation {
+        final long fromSecond;
+        final long toSecond;
+        final long stepSeconds;
+        final PointVisitor visitor;
+        final List<ReadingPointDTO> points = new ArrayList<>();
+        long visited;
+        long bucket = Long.MIN_VALUE;
+        long count;
+        double min;
+        double max;
+        double sum;
+        
+        Aggregation(long fromSecond, long toSecond, long stepSeconds, PointVisitor visitor) {
+            this.fromSecond = fromSecond;
+            this.toSecond = toSecond;
+            this.stepSeconds = stepSeconds;
+            this.visitor = visitor;
+        }
+        
+        void add(ReadingBlock block, ReadingBlock.Cursor cursor) {
+            if (block.count() == 0 || block.lastSecond() < fromSecond || block.firstSecond() > toSecond) {
+                return;
+            }
+            if (coversWhole(block.firstSecond(), block.lastSecond())) {
+                addSummary(block.count(), block.firstSecond(), block.min(), block.max(), block.sum());
+                return;
+            }
+            cursor.reset(block);
+            while (cursor.next()) {
+                long second = cursor.epochSecond();
+                if (second > toSecond) {
+                    break;
+                }
+                if (second >= fromSecond) {
+                    addPoint(second, cursor.value());
+                }
+            }
+        }
+        
+        /**
+         * Indica se o bloco está inteiro no período e num único passo
+         */
+        boolean coversWhole(long firstSecond, long lastSecond) {
+            return visitor == null && firstSecond >= fromSecond && lastSecond <= toSecond
+                    && Math.floorDiv(firstSecond, stepSeconds) == Math.floorDiv(lastSecond, stepSeconds);
+        }
+        
+        void addSummary(int points, long firstSecond, double blockMin, double blockMax, double blockSum) {
+            openBucket(Math.floorDiv(firstSecond, stepSeconds));
+            count += points;
+            min = Math.min(min, blockMin);
+            max = Math.max(max, blockMax);
+            sum += blockSum;
+            visited += points;
+        }
+        
+        void addPoint(long second, double value) {
+            visited++;
+            if (visitor != null) {
+                visitor.accept(second, value);
+                return;
+            }
+            openBucket(Math.floorDiv(second, stepSeconds));
+            count++;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            sum += value;
+        }
+        
+        private void openBucket(long next) {
+            if (next != bucket) {
+                closeBucket();
+                bucket = next;
+                min = Double.POSITIVE_INFINITY;
+                max = Double.NEGATIVE_INFINITY;
+                sum = 0;
+            }
+        }
+        
+        void closeBucket() {
+            if (count > 0) {
+                points.add(ReadingPointDTO.builder()
+                        .timestamp(toDateTime(bucket * stepSeconds))
+                        .count(count)
+                        .min(min)
+                        .max(max)
+                        .avg(sum / count)
+                        .build());
+            }
+            count = 0;
+        }
+    }
+    
+    // ==================== ARQUIVOS ====================
+    
+    private Path fileOf(long deviceId) {
+        return directory.resolve(deviceId + FILE_SUFFIX);
+    }
+    
+    /**
+     * Cria o diretório e indexa os blocos já gravados, descartando registros incompletos no fim.
+     * Os dispositivos dos arquivos só são conferidos com o banco em reconcile
+     */
+    private Path open(Path path) {
+        try {
+            Files.createDirectories(path);
+            int blocks = 0;
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(path, "*" + FILE_SUFFIX)) {
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    long deviceId;
+                    try {
+                        deviceId = Long.parseLong(name.substring(0, name.length() - FILE_SUFFIX.length()));
+                    } catch (NumberFormatException e) {
+                        continue;
+                    }
+                    Series loaded = load(file);
+                    series.put(deviceId, loaded);
+                    loadedUntil.put(deviceId, loaded.lastSecond);
+                    blocks += loaded.stored.size();
+                }
+            }
+            log.info("Leituras comprimidas em {}: {} blocos de {} dispositivos", path, blocks, series.size());
+            return path;
+        } catch (IOException e) {
+            log.warn("Leituras mantidas só em memória, diretório {} indisponível: {}", path, e.getMessage());
+            return null;
+        }
+    }
+    
+    private Series load(Path file) throws IOException {
+        Series loaded = new Series();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+            long offset = 0;
+            long size = channel.size();
+            while (offset + RECORD_HEADER_BYTES <= size) {
+                header.clear();
+                while (header.hasRemaining()) {
+                    channel.read(header, offset + header.position());
+                }
+                header.flip();
+                if (header.getInt() != MAGIC) {
+                    break;
+                }
+                int words = header.getInt();
+                long end = offset + RECORD_HEADER_BYTES + (long) words * Long.BYTES;
+                if (words <= 0 || words > ReadingBlock.WORDS || end > size) {
+                    break;
+                }
+                loaded.stored.add(new StoredBlock(offset, words, header.getInt(), header.getInt(), header.getLong(),
+                        header.getLong(), header.getDouble(), header.getDouble(), header.getDouble()));
+                offset = end;
+            }
+            if (offset < size) {
+                log.warn("Registro incompleto em {} a partir do byte {} descartado", file, offset);
+                channel.truncate(offset);
+            }
+            loaded.fileSize = offset;
+        }
+        // A série continua a partir do último instante gravado
+        if (!loaded.stored.isEmpty()) {
+            loaded.lastSecond = loaded.stored.get(loaded.stored.size() - 1).lastSecond();
+        }
+        return loaded;
+    }
+    
+    private static long epochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+    
+    private static LocalDateTime toDateTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+    
+    private static Duration parse(String name, String value) {
+        Duration duration;
+        try {
+            duration = DurationStyle.detectAndParse(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(name + " inválido: " + value);
+        }
+        if (duration.toSeconds() <= 0) {
+            throw new IllegalArgumentException(name + " deve ser de pelo menos 1s: " + value);
+        }
+        return duration;
+    }
+}
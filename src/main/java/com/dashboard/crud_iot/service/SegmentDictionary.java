@@ -0,0 +1,60 @@
+package com.dashboard.crud_iot.service;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dicionário de segmentos de localização.
+ * 
+ * Cada segmento distinto ("Prédio A", "Andar 2", ...) é armazenado uma única vez
+ * e referenciado pelos nós da árvore através de um código inteiro.
+ * Segmentos já registrados são codificados sem bloqueio; só o registro de um segmento
+ * novo é sincronizado. A decodificação e a busca são seguras para leitura concorrente.
+ */
+class SegmentDictionary {
+    
+    static final int NOT_FOUND = -1;
+    
+    private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] segments = new String[64];
+    private int size;
+    
+    /**
+     * Retorna o código do segmento, registrando-o se ainda não existir
+     */
+    int encode(String segment) {
+        Integer code = codes.get(segment);
+        return code != null ? code : register(segment);
+    }
+    
+    private synchronized int register(String segment) {
+        Integer code = codes.get(segment);
+        if (code != null) {
+            return code;
+        }
+        String[] current = segments;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, size * 2);
+        }
+        current[size] = segment;
+        segments = current;
+        codes.put(segment, size);
+        return size++;
+    }
+    
+    /**
+     * Retorna o código do segmento sem registrá-lo
+     * @return Código ou NOT_FOUND se o segmento nunca foi visto
+     */
+    int lookup(String segment) {
+        return codes.getOrDefault(segment, NOT_FOUND);
+    }
+    
+    String decode(int code) {
+        return segments[code];
+    }
+    
+    int size() {
+        return codes.size();
+    }
+}
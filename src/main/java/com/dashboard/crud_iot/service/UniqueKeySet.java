@@ -0,0 +1,129 @@
+package com.dashboard.crud_iot.service;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Conjunto de chaves únicas consultado antes de ir ao banco.
+ * {@code mightContain} pode dar falso positivo (quem chama confirma no banco), nunca falso negativo.
+ */
+interface UniqueKeySet {
+    
+    void add(String key);
+    
+    void remove(String key);
+    
+    boolean mightContain(String key);
+    
+    void clear();
+    
+    /**
+     * Conjunto exato sobre um ConcurrentHashMap
+     */
+    final class Exact implements UniqueKeySet {
+        
+        private final Set<String> keys = ConcurrentHashMap.newKeySet();
+        
+        @Override
+        public void add(String key) {
+            keys.add(key);
+        }
+        
+        @Override
+        public void remove(String key) {
+            keys.remove(key);
+        }
+        
+        @Override
+        public boolean mightContain(String key) {
+            return keys.contains(key);
+        }
+        
+        @Override
+        public void clear() {
+            keys.clear();
+        }
+    }
+    
+    /**
+     * Filtro de Bloom sem locks com memória fixa. Remoções não são possíveis: chaves
+     * removidas continuam como falsos positivos até a próxima reconstrução.
+     */
+    final class Bloom implements UniqueKeySet {
+        
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+        
+        /**
+         * @param expectedKeys Quantidade de chaves prevista
+         * @param falsePositiveRate Taxa de falsos positivos desejada nessa quantidade
+         */
+        Bloom(long expectedKeys, double falsePositiveRate) {
+            long n = Math.max(1, expectedKeys);
+            long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bits = new AtomicLongArray((int) Math.max(1, (m + 63) / 64));
+            this.bitCount = bits.length() * 64L;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        }
+        
+        @Override
+        public void add(String key) {
+            long h1 = hash(key);
+            long h2 = mix(h1);
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                while (((current = bits.get(word)) & mask) == 0
+                        && !bits.compareAndSet(word, current, current | mask)) {
+                    // outra thread alterou a palavra; tenta de novo
+                }
+            }
+        }
+        
+        @Override
+        public void remove(String key) {
+            // Filtro de Bloom não suporta remoção
+        }
+        
+        @Override
+        public boolean mightContain(String key) {
+            long h1 = hash(key);
+            long h2 = mix(h1);
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        @Override
+        public void clear() {
+            for (int i = 0; i < bits.length(); i++) {
+                bits.set(i, 0);
+            }
+        }
+        
+        // FNV-1a de 64 bits sobre os chars
+        private static long hash(String key) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < key.length(); i++) {
+                h ^= key.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            return h;
+        }
+        
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            return h | 1;
+        }
+    }
+}
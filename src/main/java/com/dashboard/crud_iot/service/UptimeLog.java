@@ -0,0 +1,186 @@
+package com.dashboard.crud_iot.service;
+
+import java.util.Arrays;
+
+/**
+ * Intervalos online de um dispositivo, em segundos epoch, com codificação compacta.
+ *
+ * Os intervalos fechados ficam em um byte[] como pares de varints delta (intervalo
+ * desde o fim do anterior, duração): um dispositivo que comunica sem falhas ocupa
+ * poucos bytes por dia, e cada queda acrescenta tipicamente de 2 a 6 bytes. O intervalo
+ * aberto fica em campos próprios e é estendido a cada heartbeat sem reescrever o buffer.
+ * Não é thread-safe: o UptimeTracker sincroniza o acesso por dispositivo.
+ */
+class UptimeLog {
+    
+    private static final int INITIAL_CAPACITY = 16;
+    
+    private final long trackedSince;
+    private byte[] encoded = new byte[INITIAL_CAPACITY];
+    private int length;
+    private int closedIntervals;
+    // Início do primeiro intervalo codificado é relativo a base; os demais ao fim do anterior
+    private long base;
+    private long lastClosedEnd;
+    private long openStart = -1;
+    private long openEnd;
+    
+    UptimeLog(long trackedSince) {
+        this.trackedSince = trackedSince;
+        this.base = trackedSince;
+        this.lastClosedEnd = trackedSince;
+    }
+    
+    long trackedSince() {
+        return trackedSince;
+    }
+    
+    /**
+     * Registra que o dispositivo está online em [start, end)
+     * @return Segundos online acrescentados, como {início, fim} ainda não cobertos, ou null
+     */
+    long[] markOnline(long start, long end) {
+        start = Math.max(start, trackedSince);
+        if (end <= start) {
+            return null;
+        }
+        if (openStart >= 0 && start <= openEnd) {
+            if (end <= openEnd) {
+                return null;
+            }
+            long from = Math.max(openEnd, start);
+            openEnd = end;
+            return new long[] {from, end};
+        }
+        // Aqui start > openEnd: o intervalo aberto terminou antes e vira uma queda
+        if (openStart >= 0) {
+            close();
+        }
+        openStart = start;
+        openEnd = end;
+        return new long[] {start, end};
+    }
+    
+    /**
+     * Encerra o intervalo aberto em at, descartando a parte ainda futura
+     * @return Segundos removidos, como {início, fim}, ou null
+     */
+    long[] truncate(long at) {
+        if (openStart < 0 || openEnd <= at) {
+            return null;
+        }
+        long from = Math.max(at, openStart);
+        long[] removed = {from, openEnd};
+        openEnd = from;
+        return removed;
+    }
+    
+    /**
+     * Segundos online em [from, to)
+     */
+    long onlineSeconds(long from, long to) {
+        long total = 0;
+        int[] position = {0};
+        long end = base;
+        for (int i = 0; i < closedIntervals; i++) {
+            long start = end + readVarLong(position);
+            end = start + readVarLong(position);
+            total += overlap(start, end, from, to);
+        }
+        if (openStart >= 0) {
+            total += overlap(openStart, openEnd, from, to);
+        }
+        return total;
+    }
+    
+    /**
+     * Quedas (fim de um intervalo online) em [from, to), incluindo a do intervalo aberto já vencido
+     */
+    int outages(long from, long to) {
+        int count = 0;
+        int[] position = {0};
+        long end = base;
+        for (int i = 0; i < closedIntervals; i++) {
+            long start = end + readVarLong(position);
+            end = start + readVarLong(position);
+            if (end >= from && end < to) {
+                count++;
+            }
+        }
+        if (openStart >= 0 && openEnd >= from && openEnd < to) {
+            count++;
+        }
+        return count;
+    }
+    
+    /**
+     * Descarta os intervalos fechados que terminaram antes de cutoff e ajusta o buffer ao tamanho usado
+     */
+    void compact(long cutoff) {
+        int[] position = {0};
+        long end = base;
+        int dropped = 0;
+        int keepFrom = 0;
+        long newBase = base;
+        for (int i = 0; i < closedIntervals; i++) {
+            long start = end + readVarLong(position);
+            long intervalEnd = start + readVarLong(position);
+            if (intervalEnd >= cutoff) {
+                break;
+            }
+            end = intervalEnd;
+            dropped++;
+            keepFrom = position[0];
+            newBase = end;
+        }
+        int kept = length - keepFrom;
+        byte[] compacted = new byte[Math.max(INITIAL_CAPACITY, kept)];
+        System.arraycopy(encoded, keepFrom, compacted, 0, kept);
+        encoded = compacted;
+        length = kept;
+        closedIntervals -= dropped;
+        base = newBase;
+    }
+    
+    /**
+     * Bytes ocupados pelos intervalos fechados
+     */
+    int encodedSize() {
+        return length;
+    }
+    
+    private void close() {
+        writeVarLong(openStart - lastClosedEnd);
+        writeVarLong(openEnd - openStart);
+        closedIntervals++;
+        lastClosedEnd = openEnd;
+        openStart = -1;
+    }
+    
+    private static long overlap(long start, long end, long from, long to) {
+        return Math.max(0, Math.min(end, to) - Math.max(start, from));
+    }
+    
+    private void writeVarLong(long value) {
+        if (length + 10 > encoded.length) {
+            encoded = Arrays.copyOf(encoded, encoded.length * 2);
+        }
+        while ((value & ~0x7FL) != 0) {
+            encoded[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        encoded[length++] = (byte) value;
+    }
+    
+    private long readVarLong(int[] position) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = encoded[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,376 @@
+package com.dashboard.crud_iot.service;
+
+import com.dashboard.crud_iot.dto.DeviceUptimeDTO;
+import com.dashboard.crud_iot.enums.DeviceType;
+import com.dashboard.crud_iot.events.DeviceChangedEvent;
+import com.dashboard.crud_iot.events.DeviceHeartbeatEvent;
+import com.dashboard.crud_iot.events.DeviceSnapshot;
+import com.dashboard.crud_iot.repositories.DeviceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Disponibilidade real dos dispositivos, derivada dos heartbeats.
+ *
+ * Cada heartbeat em t mantém o dispositivo online em [t, t + janela do tipo), a mesma
+ * regra de DeviceReportIntervals. Os intervalos de cada dispositivo ficam em um UptimeLog
+ * compacto, aparado periodicamente à retenção configurada. Para a frota, cada trecho online
+ * novo é somado a um anel de buckets por minuto (segundos online e dispositivos
+ * acompanhados), de modo que o SLA de 30 dias soma no máximo 43.200 posições, sem
+ * percorrer os dispositivos. O heartbeat só sincroniza no próprio dispositivo: os anéis
+ * são atualizados por CAS.
+ *
+ * O acompanhamento começa na inicialização da aplicação (ou no cadastro do dispositivo):
+ * o tempo anterior não entra no tempo observado.
+ */
+@Component
+@Slf4j
+public class UptimeTracker {
+    
+    private static final long SECONDS_PER_MINUTE = 60;
+    private static final long EMPTY_SLOT = pack(Integer.MIN_VALUE, 0);
+    
+    private final DeviceRepository deviceRepository;
+    private final DeviceReportIntervals reportIntervals;
+    private final Duration retention;
+    private final double slaTarget;
+    
+    private final int slots;
+    private volatile Fleet fleet;
+    
+    public UptimeTracker(DeviceRepository deviceRepository,
+                         DeviceReportIntervals reportIntervals,
+                         @Value("${devices.uptime.retention:30d}") Duration retention,
+                         @Value("${devices.uptime.sla-target:99.5}") double slaTarget) {
+        this.deviceRepository = deviceRepository;
+        this.reportIntervals = reportIntervals;
+        this.retention = retention;
+        this.slaTarget = slaTarget;
+        // Um heartbeat já contabiliza a janela online inteira à frente do instante atual
+        long aheadMinutes = 0;
+        for (DeviceType type : DeviceType.values()) {
+            aheadMinutes = Math.max(aheadMinutes, reportIntervals.offlineAfter(type).toMinutes() + 1);
+        }
+        this.slots = Math.toIntExact(retention.toMinutes() + aheadMinutes + 1);
+        this.fleet = new Fleet(slots);
+    }
+    
+    /**
+     * Dispositivo acompanhado. O log é protegido pelo monitor do próprio objeto.
+     */
+    private static class TrackedDevice {
+        volatile DeviceType type;
+        final UptimeLog log;
+        
+        TrackedDevice(DeviceType type, long trackedSince) {
+            this.type = type;
+            this.log = new UptimeLog(trackedSince);
+        }
+    }
+    
+    /**
+     * Dispositivos acompanhados e anéis por minuto da frota. A reconstrução monta uma
+     * instância nova e a publica de uma vez, sem bloquear os heartbeats durante a leitura do banco.
+     *
+     * Cada posição dos anéis guarda o minuto nos 32 bits altos e o valor (segundos online ou
+     * dispositivos acompanhados) nos 32 bits baixos, e é atualizada por CAS: o heartbeat não
+     * disputa nenhum lock da frota. Uma posição que guarda um minuto mais antigo é reciclada.
+     */
+    private static final class Fleet {
+        final Map<Long, TrackedDevice> devices = new ConcurrentHashMap<>();
+        final AtomicLongArray onlineSeconds;
+        final AtomicLongArray trackedDevices;
+        // Protegidos pelo monitor da instância; mudam só em cadastros, remoções e consultas
+        long stampedMinute = Long.MIN_VALUE;
+        long stampedCount;
+        
+        Fleet(int slots) {
+            onlineSeconds = emptyRing(slots);
+            trackedDevices = emptyRing(slots);
+        }
+        
+        /**
+         * Registra a quantidade de dispositivos acompanhados em cada minuto até nowMinute. Os minutos
+         * sem alterações repetem a última contagem; cadastros no meio do minuto contam o minuto inteiro.
+         */
+        synchronized void stampDevices(long nowMinute) {
+            if (stampedMinute != Long.MIN_VALUE) {
+                long first = Math.max(stampedMinute + 1, nowMinute - trackedDevices.length() + 1);
+                for (long minute = first; minute < nowMinute; minute++) {
+                    accumulate(trackedDevices, minute, stampedCount, Math::max);
+                }
+            }
+            stampedCount = devices.size();
+            accumulate(trackedDevices, nowMinute, stampedCount, Math::max);
+            stampedMinute = Math.max(stampedMinute, nowMinute);
+        }
+    }
+    
+    // ==================== MANUTENÇÃO ====================
+    
+    /**
+     * Carrega os dispositivos na inicialização. Quem ainda está dentro da janela online
+     * começa com um intervalo aberto até o fim dela.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long now = epochSecond(LocalDateTime.now());
+        List<DeviceRepository.LastCommunication> rows = deviceRepository.findAllLastCommunications();
+        Fleet rebuilt = new Fleet(slots);
+        for (DeviceRepository.LastCommunication row : rows) {
+            rebuilt.devices.put(row.getId(), new TrackedDevice(row.getDeviceType(), now));
+        }
+        rebuilt.stampDevices(Math.floorDiv(now, SECONDS_PER_MINUTE));
+        for (DeviceRepository.LastCommunication row : rows) {
+            if (row.getLastCommunication() != null) {
+                recordCommunication(rebuilt, rebuilt.devices.get(row.getId()), epochSecond(row.getLastCommunication()));
+            }
+        }
+        fleet = rebuilt;
+        log.info("Rastreamento de uptime carregado: {} dispositivos", rows.size());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onHeartbeat(DeviceHeartbeatEvent event) {
+        Fleet current = fleet;
+        TrackedDevice tracked = current.devices.get(event.getDeviceId());
+        if (tracked != null && event.getCommunicationTime() != null) {
+            recordCommunication(current, tracked, epochSecond(event.getCommunicationTime()));
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeviceChanged(DeviceChangedEvent event) {
+        DeviceSnapshot before = event.getBefore();
+        DeviceSnapshot after = event.getAfter();
+        Fleet current = fleet;
+        long now = epochSecond(LocalDateTime.now());
+        if (after == null) {
+            TrackedDevice removed = current.devices.remove(before.getId());
+            if (removed != null) {
+                long[] future;
+                synchronized (removed) {
+                    future = removed.log.truncate(now);
+                }
+                addOnline(current, future, -1);
+                current.stampDevices(Math.floorDiv(now, SECONDS_PER_MINUTE));
+            }
+            return;
+        }
+        TrackedDevice tracked = current.devices.get(after.getId());
+        if (tracked == null) {
+            TrackedDevice created = new TrackedDevice(after.getDeviceType(), now);
+            tracked = current.devices.putIfAbsent(after.getId(), created);
+            if (tracked == null) {
+                tracked = created;
+                current.stampDevices(Math.floorDiv(now, SECONDS_PER_MINUTE));
+            }
+        }
+        tracked.type = after.getDeviceType();
+        LocalDateTime communication = after.getLastCommunication();
+        if (communication != null && (before == null || !communication.equals(before.getLastCommunication()))) {
+            recordCommunication(current, tracked, epochSecond(communication));
+        }
+    }
+    
+    /**
+     * Descarta os intervalos fora da retenção e devolve a memória excedente dos buffers
+     */
+    @Scheduled(fixedDelayString = "${devices.uptime.compaction-interval-ms:3600000}")
+    public void compact() {
+        Map<Long, TrackedDevice> devices = fleet.devices;
+        long cutoff = epochSecond(LocalDateTime.now()) - retention.toSeconds();
+        long bytes = 0;
+        for (TrackedDevice tracked : devices.values()) {
+            synchronized (tracked) {
+                tracked.log.compact(cutoff);
+                bytes += tracked.log.encodedSize();
+            }
+        }
+        log.debug("Intervalos de uptime compactados: {} dispositivos, {} bytes", devices.size(), bytes);
+    }
+    
+    private void recordCommunication(Fleet target, TrackedDevice tracked, long communication) {
+        long[] added;
+        synchronized (tracked) {
+            added = tracked.log.markOnline(communication,
+                    communication + reportIntervals.offlineAfter(tracked.type).toSeconds());
+        }
+        addOnline(target, added, 1);
+    }
+    
+    /**
+     * Soma (ou subtrai) os segundos de [range[0], range[1]) nas posições de cada minuto
+     */
+    private static void addOnline(Fleet target, long[] range, int sign) {
+        if (range == null) {
+            return;
+        }
+        for (long start = range[0]; start < range[1]; ) {
+            long minute = Math.floorDiv(start, SECONDS_PER_MINUTE);
+            long end = Math.min(range[1], (minute + 1) * SECONDS_PER_MINUTE);
+            accumulate(target.onlineSeconds, minute, sign * (end - start), Long::sum);
+            start = end;
+        }
+    }
+    
+    private static AtomicLongArray emptyRing(int slots) {
+        AtomicLongArray ring = new AtomicLongArray(slots);
+        for (int i = 0; i < slots; i++) {
+            ring.set(i, EMPTY_SLOT);
+        }
+        return ring;
+    }
+    
+    /**
+     * Combina value com o valor do minuto na sua posição do anel, reciclando a posição quando
+     * ela guardava um minuto mais antigo. Minutos que já saíram do anel são ignorados.
+     */
+    private static void accumulate(AtomicLongArray ring, long minute, long value, LongBinaryOperator combine) {
+        int slot = (int) Math.floorMod(minute, (long) ring.length());
+        while (true) {
+            long current = ring.get(slot);
+            long slotMinute = current >> 32;
+            long next;
+            if (slotMinute == minute) {
+                next = pack(minute, combine.applyAsLong((int) current, value));
+            } else if (slotMinute < minute) {
+                next = pack(minute, value);
+            } else {
+                return;
+            }
+            if (ring.compareAndSet(slot, current, next)) {
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Valor do minuto no anel, ou 0 se a posição guarda outro minuto
+     */
+    private static long valueAt(AtomicLongArray ring, long minute) {
+        long current = ring.get((int) Math.floorMod(minute, (long) ring.length()));
+        return current >> 32 == minute ? Math.max(0, (int) current) : 0;
+    }
+    
+    private static long pack(long minute, long value) {
+        return minute << 32 | (value & 0xFFFF_FFFFL);
+    }
+    
+    // ==================== CONSULTAS ====================
+    
+    /**
+     * Interpreta a janela de consulta (ex.: 24h, 7d, 30d)
+     * @throws IllegalArgumentException se a janela for inválida ou maior que a retenção
+     */
+    public Duration parseWindow(String window) {
+        Duration duration;
+        try {
+            duration = DurationStyle.detectAndParse(window);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Janela inválida: " + window);
+        }
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(retention) > 0) {
+            throw new IllegalArgumentException("Janela deve estar entre 1s e " + retention.toDays() + "d: " + window);
+        }
+        return duration;
+    }
+    
+    /**
+     * Disponibilidade de um dispositivo na janela que termina em now
+     * @param deviceId ID do dispositivo
+     * @param window Janela no formato aceito por parseWindow
+     * @param now Fim da janela
+     * @return Optional vazio se o dispositivo não estiver acompanhado
+     */
+    public Optional<DeviceUptimeDTO> getDeviceUptime(Long deviceId, String window, LocalDateTime now) {
+        Duration duration = parseWindow(window);
+        TrackedDevice tracked = fleet.devices.get(deviceId);
+        if (tracked == null) {
+            return Optional.empty();
+        }
+        long to = epochSecond(now);
+        long from = to - duration.toSeconds();
+        long online;
+        int outages;
+        long trackedSince;
+        synchronized (tracked) {
+            trackedSince = tracked.log.trackedSince();
+            online = tracked.log.onlineSeconds(from, to);
+            outages = tracked.log.outages(from, to);
+        }
+        long observed = Math.max(0, to - Math.max(from, trackedSince));
+        return Optional.of(DeviceUptimeDTO.builder()
+                .deviceId(deviceId)
+                .window(window)
+                .from(toDateTime(from))
+                .to(now)
+                .trackedSince(toDateTime(trackedSince))
+                .observedSeconds(observed)
+                .onlineSeconds(online)
+                .uptimePercentage(observed == 0 ? null : roundPercentage(online * 100.0 / observed))
+                .outages(outages)
+                .build());
+    }
+    
+    /**
+     * Uptime da frota nos minutos completos da janela que termina em now
+     * @return Percentual (0-100) ou null se nenhum minuto completo foi observado
+     */
+    public Double getFleetUptime(Duration window, LocalDateTime now) {
+        long nowMinute = Math.floorDiv(epochSecond(now), SECONDS_PER_MINUTE);
+        long firstMinute = nowMinute - Math.min(window.toMinutes(), retention.toMinutes());
+        long online = 0;
+        long capacity = 0;
+        Fleet current = fleet;
+        current.stampDevices(nowMinute);
+        for (long minute = firstMinute; minute < nowMinute; minute++) {
+            long minuteCapacity = valueAt(current.trackedDevices, minute) * SECONDS_PER_MINUTE;
+            online += Math.min(valueAt(current.onlineSeconds, minute), minuteCapacity);
+            capacity += minuteCapacity;
+        }
+        return capacity == 0 ? null : roundPercentage(online * 100.0 / capacity);
+    }
+    
+    /**
+     * Meta de SLA configurada em devices.uptime.sla-target (0-100)
+     */
+    public double getSlaTarget() {
+        return slaTarget;
+    }
+    
+    /**
+     * Janela máxima de consulta
+     */
+    public Duration getRetention() {
+        return retention;
+    }
+    
+    private static double roundPercentage(double percentage) {
+        return Math.round(percentage * 100.0) / 100.0;
+    }
+    
+    private static long epochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+    
+    private static LocalDateTime toDateTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+}
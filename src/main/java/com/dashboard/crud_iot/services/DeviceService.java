@@ -3,23 +3,47 @@ package com.dashboard.crud_iot.services;
 import com.dashboard.crud_iot.dto.DeviceCreateDTO;
 import com.dashboard.crud_iot.dto.DeviceResponseDTO;
 import com.dashboard.crud_iot.dto.DeviceUpdateDTO;
+import com.dashboard.crud_iot.dto.DeviceUptimeDTO;
+import com.dashboard.crud_iot.dto.ReadingSeriesDTO;
 import com.dashboard.crud_iot.entities.Device;
 import com.dashboard.crud_iot.enums.DeviceStatus;
 import com.dashboard.crud_iot.enums.DeviceType;
+import com.dashboard.crud_iot.events.DeviceChangedEvent;
+import com.dashboard.crud_iot.events.DeviceHeartbeatEvent;
+import com.dashboard.crud_iot.events.DeviceSnapshot;
+import com.dashboard.crud_iot.jfr.DeviceIngestionEvent;
+import com.dashboard.crud_iot.repositories.DeviceHeartbeatWriter;
 import com.dashboard.crud_iot.repositories.DeviceRepository;
+import com.dashboard.crud_iot.service.DeviceReportIntervals;
+import com.dashboard.crud_iot.service.DeviceUniquenessIndex;
+import com.dashboard.crud_iot.service.ReadingSeriesStore;
+import com.dashboard.crud_iot.service.UptimeTracker;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Statement;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * Service responsável pela lógica de negócio dos dispositivos IoT.
  * Contém todas as operações CRUD e regras de negócio relacionadas aos dispositivos.
+ * Toda alteração publica um DeviceChangedEvent ou DeviceHeartbeatEvent, consumidos
+ * pelos índices em memória após o commit da transação. As consultas projetam direto em
+ * DeviceResponseDTO, sem carregar entidades no persistence context, e isOnline é
+ * preenchido com a janela do tipo de cada dispositivo (DeviceReportIntervals).
  */
 @Service
 @RequiredArgsConstructor
@@ -27,6 +51,14 @@ import java.util.stream.Collectors;
 public class DeviceService {
     
     private final DeviceRepository deviceRepository;
+    private final DeviceHeartbeatWriter heartbeatWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DeviceUniquenessIndex uniquenessIndex;
+    private final DeviceReportIntervals reportIntervals;
+    private final UptimeTracker uptimeTracker;
+    private final ReadingSeriesStore readingStore;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
     
     /**
      * Cria um novo dispositivo IoT
@@ -38,13 +70,15 @@ public class DeviceService {
     public DeviceResponseDTO createDevice(DeviceCreateDTO createDTO) {
         log.info("Criando novo dispositivo: {}", createDTO.getDeviceName());
         
-        // Validar se o identificador já existe
-        if (deviceRepository.existsByDeviceIdentifier(createDTO.getDeviceIdentifier())) {
+        // Validar se o identificador já existe (o índice em memória evita a consulta quando está livre)
+        if (uniquenessIndex.mightContainIdentifier(createDTO.getDeviceIdentifier())
+            && deviceRepository.existsByDeviceIdentifier(createDTO.getDeviceIdentifier())) {
             throw new IllegalArgumentException("Já existe um dispositivo com o identificador: " + createDTO.getDeviceIdentifier());
         }
         
         // Validar se o nome já existe
-        if (deviceRepository.existsByDeviceName(createDTO.getDeviceName())) {
+        if (uniquenessIndex.mightContainName(createDTO.getDeviceName())
+            && deviceRepository.existsByDeviceName(createDTO.getDeviceName())) {
             throw new IllegalArgumentException("Já existe um dispositivo com o nome: " + createDTO.getDeviceName());
         }
         
@@ -60,7 +94,8 @@ public class DeviceService {
                 .isActive(true)
                 .build();
         
-        Device savedDevice = deviceRepository.save(device);
+        Device savedDevice = saveUnique(device);
+        eventPublisher.publishEvent(new DeviceChangedEvent(null, DeviceSnapshot.of(savedDevice)));
         log.info("Dispositivo criado com sucesso: ID {}", savedDevice.getId());
         
         return convertToResponseDTO(savedDevice);
@@ -73,10 +108,7 @@ public class DeviceService {
     @Transactional(readOnly = true)
     public List<DeviceResponseDTO> getAllDevices() {
         log.info("Buscando todos os dispositivos");
-        return deviceRepository.findAll()
-                .stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        return withOnlineFlag(deviceRepository.findAllResponses());
     }
     
     /**
@@ -87,8 +119,37 @@ public class DeviceService {
     @Transactional(readOnly = true)
     public Optional<DeviceResponseDTO> getDeviceById(Long id) {
         log.info("Buscando dispositivo por ID: {}", id);
-        return deviceRepository.findById(id)
-                .map(this::convertToResponseDTO);
+        LocalDateTime now = LocalDateTime.now();
+        return deviceRepository.findResponseById(id).map(dto -> withOnlineFlag(dto, now));
+    }
+    
+    /**
+     * Disponibilidade de um dispositivo, servida pelo UptimeTracker sem acessar o banco
+     * @param id ID do dispositivo
+     * @param window Janela de consulta (ex.: 24h, 7d, 30d)
+     * @return Optional vazio se o dispositivo não existir
+     * @throws IllegalArgumentException se a janela for inválida
+     */
+    public Optional<DeviceUptimeDTO> getDeviceUptime(Long id, String window) {
+        log.info("Consultando uptime do dispositivo ID: {} na janela {}", id, window);
+        return uptimeTracker.getDeviceUptime(id, window, LocalDateTime.now());
+    }
+    
+    /**
+     * Série das leituras numéricas de um dispositivo, servida pelo ReadingSeriesStore
+     * @param id ID do dispositivo
+     * @param range Período até agora (ex.: 1h, 24h)
+     * @param step Passo de cada ponto (ex.: 1m)
+     * @return Optional vazio se o dispositivo não existir
+     * @throws IllegalArgumentException se range ou step forem inválidos
+     */
+    @Transactional(readOnly = true)
+    public Optional<ReadingSeriesDTO> getDeviceReadings(Long id, String range, String step) {
+        log.info("Consultando leituras do dispositivo ID: {} no período {} com passo {}", id, range, step);
+        if (!deviceRepository.existsById(id)) {
+            return Optional.empty();
+        }
+        return Optional.of(readingStore.getSeries(id, range, step, LocalDateTime.now()));
     }
     
     /**
@@ -99,10 +160,7 @@ public class DeviceService {
     @Transactional(readOnly = true)
     public List<DeviceResponseDTO> getDevicesByType(DeviceType deviceType) {
         log.info("Buscando dispositivos por tipo: {}", deviceType);
-        return deviceRepository.findByDeviceType(deviceType)
-                .stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        return withOnlineFlag(deviceRepository.findResponsesByDeviceType(deviceType));
     }
     
     /**
@@ -113,32 +171,76 @@ public class DeviceService {
     @Transactional(readOnly = true)
     public List<DeviceResponseDTO> getDevicesByStatus(DeviceStatus status) {
         log.info("Buscando dispositivos por status: {}", status);
-        return deviceRepository.findByStatus(status)
-                .stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        return withOnlineFlag(deviceRepository.findResponsesByStatus(status));
     }
     
     /**
      * Atualiza um dispositivo existente
      * @param id ID do dispositivo a ser atualizado
      * @param updateDTO Dados para atualização
-     * @return DTO com os dados atualizados do dispositivo
-     * @throws IllegalArgumentException se o dispositivo não for encontrado
+     * @return Optional com os dados atualizados, vazio se o dispositivo não for encontrado
+     * @throws IllegalArgumentException se o nome já existir
      */
     @Transactional
-    public DeviceResponseDTO updateDevice(Long id, DeviceUpdateDTO updateDTO) {
+    public Optional<DeviceResponseDTO> updateDevice(Long id, DeviceUpdateDTO updateDTO) {
         log.info("Atualizando dispositivo ID: {}", id);
         
-        Device device = deviceRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Dispositivo não encontrado com ID: " + id));
+        return deviceRepository.findById(id)
+                .map(device -> applyUpdate(device, updateDTO));
+    }
+    
+    /**
+     * Aplica um JSON merge patch (RFC 7396) a um dispositivo: campos ausentes ficam como
+     * estão, null limpa o campo. Com @DynamicUpdate só as colunas alteradas são escritas.
+     * @param id ID do dispositivo
+     * @param patch Documento merge patch
+     * @return Optional vazio se o dispositivo não for encontrado
+     * @throws IllegalArgumentException se o patch for inválido ou o nome já existir
+     */
+    @Transactional
+    public Optional<DeviceResponseDTO> patchDevice(Long id, JsonNode patch) {
+        log.info("Aplicando patch ao dispositivo ID: {}", id);
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("O merge patch deve ser um objeto JSON");
+        }
+        
+        Optional<Device> found = deviceRepository.findById(id);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        Device device = found.get();
+        
+        DeviceUpdateDTO merged;
+        try {
+            merged = objectMapper.updateValue(toUpdateDTO(device), patch);
+        } catch (JsonMappingException e) {
+            throw new IllegalArgumentException("Merge patch inválido: " + e.getOriginalMessage(), e);
+        }
+        
+        Set<ConstraintViolation<DeviceUpdateDTO>> violations = validator.validate(merged);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
         
+        return Optional.of(applyUpdate(device, merged));
+    }
+    
+    /**
+     * Copia os dados do DTO para a entidade, salva e publica o DeviceChangedEvent
+     */
+    private DeviceResponseDTO applyUpdate(Device device, DeviceUpdateDTO updateDTO) {
         // Verificar se o novo nome não conflita com outro dispositivo
         if (!device.getDeviceName().equals(updateDTO.getDeviceName()) 
+            && uniquenessIndex.mightContainName(updateDTO.getDeviceName())
             && deviceRepository.existsByDeviceName(updateDTO.getDeviceName())) {
             throw new IllegalArgumentException("Já existe um dispositivo com o nome: " + updateDTO.getDeviceName());
         }
         
+        DeviceSnapshot before = DeviceSnapshot.of(device);
+        
         // Atualizar campos
         device.setDeviceName(updateDTO.getDeviceName());
         device.setDeviceType(updateDTO.getDeviceType());
@@ -150,7 +252,8 @@ public class DeviceService {
         device.setLastReading(updateDTO.getLastReading());
         device.setIsActive(updateDTO.getIsActive());
         
-        Device updatedDevice = deviceRepository.save(device);
+        Device updatedDevice = saveUnique(device);
+        eventPublisher.publishEvent(new DeviceChangedEvent(before, DeviceSnapshot.of(updatedDevice)));
         log.info("Dispositivo atualizado com sucesso: ID {}", updatedDevice.getId());
         
         return convertToResponseDTO(updatedDevice);
@@ -165,64 +268,134 @@ public class DeviceService {
     public void deleteDevice(Long id) {
         log.info("Removendo dispositivo ID: {}", id);
         
-        if (!deviceRepository.existsById(id)) {
-            throw new IllegalArgumentException("Dispositivo não encontrado com ID: " + id);
-        }
+        Device device = deviceRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Dispositivo não encontrado com ID: " + id));
         
-        deviceRepository.deleteById(id);
+        deviceRepository.delete(device);
+        eventPublisher.publishEvent(new DeviceChangedEvent(DeviceSnapshot.of(device), null));
         log.info("Dispositivo removido com sucesso: ID {}", id);
     }
     
     /**
-     * Atualiza a última comunicação de um dispositivo
+     * Atualiza a última comunicação de um dispositivo.
+     * Um único UPDATE condicional, sem ler a entidade antes.
      * @param id ID do dispositivo
      * @param reading Última leitura do dispositivo (opcional)
-     * @return DTO com os dados atualizados
+     * @throws IllegalArgumentException se o dispositivo não for encontrado
      */
     @Transactional
-    public DeviceResponseDTO updateLastCommunication(Long id, String reading) {
+    public void updateLastCommunication(Long id, String reading) {
         log.info("Atualizando última comunicação do dispositivo ID: {}", id);
         
-        Device device = deviceRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Dispositivo não encontrado com ID: " + id));
-        
-        device.updateLastCommunication();
-        if (reading != null && !reading.trim().isEmpty()) {
-            device.setLastReading(reading);
+        DeviceIngestionEvent event = DeviceIngestionEvent.start(DeviceIngestionEvent.HTTP);
+        LocalDateTime now = LocalDateTime.now();
+        String lastReading = reading != null && !reading.trim().isEmpty() ? reading : null;
+        if (heartbeatWriter.touchCommunication(id, now, lastReading) == 0) {
+            throw new IllegalArgumentException("Dispositivo não encontrado com ID: " + id);
         }
         
-        Device updatedDevice = deviceRepository.save(device);
+        eventPublisher.publishEvent(new DeviceHeartbeatEvent(id, now, lastReading));
+        event.finish(1, 1);
         log.info("Última comunicação atualizada para dispositivo ID: {}", id);
-        
-        return convertToResponseDTO(updatedDevice);
     }
     
     /**
-     * Busca dispositivos online (comunicaram nos últimos 5 minutos)
+     * Registra em lote a última comunicação de vários dispositivos.
+     * Usado pelos canais de telemetria binária, aplica todos os heartbeats em um único JDBC batch.
+     * @param deviceIds IDs dos dispositivos
+     * @param communicationTimes Momento de cada comunicação
+     * @param readings Leitura de cada comunicação (null mantém a anterior)
+     * @param count Quantidade de posições válidas nos arrays
+     * @return Número de heartbeats aplicados (dispositivos inexistentes e comunicações não posteriores
+     *         à última gravada são ignorados)
+     */
+    @Transactional
+    public int recordCommunications(long[] deviceIds, LocalDateTime[] communicationTimes,
+                                    String[] readings, int count) {
+        if (count == 0) {
+            return 0;
+        }
+        DeviceIngestionEvent event = DeviceIngestionEvent.start(DeviceIngestionEvent.TELEMETRY);
+        int[] updated = heartbeatWriter.touchCommunications(deviceIds, communicationTimes, readings, count);
+        int applied = 0;
+        for (int i = 0; i < count; i++) {
+            // Statement.SUCCESS_NO_INFO também indica sucesso em alguns drivers; EXECUTE_FAILED não
+            if (updated[i] > 0 || updated[i] == Statement.SUCCESS_NO_INFO) {
+                applied++;
+                eventPublisher.publishEvent(new DeviceHeartbeatEvent(deviceIds[i], communicationTimes[i], readings[i]));
+            }
+        }
+        event.finish(count, applied);
+        log.debug("Lote de comunicações aplicado: {} de {}", applied, count);
+        return applied;
+    }
+    
+    /**
+     * Busca dispositivos online (última comunicação dentro da janela do seu tipo)
      * @return Lista de DTOs dos dispositivos online
      */
     @Transactional(readOnly = true)
     public List<DeviceResponseDTO> getOnlineDevices() {
         log.info("Buscando dispositivos online");
-        LocalDateTime fiveMinutesAgo = LocalDateTime.now().minusMinutes(5);
-        return deviceRepository.findDevicesOnlineSince(fiveMinutesAgo)
-                .stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        return withOnlineFlag(deviceRepository.findResponsesOnline(reportIntervals.onlineSinceByType(now)), now);
     }
     
     /**
-     * Busca dispositivos offline (não se comunicam há mais de 5 minutos)
+     * Busca dispositivos offline (sem comunicação dentro da janela do seu tipo)
      * @return Lista de DTOs dos dispositivos offline
      */
     @Transactional(readOnly = true)
     public List<DeviceResponseDTO> getOfflineDevices() {
         log.info("Buscando dispositivos offline");
-        LocalDateTime fiveMinutesAgo = LocalDateTime.now().minusMinutes(5);
-        return deviceRepository.findDevicesOfflineSince(fiveMinutesAgo)
-                .stream()
-                .map(this::convertToResponseDTO)
-                .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        return withOnlineFlag(deviceRepository.findResponsesOffline(reportIntervals.onlineSinceByType(now)), now);
+    }
+    
+    /**
+     * Preenche isOnline das projeções com um único instante de referência para a requisição
+     */
+    private List<DeviceResponseDTO> withOnlineFlag(List<DeviceResponseDTO> devices) {
+        return withOnlineFlag(devices, LocalDateTime.now());
+    }
+    
+    private List<DeviceResponseDTO> withOnlineFlag(List<DeviceResponseDTO> devices, LocalDateTime now) {
+        devices.forEach(dto -> withOnlineFlag(dto, now));
+        return devices;
+    }
+    
+    private DeviceResponseDTO withOnlineFlag(DeviceResponseDTO dto, LocalDateTime now) {
+        dto.setIsOnline(reportIntervals.isOnline(dto.getDeviceType(), dto.getLastCommunication(), now));
+        return dto;
+    }
+    
+    /**
+     * Grava o dispositivo já sincronizando com o banco, para que uma violação das constraints
+     * unique (cadastro concorrente ainda fora do índice) vire a mesma resposta das validações
+     */
+    private Device saveUnique(Device device) {
+        try {
+            return deviceRepository.saveAndFlush(device);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalArgumentException("Já existe um dispositivo com o nome ou identificador informado", e);
+        }
+    }
+    
+    /**
+     * Estado atual do dispositivo no formato de atualização, base do merge patch
+     */
+    private static DeviceUpdateDTO toUpdateDTO(Device device) {
+        return DeviceUpdateDTO.builder()
+                .deviceName(device.getDeviceName())
+                .deviceType(device.getDeviceType())
+                .status(device.getStatus())
+                .description(device.getDescription())
+                .location(device.getLocation())
+                .latitude(device.getLatitude())
+                .longitude(device.getLongitude())
+                .lastReading(device.getLastReading())
+                .isActive(device.getIsActive())
+                .build();
     }
     
     /**
@@ -246,7 +419,7 @@ public class DeviceService {
                 .isActive(device.getIsActive())
                 .createdAt(device.getCreatedAt())
                 .updatedAt(device.getUpdatedAt())
-                .isOnline(device.isOnline())
+                .isOnline(reportIntervals.isOnline(device.getDeviceType(), device.getLastCommunication(), LocalDateTime.now()))
                 .build();
     }
 }
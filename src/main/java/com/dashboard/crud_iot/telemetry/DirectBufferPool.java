@@ -0,0 +1,32 @@
+package com.dashboard.crud_iot.telemetry;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Pool de buffers diretos reutilizados pelas conexões de telemetria.
+ * Buffers devolvidos além da capacidade do pool são descartados.
+ */
+final class DirectBufferPool {
+    
+    private final int bufferSize;
+    private final ArrayBlockingQueue<ByteBuffer> free;
+    
+    DirectBufferPool(int bufferSize, int capacity) {
+        this.bufferSize = bufferSize;
+        this.free = new ArrayBlockingQueue<>(capacity);
+        for (int i = 0; i < capacity; i++) {
+            free.offer(ByteBuffer.allocateDirect(bufferSize));
+        }
+    }
+    
+    ByteBuffer acquire() {
+        ByteBuffer buffer = free.poll();
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(bufferSize);
+    }
+    
+    void release(ByteBuffer buffer) {
+        buffer.clear();
+        free.offer(buffer);
+    }
+}
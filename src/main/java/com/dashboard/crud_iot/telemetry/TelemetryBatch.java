@@ -0,0 +1,44 @@
+package com.dashboard.crud_iot.telemetry;
+
+/**
+ * Lote pré-alocado de frames decodificados, em arrays primitivos.
+ * Reutilizado indefinidamente entre a thread do selector e a thread de aplicação.
+ */
+final class TelemetryBatch {
+    
+    final long[] deviceIds;
+    final long[] epochMillis;
+    final byte[] readingTypes;
+    final long[] readingBits;
+    final long[] receivedNanos;
+    int size;
+    
+    TelemetryBatch(int capacity) {
+        deviceIds = new long[capacity];
+        epochMillis = new long[capacity];
+        readingTypes = new byte[capacity];
+        readingBits = new long[capacity];
+        receivedNanos = new long[capacity];
+    }
+    
+    boolean isFull() {
+        return size == deviceIds.length;
+    }
+    
+    boolean isEmpty() {
+        return size == 0;
+    }
+    
+    void add(long deviceId, long epoch, byte readingType, long bits, long nanos) {
+        deviceIds[size] = deviceId;
+        epochMillis[size] = epoch;
+        readingTypes[size] = readingType;
+        readingBits[size] = bits;
+        receivedNanos[size] = nanos;
+        size++;
+    }
+    
+    void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,48 @@
+package com.dashboard.crud_iot.telemetry;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Formato binário compacto de telemetria (big-endian, 28 bytes por frame).
+ * 
+ * <pre>
+ * offset  tamanho  campo
+ *   0       2      magic (0x7E1E)
+ *   2       1      versão (1)
+ *   3       1      tipo da leitura (0 = sem leitura, 1 = double, 2 = inteiro)
+ *   4       8      ID do dispositivo
+ *  12       8      epoch da medição em milissegundos (0 = horário de chegada)
+ *  20       8      valor da leitura (bits IEEE 754 quando double)
+ * </pre>
+ * 
+ * Um datagrama UDP pode carregar vários frames; no TCP os frames são enviados em sequência.
+ */
+public final class TelemetryFrame {
+    
+    public static final int SIZE = 28;
+    public static final short MAGIC = 0x7E1E;
+    public static final byte VERSION = 1;
+    
+    public static final byte READING_NONE = 0;
+    public static final byte READING_DOUBLE = 1;
+    public static final byte READING_LONG = 2;
+    
+    private TelemetryFrame() {
+    }
+    
+    /**
+     * Escreve um frame na posição atual do buffer
+     */
+    public static void encode(ByteBuffer buffer, long deviceId, long epochMillis, byte readingType, long readingBits) {
+        buffer.putShort(MAGIC)
+                .put(VERSION)
+                .put(readingType)
+                .putLong(deviceId)
+                .putLong(epochMillis)
+                .putLong(readingBits);
+    }
+    
+    public static void encodeDouble(ByteBuffer buffer, long deviceId, long epochMillis, double value) {
+        encode(buffer, deviceId, epochMillis, READING_DOUBLE, Double.doubleToRawLongBits(value));
+    }
+}
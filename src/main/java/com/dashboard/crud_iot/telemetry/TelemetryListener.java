@@ -0,0 +1,399 @@
+package com.dashboard.crud_iot.telemetry;
+
+import com.dashboard.crud_iot.ingestion.AdmissionController;
+import com.dashboard.crud_iot.ingestion.DeviceRateLimiter;
+import com.dashboard.crud_iot.services.DeviceService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Listener de telemetria binária (UDP e TCP) baseado em NIO.
+ * 
+ * Uma única thread de selector recebe os pacotes em buffers diretos do pool e decodifica
+ * os frames (ver TelemetryFrame) para lotes pré-alocados de arrays primitivos, sem
+ * alocação por pacote. Os lotes cheios, ou mais antigos que o intervalo de flush, são
+ * entregues à thread de aplicação, que os grava via DeviceService.recordCommunications.
+ * Quando todos os lotes estão em uso os frames excedentes são descartados e contados.
+ * Frames acima do limite do dispositivo, ou recusados pelo controle de admissão
+ * compartilhado com a API HTTP, também são descartados antes de entrar no lote.
+ * Conexões TCP além de telemetry.tcp.max-connections são fechadas no accept.
+ */
+@Component
+@ConditionalOnProperty(name = "telemetry.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class TelemetryListener implements SmartLifecycle {
+    
+    private static final int TCP_BUFFER_SIZE = TelemetryFrame.SIZE * 256;
+    private static final int UDP_BUFFER_SIZE = 65_536;
+    
+    private final DeviceService deviceService;
+    private final DeviceRateLimiter rateLimiter;
+    private final AdmissionController admissionController;
+    private final int port;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long maxClockSkewMillis;
+    private final int maxTcpConnections;
+    
+    private final TelemetryStats stats = new TelemetryStats();
+    private final DirectBufferPool bufferPool;
+    private final BlockingQueue<TelemetryBatch> freeBatches;
+    private final BlockingQueue<TelemetryBatch> pendingBatches;
+    private final Consumer<SelectionKey> keyHandler = this::handleKey;
+    
+    private Selector selector;
+    private DatagramChannel udpChannel;
+    private ServerSocketChannel tcpChannel;
+    private ByteBuffer udpBuffer;
+    private TelemetryBatch currentBatch;
+    private long currentBatchStartedNanos;
+    private int tcpConnections;
+    private Thread selectorThread;
+    private Thread applierThread;
+    private volatile boolean running;
+    
+    // Arrays de trabalho da thread de aplicação
+    private final LocalDateTime[] communicationTimes;
+    private final String[] readings;
+    
+    public TelemetryListener(DeviceService deviceService,
+                             DeviceRateLimiter rateLimiter,
+                             AdmissionController admissionController,
+                             @Value("${telemetry.port:9100}") int port,
+                             @Value("${telemetry.batch-size:512}") int batchSize,
+                             @Value("${telemetry.batches-in-flight:8}") int batchesInFlight,
+                             @Value("${telemetry.flush-interval-ms:50}") long flushIntervalMs,
+                             @Value("${telemetry.max-clock-skew-ms:60000}") long maxClockSkewMillis,
+                             @Value("${telemetry.tcp.max-connections:1024}") int maxTcpConnections) {
+        this.deviceService = deviceService;
+        this.rateLimiter = rateLimiter;
+        this.admissionController = admissionController;
+        this.port = port;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.maxClockSkewMillis = maxClockSkewMillis;
+        this.maxTcpConnections = maxTcpConnections;
+        this.bufferPool = new DirectBufferPool(TCP_BUFFER_SIZE, maxTcpConnections);
+        this.freeBatches = new ArrayBlockingQueue<>(batchesInFlight);
+        this.pendingBatches = new ArrayBlockingQueue<>(batchesInFlight);
+        for (int i = 0; i < batchesInFlight; i++) {
+            freeBatches.add(new TelemetryBatch(batchSize));
+        }
+        this.communicationTimes = new LocalDateTime[batchSize];
+        this.readings = new String[batchSize];
+    }
+    
+    public TelemetryStats getStats() {
+        return stats;
+    }
+    
+    /**
+     * Porta UDP efetivamente usada (útil quando configurada como 0)
+     */
+    public int getUdpPort() {
+        return ((InetSocketAddress) localAddress(udpChannel)).getPort();
+    }
+    
+    /**
+     * Porta TCP efetivamente usada (útil quando configurada como 0)
+     */
+    public int getTcpPort() {
+        return ((InetSocketAddress) localAddress(tcpChannel)).getPort();
+    }
+    
+    // ==================== CICLO DE VIDA ====================
+    
+    @Override
+    public void start() {
+        try {
+            selector = Selector.open();
+            udpChannel = DatagramChannel.open();
+            udpChannel.bind(new InetSocketAddress(port));
+            udpChannel.configureBlocking(false);
+            udpChannel.register(selector, SelectionKey.OP_READ);
+            
+            tcpChannel = ServerSocketChannel.open();
+            tcpChannel.bind(new InetSocketAddress(port));
+            tcpChannel.configureBlocking(false);
+            tcpChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir o listener de telemetria na porta " + port, e);
+        }
+        udpBuffer = ByteBuffer.allocateDirect(UDP_BUFFER_SIZE);
+        currentBatch = freeBatches.poll();
+        running = true;
+        
+        selectorThread = Thread.ofPlatform().name("telemetry-selector").daemon().start(this::selectLoop);
+        applierThread = Thread.ofPlatform().name("telemetry-applier").daemon().start(this::applyLoop);
+        log.info("Listener de telemetria iniciado: UDP {} / TCP {}", getUdpPort(), getTcpPort());
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        if (selector != null) {
+            selector.wakeup();
+        }
+        // O selector entrega o último lote antes de sair; a aplicação só termina depois
+        // do selector, com a fila vazia
+        join(selectorThread);
+        join(applierThread);
+        closeQuietly(udpChannel);
+        closeQuietly(tcpChannel);
+        if (selector != null) {
+            selector.keys().forEach(key -> closeQuietly(key.channel()));
+            closeQuietly(selector);
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    // ==================== THREAD DO SELECTOR ====================
+    
+    private void selectLoop() {
+        long timeoutMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos));
+        while (running) {
+            try {
+                selector.select(keyHandler, timeoutMillis);
+                if (currentBatch != null && !currentBatch.isEmpty()
+                        && System.nanoTime() - currentBatchStartedNanos >= flushIntervalNanos) {
+                    handOff();
+                }
+            } catch (IOException | ClosedSelectorException e) {
+                if (running) {
+                    log.error("Erro no selector de telemetria", e);
+                }
+            }
+        }
+        if (currentBatch != null && !currentBatch.isEmpty()) {
+            handOff();
+        }
+    }
+    
+    private void handleKey(SelectionKey key) {
+        try {
+            if (key.channel() == udpChannel) {
+                readDatagrams();
+            } else if (key.isAcceptable()) {
+                accept();
+            } else if (key.isReadable()) {
+                readStream(key);
+            }
+        } catch (IOException e) {
+            log.debug("Conexão de telemetria encerrada: {}", e.getMessage());
+            closeConnection(key);
+        }
+    }
+    
+    private void readDatagrams() throws IOException {
+        // O endereço do remetente é reaproveitado pelo JDK enquanto não muda
+        while (udpChannel.receive(udpBuffer) != null) {
+            stats.packetsReceived.incrementAndGet();
+            udpBuffer.flip();
+            if (!decodeFrames(udpBuffer)) {
+                stats.framesMalformed.incrementAndGet();
+            }
+            udpBuffer.clear();
+        }
+    }
+    
+    private void accept() throws IOException {
+        SocketChannel channel = tcpChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        if (tcpConnections >= maxTcpConnections) {
+            stats.connectionsRefused.incrementAndGet();
+            closeQuietly(channel);
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.register(selector, SelectionKey.OP_READ, bufferPool.acquire());
+        tcpConnections++;
+    }
+    
+    private void readStream(SelectionKey key) throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        ByteBuffer buffer = (ByteBuffer) key.attachment();
+        int read = channel.read(buffer);
+        if (read < 0) {
+            closeConnection(key);
+            return;
+        }
+        stats.packetsReceived.incrementAndGet();
+        buffer.flip();
+        boolean valid = decodeFrames(buffer);
+        buffer.compact();
+        if (!valid) {
+            // Fluxo dessincronizado: não há como reencontrar o início do próximo frame
+            stats.framesMalformed.incrementAndGet();
+            closeConnection(key);
+        }
+    }
+    
+    /**
+     * Decodifica todos os frames completos do buffer para o lote corrente
+     * @return false se um frame inválido foi encontrado
+     */
+    private boolean decodeFrames(ByteBuffer buffer) {
+        long now = System.nanoTime();
+        while (buffer.remaining() >= TelemetryFrame.SIZE) {
+            int start = buffer.position();
+            if (buffer.getShort(start) != TelemetryFrame.MAGIC
+                    || buffer.get(start + 2) != TelemetryFrame.VERSION) {
+                return false;
+            }
+            byte readingType = buffer.get(start + 3);
+            long deviceId = buffer.getLong(start + 4);
+            long epochMillis = buffer.getLong(start + 12);
+            long readingBits = buffer.getLong(start + 20);
+            buffer.position(start + TelemetryFrame.SIZE);
+            stats.framesDecoded.incrementAndGet();
+            
+            if (!admissionController.tryAdmit()) {
+                stats.framesShed.incrementAndGet();
+                continue;
+            }
+            if (rateLimiter.tryAcquire(deviceId) > 0) {
+                stats.framesThrottled.incrementAndGet();
+                continue;
+            }
+            if (currentBatch == null) {
+                currentBatch = freeBatches.poll();
+                if (currentBatch == null) {
+                    stats.framesDropped.incrementAndGet();
+                    continue;
+                }
+            }
+            if (currentBatch.isEmpty()) {
+                currentBatchStartedNanos = now;
+            }
+            currentBatch.add(deviceId, epochMillis, readingType, readingBits, now);
+            if (currentBatch.isFull()) {
+                handOff();
+            }
+        }
+        return true;
+    }
+    
+    private void handOff() {
+        pendingBatches.offer(currentBatch);
+        currentBatch = freeBatches.poll();
+    }
+    
+    // ==================== THREAD DE APLICAÇÃO ====================
+    
+    private void applyLoop() {
+        while (selectorThread.isAlive() || !pendingBatches.isEmpty()) {
+            TelemetryBatch batch;
+            try {
+                batch = pendingBatches.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (batch != null) {
+                apply(batch);
+                batch.clear();
+                freeBatches.offer(batch);
+            }
+        }
+    }
+    
+    private void apply(TelemetryBatch batch) {
+        int count = batch.size;
+        long nowMillis = System.currentTimeMillis();
+        ZoneId zone = ZoneId.systemDefault();
+        for (int i = 0; i < count; i++) {
+            long epoch = batch.epochMillis[i];
+            // Relógio do dispositivo ausente ou muito adiantado: usa o horário de chegada.
+            // Instantes atrasados seguem como estão e o UPDATE condicional os ignora
+            if (epoch <= 0 || epoch > nowMillis + maxClockSkewMillis) {
+                epoch = nowMillis;
+            }
+            communicationTimes[i] = LocalDateTime.ofInstant(Instant.ofEpochMilli(epoch), zone);
+            readings[i] = formatReading(batch.readingTypes[i], batch.readingBits[i]);
+        }
+        try {
+            int applied = deviceService.recordCommunications(batch.deviceIds, communicationTimes, readings, count);
+            stats.framesApplied.addAndGet(applied);
+            stats.framesNotApplied.addAndGet(count - applied);
+            stats.batchesApplied.incrementAndGet();
+            long done = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                stats.applyLatencyMicros.recordValue(TimeUnit.NANOSECONDS.toMicros(done - batch.receivedNanos[i]));
+            }
+        } catch (RuntimeException e) {
+            stats.batchesFailed.incrementAndGet();
+            log.error("Falha ao aplicar lote de telemetria com {} frames: {}", count, e.getMessage());
+        }
+    }
+    
+    private static String formatReading(byte readingType, long bits) {
+        return switch (readingType) {
+            case TelemetryFrame.READING_DOUBLE -> Double.toString(Double.longBitsToDouble(bits));
+            case TelemetryFrame.READING_LONG -> Long.toString(bits);
+            default -> null;
+        };
+    }
+    
+    // ==================== AUXILIARES ====================
+    
+    private void closeConnection(SelectionKey key) {
+        key.cancel();
+        closeQuietly(key.channel());
+        if (key.attachment() instanceof ByteBuffer buffer) {
+            key.attach(null);
+            bufferPool.release(buffer);
+            tcpConnections--;
+        }
+    }
+    
+    private static java.net.SocketAddress localAddress(NetworkChannel channel) {
+        try {
+            return channel.getLocalAddress();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static void join(Thread thread) {
+        if (thread == null) {
+            return;
+        }
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static void closeQuietly(java.io.Closeable closeable) {
+        try {
+            if (closeable != null) {
+                closeable.close();
+            }
+        } catch (IOException e) {
+            log.debug("Erro ao fechar recurso de telemetria: {}", e.getMessage());
+        }
+    }
+}
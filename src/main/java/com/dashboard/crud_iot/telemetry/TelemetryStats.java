@@ -0,0 +1,92 @@
+package com.dashboard.crud_iot.telemetry;
+
+import org.HdrHistogram.ConcurrentHistogram;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contadores do listener de telemetria. Escritos apenas pelas threads do listener.
+ */
+public class TelemetryStats {
+    
+    final AtomicLong packetsReceived = new AtomicLong();
+    final AtomicLong framesDecoded = new AtomicLong();
+    final AtomicLong framesMalformed = new AtomicLong();
+    final AtomicLong framesDropped = new AtomicLong();
+    final AtomicLong framesThrottled = new AtomicLong();
+    final AtomicLong framesShed = new AtomicLong();
+    final AtomicLong framesApplied = new AtomicLong();
+    final AtomicLong framesNotApplied = new AtomicLong();
+    final AtomicLong connectionsRefused = new AtomicLong();
+    final AtomicLong batchesApplied = new AtomicLong();
+    final AtomicLong batchesFailed = new AtomicLong();
+    final ConcurrentHistogram applyLatencyMicros = new ConcurrentHistogram(2);
+    
+    public long getPacketsReceived() {
+        return packetsReceived.get();
+    }
+    
+    public long getFramesDecoded() {
+        return framesDecoded.get();
+    }
+    
+    public long getFramesMalformed() {
+        return framesMalformed.get();
+    }
+    
+    /**
+     * Frames descartados porque a aplicação no banco não acompanhou a chegada
+     */
+    public long getFramesDropped() {
+        return framesDropped.get();
+    }
+    
+    /**
+     * Frames acima do limite de taxa do dispositivo
+     */
+    public long getFramesThrottled() {
+        return framesThrottled.get();
+    }
+    
+    /**
+     * Frames recusados pelo controle de admissão durante sobrecarga
+     */
+    public long getFramesShed() {
+        return framesShed.get();
+    }
+    
+    public long getFramesApplied() {
+        return framesApplied.get();
+    }
+    
+    /**
+     * Frames de dispositivos desconhecidos ou com instante não posterior à última
+     * comunicação gravada (frames atrasados ou reordenados)
+     */
+    public long getFramesNotApplied() {
+        return framesNotApplied.get();
+    }
+    
+    /**
+     * Conexões TCP recusadas por exceder telemetry.tcp.max-connections
+     */
+    public long getConnectionsRefused() {
+        return connectionsRefused.get();
+    }
+    
+    public long getBatchesApplied() {
+        return batchesApplied.get();
+    }
+    
+    public long getBatchesFailed() {
+        return batchesFailed.get();
+    }
+    
+    /**
+     * Latência entre a chegada do frame e o commit do lote que o contém
+     * @param percentile Valor entre 0 e 1
+     */
+    public long getApplyLatencyMicros(double percentile) {
+        return applyLatencyMicros.getValueAtPercentile(percentile * 100);
+    }
+}
@@ -0,0 +1,98 @@
+package com.dashboard.crud_iot.alerts;
+
+import com.dashboard.crud_iot.enums.DeviceStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Gramática, precedência e semântica de NaN e de "nunca comunicou" das regras compiladas.
+ */
+class AlertRuleCompilerTest {
+    
+    private final Map<String, Integer> metricIndex = new HashMap<>();
+    private final AlertRuleCompiler compiler = new AlertRuleCompiler(metricIndex);
+    
+    @Test
+    void andBindsTighterThanOr() {
+        RuleCondition condition = compiler.compile("status == ERROR or value > 45 and battery < 15");
+        
+        assertThat(condition.test(DeviceStatus.ERROR, 0, metrics(10, 90))).isTrue();
+        assertThat(condition.test(DeviceStatus.ACTIVE, 0, metrics(50, 90))).isFalse();
+        assertThat(condition.test(DeviceStatus.ACTIVE, 0, metrics(50, 10))).isTrue();
+    }
+    
+    @Test
+    void parenthesesAndNotOverridePrecedence() {
+        RuleCondition condition = compiler.compile("NOT (status == ERROR OR value > 45) AND value >= 0");
+        
+        assertThat(condition.test(DeviceStatus.ACTIVE, 0, metrics(20))).isTrue();
+        assertThat(condition.test(DeviceStatus.ERROR, 0, metrics(20))).isFalse();
+        assertThat(condition.test(DeviceStatus.ACTIVE, 0, metrics(-1))).isFalse();
+    }
+    
+    @Test
+    void missingMetricsOnlySatisfyNothing() {
+        RuleCondition greater = compiler.compile("value > 45");
+        RuleCondition different = compiler.compile("value != 45");
+        
+        assertThat(greater.test(DeviceStatus.ACTIVE, 0, metrics(Double.NaN))).isFalse();
+        assertThat(different.test(DeviceStatus.ACTIVE, 0, metrics(Double.NaN))).isFalse();
+        assertThat(different.test(DeviceStatus.ACTIVE, 0, metrics(44))).isTrue();
+    }
+    
+    @Test
+    void silenceComparesSecondsAndIgnoresDevicesThatNeverCommunicated() {
+        RuleCondition silent = compiler.compile("silence > 30m");
+        RuleCondition recent = compiler.compile("silence <= 1h");
+        RuleCondition never = compiler.compile("never_communicated");
+        
+        assertThat(silent.test(DeviceStatus.ACTIVE, 1801, metrics())).isTrue();
+        assertThat(silent.test(DeviceStatus.ACTIVE, 1800, metrics())).isFalse();
+        assertThat(recent.test(DeviceStatus.ACTIVE, -1, metrics())).isFalse();
+        assertThat(never.test(DeviceStatus.ACTIVE, -1, metrics())).isTrue();
+        assertThat(compiler.silenceThresholds()).containsExactly(1800, 3600);
+    }
+    
+    @Test
+    void metricsShareTheIndexAcrossCompilations() {
+        compiler.compile("value > 1 and battery < 2");
+        new AlertRuleCompiler(metricIndex).compile("battery < 5 or signal > 3");
+        
+        assertThat(metricIndex).containsOnlyKeys("value", "battery", "signal");
+        assertThat(metricIndex.values()).containsExactlyInAnyOrder(0, 1, 2);
+    }
+    
+    @Test
+    void invalidExpressionsPointToTheProblem() {
+        assertThatThrownBy(() -> compiler.compile("status > ERROR"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("status aceita apenas");
+        assertThatThrownBy(() -> compiler.compile("status == BROKEN"))
+                .hasMessageContaining("status desconhecido 'BROKEN'");
+        assertThatThrownBy(() -> compiler.compile("silence > soon"))
+                .hasMessageContaining("duração inválida");
+        assertThatThrownBy(() -> compiler.compile("(value > 1"))
+                .hasMessageContaining("esperado ')'");
+        assertThatThrownBy(() -> compiler.compile("value > 1 battery"))
+                .hasMessageContaining("token inesperado 'battery'");
+        assertThatThrownBy(() -> compiler.compile("value > 1 # x"))
+                .hasMessageContaining("caractere inesperado");
+        assertThatThrownBy(() -> compiler.compile(" "))
+                .hasMessageContaining("condição vazia");
+    }
+    
+    /**
+     * Métricas na ordem em que foram registradas no índice; as não informadas ficam NaN
+     */
+    private static double[] metrics(double... values) {
+        double[] metrics = new double[4];
+        Arrays.fill(metrics, Double.NaN);
+        System.arraycopy(values, 0, metrics, 0, values.length);
+        return metrics;
+    }
+}
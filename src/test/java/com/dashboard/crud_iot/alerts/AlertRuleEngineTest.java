@@ -0,0 +1,109 @@
+package com.dashboard.crud_iot.alerts;
+
+import com.dashboard.crud_iot.dto.DeviceAlertDTO.AlertType;
+import com.dashboard.crud_iot.enums.DeviceStatus;
+import com.dashboard.crud_iot.enums.DeviceType;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Conversão das leituras em métricas e escolha da regra vencedora por tipo.
+ */
+class AlertRuleEngineTest {
+    
+    private final AlertRuleEngine engine = new AlertRuleEngine(environment(Map.of(
+            "alerts.rules.temperature-sensor[0].when", "value > 45",
+            "alerts.rules.temperature-sensor[0].alert", "THRESHOLD_EXCEEDED",
+            "alerts.rules.temperature-sensor[0].severity", "HIGH",
+            "alerts.rules.tracker[0].when", "battery < 5",
+            "alerts.rules.tracker[0].alert", "BATTERY_LOW",
+            "alerts.rules.tracker[0].severity", "CRITICAL")));
+    
+    @Test
+    void parsesPlainNumbersWithDotOrCommaAndExponents() {
+        assertThat(value("23.5")).isEqualTo(23.5);
+        assertThat(value(" 23,5 ")).isEqualTo(23.5);
+        assertThat(value("-2.35e1")).isEqualTo(-23.5);
+        assertThat(value("2,35E+1")).isEqualTo(23.5);
+        assertThat(value("235e-1")).isEqualTo(23.5);
+        assertThat(value("0.1")).isEqualTo(0.1);
+        assertThat(value("1e400")).isNaN();
+        assertThat(value("23,")).isNaN();
+        assertThat(value("abc")).isNaN();
+    }
+    
+    @Test
+    void parsesPairsSplittingOnCommasOutsideNumbers() {
+        assertThat(metric("value=23,5;battery=12", "value")).isEqualTo(23.5);
+        assertThat(metric("value=23,5;battery=12", "battery")).isEqualTo(12);
+        assertThat(metric("value:23,battery:4e0", "value")).isEqualTo(23);
+        assertThat(metric("value:23,battery:4e0", "battery")).isEqualTo(4);
+        assertThat(metric("Battery=7 & value=1.5e1", "battery")).isEqualTo(7);
+        assertThat(metric("value=high;unknown=3", "value")).isNaN();
+    }
+    
+    @Test
+    void readingsWithoutMetricsShareTheEmptyArray() {
+        assertThat(engine.parseReading(null)).isSameAs(engine.parseReading("status=ok"));
+    }
+    
+    @Test
+    void highestSeverityWins() {
+        double[] hot = engine.parseReading("50");
+        
+        assertThat(engine.match(DeviceType.TEMPERATURE_SENSOR, DeviceStatus.ACTIVE, 0, hot).alertType())
+                .isEqualTo(AlertType.THRESHOLD_EXCEEDED);
+        // never_communicated (CRITICAL) vence a regra do tipo (HIGH)
+        assertThat(engine.match(DeviceType.TEMPERATURE_SENSOR, DeviceStatus.ACTIVE, -1, hot).alertType())
+                .isEqualTo(AlertType.DEVICE_OFFLINE);
+        assertThat(engine.match(DeviceType.TEMPERATURE_SENSOR, DeviceStatus.ACTIVE, 0, engine.parseReading("20")))
+                .isNull();
+        assertThat(engine.match(DeviceType.TRACKER, DeviceStatus.ACTIVE, 0, engine.parseReading("battery=3")).alertType())
+                .isEqualTo(AlertType.BATTERY_LOW);
+    }
+    
+    @Test
+    void silenceThresholdsComeFromTheTypeRules() {
+        assertThat(engine.silenceThresholds(DeviceType.GENERIC)).containsExactly(1800);
+    }
+    
+    @Test
+    void invalidRulesFailAtStartup() {
+        assertThatThrownBy(() -> new AlertRuleEngine(environment(Map.of(
+                "alerts.rules.generic[0].when", "value >",
+                "alerts.rules.generic[0].alert", "THRESHOLD_EXCEEDED",
+                "alerts.rules.generic[0].severity", "HIGH"))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("alerts.rules.generic[0]");
+        assertThatThrownBy(() -> new AlertRuleEngine(environment(Map.of(
+                "alerts.rules.generic[0].when", "value > 1"))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("alert e severity são obrigatórios");
+    }
+    
+    private double value(String reading) {
+        return metric(reading, "value");
+    }
+    
+    private double metric(String reading, String metric) {
+        // A posição da métrica é a única preenchida numa leitura só com ela
+        double[] alone = engine.parseReading(metric + "=1");
+        int index = 0;
+        while (Double.isNaN(alone[index])) {
+            index++;
+        }
+        return engine.parseReading(reading)[index];
+    }
+    
+    private static StandardEnvironment environment(Map<String, Object> properties) {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test", properties));
+        return environment;
+    }
+}
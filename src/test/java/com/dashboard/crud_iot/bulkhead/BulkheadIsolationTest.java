@@ -0,0 +1,159 @@
+package com.dashboard.crud_iot.bulkhead;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica que a faixa de ingestão mantém o p99 enquanto a faixa de analytics está
+ * sobrecarregada. O pool de conexões é simulado por um semáforo justo de 20 permits,
+ * como o pool Hikari da aplicação. A medição só começa quando a sobrecarga ocupa todas
+ * as conexões a que tem acesso.
+ */
+class BulkheadIsolationTest {
+    
+    private static final int CONNECTIONS = 20;
+    private static final int HEARTBEATS = 2_000;
+    // Sem isolamento cada heartbeat espera centenas de ms; poucos bastam para o p99
+    private static final int UNPROTECTED_HEARTBEATS = 80;
+    private static final int HEARTBEAT_CLIENTS = 8;
+    private static final int ANALYTICS_CLIENTS = 200;
+    
+    private final Semaphore connectionPool = new Semaphore(CONNECTIONS, true);
+    
+    @Test
+    void heartbeatP99StaysFlatWhileAnalyticsIsOverloaded() throws Exception {
+        Bulkhead ingestion = new Bulkhead(Lane.INGESTION, 10, 500, 2_000);
+        Bulkhead analytics = new Bulkhead(Lane.ANALYTICS, 4, 20, 5_000);
+        
+        long baselineP99 = p99(runHeartbeats(ingestion, HEARTBEATS));
+        
+        long isolatedP99;
+        try (Overload overload = overload(analytics)) {
+            isolatedP99 = p99(runHeartbeats(ingestion, HEARTBEATS));
+        }
+        
+        long unprotectedP99;
+        try (Overload overload = overload(null)) {
+            unprotectedP99 = p99(runHeartbeats(ingestion, UNPROTECTED_HEARTBEATS));
+        }
+        
+        assertThat(isolatedP99)
+                .as("p99 com analytics sobrecarregado (baseline %d µs)", baselineP99)
+                .isLessThan(baselineP99 * 2 + TimeUnit.MILLISECONDS.toMicros(5));
+        assertThat(unprotectedP99)
+                .as("sem bulkhead o analytics ocupa as conexões da ingestão")
+                .isGreaterThan(isolatedP99 * 3);
+        assertThat(analytics.getStats().getRejected()).isPositive();
+        assertThat(ingestion.getStats().getRejected()).isZero();
+    }
+    
+    /**
+     * Heartbeats curtos (1 ms de conexão) enviados por poucos clientes em sequência
+     * @return Latências em microssegundos, incluindo a espera no bulkhead
+     */
+    private long[] runHeartbeats(Bulkhead ingestion, int heartbeats) throws Exception {
+        long[] latencies = new long[heartbeats];
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?>[] futures = new Future<?>[HEARTBEAT_CLIENTS];
+            for (int client = 0; client < HEARTBEAT_CLIENTS; client++) {
+                int first = client;
+                futures[client] = clients.submit(() -> {
+                    for (int i = first; i < heartbeats; i += HEARTBEAT_CLIENTS) {
+                        long start = System.nanoTime();
+                        assertThat(ingestion.tryEnter()).isTrue();
+                        try {
+                            useConnection(1);
+                        } finally {
+                            ingestion.exit();
+                        }
+                        latencies[i] = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+                    }
+                    return null;
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        return latencies;
+    }
+    
+    /**
+     * Agregações longas (50 ms de conexão) disparadas sem pausa por muitos clientes
+     * @param analytics Bulkhead da faixa, ou null para simular a ausência de isolamento
+     * @return Sobrecarga já ocupando todos os permits da faixa (ou todo o pool, sem isolamento)
+     */
+    private Overload overload(Bulkhead analytics) throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch saturated = new CountDownLatch(analytics == null ? CONNECTIONS : analytics.getPermits());
+        ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+        for (int client = 0; client < ANALYTICS_CLIENTS; client++) {
+            clients.submit(() -> {
+                while (running.get()) {
+                    if (analytics == null) {
+                        useConnection(50, saturated);
+                    } else if (analytics.tryEnter()) {
+                        try {
+                            useConnection(50, saturated);
+                        } finally {
+                            analytics.exit();
+                        }
+                    } else {
+                        // Cliente recusado (503) tenta de novo após o Retry-After, aqui encurtado
+                        Thread.sleep(10);
+                    }
+                }
+                return null;
+            });
+        }
+        Overload overload = new Overload(running, clients);
+        if (!saturated.await(10, TimeUnit.SECONDS)) {
+            overload.close();
+            throw new IllegalStateException("A sobrecarga não ocupou as conexões a tempo");
+        }
+        return overload;
+    }
+    
+    private void useConnection(long millis) throws InterruptedException {
+        useConnection(millis, null);
+    }
+    
+    /**
+     * @param acquired Sinalizado a cada conexão obtida (pode ser null)
+     */
+    private void useConnection(long millis, CountDownLatch acquired) throws InterruptedException {
+        connectionPool.acquire();
+        if (acquired != null) {
+            acquired.countDown();
+        }
+        try {
+            Thread.sleep(millis);
+        } finally {
+            connectionPool.release();
+        }
+    }
+    
+    private static long p99(long[] latencies) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(sorted.length * 0.99) - 1];
+    }
+    
+    private record Overload(AtomicBoolean running, ExecutorService clients) implements AutoCloseable {
+        @Override
+        public void close() {
+            running.set(false);
+            clients.close();
+        }
+    }
+}
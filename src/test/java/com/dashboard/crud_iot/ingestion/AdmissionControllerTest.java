@@ -0,0 +1,87 @@
+package com.dashboard.crud_iot.ingestion;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Controle de admissão no estilo CoDel: alvo sobre a menor latência do intervalo, descarte e sondas.
+ */
+class AdmissionControllerTest {
+    
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(500);
+    
+    // Alvo de 100 ms, intervalos de 500 ms, uma sonda a cada 10 requisições
+    private final AdmissionController controller = new AdmissionController(true, 100, 500, 10);
+    private final long start = System.nanoTime();
+    
+    @Test
+    void persistentQueueShedsAllButTheProbes() {
+        controller.recordLatency(millis(250), start);
+        controller.recordLatency(millis(180), start);
+        
+        long next = start + INTERVAL;
+        int admitted = 0;
+        for (int n = 0; n < 100; n++) {
+            if (controller.tryAdmit(next)) {
+                admitted++;
+            }
+        }
+        
+        assertThat(controller.isOverloaded()).isTrue();
+        assertThat(admitted).isEqualTo(10);
+        assertThat(controller.getShedCount()).isEqualTo(90);
+        assertThat(controller.getLastWindowMinLatencyMs()).isEqualTo(180.0);
+    }
+    
+    @Test
+    void oneFastRequestInTheIntervalMeansNoQueue() {
+        controller.recordLatency(millis(900), start);
+        controller.recordLatency(millis(40), start);
+        controller.recordLatency(millis(700), start);
+        
+        assertThat(controller.tryAdmit(start + INTERVAL)).isTrue();
+        assertThat(controller.isOverloaded()).isFalse();
+    }
+    
+    @Test
+    void probesThatMeetTheTargetEndTheShedding() {
+        controller.recordLatency(millis(300), start);
+        long overloadedAt = start + INTERVAL;
+        assertThat(controller.tryAdmit(overloadedAt)).isFalse();
+        assertThat(controller.isOverloaded()).isTrue();
+        
+        // As sondas admitidas voltam a ficar abaixo do alvo
+        controller.recordLatency(millis(30), overloadedAt);
+        long recoveredAt = overloadedAt + INTERVAL;
+        for (int n = 0; n < 20; n++) {
+            assertThat(controller.tryAdmit(recoveredAt)).isTrue();
+        }
+        assertThat(controller.isOverloaded()).isFalse();
+    }
+    
+    @Test
+    void intervalWithoutSamplesAdmitsAgain() {
+        controller.recordLatency(millis(300), start);
+        assertThat(controller.tryAdmit(start + INTERVAL)).isFalse();
+        
+        assertThat(controller.tryAdmit(start + 2 * INTERVAL)).isTrue();
+        assertThat(controller.isOverloaded()).isFalse();
+        assertThat(controller.getLastWindowMinLatencyMs()).isZero();
+    }
+    
+    @Test
+    void disabledControllerAdmitsEverything() {
+        AdmissionController disabled = new AdmissionController(false, 100, 500, 10);
+        disabled.recordLatency(millis(5_000), start);
+        
+        assertThat(disabled.tryAdmit(start + INTERVAL)).isTrue();
+        assertThat(disabled.getShedCount()).isZero();
+    }
+    
+    private static long millis(long value) {
+        return TimeUnit.MILLISECONDS.toNanos(value);
+    }
+}
@@ -0,0 +1,156 @@
+package com.dashboard.crud_iot.ingestion;
+
+import com.dashboard.crud_iot.dto.ThrottledDeviceDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * GCRA por dispositivo: rajada, taxa sustentada, tabela CAS, tabela cheia e compactação.
+ */
+class DeviceRateLimiterTest {
+    
+    // 10 heartbeats por segundo: um token a cada 100 ms, rajada de 5
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+    
+    @Test
+    void burstIsAllowedAndThenOneTokenPerInterval() {
+        DeviceRateLimiter limiter = new DeviceRateLimiter(true, 10.0, 5, 1024);
+        long start = System.nanoTime();
+        
+        for (int n = 0; n < 5; n++) {
+            assertThat(limiter.tryAcquire(1L, start)).isZero();
+        }
+        assertThat(limiter.tryAcquire(1L, start)).isEqualTo(INTERVAL);
+        assertThat(limiter.countThrottledDevices(start)).isEqualTo(1);
+        
+        // Taxa sustentada: um heartbeat a cada intervalo, o segundo no mesmo instante é rejeitado
+        for (int step = 1; step <= 20; step++) {
+            long now = start + step * INTERVAL;
+            assertThat(limiter.tryAcquire(1L, now)).isZero();
+            assertThat(limiter.tryAcquire(1L, now)).isPositive();
+        }
+        assertThat(limiter.getAllowedCount()).isEqualTo(25);
+        assertThat(limiter.getThrottledCount()).isEqualTo(21);
+        // Outros dispositivos têm o seu próprio bucket
+        assertThat(limiter.tryAcquire(2L, start)).isZero();
+        assertThat(limiter.getTopOffenders(5))
+                .extracting(ThrottledDeviceDTO::getDeviceId, ThrottledDeviceDTO::getRejectedHeartbeats)
+                .containsExactly(tuple(1L, 21L));
+    }
+    
+    @Test
+    void concurrentAcquiresNeverExceedTheBurst() throws Exception {
+        DeviceRateLimiter limiter = new DeviceRateLimiter(true, 10.0, 50, 1024);
+        long now = System.nanoTime();
+        AtomicInteger allowed = new AtomicInteger();
+        
+        try (ExecutorService threads = Executors.newFixedThreadPool(8)) {
+            for (int thread = 0; thread < 8; thread++) {
+                threads.submit(() -> {
+                    for (int n = 0; n < 100; n++) {
+                        if (limiter.tryAcquire(7L, now) == 0) {
+                            allowed.incrementAndGet();
+                        }
+                    }
+                });
+            }
+        }
+        
+        assertThat(allowed.get()).isEqualTo(50);
+        assertThat(limiter.getThrottledCount()).isEqualTo(750);
+    }
+    
+    @Test
+    void concurrentInsertsGiveEachDeviceASingleSlot() throws Exception {
+        DeviceBucketTable table = new DeviceBucketTable(2048);
+        int[][] slots = new int[8][1000];
+        
+        // Todas as threads disputam as mesmas chaves, cada uma começando num ponto diferente
+        try (ExecutorService threads = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                int current = thread;
+                futures.add(threads.submit(() -> {
+                    for (int n = 0; n < 1000; n++) {
+                        int index = (n + current * 125) % 1000;
+                        slots[current][index] = table.slotOf(index + 1);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        
+        assertThat(table.size()).isEqualTo(1000);
+        for (int n = 0; n < 1000; n++) {
+            assertThat(slots[0][n]).isNotEqualTo(DeviceBucketTable.NOT_FOUND);
+            assertThat(table.keys.get(slots[0][n])).isEqualTo(n + 1);
+            for (int thread = 1; thread < 8; thread++) {
+                assertThat(slots[thread][n]).isEqualTo(slots[0][n]);
+            }
+        }
+    }
+    
+    @Test
+    void fullTableFailsOpen() {
+        // Capacidade mínima: 32 slots
+        DeviceRateLimiter limiter = new DeviceRateLimiter(true, 10.0, 1, 16);
+        long now = System.nanoTime();
+        for (long id = 1; id <= 32; id++) {
+            assertThat(limiter.tryAcquire(id, now)).isZero();
+            assertThat(limiter.tryAcquire(id, now)).isPositive();
+        }
+        
+        // Sem slot livre, o dispositivo seguinte não é limitado
+        for (int n = 0; n < 10; n++) {
+            assertThat(limiter.tryAcquire(33L, now)).isZero();
+        }
+        assertThat(limiter.getThrottledCount()).isEqualTo(32);
+    }
+    
+    @Test
+    void compactionKeepsDevicesInDebtAndFreesIdleSlots() {
+        DeviceRateLimiter limiter = new DeviceRateLimiter(true, 10.0, 5, 16);
+        long start = System.nanoTime();
+        // 4 dispositivos esgotam a rajada e têm uma rejeição; outros 20 usam um token só
+        for (long id = 1; id <= 4; id++) {
+            for (int n = 0; n < 6; n++) {
+                limiter.tryAcquire(id, start);
+            }
+        }
+        for (long id = 5; id <= 24; id++) {
+            limiter.tryAcquire(id, start);
+        }
+        
+        // Em start + 2 intervalos os buckets de um token já estão cheios de novo
+        long now = start + 2 * INTERVAL;
+        limiter.compact(now);
+        
+        assertThat(limiter.getTopOffenders(10))
+                .extracting(ThrottledDeviceDTO::getDeviceId)
+                .containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+        // O débito foi mantido: só os 2 tokens recuperados desde start estão disponíveis
+        assertThat(limiter.tryAcquire(1L, now)).isZero();
+        assertThat(limiter.tryAcquire(1L, now)).isZero();
+        assertThat(limiter.tryAcquire(1L, now)).isPositive();
+        // Os 28 slots restantes voltam a limitar dispositivos novos
+        for (long id = 100; id < 128; id++) {
+            assertThat(limiter.tryAcquire(id, now)).isZero();
+            for (int n = 0; n < 4; n++) {
+                limiter.tryAcquire(id, now);
+            }
+            assertThat(limiter.tryAcquire(id, now)).as("dispositivo %d", id).isPositive();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.dashboard.crud_iot.ingestion;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Anel de buckets por segundo: reaproveitamento, eventos atrasados e incrementos concorrentes.
+ */
+class SlidingWindowCounterTest {
+    
+    @Test
+    void seriesCoversTheLastCompleteSeconds() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(5);
+        for (long second = 100; second < 110; second++) {
+            for (int n = 0; n < second - 100; n++) {
+                counter.increment(second);
+            }
+        }
+        
+        assertThat(counter.series(109, 5)).containsExactly(5, 6, 7, 8, 9);
+        // Limitada ao tamanho da janela; segundos que já saíram do anel contam 0
+        assertThat(counter.series(109, 60)).hasSize(5);
+        assertThat(counter.countAt(103)).isZero();
+    }
+    
+    @Test
+    void lateEventsBeyondTheRingAreDropped() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(5);
+        counter.increment(200);
+        counter.increment(194);
+        
+        assertThat(counter.countAt(200)).isEqualTo(1);
+        assertThat(counter.countAt(194)).isZero();
+    }
+    
+    @Test
+    void concurrentIncrementsWithinASecondAreAllCounted() throws Exception {
+        SlidingWindowCounter counter = new SlidingWindowCounter(60);
+        counter.increment(1_000);
+        try (ExecutorService threads = Executors.newFixedThreadPool(8)) {
+            for (int thread = 0; thread < 8; thread++) {
+                threads.submit(() -> {
+                    for (int n = 0; n < 10_000; n++) {
+                        counter.increment(1_000);
+                    }
+                });
+            }
+        }
+        
+        assertThat(counter.countAt(1_000)).isEqualTo(80_001);
+    }
+}
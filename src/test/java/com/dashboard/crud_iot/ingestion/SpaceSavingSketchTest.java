@@ -0,0 +1,75 @@
+package com.dashboard.crud_iot.ingestion;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Garantias do Space-Saving: emissores frequentes sempre presentes e erro limitado.
+ */
+class SpaceSavingSketchTest {
+    
+    @Test
+    void exactWhileEveryKeyFits() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(16, 1);
+        for (long key = 1; key <= 5; key++) {
+            for (int n = 0; n < key * 10; n++) {
+                sketch.offer(key);
+            }
+        }
+        
+        List<long[]> top = top(sketch, 3);
+        assertThat(top).extracting(entry -> entry[0]).containsExactly(5L, 4L, 3L);
+        assertThat(top).extracting(entry -> entry[1]).containsExactly(50L, 40L, 30L);
+        assertThat(top).allMatch(entry -> entry[2] == 0);
+    }
+    
+    @Test
+    void heavyHittersSurviveALongTailWithBoundedError() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(64, 4);
+        SplittableRandom random = new SplittableRandom(42);
+        long total = 0;
+        // 3 emissores com 10% das mensagens cada e uma cauda de 10.000 dispositivos
+        for (int n = 0; n < 100_000; n++, total++) {
+            int draw = random.nextInt(10);
+            sketch.offer(draw < 3 ? draw + 1 : 1_000 + random.nextInt(10_000));
+        }
+        
+        List<long[]> top = top(sketch, 3);
+        assertThat(top).extracting(entry -> entry[0]).containsExactlyInAnyOrder(1L, 2L, 3L);
+        for (long[] entry : top) {
+            // Contagem reportada nunca subestima e o erro fica dentro de N/capacidade da stripe
+            assertThat(entry[1] - entry[2]).isLessThanOrEqualTo(total / 10 + total / 100);
+            assertThat(entry[2]).isLessThanOrEqualTo(total / 16);
+        }
+    }
+    
+    @Test
+    void countsFromSeveralSketchesAreMerged() {
+        SpaceSavingSketch first = new SpaceSavingSketch(8, 1);
+        SpaceSavingSketch second = new SpaceSavingSketch(8, 1);
+        first.offer(7);
+        second.offer(7);
+        second.offer(9);
+        
+        SpaceSavingSketch.Counts counts = new SpaceSavingSketch.Counts();
+        first.collectInto(counts);
+        second.collectInto(counts);
+        assertThat(counts.top(1).get(0)).containsExactly(7, 2, 0);
+    }
+    
+    @Test
+    void stripeCountMustBeAPowerOfTwo() {
+        assertThatThrownBy(() -> new SpaceSavingSketch(64, 3)).isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    private static List<long[]> top(SpaceSavingSketch sketch, int limit) {
+        SpaceSavingSketch.Counts counts = new SpaceSavingSketch.Counts();
+        sketch.collectInto(counts);
+        return counts.top(limit);
+    }
+}
@@ -0,0 +1,161 @@
+package com.dashboard.crud_iot.loadtest;
+
+import com.dashboard.crud_iot.entities.Device;
+import com.dashboard.crud_iot.enums.DeviceType;
+import com.dashboard.crud_iot.repositories.DeviceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Teste de carga de heartbeats simultâneos contra a aplicação real.
+ * 
+ * Executado apenas sob demanda: mvn test -Dloadtest=true -Dtest='*HeartbeatLoadTest'
+ * (cada subclasse declara @EnabledIfSystemProperty, que não é herdada).
+ * Parâmetros: -Dloadtest.clients (padrão 10000), -Dloadtest.devices (padrão 1000) e
+ * -Dloadtest.rate (requisições/s em malha aberta; 0 dispara tudo de uma vez).
+ * Com taxa definida a latência é medida a partir do instante agendado de cada envio,
+ * para não esconder o tempo de fila (coordinated omission).
+ * As subclasses comparam platform threads, virtual threads e o caminho reativo
+ * quanto a vazão, percentis de latência e pico de heap (cliente e servidor no mesmo processo).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        // Sobrescritos pelas subclasses que medem o custo do log
+        "logging.level.org.springframework.web=${loadtest.web-log-level:WARN}",
+        "logging.level.com.dashboard.crud_iot=${loadtest.log-level:WARN}",
+        "ingestion.reactive.port=0",
+        "telemetry.port=0",
+        // Mede a capacidade bruta do caminho de ingestão, sem limites de taxa
+        "ingestion.rate-limit.enabled=false",
+        "ingestion.admission.enabled=false",
+        "lanes.ingestion.max-queued=100000",
+        "lanes.ingestion.max-wait-ms=60000"
+})
+@Slf4j
+abstract class AbstractHeartbeatLoadTest {
+    
+    @LocalServerPort
+    protected int port;
+    
+    @Autowired
+    private DeviceRepository deviceRepository;
+    
+    protected abstract String mode();
+    
+    protected URI heartbeatUri(Long deviceId, int client) {
+        return URI.create("http://localhost:" + port + "/api/devices/" + deviceId + "/communication?reading=" + client);
+    }
+    
+    @Test
+    void concurrentHeartbeatBurst() throws Exception {
+        int clients = Integer.getInteger("loadtest.clients", 10_000);
+        int deviceCount = Integer.getInteger("loadtest.devices", 1_000);
+        double rate = Double.parseDouble(System.getProperty("loadtest.rate", "0"));
+        List<Long> deviceIds = seedDevices(deviceCount);
+        System.gc();
+        ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+        
+        HttpClient httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        long[] latencies = new long[clients];
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicLong startNanos = new AtomicLong();
+        
+        long begin;
+        try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                int client = i;
+                Long deviceId = deviceIds.get(i % deviceIds.size());
+                clientThreads.submit(() -> {
+                    start.await();
+                    HttpRequest request = HttpRequest.newBuilder(heartbeatUri(deviceId, client))
+                            .header("Prefer", "return=minimal")
+                            .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                            .build();
+                    long sent = System.nanoTime();
+                    if (rate > 0) {
+                        sent = startNanos.get() + (long) (client * 1e9 / rate);
+                        long delay = sent - System.nanoTime();
+                        if (delay > 0) {
+                            Thread.sleep(delay / 1_000_000, (int) (delay % 1_000_000));
+                        }
+                    }
+                    try {
+                        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 300) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    }
+                    latencies[client] = System.nanoTime() - sent;
+                    return null;
+                });
+            }
+            begin = System.nanoTime();
+            startNanos.set(begin);
+            start.countDown();
+        }
+        double elapsedSeconds = (System.nanoTime() - begin) / 1e9;
+        
+        Arrays.sort(latencies);
+        long peakHeap = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+        log.warn("[{}] {} heartbeats em {} s: {} req/s, p50={} ms, p99={} ms, p99.9={} ms, max={} ms, pico de heap={} MB, falhas={}",
+                mode(), clients, String.format("%.2f", elapsedSeconds),
+                Math.round(clients / elapsedSeconds),
+                millis(percentile(latencies, 0.50)), millis(percentile(latencies, 0.99)),
+                millis(percentile(latencies, 0.999)), millis(latencies[latencies.length - 1]),
+                peakHeap / (1024 * 1024), failures.get());
+        
+        assertThat(failures.get()).isLessThan(clients);
+    }
+    
+    private List<Long> seedDevices(int count) {
+        List<Device> devices = IntStream.range(0, count)
+                .mapToObj(i -> Device.builder()
+                        .deviceName("Load Device " + i + " " + mode())
+                        .deviceIdentifier("LOAD-" + mode() + "-" + i)
+                        .deviceType(DeviceType.values()[i % DeviceType.values().length])
+                        .build())
+                .toList();
+        List<Long> ids = new ArrayList<>();
+        deviceRepository.saveAll(devices).forEach(device -> ids.add(device.getId()));
+        return ids;
+    }
+    
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)];
+    }
+    
+    private static String millis(long nanos) {
+        return String.format("%.1f", nanos / 1e6);
+    }
+}
@@ -0,0 +1,17 @@
+package com.dashboard.crud_iot.loadtest;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Carga de heartbeats servida pelo pool fixo de platform threads do Tomcat.
+ */
+@TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class PlatformThreadHeartbeatLoadTest extends AbstractHeartbeatLoadTest {
+    
+    @Override
+    protected String mode() {
+        return "platform";
+    }
+}
@@ -0,0 +1,31 @@
+package com.dashboard.crud_iot.loadtest;
+
+import com.dashboard.crud_iot.reactive.ReactiveIngestionServer;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.URI;
+
+/**
+ * Carga de heartbeats servida pelo caminho reativo (WebFlux + R2DBC).
+ * Use junto com -Dloadtest.rate=50000 para comparar a cauda de latência com o caminho bloqueante.
+ */
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class ReactiveHeartbeatLoadTest extends AbstractHeartbeatLoadTest {
+    
+    @Autowired
+    private ReactiveIngestionServer reactiveServer;
+    
+    @Override
+    protected String mode() {
+        return "reactive";
+    }
+    
+    @Override
+    protected URI heartbeatUri(Long deviceId, int client) {
+        return URI.create("http://localhost:" + reactiveServer.getPort()
+                + "/api/devices/" + deviceId + "/communication?reading=" + client);
+    }
+}
@@ -0,0 +1,22 @@
+package com.dashboard.crud_iot.loadtest;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Carga de heartbeats com log INFO assíncrono em JSON e amostragem de 1 a cada 1000 heartbeats.
+ */
+@TestPropertySource(properties = {
+        "spring.threads.virtual.enabled=true",
+        "loadtest.log-level=INFO",
+        "request-log.appender=ASYNC_JSON",
+        "request-log.sampling.enabled=true"
+})
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class SampledLoggingHeartbeatLoadTest extends AbstractHeartbeatLoadTest {
+    
+    @Override
+    protected String mode() {
+        return "log-sampled";
+    }
+}
@@ -0,0 +1,24 @@
+package com.dashboard.crud_iot.loadtest;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Carga de heartbeats com o log de antes: INFO síncrono em texto, sem amostragem.
+ * Referência para SampledLoggingHeartbeatLoadTest.
+ */
+@TestPropertySource(properties = {
+        "spring.threads.virtual.enabled=true",
+        "loadtest.log-level=INFO",
+        "loadtest.web-log-level=DEBUG",
+        "request-log.appender=TEXT",
+        "request-log.sampling.enabled=false"
+})
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class SyncLoggingHeartbeatLoadTest extends AbstractHeartbeatLoadTest {
+    
+    @Override
+    protected String mode() {
+        return "log-sync";
+    }
+}
@@ -0,0 +1,17 @@
+package com.dashboard.crud_iot.loadtest;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Carga de heartbeats servida por virtual threads.
+ */
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class VirtualThreadHeartbeatLoadTest extends AbstractHeartbeatLoadTest {
+    
+    @Override
+    protected String mode() {
+        return "virtual";
+    }
+}
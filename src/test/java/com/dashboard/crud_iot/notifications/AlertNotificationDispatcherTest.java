@@ -0,0 +1,223 @@
+package com.dashboard.crud_iot.notifications;
+
+import com.dashboard.crud_iot.dto.DeviceAlertDTO;
+import com.dashboard.crud_iot.dto.DeviceAlertDTO.AlertSeverity;
+import com.dashboard.crud_iot.dto.DeviceAlertDTO.AlertType;
+import com.dashboard.crud_iot.dto.NotificationDestinationStatsDTO;
+import com.dashboard.crud_iot.events.DeviceAlertTransitionEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Envia as notificações para um servidor HTTP local que registra os corpos recebidos
+ * e pode falhar as primeiras requisições.
+ */
+class AlertNotificationDispatcherTest {
+    
+    @TempDir
+    Path outboxDir;
+    
+    private HttpServer stub;
+    private final List<String> bodies = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private final CountDownLatch hangReleased = new CountDownLatch(1);
+    private final ExecutorService handlers = Executors.newCachedThreadPool();
+    private AlertNotificationDispatcher dispatcher;
+    
+    @BeforeEach
+    void startStub() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.setExecutor(handlers);
+        stub.createContext("/hooks", exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            int status = failuresLeft.getAndDecrement() > 0 ? 500 : 200;
+            if (status == 200) {
+                bodies.add(body);
+            }
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        // Destino que não responde até o fim do teste
+        stub.createContext("/hang", exchange -> {
+            try {
+                hangReleased.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        stub.start();
+    }
+    
+    @AfterEach
+    void stopAll() {
+        hangReleased.countDown();
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+        stub.stop(0);
+        handlers.shutdownNow();
+    }
+    
+    @Test
+    void coalescesTransitionsOfTheSameSiteIntoOneNotification() throws Exception {
+        dispatcher = start();
+        for (long id = 1; id <= 230; id++) {
+            dispatcher.onAlertTransition(lostCommunication(id, "Prédio A - Andar " + (id % 5) + " - Sala " + id));
+        }
+        dispatcher.onAlertTransition(lostCommunication(999L, "Prédio B - Andar 1 - Sala 1"));
+        
+        // Com todas as transições entregues, nenhum outro lote pode chegar depois
+        awaitTrue(() -> dispatcher.getStats().getDestinations().get(0).getDeliveredTransitions() == 231);
+        
+        assertThat(bodies).hasSize(1);
+        assertThat(bodies.get(0))
+                .contains("230 dispositivos com COMMUNICATION_LOST em Prédio A")
+                .contains("\"count\":230")
+                .contains("Sensor 999 (Prédio B)");
+        NotificationDestinationStatsDTO stats = dispatcher.getStats().getDestinations().get(0);
+        assertThat(stats.getDeliveredBatches()).isEqualTo(1);
+        assertThat(stats.getDeliveredTransitions()).isEqualTo(231);
+        assertThat(dispatcher.getStats().getReceived()).isEqualTo(231);
+    }
+    
+    @Test
+    void retriesWithBackoffAndClearsTheOutbox() throws Exception {
+        failuresLeft.set(2);
+        dispatcher = start();
+        dispatcher.onAlertTransition(lostCommunication(1L, "Prédio A - Andar 1 - Sala 1"));
+        
+        awaitTrue(() -> dispatcher.getStats().getDestinations().get(0).getDeliveredBatches() == 1);
+        
+        NotificationDestinationStatsDTO stats = dispatcher.getStats().getDestinations().get(0);
+        assertThat(stats.getFailedAttempts()).isEqualTo(2);
+        assertThat(stats.getDeadLettered()).isZero();
+        assertThat(stats.getLastError()).isEqualTo("HTTP 500");
+        assertThat(bodies).hasSize(1);
+        try (Stream<Path> files = Files.list(outboxDir)) {
+            assertThat(files.filter(file -> file.toString().endsWith(".json"))).isEmpty();
+        }
+    }
+    
+    @Test
+    void hungDestinationDoesNotDelayTheOthers() throws Exception {
+        MockEnvironment environment = environment()
+                .withProperty("notifications.destinations[1].name", "hung")
+                .withProperty("notifications.destinations[1].url",
+                        "http://127.0.0.1:" + stub.getAddress().getPort() + "/hang")
+                .withProperty("notifications.destinations[1].batch-window", "50ms")
+                .withProperty("notifications.queue-capacity", "4")
+                .withProperty("notifications.request-timeout", "30s");
+        dispatcher = new AlertNotificationDispatcher(environment, new ObjectMapper());
+        dispatcher.start();
+        
+        // O primeiro lote prende a thread do destino travado; as transições seguintes esperam na fila dele
+        dispatcher.onAlertTransition(lostCommunication(1L, "Prédio A - Andar 1 - Sala 1"));
+        awaitTrue(() -> dispatcher.getStats().getDestinations().get(1).getPendingBatches() == 1
+                && dispatcher.getStats().getDestinations().get(1).getAccumulating() == 0);
+        for (long id = 2; id <= 3; id++) {
+            dispatcher.onAlertTransition(lostCommunication(id, "Prédio A - Andar 1 - Sala " + id));
+        }
+        awaitTrue(() -> dispatcher.getStats().getDestinations().get(0).getDeliveredTransitions() == 3);
+        
+        NotificationDestinationStatsDTO hung = dispatcher.getStats().getDestinations().get(1);
+        assertThat(hung.getDeliveredBatches()).isZero();
+        assertThat(hung.getDropped()).isZero();
+        assertThat(hung.getQueued()).isEqualTo(2);
+        assertThat(dispatcher.getStats().getDropped()).isZero();
+    }
+    
+    @Test
+    void failingDestinationKeepsASingleBatchWaitingBehindTheRetry() throws Exception {
+        failuresLeft.set(1_000);
+        MockEnvironment environment = environment()
+                .withProperty("notifications.destinations[0].batch-window", "50ms")
+                .withProperty("notifications.retry.initial-backoff", "1s");
+        dispatcher = new AlertNotificationDispatcher(environment, new ObjectMapper());
+        dispatcher.start();
+        
+        // Uma transição por janela: a primeira falha e fica em backoff, as demais se juntam num lote só
+        for (long id = 1; id <= 6; id++) {
+            dispatcher.onAlertTransition(lostCommunication(id, "Prédio A - Andar 1 - Sala " + id));
+            long closed = id;
+            awaitTrue(() -> {
+                NotificationDestinationStatsDTO stats = dispatcher.getStats().getDestinations().get(0);
+                return closed == 1 ? stats.getFailedAttempts() >= 1
+                        : closed == 2 ? stats.getPendingBatches() == 2
+                        : stats.getMergedBatches() == closed - 2;
+            });
+        }
+        assertThat(dispatcher.getStats().getDestinations().get(0).getPendingBatches()).isEqualTo(2);
+        try (Stream<Path> files = Files.list(outboxDir)) {
+            assertThat(files.filter(file -> file.toString().endsWith(".json"))).hasSize(2);
+        }
+        
+        // Na volta do destino chegam o lote original e um único lote com as outras cinco transições
+        failuresLeft.set(0);
+        awaitTrue(() -> dispatcher.getStats().getDestinations().get(0).getDeliveredTransitions() == 6);
+        NotificationDestinationStatsDTO stats = dispatcher.getStats().getDestinations().get(0);
+        assertThat(stats.getDeliveredBatches()).isEqualTo(2);
+        assertThat(bodies).hasSize(2);
+        assertThat(bodies.get(1))
+                .contains("5 dispositivos com COMMUNICATION_LOST em Prédio A")
+                .contains("\"count\":5");
+    }
+    
+    private AlertNotificationDispatcher start() {
+        AlertNotificationDispatcher started = new AlertNotificationDispatcher(environment(), new ObjectMapper());
+        started.start();
+        return started;
+    }
+    
+    private MockEnvironment environment() {
+        return new MockEnvironment()
+                .withProperty("notifications.destinations[0].name", "stub")
+                .withProperty("notifications.destinations[0].url",
+                        "http://127.0.0.1:" + stub.getAddress().getPort() + "/hooks")
+                .withProperty("notifications.destinations[0].batch-window", "200ms")
+                .withProperty("notifications.outbox-dir", outboxDir.toString())
+                .withProperty("notifications.retry.initial-backoff", "50ms");
+    }
+    
+    private static DeviceAlertTransitionEvent lostCommunication(Long id, String location) {
+        DeviceAlertDTO alert = DeviceAlertDTO.builder()
+                .deviceId(id)
+                .deviceName("Sensor " + id)
+                .location(location)
+                .alertType(AlertType.COMMUNICATION_LOST)
+                .severity(AlertSeverity.HIGH)
+                .alertMessage("Dispositivo não responde há mais de 30 minutos")
+                .build();
+        return new DeviceAlertTransitionEvent(alert, false);
+    }
+    
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
@@ -0,0 +1,100 @@
+package com.dashboard.crud_iot.querybudget;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.TestInfo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Base dos testes de orçamento de SQL. Cada teste mede uma única operação de serviço com
+ * measure() e declara em @QueryBudget quantos statements e linhas ela pode usar.
+ * 
+ * Os statements vêm do StatementRecorder (somente a thread do teste), que observa o
+ * DataSource e por isso inclui as escritas via JDBC direto, e as linhas das Statistics do
+ * Hibernate, que contam apenas entidades.
+ */
+@Import(StatementRecorder.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "ingestion.reactive.enabled=false",
+        "telemetry.enabled=false",
+        // A varredura e a captura do histórico só rodam quando o teste chama
+        "devices.offline.sweeper.interval-ms=3600000",
+        "dashboard.history.capture-interval-ms=3600000",
+        "dashboard.history.file="
+})
+abstract class AbstractQueryBudgetTest {
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private Measurement measurement;
+    
+    /**
+     * Executa a operação registrando o SQL emitido por ela
+     */
+    protected <T> T measure(Supplier<T> operation) {
+        assertThat(measurement).as("cada teste mede uma única operação").isNull();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        StatementRecorder.start();
+        try {
+            return operation.get();
+        } finally {
+            List<String> statements = StatementRecorder.stop();
+            long rows = statistics.getEntityLoadCount() + statistics.getEntityInsertCount()
+                    + statistics.getEntityUpdateCount() + statistics.getEntityDeleteCount();
+            measurement = new Measurement(statements, rows);
+        }
+    }
+    
+    protected void measure(Runnable operation) {
+        measure(() -> {
+            operation.run();
+            return null;
+        });
+    }
+    
+    /**
+     * SQL emitido pela operação medida, para verificar o formato dos statements
+     */
+    protected List<String> measuredStatements() {
+        assertThat(measurement).as("nenhuma operação medida").isNotNull();
+        return measurement.statements();
+    }
+    
+    @AfterEach
+    void assertWithinBudget(TestInfo testInfo) {
+        Measurement measured = measurement;
+        measurement = null;
+        QueryBudget budget = testInfo.getTestMethod()
+                .map(method -> method.getAnnotation(QueryBudget.class))
+                .orElse(null);
+        if (budget == null) {
+            fail("%s não declara @QueryBudget", testInfo.getDisplayName());
+        }
+        if (measured == null) {
+            fail("%s não mediu nenhuma operação", testInfo.getDisplayName());
+        }
+        String report = String.join(System.lineSeparator(), measured.statements());
+        assertThat(measured.statements().size())
+                .as("statements de %s:%n%s", testInfo.getDisplayName(), report)
+                .isLessThanOrEqualTo(budget.statements());
+        assertThat(measured.rows())
+                .as("linhas de %s", testInfo.getDisplayName())
+                .isLessThanOrEqualTo(budget.rows());
+    }
+    
+    private record Measurement(List<String> statements, long rows) {
+    }
+}
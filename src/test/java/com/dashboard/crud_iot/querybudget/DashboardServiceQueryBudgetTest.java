@@ -0,0 +1,160 @@
+package com.dashboard.crud_iot.querybudget;
+
+import com.dashboard.crud_iot.dto.DeviceAlertDTO;
+import com.dashboard.crud_iot.dto.DeviceAlertDTO.AlertType;
+import com.dashboard.crud_iot.entities.Device;
+import com.dashboard.crud_iot.enums.DeviceStatus;
+import com.dashboard.crud_iot.enums.DeviceType;
+import com.dashboard.crud_iot.events.DeviceHeartbeatEvent;
+import com.dashboard.crud_iot.repositories.DeviceRepository;
+import com.dashboard.crud_iot.service.DashboardService;
+import com.dashboard.crud_iot.service.FleetMetricsExporter;
+import com.dashboard.crud_iot.service.FleetStatsHistory;
+import com.dashboard.crud_iot.service.LocationIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Orçamento de SQL dos cálculos do DashboardService. As consultas de localização e a
+ * coleta de /metrics/fleet são servidas pelo LocationIndex e não podem tocar o banco.
+ */
+class DashboardServiceQueryBudgetTest extends AbstractQueryBudgetTest {
+    
+    private static final int FLEET = 50;
+    
+    @Autowired
+    private DashboardService dashboardService;
+    
+    @Autowired
+    private FleetMetricsExporter fleetMetricsExporter;
+    
+    @Autowired
+    private FleetStatsHistory statsHistory;
+    
+    @Autowired
+    private LocationIndex locationIndex;
+    
+    @Autowired
+    private DeviceRepository deviceRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    private List<Device> devices;
+    
+    @BeforeEach
+    void createFleet() {
+        deviceRepository.deleteAllInBatch();
+        LocalDateTime now = LocalDateTime.now();
+        devices = new ArrayList<>();
+        for (int i = 0; i < FLEET; i++) {
+            devices.add(Device.builder()
+                    .deviceName("Sensor " + i)
+                    .deviceIdentifier("BUDGET-" + i)
+                    .deviceType(i % 2 == 0 ? DeviceType.TEMPERATURE_SENSOR : DeviceType.HUMIDITY_SENSOR)
+                    .status(i % 5 == 0 ? DeviceStatus.ERROR : DeviceStatus.ACTIVE)
+                    .location("Prédio A - Andar " + (i % 3))
+                    .lastCommunication(i % 4 == 0 ? now.minusHours(2) : now)
+                    .lastReading(i % 2 == 0 ? "22.5" : "95")
+                    .isActive(true)
+                    .build());
+        }
+        devices = deviceRepository.saveAll(devices);
+        // Gravados direto no repositório, sem eventos: o índice é recarregado
+        locationIndex.rebuild();
+    }
+    
+    // Os alertas vêm das contagens do LocationIndex, sem um segundo findAll
+    @Test
+    @QueryBudget(statements = 1, rows = FLEET)
+    void getGeneralStats() {
+        assertThat(measure(() -> dashboardService.getGeneralStats()).getTotalDevices()).isEqualTo(FLEET);
+    }
+    
+    @Test
+    @QueryBudget(statements = 1, rows = FLEET)
+    void getStatusDistribution() {
+        assertThat(measure(() -> dashboardService.getStatusDistribution()).getTotalDevices()).isEqualTo(FLEET);
+    }
+    
+    @Test
+    @QueryBudget(statements = 1, rows = FLEET)
+    void getTypeDistribution() {
+        assertThat(measure(() -> dashboardService.getTypeDistribution()).getTotalDevices()).isEqualTo(FLEET);
+    }
+    
+    @Test
+    @QueryBudget(statements = 1, rows = FLEET)
+    void getConnectivityStats() {
+        assertThat(measure(() -> dashboardService.getConnectivityStats()).getDevicesOnlineLast5Min()).isPositive();
+    }
+    
+    // Regras avaliadas a cada alteração pelo LocationIndex; a umidade de 95% dispara a regra do tipo
+    @Test
+    @QueryBudget(statements = 0, rows = 0)
+    void getActiveAlerts() {
+        assertThat(measure(() -> dashboardService.getActiveAlerts()))
+                .extracting(DeviceAlertDTO::getAlertType)
+                .contains(AlertType.DEVICE_ERROR, AlertType.COMMUNICATION_LOST, AlertType.THRESHOLD_EXCEEDED);
+    }
+    
+    @Test
+    @QueryBudget(statements = 0, rows = 0)
+    void getLocationTree() {
+        measure(() -> dashboardService.getLocationTree(3));
+    }
+    
+    @Test
+    @QueryBudget(statements = 0, rows = 0)
+    void getLocationStats() {
+        measure(() -> dashboardService.getLocationStats("Prédio A"));
+    }
+    
+    @Test
+    @QueryBudget(statements = 1, rows = 10)
+    void getThrottlingStats() {
+        measure(() -> dashboardService.getThrottlingStats(10));
+    }
+    
+    @Test
+    @QueryBudget(statements = 0, rows = 0)
+    void fleetMetricsScrape() {
+        measure(() -> fleetMetricsExporter.scrape());
+    }
+    
+    // Apenas os nomes dos emissores retornados vêm do banco
+    @Test
+    @QueryBudget(statements = 1, rows = 10)
+    void getTopTalkers() {
+        for (int i = 0; i < FLEET; i++) {
+            Device device = devices.get(i);
+            for (int n = 0; n <= i; n++) {
+                eventPublisher.publishEvent(new DeviceHeartbeatEvent(device.getId(), LocalDateTime.now(), null));
+            }
+        }
+        measure(() -> dashboardService.getTopTalkers(10));
+    }
+    
+    // Capturas copiadas dos contadores do LocationIndex para o ring buffer
+    @Test
+    @QueryBudget(statements = 0, rows = 0)
+    void getStatsHistory() {
+        statsHistory.capture();
+        statsHistory.capture();
+        measure(() -> dashboardService.getStatsHistory("24h", "1h"));
+    }
+    
+    @Test
+    @QueryBudget(statements = 0, rows = 0)
+    void getIngestRates() {
+        measure(() -> dashboardService.getIngestRates(60));
+    }
+}
@@ -0,0 +1,225 @@
+package com.dashboard.crud_iot.querybudget;
+
+import com.dashboard.crud_iot.dto.DeviceCreateDTO;
+import com.dashboard.crud_iot.dto.DeviceResponseDTO;
+import com.dashboard.crud_iot.dto.DeviceUpdateDTO;
+import com.dashboard.crud_iot.entities.Device;
+import com.dashboard.crud_iot.enums.DeviceStatus;
+import com.dashboard.crud_iot.enums.DeviceType;
+import com.dashboard.crud_iot.repositories.DeviceRepository;
+import com.dashboard.crud_iot.service.DeviceOfflineSweeper;
+import com.dashboard.crud_iot.service.DeviceUniquenessIndex;
+import com.dashboard.crud_iot.service.UptimeTracker;
+import com.dashboard.crud_iot.services.DeviceService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Orçamento de SQL das operações do DeviceService. As consultas de lista devem custar um
+ * único statement independentemente do tamanho da frota (sem N+1) e, por serem projeções
+ * em DeviceResponseDTO, não carregam nenhuma entidade.
+ */
+class DeviceServiceQueryBudgetTest extends AbstractQueryBudgetTest {
+    
+    private static final int FLEET = 50;
+    
+    @Autowired
+    private DeviceService deviceService;
+    
+    @Autowired
+    private DeviceRepository deviceRepository;
+    
+    @Autowired
+    private DeviceUniquenessIndex uniquenessIndex;
+    
+    @Autowired
+    private DeviceOfflineSweeper offlineSweeper;
+    
+    @Autowired
+    private UptimeTracker uptimeTracker;
+    
+    private List<Device> fleet;
+    
+    @BeforeEach
+    void createFleet() {
+        deviceRepository.deleteAllInBatch();
+        LocalDateTime now = LocalDateTime.now();
+        List<Device> devices = new ArrayList<>();
+        for (int i = 0; i < FLEET; i++) {
+            devices.add(Device.builder()
+                    .deviceName("Sensor " + i)
+                    .deviceIdentifier("BUDGET-" + i)
+                    .deviceType(i % 2 == 0 ? DeviceType.TEMPERATURE_SENSOR : DeviceType.HUMIDITY_SENSOR)
+                    .status(i % 5 == 0 ? DeviceStatus.ERROR : DeviceStatus.ACTIVE)
+                    .location("Prédio A - Andar " + (i % 3))
+                    .lastCommunication(i % 4 == 0 ? now.minusHours(2) : now)
+                    .isActive(true)
+                    .build());
+        }
+        fleet = deviceRepository.saveAll(devices);
+        // A frota entra direto pelo repositório, sem DeviceChangedEvent
+        uniquenessIndex.rebuild();
+        uptimeTracker.rebuild();
+    }
+    
+    // Nome e identificador livres são respondidos pelo DeviceUniquenessIndex
+    @Test
+    @QueryBudget(statements = 1, rows = 1)
+    void createDevice() {
+        DeviceCreateDTO dto = DeviceCreateDTO.builder()
+                .deviceName("Sensor novo")
+                .deviceIdentifier("BUDGET-NEW")
+                .deviceType(DeviceType.TEMPERATURE_SENSOR)
+                .build();
+        assertThat(measure(() -> deviceService.createDevice(dto)).getId()).isNotNull();
+    }
+    
+    @Test
+    @QueryBudget(statements = 1, rows = 0)
+    void createDeviceWithDuplicateIdentifier() {
+        DeviceCreateDTO dto = DeviceCreateDTO.builder()
+                .deviceName("Sensor duplicado")
+                .deviceIdentifier("BUDGET-0")
+                .deviceType(DeviceType.TEMPERATURE_SENSOR)
+                .build();
+        measure(() -> assertThatThrownBy(() -> deviceService.createDevice(dto))
+                .isInstanceOf(IllegalArgumentException.class));
+    }
+    
+    // Duplicado ainda fora do índice: a constraint unique do banco recusa o INSERT
+    @Test
+    @QueryBudget(statements = 1, rows = 0)
+    void createDeviceWithUnindexedDuplicate() {
+        deviceRepository.save(Device.builder()
+                .deviceName("Sensor concorrente")
+                .deviceIdentifier("BUDGET-RACE")
+                .deviceType(DeviceType.TEMPERATURE_SENSOR)
+                .build());
+        DeviceCreateDTO dto = DeviceCreateDTO.builder()
+                .deviceName("Sensor atrasado")
+                .deviceIdentifier("BUDGET-RACE")
+                .deviceType(DeviceType.TEMPERATURE_SENSOR)
+                .build();
+        measure(() -> assertThatThrownBy(() -> deviceService.createDevice(dto))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("identificador"));
+    }
+    
+    @Test
+    @QueryBudget(statements = 1, rows = 0)
+    void getAllDevices() {
+        assertThat(measure(() -> deviceService.getAllDevices())).hasSize(FLEET);
+    }
+    
+    @Test
+    @QueryBudget(statements = 1, rows = 0)
+    void getDeviceById() {
+        assertThat(measure(() -> deviceService.getDeviceById(fleet.get(0).getId()))).isPresent();
+    }
+    
+    @Test
+    @QueryBudget(statements = 1, rows = 0)
+    void getDevicesByType() {
+        assertThat(measure(() -> deviceService.getDevicesByType(DeviceType.TEMPERATURE_SENSOR))).hasSize(FLEET / 2);
+    }
+    
+    @Test
+    @QueryBudget(statements = 1, rows = 0)
+    void getDevicesByStatus() {
+        assertThat(measure(() -> deviceService.getDevicesByStatus(DeviceStatus.ERROR))).hasSize(FLEET / 5);
+    }
+    
+    @Test
+    @QueryBudget(statements = 1, rows = 0)
+    void getOnlineDevices() {
+        assertThat(measure(() -> deviceService.getOnlineDevices()))
+                .isNotEmpty()
+                .allMatch(DeviceResponseDTO::getIsOnline);
+    }
+    
+    @Test
+    @QueryBudget(statements = 1, rows = 0)
+    void getOfflineDevices() {
+        assertThat(measure(() -> deviceService.getOfflineDevices()))
+                .isNotEmpty()
+                .noneMatch(DeviceResponseDTO::getIsOnline);
+    }
+    
+    @Test
+    @QueryBudget(statements = 2, rows = 2)
+    void updateDevice() {
+        Device device = fleet.get(1);
+        DeviceUpdateDTO dto = DeviceUpdateDTO.builder()
+                .deviceName("Sensor renomeado")
+                .deviceType(device.getDeviceType())
+                .status(DeviceStatus.MAINTENANCE)
+                .isActive(true)
+                .build();
+        assertThat(measure(() -> deviceService.updateDevice(device.getId(), dto)))
+                .hasValueSatisfying(updated -> assertThat(updated.getDeviceName()).isEqualTo("Sensor renomeado"));
+    }
+    
+    @Test
+    @QueryBudget(statements = 2, rows = 2)
+    void deleteDevice() {
+        measure(() -> deviceService.deleteDevice(fleet.get(2).getId()));
+        assertThat(deviceRepository.count()).isEqualTo(FLEET - 1);
+    }
+    
+    // Um único UPDATE via JDBC (DeviceHeartbeatWriter), sem carregar a entidade
+    @Test
+    @QueryBudget(statements = 1, rows = 0)
+    void updateLastCommunication() {
+        Long id = fleet.get(3).getId();
+        measure(() -> deviceService.updateLastCommunication(id, "21.5"));
+        assertThat(deviceRepository.findById(id).orElseThrow().getLastReading()).isEqualTo("21.5");
+    }
+    
+    @Test
+    @QueryBudget(statements = 1, rows = 0)
+    void updateLastCommunicationReactivatesOfflineDevice() {
+        Device device = fleet.get(4);
+        device.setStatus(DeviceStatus.OFFLINE);
+        deviceRepository.save(device);
+        measure(() -> deviceService.updateLastCommunication(device.getId(), null));
+        assertThat(deviceRepository.findById(device.getId()).orElseThrow().getStatus()).isEqualTo(DeviceStatus.ACTIVE);
+    }
+    
+    // Uma consulta de faixa por tipo; só os 10 ativos sem comunicação há 2 h são lidos, e um único UPDATE em JDBC batch
+    @Test
+    @QueryBudget(statements = 8, rows = 10)
+    void sweepOfflineDevices() {
+        measure(() -> offlineSweeper.sweep());
+        assertThat(deviceRepository.countByStatus(DeviceStatus.OFFLINE)).isEqualTo(10);
+    }
+    
+    // Servido pelos intervalos em memória do UptimeTracker
+    @Test
+    @QueryBudget(statements = 0, rows = 0)
+    void getDeviceUptime() {
+        Long id = fleet.get(1).getId();
+        assertThat(measure(() -> deviceService.getDeviceUptime(id, "7d"))).isPresent();
+    }
+    
+    @Test
+    @QueryBudget(statements = 2, rows = 2)
+    void patchDevice() throws Exception {
+        JsonNode patch = new ObjectMapper().readTree("{\"location\": \"Prédio B\", \"description\": null}");
+        assertThat(measure(() -> deviceService.patchDevice(fleet.get(4).getId(), patch)))
+                .hasValueSatisfying(device -> assertThat(device.getLocation()).isEqualTo("Prédio B"));
+        // @DynamicUpdate: só as colunas alteradas (description já era null e fica de fora)
+        assertThat(measuredStatements()).last().asString()
+                .contains("location")
+                .doesNotContain("device_name", "description");
+    }
+}
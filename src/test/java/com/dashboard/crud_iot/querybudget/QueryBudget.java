@@ -0,0 +1,27 @@
+package com.dashboard.crud_iot.querybudget;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Orçamento de acesso ao banco de uma operação medida com AbstractQueryBudgetTest.measure.
+ * 
+ * Aumentar um orçamento precisa de justificativa na revisão: é ele que pega N+1 e
+ * consultas duplicadas introduzidas sem querer.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+    
+    /**
+     * Máximo de statements SQL executados
+     */
+    int statements();
+    
+    /**
+     * Máximo de linhas de entidade carregadas, inseridas, atualizadas ou removidas
+     */
+    long rows();
+}
@@ -0,0 +1,61 @@
+package com.dashboard.crud_iot.querybudget;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registra o SQL executado pela thread que está medindo, no nível do DataSource: conta tanto
+ * o SQL do Hibernate quanto as escritas via JdbcTemplate (DeviceHeartbeatWriter, DeviceStatusWriter).
+ * Um JDBC batch conta como um statement, pois segue em uma única ida ao banco.
+ * 
+ * Importado pelo AbstractQueryBudgetTest, envolve o DataSource da aplicação com o datasource-proxy.
+ */
+public class StatementRecorder implements BeanPostProcessor {
+    
+    private static final ThreadLocal<List<String>> RECORDED = new ThreadLocal<>();
+    
+    static void start() {
+        RECORDED.set(new ArrayList<>());
+    }
+    
+    static List<String> stop() {
+        List<String> statements = RECORDED.get();
+        RECORDED.remove();
+        return statements == null ? List.of() : statements;
+    }
+    
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(new Listener())
+                    .build();
+        }
+        return bean;
+    }
+    
+    private static final class Listener implements QueryExecutionListener {
+        
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+        
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            List<String> statements = RECORDED.get();
+            if (statements != null) {
+                for (QueryInfo query : queryInfoList) {
+                    statements.add(query.getQuery());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.dashboard.crud_iot.service;
+
+import com.dashboard.crud_iot.enums.DeviceType;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Janelas online e atraso por tipo de dispositivo.
+ */
+class DeviceReportIntervalsTest {
+    
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+    
+    private final DeviceReportIntervals intervals = new DeviceReportIntervals(new MockEnvironment()
+            .withProperty("devices.report-interval.tracker", "10s")
+            .withProperty("devices.report-interval.humidity_sensor", "15m")
+            .withProperty("devices.offline.missed-reports", "3"));
+    
+    @Test
+    void deviceIsLateAfterAMissedReportAndUntilItGoesOffline() {
+        // Rastreador: atrasado entre 10 s e 30 s sem comunicação
+        assertThat(intervals.isLate(DeviceType.TRACKER, NOW.minusSeconds(5), NOW)).isFalse();
+        assertThat(intervals.isLate(DeviceType.TRACKER, NOW.minusSeconds(10), NOW)).isTrue();
+        assertThat(intervals.isLate(DeviceType.TRACKER, NOW.minusSeconds(29), NOW)).isTrue();
+        assertThat(intervals.isLate(DeviceType.TRACKER, NOW.minusSeconds(30), NOW)).isFalse();
+        assertThat(intervals.isOnline(DeviceType.TRACKER, NOW.minusSeconds(30), NOW)).isFalse();
+        
+        // Sensor de umidade: 20 min é um atraso, não offline
+        assertThat(intervals.isLate(DeviceType.HUMIDITY_SENSOR, NOW.minusMinutes(20), NOW)).isTrue();
+        assertThat(intervals.isOnline(DeviceType.HUMIDITY_SENSOR, NOW.minusMinutes(20), NOW)).isTrue();
+        assertThat(intervals.isLate(DeviceType.HUMIDITY_SENSOR, null, NOW)).isFalse();
+    }
+    
+    @Test
+    void singleMissedReportGoesStraightToOffline() {
+        DeviceReportIntervals strict = new DeviceReportIntervals(new MockEnvironment()
+                .withProperty("devices.report-interval.tracker", "10s")
+                .withProperty("devices.offline.missed-reports", "1"));
+        
+        for (long seconds = 0; seconds <= 20; seconds++) {
+            assertThat(strict.isLate(DeviceType.TRACKER, NOW.minusSeconds(seconds), NOW)).isFalse();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.dashboard.crud_iot.service;
+
+import com.dashboard.crud_iot.dto.DeviceAlertDTO.AlertSeverity;
+import com.dashboard.crud_iot.enums.DeviceStatus;
+import com.dashboard.crud_iot.enums.DeviceType;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Formato de exposição texto do Prometheus gerado a partir dos contadores da frota.
+ */
+class FleetMetricsExporterTest {
+    
+    @Test
+    void exposesEveryCounterWithHelpAndType() {
+        long[] statuses = new long[DeviceStatus.values().length];
+        statuses[DeviceStatus.ACTIVE.ordinal()] = 7;
+        long[] types = new long[DeviceType.values().length];
+        types[DeviceType.TRACKER.ordinal()] = 10;
+        long[] alerts = new long[AlertSeverity.values().length];
+        alerts[AlertSeverity.CRITICAL.ordinal()] = 2;
+        long[] heartbeats = new long[DeviceType.values().length];
+        heartbeats[DeviceType.TRACKER.ordinal()] = 1234;
+        LocationIndex locationIndex = mock(LocationIndex.class);
+        when(locationIndex.getFleetCounters())
+                .thenReturn(new LocationIndex.FleetCounters(10, 8, 1, statuses, types, alerts, heartbeats));
+        
+        String exposition = new FleetMetricsExporter(locationIndex).scrape();
+        
+        assertThat(exposition.lines()).contains(
+                "# HELP iot_fleet_devices Dispositivos cadastrados",
+                "# TYPE iot_fleet_devices gauge",
+                "iot_fleet_devices 10",
+                "iot_fleet_devices_offline 2",
+                "iot_fleet_devices_never_communicated 1",
+                "iot_fleet_devices_by_status{status=\"ACTIVE\"} 7",
+                "iot_fleet_devices_by_type{type=\"TRACKER\"} 10",
+                "iot_fleet_active_alerts{severity=\"CRITICAL\"} 2",
+                "# TYPE iot_fleet_heartbeats_total counter",
+                "iot_fleet_heartbeats_total{type=\"TRACKER\"} 1234");
+        assertThat(exposition.lines().filter(line -> line.startsWith("iot_fleet_devices_by_status{")))
+                .hasSize(DeviceStatus.values().length);
+    }
+}
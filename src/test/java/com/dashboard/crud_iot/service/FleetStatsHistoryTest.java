@@ -0,0 +1,118 @@
+package com.dashboard.crud_iot.service;
+
+import com.dashboard.crud_iot.dto.FleetStatsPointDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Persistência do ring buffer do histórico: recuperação, volta do anel e troca de layout.
+ */
+class FleetStatsHistoryTest {
+    
+    private static final long CAPTURE_INTERVAL_MS = 60_000;
+    
+    @TempDir
+    Path directory;
+    
+    private final LocationIndex locationIndex = mock(LocationIndex.class);
+    private final AtomicLong totalDevices = new AtomicLong();
+    
+    FleetStatsHistoryTest() {
+        doAnswer(invocation -> {
+            long[] target = invocation.getArgument(0);
+            int offset = invocation.getArgument(1);
+            target[offset] = totalDevices.get();
+            target[offset + 1] = totalDevices.get() / 2;
+            return LocationIndex.FLEET_COUNTERS_WIDTH;
+        }).when(locationIndex).copyFleetCounters(any(), anyInt());
+    }
+    
+    @Test
+    void capturesSurviveARestart() throws Exception {
+        Path file = directory.resolve("history.bin");
+        FleetStatsHistory history = open(file, 10);
+        totalDevices.set(10);
+        history.capture();
+        totalDevices.set(30);
+        history.capture();
+        history.close();
+        
+        FleetStatsHistory restarted = open(file, 10);
+        assertThat(summarize(restarted)).containsExactly(2, 20, 10);
+        restarted.close();
+    }
+    
+    @Test
+    void ringKeepsOnlyTheLatestCapturesAcrossRestarts() throws Exception {
+        Path file = directory.resolve("history.bin");
+        FleetStatsHistory history = open(file, 3);
+        for (long total = 1; total <= 5; total++) {
+            totalDevices.set(total * 100);
+            history.capture();
+        }
+        history.close();
+        // Arquivo pré-alocado: cabeçalho mais as 3 linhas, independentemente das capturas
+        long size = Files.size(file);
+        
+        FleetStatsHistory restarted = open(file, 3);
+        totalDevices.set(600);
+        restarted.capture();
+        assertThat(summarize(restarted)).containsExactly(3, 500, 250);
+        assertThat(Files.size(file)).isEqualTo(size);
+        restarted.close();
+    }
+    
+    @Test
+    void anotherLayoutStartsAnEmptyHistory() throws Exception {
+        Path file = directory.resolve("history.bin");
+        FleetStatsHistory history = open(file, 10);
+        totalDevices.set(10);
+        history.capture();
+        history.close();
+        
+        FleetStatsHistory resized = open(file, 5);
+        assertThat(resized.getHistory("5m", "5m").getPoints()).isEmpty();
+        resized.close();
+    }
+    
+    @Test
+    void rejectsStepsOutsideTheCaptureIntervalAndRange() {
+        FleetStatsHistory history = new FleetStatsHistory(locationIndex, CAPTURE_INTERVAL_MS, 10, "");
+        
+        assertThatThrownBy(() -> history.getHistory("10m", "1s")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> history.getHistory("10m", "1h")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> history.getHistory("1h", "10m")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> history.getHistory("ontem", "10m")).isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    private FleetStatsHistory open(Path file, int capacity) {
+        return new FleetStatsHistory(locationIndex, CAPTURE_INTERVAL_MS, capacity, file.toString());
+    }
+    
+    /**
+     * Capturas dos últimos 3 min somadas, como {amostras, média do total, média dos online}.
+     * Os pontos são somados porque as capturas podem cair dos dois lados de uma fronteira de passo.
+     */
+    private static long[] summarize(FleetStatsHistory history) {
+        long[] summary = new long[3];
+        for (FleetStatsPointDTO point : history.getHistory("3m", "3m").getPoints()) {
+            summary[0] += point.getSamples();
+            summary[1] += point.getTotalDevices() * point.getSamples();
+            summary[2] += point.getOnlineDevices() * point.getSamples();
+        }
+        summary[1] /= Math.max(1, summary[0]);
+        summary[2] /= Math.max(1, summary[0]);
+        return summary;
+    }
+}
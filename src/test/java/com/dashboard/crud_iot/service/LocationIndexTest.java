@@ -0,0 +1,168 @@
+package com.dashboard.crud_iot.service;
+
+import com.dashboard.crud_iot.alerts.AlertRuleEngine;
+import com.dashboard.crud_iot.dto.DeviceAlertDTO;
+import com.dashboard.crud_iot.dto.DeviceAlertDTO.AlertSeverity;
+import com.dashboard.crud_iot.dto.DeviceAlertDTO.AlertType;
+import com.dashboard.crud_iot.entities.Device;
+import com.dashboard.crud_iot.enums.DeviceStatus;
+import com.dashboard.crud_iot.enums.DeviceType;
+import com.dashboard.crud_iot.events.DeviceAlertTransitionEvent;
+import com.dashboard.crud_iot.events.DeviceHeartbeatEvent;
+import com.dashboard.crud_iot.repositories.DeviceRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Contadores, alertas e prazos do índice de localizações sob heartbeats concorrentes.
+ */
+class LocationIndexTest {
+    
+    private static final int DEVICES = 200;
+    
+    private final DeviceRepository deviceRepository = mock(DeviceRepository.class);
+    private final Queue<DeviceAlertTransitionEvent> transitions = new ConcurrentLinkedQueue<>();
+    private final LocationIndex index;
+    
+    LocationIndexTest() {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test", Map.of(
+                "alerts.anomaly.enabled", "false",
+                "alerts.rules.humidity-sensor[0].when", "value > 90",
+                "alerts.rules.humidity-sensor[0].alert", "THRESHOLD_EXCEEDED",
+                "alerts.rules.humidity-sensor[0].severity", "MEDIUM")));
+        DeviceAlertEvaluator evaluator = new DeviceAlertEvaluator(new DeviceReportIntervals(environment),
+                new AlertRuleEngine(environment));
+        index = new LocationIndex(deviceRepository, evaluator, new ReadingAnomalyDetector(environment),
+                event -> transitions.add((DeviceAlertTransitionEvent) event), "-");
+    }
+    
+    @Test
+    void concurrentHeartbeatsKeepCountersAndTransitionsConsistent() throws Exception {
+        LocalDateTime start = LocalDateTime.now();
+        when(deviceRepository.findAll()).thenReturn(fleet(start));
+        index.rebuild();
+        
+        // Cada dispositivo alterna entre leitura normal e acima do limite, a partir de 8 threads
+        try (ExecutorService threads = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                int first = thread;
+                futures.add(threads.submit(() -> {
+                    for (int round = 0; round < 50; round++) {
+                        for (long id = first + 1; id <= DEVICES; id += 8) {
+                            String reading = round % 2 == 0 ? "95" : "50";
+                            index.onHeartbeat(new DeviceHeartbeatEvent(id, start.plusSeconds(round), reading));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        // Por fim, metade da frota fica acima do limite
+        for (long id = 1; id <= DEVICES; id++) {
+            index.onHeartbeat(new DeviceHeartbeatEvent(id, start.plusMinutes(1), id % 2 == 0 ? "95" : "50"));
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<DeviceAlertDTO> alerts = index.getActiveAlerts(now);
+        assertThat(alerts).hasSize(DEVICES / 2)
+                .allMatch(alert -> alert.getAlertType() == AlertType.THRESHOLD_EXCEEDED);
+        assertThat(index.getAlertCounts(now)[AlertSeverity.MEDIUM.ordinal()]).isEqualTo(DEVICES / 2);
+        assertThat(index.getFleetCounters().onlineDevices()).isEqualTo(DEVICES);
+        long raised = transitions.stream().filter(transition -> !transition.isResolved()).count();
+        assertThat(raised - (transitions.size() - raised)).isEqualTo(DEVICES / 2);
+    }
+    
+    @Test
+    void eachDeviceKeepsASingleDeadline() {
+        LocalDateTime start = LocalDateTime.now();
+        when(deviceRepository.findAll()).thenReturn(fleet(start));
+        index.rebuild();
+        for (int round = 0; round < 20; round++) {
+            for (long id = 1; id <= DEVICES; id++) {
+                index.onHeartbeat(new DeviceHeartbeatEvent(id, start, null));
+            }
+        }
+        transitions.clear();
+        
+        // Passado o limite de silêncio, cada dispositivo é reavaliado uma única vez
+        List<DeviceAlertDTO> alerts = index.getActiveAlerts(start.plusMinutes(31));
+        assertThat(alerts).hasSize(DEVICES)
+                .allMatch(alert -> alert.getAlertType() == AlertType.COMMUNICATION_LOST);
+        // A localização dos alertas é remontada a partir da árvore
+        assertThat(alerts).allMatch(alert -> alert.getLocation().equals("Prédio A - Andar " + (alert.getDeviceId() % 4)));
+        assertThat(transitions).hasSize(DEVICES)
+                .allMatch(transition -> transition.getAlert().getLocation().startsWith("Prédio A - Andar "));
+        assertThat(index.getFleetCounters().onlineDevices()).isZero();
+    }
+    
+    @Test
+    void readingAnomalyOutranksNoRuleAndClearsWithTheNextNormalReading() {
+        LocalDateTime start = LocalDateTime.now();
+        when(deviceRepository.findAll()).thenReturn(fleet(start));
+        
+        // 80% de umidade está dentro da regra do tipo, mas muito longe da média recente
+        LocationIndex anomalous = anomalousIndex();
+        for (int n = 0; n < 40; n++) {
+            anomalous.onHeartbeat(new DeviceHeartbeatEvent(1L, start.plusSeconds(n), n % 2 == 0 ? "50.0" : "50.4"));
+        }
+        anomalous.onHeartbeat(new DeviceHeartbeatEvent(1L, start.plusSeconds(40), "80"));
+        assertThat(anomalous.getActiveAlerts(LocalDateTime.now()))
+                .extracting(DeviceAlertDTO::getAlertType)
+                .containsExactly(AlertType.READING_ANOMALY);
+        
+        anomalous.onHeartbeat(new DeviceHeartbeatEvent(1L, start.plusSeconds(41), "50.2"));
+        assertThat(anomalous.getActiveAlerts(LocalDateTime.now())).isEmpty();
+    }
+    
+    /**
+     * Índice com detecção de anomalias ativa, sobre a mesma frota
+     */
+    private LocationIndex anomalousIndex() {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test", Map.of(
+                "alerts.rules.humidity-sensor[0].when", "value > 90",
+                "alerts.rules.humidity-sensor[0].alert", "THRESHOLD_EXCEEDED",
+                "alerts.rules.humidity-sensor[0].severity", "MEDIUM")));
+        LocationIndex anomalous = new LocationIndex(deviceRepository,
+                new DeviceAlertEvaluator(new DeviceReportIntervals(environment), new AlertRuleEngine(environment)),
+                new ReadingAnomalyDetector(environment), event -> { }, "-");
+        anomalous.rebuild();
+        return anomalous;
+    }
+    
+    private static List<Device> fleet(LocalDateTime lastCommunication) {
+        List<Device> devices = new ArrayList<>();
+        for (long id = 1; id <= DEVICES; id++) {
+            devices.add(Device.builder()
+                    .id(id)
+                    .deviceName("Sensor " + id)
+                    .deviceIdentifier("HUM-" + id)
+                    .deviceType(DeviceType.HUMIDITY_SENSOR)
+                    .status(DeviceStatus.ACTIVE)
+                    .location("Prédio A - Andar " + (id % 4))
+                    .lastReading("50")
+                    .lastCommunication(lastCommunication)
+                    .build());
+        }
+        return devices;
+    }
+}
@@ -0,0 +1,161 @@
+package com.dashboard.crud_iot.service;
+
+import com.dashboard.crud_iot.dto.DeviceAlertDTO.AlertType;
+import com.dashboard.crud_iot.enums.DeviceType;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Z-score e taxa de variação sobre a EWMA por dispositivo, e leitura do valor sem alocação.
+ */
+class ReadingAnomalyDetectorTest {
+    
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 0, 0);
+    
+    private final ReadingAnomalyDetector detector = new ReadingAnomalyDetector(environment(Map.of(
+            "alerts.anomaly.warmup-samples", "10",
+            "alerts.anomaly.initial-capacity", "4",
+            "alerts.anomaly.stripes", "2",
+            "alerts.anomaly.rate-limit.temperature_sensor", "1.0")));
+    
+    @Test
+    void noAnomalyDuringWarmup() {
+        assertThat(detector.observe(1, DeviceType.GENERIC, START, "20")).isNull();
+        assertThat(detector.observe(1, DeviceType.GENERIC, START.plusMinutes(1), "500")).isNull();
+    }
+    
+    @Test
+    void outlierRaisesZScoreAnomalyUntilTheNextNormalReading() {
+        warmUp(1, DeviceType.GENERIC);
+        
+        assertThat(detector.observe(1, DeviceType.GENERIC, START.plusHours(1), "40"))
+                .satisfies(rule -> assertThat(rule.alertType()).isEqualTo(AlertType.READING_ANOMALY))
+                .isNotSameAs(ReadingAnomalyDetector.RATE_ANOMALY);
+        // Leitura sem valor numérico mantém o estado
+        assertThat(detector.observe(1, DeviceType.GENERIC, START.plusHours(1).plusMinutes(1), "status=ok")).isNotNull();
+        assertThat(detector.isAnomalous(1)).isTrue();
+        assertThat(detector.observe(1, DeviceType.GENERIC, START.plusHours(1).plusMinutes(2), "20.2")).isNull();
+    }
+    
+    @Test
+    void fastChangeRaisesRateAnomalyForTheType() {
+        warmUp(1, DeviceType.TEMPERATURE_SENSOR);
+        warmUp(2, DeviceType.GENERIC);
+        
+        // 0,1 °C em 20 s fica abaixo de 1 °C/s; 30 °C em 10 s passa
+        assertThat(detector.observe(1, DeviceType.TEMPERATURE_SENSOR, START.plusSeconds(600 + 10), "20,5")).isNull();
+        assertThat(detector.observe(1, DeviceType.TEMPERATURE_SENSOR, START.plusSeconds(600 + 20), "5.05e1"))
+                .isSameAs(ReadingAnomalyDetector.RATE_ANOMALY);
+        // Sem limite configurado para o tipo, só o z-score vale
+        assertThat(detector.observe(2, DeviceType.GENERIC, START.plusSeconds(600 + 20), "value=20.3;battery=80"))
+                .isNull();
+    }
+    
+    @Test
+    void forgetDiscardsTheDeviceAndTheTableGrows() {
+        for (long id = 1; id <= 100; id++) {
+            detector.observe(id, DeviceType.GENERIC, START, "20");
+        }
+        assertThat(detector.size()).isEqualTo(100);
+        
+        detector.forget(50);
+        assertThat(detector.size()).isEqualTo(99);
+        assertThat(detector.anomalyOf(50)).isNull();
+        // Os demais continuam acessíveis depois da remoção
+        for (long id = 1; id <= 100; id++) {
+            if (id != 50) {
+                detector.observe(id, DeviceType.GENERIC, START.plusMinutes(1), "20");
+            }
+        }
+        assertThat(detector.size()).isEqualTo(99);
+    }
+    
+    @Test
+    void concurrentReadingsKeepEachDeviceState() throws Exception {
+        ReadingAnomalyDetector striped = new ReadingAnomalyDetector(environment(Map.of(
+                "alerts.anomaly.warmup-samples", "10",
+                "alerts.anomaly.initial-capacity", "16")));
+        
+        // 8 threads intercaladas sobre 2.000 dispositivos; o último da faixa de cada thread recebe um outlier
+        try (ExecutorService threads = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                int first = thread;
+                futures.add(threads.submit(() -> {
+                    for (int n = 0; n < 30; n++) {
+                        for (long id = first + 1; id <= 2_000; id += 8) {
+                            striped.observe(id, DeviceType.GENERIC, START.plusSeconds(n * 10L), n % 2 == 0 ? "20.0" : "20.4");
+                        }
+                    }
+                    striped.observe(first + 1, DeviceType.GENERIC, START.plusHours(1), "40");
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        
+        assertThat(striped.size()).isEqualTo(2_000);
+        for (long id = 1; id <= 2_000; id++) {
+            assertThat(striped.isAnomalous(id)).as("dispositivo %d", id).isEqualTo(id <= 8);
+        }
+    }
+    
+    @Test
+    void parsesThePlainNumberOrTheValueKey() {
+        assertThat(ReadingAnomalyDetector.parseValue(" 23.5 ")).isEqualTo(23.5);
+        assertThat(ReadingAnomalyDetector.parseValue("23,5")).isEqualTo(23.5);
+        assertThat(ReadingAnomalyDetector.parseValue("2.35E1")).isEqualTo(23.5);
+        assertThat(ReadingAnomalyDetector.parseValue("battery=80;value=23,5")).isEqualTo(23.5);
+        assertThat(ReadingAnomalyDetector.parseValue("value:23,battery:80")).isEqualTo(23);
+        assertThat(ReadingAnomalyDetector.parseValue("rawvalue=1")).isNaN();
+        assertThat(ReadingAnomalyDetector.parseValue("value=alto")).isNaN();
+    }
+    
+    @Test
+    void disabledDetectorNeverReportsAnomalies() {
+        ReadingAnomalyDetector disabled = new ReadingAnomalyDetector(environment(Map.of("alerts.anomaly.enabled", "false")));
+        for (int n = 0; n < 50; n++) {
+            disabled.observe(1, DeviceType.GENERIC, START.plusMinutes(n), n == 49 ? "1000" : "20");
+        }
+        assertThat(disabled.anomalyOf(1)).isNull();
+    }
+    
+    @Test
+    void invalidConfigurationFailsAtStartup() {
+        assertThatThrownBy(() -> new ReadingAnomalyDetector(environment(Map.of("alerts.anomaly.ewma-alpha", "1.5"))))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new ReadingAnomalyDetector(environment(Map.of(
+                "alerts.anomaly.rate-limit.oxygen_meter", "0"))))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new ReadingAnomalyDetector(environment(Map.of("alerts.anomaly.stripes", "12"))))
+                .isInstanceOf(IllegalStateException.class);
+    }
+    
+    /**
+     * 60 leituras a cada 10 s oscilando entre 20,0 e 20,4
+     */
+    private void warmUp(long deviceId, DeviceType type) {
+        for (int n = 0; n < 60; n++) {
+            detector.observe(deviceId, type, START.plusSeconds(n * 10L), n % 2 == 0 ? "20.0" : "20.4");
+        }
+    }
+    
+    private static StandardEnvironment environment(Map<String, Object> properties) {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test", properties));
+        return environment;
+    }
+}
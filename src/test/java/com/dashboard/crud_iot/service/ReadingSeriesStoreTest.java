@@ -0,0 +1,194 @@
+package com.dashboard.crud_iot.service;
+
+import com.dashboard.crud_iot.dto.ReadingPointDTO;
+import com.dashboard.crud_iot.dto.ReadingSeriesDTO;
+import com.dashboard.crud_iot.repositories.DeviceRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Ida e volta das leituras pelos blocos comprimidos, em memória e pelo arquivo.
+ */
+class ReadingSeriesStoreTest {
+    
+    private static final long START = LocalDateTime.of(2024, 1, 15, 0, 0).toEpochSecond(ZoneOffset.UTC);
+    
+    @TempDir
+    Path directory;
+    
+    private final DeviceRepository deviceRepository = mock(DeviceRepository.class);
+    
+    @Test
+    void blocksDecodeExactlyWhatWasAppended() {
+        SplittableRandom random = new SplittableRandom(42);
+        long[] seconds = new long[20_000];
+        double[] values = new double[seconds.length];
+        long second = START;
+        double[] specials = {Double.NaN, Double.POSITIVE_INFINITY, -0.0, Double.MIN_VALUE, -1e300};
+        for (int i = 0; i < seconds.length; i++) {
+            // Intervalos regulares, repetidos, com jitter e saltos que estouram todos os prefixos
+            second += switch (random.nextInt(6)) {
+                case 0 -> 0;
+                case 1 -> 60 + random.nextInt(-3, 4);
+                case 2 -> random.nextInt(3_000);
+                case 3 -> random.nextInt(10_000_000);
+                default -> 60;
+            };
+            seconds[i] = second;
+            values[i] = switch (random.nextInt(5)) {
+                case 0 -> i > 0 ? values[i - 1] : 0;
+                case 1 -> specials[random.nextInt(specials.length)];
+                case 2 -> random.nextGaussian() * 1e6;
+                default -> Math.round(random.nextDouble(15, 30) * 10) / 10.0;
+            };
+        }
+        
+        List<ReadingBlock> blocks = new ArrayList<>();
+        ReadingBlock block = new ReadingBlock();
+        for (int i = 0; i < seconds.length; i++) {
+            if (!block.append(seconds[i], values[i])) {
+                block.seal();
+                blocks.add(block);
+                block = new ReadingBlock();
+                assertThat(block.append(seconds[i], values[i])).isTrue();
+            }
+        }
+        blocks.add(block);
+        
+        ReadingBlock.Cursor cursor = new ReadingBlock.Cursor();
+        int index = 0;
+        for (ReadingBlock encoded : blocks) {
+            cursor.reset(encoded);
+            while (cursor.next()) {
+                assertThat(cursor.epochSecond()).isEqualTo(seconds[index]);
+                assertThat(Double.doubleToRawLongBits(cursor.value())).isEqualTo(Double.doubleToRawLongBits(values[index]));
+                index++;
+            }
+        }
+        assertThat(index).isEqualTo(seconds.length);
+        assertThat(blocks).hasSizeGreaterThan(1);
+    }
+    
+    @Test
+    void seriesSurvivesFlushEvictionAndRestart() {
+        // Três dias a cada 10 s: vários blocos por dia, a maior parte só no arquivo
+        ReadingSeriesStore store = new ReadingSeriesStore(deviceRepository, true, 2, directory.toString());
+        int pointsPerDay = 6 * 60 * 24;
+        int points = 3 * pointsPerDay;
+        for (int i = 0; i < points; i++) {
+            store.append(7L, START + i * 10L, i % 60 < 30 ? 20.0 : 21.0);
+            if (i % pointsPerDay == pointsPerDay - 1) {
+                store.flush();
+            }
+        }
+        store.append(7L, START, 99.0);
+        
+        LocalDateTime now = LocalDateTime.ofEpochSecond(START + points * 10L, 0, ZoneOffset.UTC);
+        ReadingSeriesDTO beforeRestart = store.getSeries(7L, "72h", "1h", now);
+        store.close();
+        ReadingSeriesStore restarted = new ReadingSeriesStore(deviceRepository, true, 2, directory.toString());
+        ReadingSeriesDTO afterRestart = restarted.getSeries(7L, "72h", "1h", now);
+        
+        assertThat(store.getOutOfOrderPoints()).isEqualTo(1);
+        assertThat(beforeRestart.getTotalPoints()).isEqualTo(points);
+        assertThat(beforeRestart.getPoints()).hasSize(72);
+        for (ReadingPointDTO point : beforeRestart.getPoints()) {
+            assertThat(point.getCount()).isEqualTo(360);
+            assertThat(point.getMin()).isEqualTo(20.0);
+            assertThat(point.getMax()).isEqualTo(21.0);
+            assertThat(point.getAvg()).isEqualTo(20.5);
+        }
+        assertThat(beforeRestart.getBytesPerPoint()).isLessThan(2.0);
+        // O bloco aberto foi selado e gravado no desligamento: nada se perde no reinício
+        assertThat(afterRestart.getTotalPoints()).isEqualTo(points);
+        assertThat(afterRestart.getPoints()).isEqualTo(beforeRestart.getPoints());
+        
+        // A série continua depois do último ponto gravado
+        restarted.append(7L, START + points * 10L - 20, 50.0);
+        restarted.append(7L, START + points * 10L, 21.0);
+        assertThat(restarted.getOutOfOrderPoints()).isEqualTo(1);
+        
+        long[] scanned = new long[2];
+        restarted.scan(7L, START, START + 3_599, (second, value) -> {
+            scanned[0]++;
+            scanned[1] += (long) value;
+        });
+        assertThat(scanned[0]).isEqualTo(360);
+        assertThat(scanned[1]).isEqualTo(180 * 20 + 180 * 21);
+    }
+    
+    @Test
+    void forgottenDevicesStayForgotten() {
+        ReadingSeriesStore store = new ReadingSeriesStore(deviceRepository, true, 8, directory.toString());
+        for (int i = 0; i < 100; i++) {
+            store.append(7L, START + i * 10L, 20.0);
+        }
+        store.close();
+        assertThat(directory.resolve("7.blocks")).exists();
+        
+        store.forget(7L);
+        // Heartbeat atrasado de um dispositivo já removido
+        store.append(7L, START + 1_000, 21.0);
+        store.close();
+        
+        assertThat(directory.resolve("7.blocks")).doesNotExist();
+        assertThat(store.footprint()).containsExactly(0, 0);
+        assertThat(new ReadingSeriesStore(deviceRepository, true, 8, directory.toString()).footprint()).containsExactly(0, 0);
+    }
+    
+    @Test
+    void restartDropsReadingsOfDeletedAndRecreatedDevices() {
+        ReadingSeriesStore store = new ReadingSeriesStore(deviceRepository, true, 8, directory.toString());
+        for (long id = 7; id <= 9; id++) {
+            for (int i = 0; i < 100; i++) {
+                store.append(id, START + i * 10L, 20.0);
+            }
+        }
+        store.close();
+        
+        // No reinício o banco só tem o 8 original e um dispositivo novo que recebeu o id 7; o 9 foi removido
+        LocalDateTime created = LocalDateTime.ofEpochSecond(START - 86_400, 0, ZoneOffset.UTC);
+        LocalDateTime recreated = LocalDateTime.ofEpochSecond(START + 5_000, 0, ZoneOffset.UTC);
+        when(deviceRepository.findAllCreationTimes()).thenReturn(List.of(creationTime(7L, recreated),
+                creationTime(8L, created)));
+        ReadingSeriesStore restarted = new ReadingSeriesStore(deviceRepository, true, 8, directory.toString());
+        restarted.reconcile();
+        
+        LocalDateTime now = LocalDateTime.ofEpochSecond(START + 6_000, 0, ZoneOffset.UTC);
+        assertThat(restarted.getSeries(7L, "2h", "1m", now).getTotalPoints()).isZero();
+        assertThat(restarted.getSeries(8L, "2h", "1m", now).getTotalPoints()).isEqualTo(100);
+        assertThat(restarted.getSeries(9L, "2h", "1m", now).getTotalPoints()).isZero();
+        assertThat(directory.resolve("7.blocks")).doesNotExist();
+        assertThat(directory.resolve("8.blocks")).exists();
+        assertThat(directory.resolve("9.blocks")).doesNotExist();
+        
+        // O dispositivo novo começa uma série própria
+        restarted.append(7L, START + 5_500, 30.0);
+        assertThat(restarted.getSeries(7L, "2h", "1m", now).getTotalPoints()).isEqualTo(1);
+    }
+    
+    private static DeviceRepository.CreationTime creationTime(long id, LocalDateTime createdAt) {
+        return new DeviceRepository.CreationTime() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+            
+            @Override
+            public LocalDateTime getCreatedAt() {
+                return createdAt;
+            }
+        };
+    }
+}
@@ -0,0 +1,86 @@
+package com.dashboard.crud_iot.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Codificação dos intervalos online em varints delta e leitura de volta.
+ */
+class UptimeLogTest {
+    
+    private static final long START = 1_700_000_000L;
+    
+    @Test
+    void contiguousHeartbeatsExtendTheOpenIntervalWithoutEncoding() {
+        UptimeLog log = new UptimeLog(START);
+        for (int minute = 0; minute < 1440; minute++) {
+            log.markOnline(START + minute * 60L, START + (minute + 1) * 60L);
+        }
+        
+        assertThat(log.encodedSize()).isZero();
+        assertThat(log.onlineSeconds(START, START + 86_400)).isEqualTo(86_400);
+        assertThat(log.outages(START, START + 86_400)).isZero();
+    }
+    
+    @Test
+    void outagesAreEncodedAsShortVarints() {
+        UptimeLog log = new UptimeLog(START);
+        long expected = 0;
+        long at = START;
+        // 100 intervalos de 10 min separados por quedas de 5 min
+        for (int i = 0; i < 100; i++) {
+            log.markOnline(at, at + 600);
+            expected += 600;
+            at += 900;
+        }
+        
+        // O primeiro intervalo fechado começa na base (1 byte); os demais têm queda de 300 s
+        // e duração de 600 s, 2 bytes cada
+        assertThat(log.encodedSize()).isEqualTo(3 + 98 * 4);
+        assertThat(log.onlineSeconds(START, at)).isEqualTo(expected);
+        assertThat(log.outages(START, at)).isEqualTo(100);
+        // Janela que corta intervalos ao meio
+        assertThat(log.onlineSeconds(START + 300, START + 1_200)).isEqualTo(300 + 300);
+    }
+    
+    @Test
+    void largeGapsRoundTripThroughMultiByteVarints() {
+        UptimeLog log = new UptimeLog(START);
+        log.markOnline(START, START + 1);
+        // Quedas de ~1 ano e de ~34 anos (delta acima de 2^28, 5 bytes)
+        long second = START + 31_536_000L;
+        log.markOnline(second, second + 7);
+        long third = second + 1_100_000_000L;
+        log.markOnline(third, third + 13);
+        log.markOnline(third + 100, third + 101);
+        
+        assertThat(log.onlineSeconds(START, third + 200)).isEqualTo(1 + 7 + 13 + 1);
+        assertThat(log.onlineSeconds(second, second + 7)).isEqualTo(7);
+        assertThat(log.onlineSeconds(third + 5, third + 200)).isEqualTo(8 + 1);
+    }
+    
+    @Test
+    void compactDropsOldIntervalsAndKeepsTheRest() {
+        UptimeLog log = new UptimeLog(START);
+        for (int i = 0; i < 10; i++) {
+            log.markOnline(START + i * 1_000L, START + i * 1_000L + 100);
+        }
+        int before = log.encodedSize();
+        
+        log.compact(START + 5_000);
+        assertThat(log.encodedSize()).isLessThan(before);
+        assertThat(log.onlineSeconds(START, START + 10_000)).isEqualTo(5 * 100);
+        assertThat(log.outages(START + 5_000, START + 10_000)).isEqualTo(5);
+    }
+    
+    @Test
+    void truncateRemovesTheFuturePartOfTheOpenInterval() {
+        UptimeLog log = new UptimeLog(START);
+        log.markOnline(START, START + 600);
+        
+        assertThat(log.truncate(START + 200)).containsExactly(START + 200, START + 600);
+        assertThat(log.onlineSeconds(START, START + 600)).isEqualTo(200);
+        assertThat(log.markOnline(START - 100, START + 100)).isNull();
+    }
+}
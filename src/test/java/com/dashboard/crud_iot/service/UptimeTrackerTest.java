@@ -0,0 +1,126 @@
+package com.dashboard.crud_iot.service;
+
+import com.dashboard.crud_iot.dto.DeviceUptimeDTO;
+import com.dashboard.crud_iot.enums.DeviceType;
+import com.dashboard.crud_iot.events.DeviceHeartbeatEvent;
+import com.dashboard.crud_iot.repositories.DeviceRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Uptime da frota pelos anéis por minuto, com heartbeats concorrentes e reconstrução.
+ */
+class UptimeTrackerTest {
+    
+    private static final int DEVICES = 200;
+    
+    private final DeviceRepository deviceRepository = mock(DeviceRepository.class);
+    private final UptimeTracker tracker = new UptimeTracker(deviceRepository,
+            new DeviceReportIntervals(new StandardEnvironment()), Duration.ofDays(1), 99.5);
+    
+    @Test
+    void concurrentHeartbeatsKeepTheWholeFleetOnline() throws Exception {
+        when(deviceRepository.findAllLastCommunications()).thenReturn(fleet(DEVICES));
+        tracker.rebuild();
+        LocalDateTime start = LocalDateTime.now();
+        
+        // Cada dispositivo comunica a cada 60 s, por 20 min, a partir de 8 threads
+        try (ExecutorService threads = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                int first = thread;
+                futures.add(threads.submit(() -> {
+                    for (int minute = 0; minute <= 20; minute++) {
+                        for (long id = first; id < DEVICES; id += 8) {
+                            tracker.onHeartbeat(new DeviceHeartbeatEvent(id, start.plusMinutes(minute), null));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        
+        // Minutos completos depois do primeiro, todos cobertos pelos heartbeats
+        assertThat(tracker.getFleetUptime(Duration.ofMinutes(18), start.plusMinutes(20))).isEqualTo(100.0);
+    }
+    
+    @Test
+    void silentDevicesCountAsOffline() {
+        when(deviceRepository.findAllLastCommunications()).thenReturn(fleet(2));
+        tracker.rebuild();
+        LocalDateTime start = LocalDateTime.now();
+        for (int minute = 0; minute <= 10; minute++) {
+            tracker.onHeartbeat(new DeviceHeartbeatEvent(0L, start.plusMinutes(minute), null));
+        }
+        
+        assertThat(tracker.getFleetUptime(Duration.ofMinutes(8), start.plusMinutes(10))).isEqualTo(50.0);
+    }
+    
+    @Test
+    void rebuildReplacesTheTrackedFleet() {
+        when(deviceRepository.findAllLastCommunications()).thenReturn(fleet(3));
+        tracker.rebuild();
+        assertThat(tracker.getDeviceUptime(2L, "1h", LocalDateTime.now())).isPresent();
+        
+        when(deviceRepository.findAllLastCommunications()).thenReturn(fleet(1));
+        tracker.rebuild();
+        assertThat(tracker.getDeviceUptime(0L, "1h", LocalDateTime.now())).isPresent();
+        assertThat(tracker.getDeviceUptime(2L, "1h", LocalDateTime.now())).isEmpty();
+    }
+    
+    @Test
+    void deviceUptimeCoversTheWindowWithinRetention() {
+        when(deviceRepository.findAllLastCommunications()).thenReturn(fleet(1));
+        tracker.rebuild();
+        LocalDateTime start = LocalDateTime.now();
+        for (int minute = 0; minute <= 10; minute++) {
+            tracker.onHeartbeat(new DeviceHeartbeatEvent(0L, start.plusMinutes(minute), null));
+        }
+        
+        DeviceUptimeDTO uptime = tracker.getDeviceUptime(0L, "5m", start.plusMinutes(10)).orElseThrow();
+        assertThat(uptime.getWindow()).isEqualTo("5m");
+        assertThat(uptime.getOnlineSeconds()).isEqualTo(uptime.getObservedSeconds()).isEqualTo(300);
+        assertThat(tracker.getDeviceUptime(-1L, "5m", start)).isEmpty();
+        assertThatThrownBy(() -> tracker.getDeviceUptime(0L, "7d", start))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    private static List<DeviceRepository.LastCommunication> fleet(int size) {
+        List<DeviceRepository.LastCommunication> rows = new ArrayList<>();
+        for (long i = 0; i < size; i++) {
+            long id = i;
+            rows.add(new DeviceRepository.LastCommunication() {
+                @Override
+                public Long getId() {
+                    return id;
+                }
+                
+                @Override
+                public DeviceType getDeviceType() {
+                    return DeviceType.GENERIC;
+                }
+                
+                @Override
+                public LocalDateTime getLastCommunication() {
+                    return null;
+                }
+            });
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,74 @@
+package com.dashboard.crud_iot.simulator;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latências (HdrHistogram, µs) e códigos de resposta de um endpoint.
+ * 
+ * A latência é medida a partir do instante planejado da requisição, não do envio,
+ * para não esconder a espera causada por um servidor lento (coordinated omission).
+ */
+final class EndpointStats {
+    
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+    
+    private final String endpoint;
+    private final Histogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    private final LongAdder success = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    
+    EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+    
+    void record(long latencyMicros, int status) {
+        latency.recordValue(Math.min(Math.max(latencyMicros, 1), MAX_LATENCY_MICROS));
+        if (status < 400) {
+            success.increment();
+        } else if (status == 429) {
+            throttled.increment();
+        } else if (status < 500) {
+            clientErrors.increment();
+        } else {
+            serverErrors.increment();
+        }
+    }
+    
+    void recordFailure() {
+        failures.increment();
+    }
+    
+    long count() {
+        return latency.getTotalCount() + failures.sum();
+    }
+    
+    static void printHeader(PrintStream out) {
+        out.printf("%-40s %9s %9s %9s %9s %9s %9s %9s %7s %6s %6s %6s%n",
+                "Endpoint", "Reqs", "Req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms",
+                "2xx", "4xx", "429", "5xx/err");
+    }
+    
+    void print(PrintStream out, double elapsedSeconds) {
+        out.printf("%-40s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %7d %6d %6d %6d%n",
+                endpoint,
+                count(),
+                count() / elapsedSeconds,
+                latency.getValueAtPercentile(50) / 1000.0,
+                latency.getValueAtPercentile(90) / 1000.0,
+                latency.getValueAtPercentile(99) / 1000.0,
+                latency.getValueAtPercentile(99.9) / 1000.0,
+                latency.getMaxValue() / 1000.0,
+                success.sum(),
+                clientErrors.sum(),
+                throttled.sum(),
+                serverErrors.sum() + failures.sum());
+    }
+}
@@ -0,0 +1,236 @@
+package com.dashboard.crud_iot.simulator;
+
+import com.dashboard.crud_iot.simulator.SimulatedRequest.Kind;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Simulador de frota para testes de carga de ponta a ponta contra uma instância local.
+ * 
+ * Cria a frota via POST /api/devices e então gera heartbeats com jitter, quedas de
+ * dispositivos, mudanças de status e clientes do dashboard consultando estatísticas.
+ * Ao final imprime vazão e percentis por endpoint. O tráfego pode ser gravado
+ * (--record=arquivo) e reproduzido depois em velocidade N× (--replay=arquivo --speed=N).
+ * 
+ * Uso: mvn test-compile exec:java -Dexec.classpathScope=test
+ *        -Dexec.mainClass=com.dashboard.crud_iot.simulator.FleetSimulator
+ *        -Dexec.args="--devices=5000 --heartbeat-interval-ms=10000 --duration-seconds=120"
+ */
+public final class FleetSimulator {
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String[] TYPES = {"TRACKER", "TEMPERATURE_SENSOR", "VIBRATION_SENSOR",
+            "OXYGEN_METER", "HUMIDITY_SENSOR", "PRESSURE_SENSOR", "GENERIC"};
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final int PROVISIONING_ATTEMPTS = 5;
+    
+    private final SimulatorOptions options;
+    private final HttpClient client;
+    private final Semaphore inFlight;
+    private final Map<Kind, EndpointStats> stats = new EnumMap<>(Kind.class);
+    private final EndpointStats provisioning = new EndpointStats("POST /api/devices");
+    private long[] deviceIds;
+    private String runId;
+    
+    FleetSimulator(SimulatorOptions options) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        this.inFlight = new Semaphore(options.maxInFlight());
+        for (Kind kind : Kind.values()) {
+            stats.put(kind, new EndpointStats(kind.endpoint));
+        }
+    }
+    
+    public static void main(String[] args) throws Exception {
+        SimulatorOptions options = SimulatorOptions.parse(args);
+        new FleetSimulator(options).run();
+    }
+    
+    void run() throws Exception {
+        if (options.replay() != null) {
+            try (TrafficTrace.Reader trace = new TrafficTrace.Reader(options.replay())) {
+                provision(trace.devices());
+                System.out.printf("Reproduzindo %s a %.1fx%n", options.replay(), options.speed());
+                drive(trace, options.speed(), null);
+            }
+        } else {
+            provision(options.devices());
+            ScenarioGenerator scenario = new ScenarioGenerator(options);
+            if (options.record() != null) {
+                try (TrafficTrace.Writer trace = new TrafficTrace.Writer(options.record(), options.devices())) {
+                    drive(scenario, 1, trace);
+                }
+                System.out.println("Tráfego gravado em " + options.record());
+            } else {
+                drive(scenario, 1, null);
+            }
+        }
+    }
+    
+    /**
+     * Cria a frota com identificadores únicos por execução
+     */
+    private void provision(int devices) throws InterruptedException {
+        runId = Long.toString(System.currentTimeMillis(), 36).toUpperCase();
+        deviceIds = new long[devices];
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int index = 0; index < devices; index++) {
+                int device = index;
+                inFlight.acquire();
+                executor.submit(() -> {
+                    try {
+                        deviceIds[device] = create(device);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long created = Arrays.stream(deviceIds).filter(id -> id > 0).count();
+        System.out.printf("%d de %d dispositivos criados em %.1f s%n", created, devices, seconds);
+        EndpointStats.printHeader(System.out);
+        provisioning.print(System.out, seconds);
+    }
+    
+    /**
+     * Cria um dispositivo, repetindo quando a aplicação pede para aguardar (429/503 com Retry-After)
+     * @return ID criado ou 0 se não foi possível criar
+     */
+    private long create(int device) {
+        String body = String.format("""
+                {"deviceName":"Simulado %1$s-%2$d","deviceIdentifier":"SIM-%1$s-%2$07d",\
+                "deviceType":"%3$s","location":"Simulação - Bloco %4$d - Sala %5$d"}""",
+                runId, device, TYPES[device % TYPES.length], device % 20, device % 50);
+        try {
+            for (int attempt = 1; attempt <= PROVISIONING_ATTEMPTS; attempt++) {
+                long start = System.nanoTime();
+                HttpResponse<String> response = client.send(request("/api/devices")
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(), HttpResponse.BodyHandlers.ofString());
+                provisioning.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start), response.statusCode());
+                if (response.statusCode() == 201) {
+                    return MAPPER.readTree(response.body()).path("id").asLong();
+                }
+                if (response.statusCode() != 429 && response.statusCode() != 503) {
+                    return 0;
+                }
+                long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(1);
+                Thread.sleep(TimeUnit.SECONDS.toMillis(retryAfter));
+            }
+        } catch (IOException e) {
+            provisioning.recordFailure();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 0;
+    }
+    
+    /**
+     * Dispara as requisições nos instantes planejados (divididos pela velocidade)
+     */
+    private void drive(Iterator<SimulatedRequest> traffic, double speed, TrafficTrace.Writer recorder)
+            throws InterruptedException {
+        long started = System.nanoTime();
+        long nextReport = started + REPORT_INTERVAL_NANOS;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (traffic.hasNext()) {
+                SimulatedRequest simulated = traffic.next();
+                if (simulated.deviceIndex() >= 0 && deviceId(simulated) == 0) {
+                    // Dispositivo que não pôde ser criado: não há para onde enviar
+                    continue;
+                }
+                long intended = started + (long) (simulated.offsetMicros() * 1_000 / speed);
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (recorder != null) {
+                    recorder.write(simulated);
+                }
+                inFlight.acquire();
+                executor.submit(() -> {
+                    try {
+                        send(simulated, intended);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+                if (System.nanoTime() >= nextReport) {
+                    report(started);
+                    nextReport += REPORT_INTERVAL_NANOS;
+                }
+            }
+        }
+        System.out.println();
+        System.out.println("Resultado final:");
+        report(started);
+    }
+    
+    private void send(SimulatedRequest simulated, long intendedNanos) {
+        EndpointStats endpoint = stats.get(simulated.kind());
+        HttpRequest request = switch (simulated.kind()) {
+            case HEARTBEAT -> request("/api/devices/" + deviceId(simulated) + "/communication?reading="
+                    + URLEncoder.encode(simulated.argument(), StandardCharsets.UTF_8))
+                    .header("Prefer", "return=minimal")
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                    .build();
+            case STATUS_CHANGE -> request("/api/devices/" + deviceId(simulated))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(String.format("""
+                            {"deviceName":"Simulado %1$s-%2$d","deviceType":"%3$s","status":"%4$s","isActive":true}""",
+                            runId, simulated.deviceIndex(), TYPES[simulated.deviceIndex() % TYPES.length],
+                            simulated.argument())))
+                    .build();
+            case POLL_STATS -> request("/api/dashboard/stats").GET().build();
+            case POLL_ALERTS -> request("/api/dashboard/alerts").GET().build();
+        };
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            endpoint.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedNanos), response.statusCode());
+        } catch (IOException e) {
+            endpoint.recordFailure();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private long deviceId(SimulatedRequest simulated) {
+        return deviceIds[simulated.deviceIndex() % deviceIds.length];
+    }
+    
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(options.baseUrl() + path)).timeout(Duration.ofSeconds(30));
+    }
+    
+    private void report(long startedNanos) {
+        double elapsed = (System.nanoTime() - startedNanos) / 1e9;
+        System.out.printf("%n[%.0f s]%n", elapsed);
+        EndpointStats.printHeader(System.out);
+        stats.values().stream()
+                .filter(endpoint -> endpoint.count() > 0)
+                .forEach(endpoint -> endpoint.print(System.out, elapsed));
+    }
+}
@@ -0,0 +1,106 @@
+package com.dashboard.crud_iot.simulator;
+
+import com.dashboard.crud_iot.simulator.SimulatedRequest.Kind;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gera o tráfego do cenário em ordem de tempo, de forma determinística pela semente.
+ * 
+ * Cada dispositivo, poller e o gerador de mudanças de status é uma fonte com seu próximo
+ * disparo numa fila de prioridade, então a memória é proporcional à frota e não à duração.
+ */
+final class ScenarioGenerator implements Iterator<SimulatedRequest> {
+    
+    private static final String[] STATUSES = {"ACTIVE", "ACTIVE", "ACTIVE", "MAINTENANCE", "ERROR", "INACTIVE"};
+    private static final int STATUS_SOURCE = -2;
+    
+    private final SimulatorOptions options;
+    private final SplittableRandom random;
+    private final long endMicros;
+    private final long heartbeatMicros;
+    private final PriorityQueue<long[]> sources = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+    private SimulatedRequest next;
+    
+    ScenarioGenerator(SimulatorOptions options) {
+        this.options = options;
+        this.random = new SplittableRandom(options.seed());
+        this.endMicros = TimeUnit.NANOSECONDS.toMicros(options.duration().toNanos());
+        this.heartbeatMicros = TimeUnit.NANOSECONDS.toMicros(options.heartbeatInterval().toNanos());
+        
+        // Fontes: {próximo disparo, índice}; índices >= 0 são dispositivos, < -2 são pollers
+        for (int device = 0; device < options.devices(); device++) {
+            sources.add(new long[]{random.nextLong(Math.max(1, heartbeatMicros)), device});
+        }
+        for (int poller = 0; poller < options.pollers(); poller++) {
+            long pollMicros = TimeUnit.NANOSECONDS.toMicros(options.pollInterval().toNanos());
+            sources.add(new long[]{random.nextLong(Math.max(1, pollMicros)), -3 - poller});
+        }
+        if (options.statusChangesPerMinute() > 0) {
+            sources.add(new long[]{statusInterval(), STATUS_SOURCE});
+        }
+        advance();
+    }
+    
+    @Override
+    public boolean hasNext() {
+        return next != null;
+    }
+    
+    @Override
+    public SimulatedRequest next() {
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+        SimulatedRequest current = next;
+        advance();
+        return current;
+    }
+    
+    private void advance() {
+        next = null;
+        while (next == null && !sources.isEmpty() && sources.peek()[0] < endMicros) {
+            long[] source = sources.poll();
+            long at = source[0];
+            int index = (int) source[1];
+            if (index >= 0) {
+                next = heartbeat(at, index, source);
+            } else if (index == STATUS_SOURCE) {
+                next = new SimulatedRequest(at, Kind.STATUS_CHANGE, random.nextInt(options.devices()),
+                        STATUSES[random.nextInt(STATUSES.length)]);
+                source[0] = at + statusInterval();
+            } else {
+                // Pollers alternam entre estatísticas e alertas
+                boolean stats = random.nextBoolean();
+                next = new SimulatedRequest(at, stats ? Kind.POLL_STATS : Kind.POLL_ALERTS, -1, "");
+                source[0] = at + jittered(TimeUnit.NANOSECONDS.toMicros(options.pollInterval().toNanos()));
+            }
+            sources.add(source);
+        }
+    }
+    
+    private SimulatedRequest heartbeat(long at, int device, long[] source) {
+        if (random.nextDouble() < options.dropoutProbability()) {
+            // Dispositivo cai: fica em silêncio pelo tempo de dropout e não envia este heartbeat
+            source[0] = at + TimeUnit.NANOSECONDS.toMicros(options.dropoutDuration().toNanos());
+            return null;
+        }
+        source[0] = at + jittered(heartbeatMicros);
+        return new SimulatedRequest(at, Kind.HEARTBEAT, device, String.format("%.2f", 20 + random.nextDouble(10)));
+    }
+    
+    private long jittered(long intervalMicros) {
+        double factor = 1 + options.jitter() * (2 * random.nextDouble() - 1);
+        return Math.max(1, (long) (intervalMicros * factor));
+    }
+    
+    private long statusInterval() {
+        // Chegadas de Poisson com a taxa configurada
+        double meanMicros = 60_000_000.0 / options.statusChangesPerMinute();
+        return Math.max(1, (long) (-Math.log(1 - random.nextDouble()) * meanMicros));
+    }
+}
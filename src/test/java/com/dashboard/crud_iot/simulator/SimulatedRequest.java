@@ -0,0 +1,25 @@
+package com.dashboard.crud_iot.simulator;
+
+/**
+ * Requisição do cenário simulado, no instante relativo ao início da execução.
+ * 
+ * @param offsetMicros Instante planejado, em microssegundos desde o início
+ * @param kind Tipo da requisição
+ * @param deviceIndex Índice do dispositivo na frota simulada (não o ID do banco), -1 se não se aplica
+ * @param argument Leitura do heartbeat ou novo status; vazio se não se aplica
+ */
+record SimulatedRequest(long offsetMicros, Kind kind, int deviceIndex, String argument) {
+    
+    enum Kind {
+        HEARTBEAT("PATCH /api/devices/{id}/communication"),
+        STATUS_CHANGE("PUT /api/devices/{id}"),
+        POLL_STATS("GET /api/dashboard/stats"),
+        POLL_ALERTS("GET /api/dashboard/alerts");
+        
+        final String endpoint;
+        
+        Kind(String endpoint) {
+            this.endpoint = endpoint;
+        }
+    }
+}
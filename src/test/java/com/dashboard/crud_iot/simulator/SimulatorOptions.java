@@ -0,0 +1,70 @@
+package com.dashboard.crud_iot.simulator;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Opções do simulador, no formato --nome=valor.
+ * 
+ * @param baseUrl URL da aplicação já iniciada
+ * @param devices Tamanho da frota criada via POST /api/devices
+ * @param heartbeatInterval Intervalo médio entre heartbeats de cada dispositivo
+ * @param jitter Variação relativa do intervalo (0.2 = ±20%)
+ * @param dropoutProbability Probabilidade, por heartbeat, de o dispositivo ficar offline
+ * @param dropoutDuration Tempo que um dispositivo fica sem enviar heartbeats
+ * @param statusChangesPerMinute Mudanças de status (PUT) por minuto em toda a frota
+ * @param pollers Clientes do dashboard consultando estatísticas e alertas
+ * @param pollInterval Intervalo entre consultas de cada cliente do dashboard
+ * @param duration Duração do cenário
+ * @param maxInFlight Limite de requisições simultâneas
+ * @param seed Semente do cenário (mesma semente, mesmo tráfego)
+ * @param record Arquivo onde gravar o tráfego gerado, ou null
+ * @param replay Arquivo de tráfego a reproduzir no lugar do cenário, ou null
+ * @param speed Fator de aceleração da reprodução (2 = duas vezes mais rápido)
+ */
+record SimulatorOptions(URI baseUrl,
+                        int devices,
+                        Duration heartbeatInterval,
+                        double jitter,
+                        double dropoutProbability,
+                        Duration dropoutDuration,
+                        double statusChangesPerMinute,
+                        int pollers,
+                        Duration pollInterval,
+                        Duration duration,
+                        int maxInFlight,
+                        long seed,
+                        Path record,
+                        Path replay,
+                        double speed) {
+    
+    static SimulatorOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Opção inválida: " + arg + " (use --nome=valor)");
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new SimulatorOptions(
+                URI.create(values.getOrDefault("base-url", "http://localhost:8080")),
+                Integer.parseInt(values.getOrDefault("devices", "1000")),
+                Duration.ofMillis(Long.parseLong(values.getOrDefault("heartbeat-interval-ms", "30000"))),
+                Double.parseDouble(values.getOrDefault("jitter", "0.2")),
+                Double.parseDouble(values.getOrDefault("dropout", "0.01")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("dropout-seconds", "600"))),
+                Double.parseDouble(values.getOrDefault("status-changes-per-minute", "10")),
+                Integer.parseInt(values.getOrDefault("pollers", "5")),
+                Duration.ofMillis(Long.parseLong(values.getOrDefault("poll-interval-ms", "5000"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration-seconds", "60"))),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "256")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                values.containsKey("record") ? Path.of(values.get("record")) : null,
+                values.containsKey("replay") ? Path.of(values.get("replay")) : null,
+                Double.parseDouble(values.getOrDefault("speed", "1")));
+    }
+}
@@ -0,0 +1,99 @@
+package com.dashboard.crud_iot.simulator;
+
+import com.dashboard.crud_iot.simulator.SimulatedRequest.Kind;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Gravação e leitura de traces de tráfego em texto (uma requisição por linha, separada por tabs).
+ * 
+ * A primeira linha registra o tamanho da frota ("# devices=N"); as requisições referenciam
+ * dispositivos pelo índice, então o trace pode ser reproduzido contra outra instância.
+ */
+final class TrafficTrace {
+    
+    private static final String HEADER = "# devices=";
+    
+    private TrafficTrace() {
+    }
+    
+    static final class Writer implements Closeable {
+        
+        private final BufferedWriter writer;
+        
+        Writer(Path file, int devices) throws IOException {
+            this.writer = Files.newBufferedWriter(file);
+            writer.write(HEADER + devices);
+            writer.newLine();
+        }
+        
+        synchronized void write(SimulatedRequest request) {
+            try {
+                writer.write(request.offsetMicros() + "\t" + request.kind() + "\t"
+                        + request.deviceIndex() + "\t" + request.argument());
+                writer.newLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+    
+    static final class Reader implements Iterator<SimulatedRequest>, Closeable {
+        
+        private final BufferedReader reader;
+        private final int devices;
+        private String line;
+        
+        Reader(Path file) throws IOException {
+            this.reader = Files.newBufferedReader(file);
+            String header = reader.readLine();
+            if (header == null || !header.startsWith(HEADER)) {
+                throw new IOException("Trace sem cabeçalho '" + HEADER + "': " + file);
+            }
+            this.devices = Integer.parseInt(header.substring(HEADER.length()).trim());
+            this.line = reader.readLine();
+        }
+        
+        int devices() {
+            return devices;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return line != null;
+        }
+        
+        @Override
+        public SimulatedRequest next() {
+            if (line == null) {
+                throw new NoSuchElementException();
+            }
+            String[] fields = line.split("\t", 4);
+            try {
+                line = reader.readLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return new SimulatedRequest(Long.parseLong(fields[0]), Kind.valueOf(fields[1]),
+                    Integer.parseInt(fields[2]), fields.length > 3 ? fields[3] : "");
+        }
+        
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
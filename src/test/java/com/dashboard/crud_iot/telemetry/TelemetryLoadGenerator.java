@@ -0,0 +1,78 @@
+package com.dashboard.crud_iot.telemetry;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Gerador local de carga de telemetria binária via UDP.
+ * 
+ * Uso: java TelemetryLoadGenerator [host] [porta] [primeiroId] [dispositivos] [frames] [framesPorDatagrama] [frames/s]
+ * Com frames/s = 0 envia o mais rápido possível.
+ */
+public final class TelemetryLoadGenerator {
+    
+    private TelemetryLoadGenerator() {
+    }
+    
+    public static void main(String[] args) throws IOException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 9100;
+        long firstId = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        int devices = args.length > 3 ? Integer.parseInt(args[3]) : 1_000;
+        long frames = args.length > 4 ? Long.parseLong(args[4]) : 1_000_000;
+        int framesPerDatagram = args.length > 5 ? Integer.parseInt(args[5]) : 16;
+        double rate = args.length > 6 ? Double.parseDouble(args[6]) : 0;
+        
+        long[] deviceIds = new long[devices];
+        for (int i = 0; i < devices; i++) {
+            deviceIds[i] = firstId + i;
+        }
+        long started = System.nanoTime();
+        long sent = sendUdp(new InetSocketAddress(host, port), deviceIds, frames, framesPerDatagram, rate);
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("%d frames enviados em %.2f s (%.0f frames/s)%n", sent, seconds, sent / seconds);
+    }
+    
+    /**
+     * Envia frames com leituras senoidais determinísticas, distribuídos entre os dispositivos
+     * @return Número de frames enviados
+     */
+    public static long sendUdp(InetSocketAddress target, long[] deviceIds, long frames,
+                               int framesPerDatagram, double framesPerSecond) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(framesPerDatagram * TelemetryFrame.SIZE);
+        long started = System.nanoTime();
+        long sent = 0;
+        try (DatagramChannel channel = DatagramChannel.open()) {
+            channel.connect(target);
+            while (sent < frames) {
+                buffer.clear();
+                int inDatagram = (int) Math.min(framesPerDatagram, frames - sent);
+                long epoch = System.currentTimeMillis();
+                for (int i = 0; i < inDatagram; i++) {
+                    long n = sent + i;
+                    long deviceId = deviceIds[(int) (n % deviceIds.length)];
+                    TelemetryFrame.encodeDouble(buffer, deviceId, epoch, 20 + 5 * Math.sin(n / 100.0));
+                }
+                buffer.flip();
+                channel.write(buffer);
+                sent += inDatagram;
+                if (framesPerSecond > 0) {
+                    long due = started + (long) (sent * 1e9 / framesPerSecond);
+                    long wait = due - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                }
+            }
+        }
+        return sent;
+    }
+    
+    static long elapsedMillis(long startedNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos);
+    }
+}
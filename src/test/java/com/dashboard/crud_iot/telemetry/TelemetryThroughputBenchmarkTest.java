@@ -0,0 +1,87 @@
+package com.dashboard.crud_iot.telemetry;
+
+import com.dashboard.crud_iot.entities.Device;
+import com.dashboard.crud_iot.enums.DeviceType;
+import com.dashboard.crud_iot.repositories.DeviceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark de vazão do listener de telemetria: frames/s aplicados e p99 da latência
+ * entre a chegada do frame e o commit do lote.
+ * 
+ * Executado sob demanda: mvn test -Dloadtest=true -Dtest=TelemetryThroughputBenchmarkTest
+ * Parâmetros: -Dloadtest.frames (padrão 1000000), -Dloadtest.devices (padrão 1000),
+ * -Dloadtest.rate (frames/s, 0 = máximo).
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.com.dashboard.crud_iot=WARN",
+        "ingestion.reactive.enabled=false",
+        "telemetry.port=0",
+        // Mede a capacidade bruta do caminho de ingestão, sem limites de taxa
+        "ingestion.rate-limit.enabled=false",
+        "ingestion.admission.enabled=false"
+})
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@Slf4j
+class TelemetryThroughputBenchmarkTest {
+    
+    @Autowired
+    private TelemetryListener listener;
+    
+    @Autowired
+    private DeviceRepository deviceRepository;
+    
+    @Test
+    void udpThroughput() throws Exception {
+        long frames = Long.getLong("loadtest.frames", 1_000_000);
+        int deviceCount = Integer.getInteger("loadtest.devices", 1_000);
+        double rate = Double.parseDouble(System.getProperty("loadtest.rate", "0"));
+        
+        List<Device> devices = deviceRepository.saveAll(IntStream.range(0, deviceCount)
+                .mapToObj(i -> Device.builder()
+                        .deviceName("Telemetry Device " + i)
+                        .deviceIdentifier("TLM-" + i)
+                        .deviceType(DeviceType.TEMPERATURE_SENSOR)
+                        .build())
+                .toList());
+        long[] deviceIds = devices.stream().mapToLong(Device::getId).toArray();
+        
+        TelemetryStats stats = listener.getStats();
+        long started = System.nanoTime();
+        long sent = TelemetryLoadGenerator.sendUdp(
+                new InetSocketAddress("localhost", listener.getUdpPort()), deviceIds, frames, 16, rate);
+        
+        // Aguarda a aplicação estabilizar (UDP pode perder pacotes no kernel)
+        long lastProcessed = -1;
+        while (true) {
+            Thread.sleep(500);
+            long processed = stats.getFramesApplied() + stats.getFramesNotApplied() + stats.getFramesDropped();
+            if (processed >= sent || processed == lastProcessed) {
+                break;
+            }
+            lastProcessed = processed;
+        }
+        double seconds = TelemetryLoadGenerator.elapsedMillis(started) / 1000.0;
+        
+        log.warn("Telemetria UDP: enviados={} decodificados={} aplicados={} descartados={} em {} s -> {} frames/s, "
+                        + "latência de aplicação p50={} µs p99={} µs, lotes={} falhas={}",
+                sent, stats.getFramesDecoded(), stats.getFramesApplied(), stats.getFramesDropped(),
+                String.format("%.2f", seconds), Math.round(stats.getFramesApplied() / seconds),
+                stats.getApplyLatencyMicros(0.50), stats.getApplyLatencyMicros(0.99),
+                stats.getBatchesApplied(), stats.getBatchesFailed());
+        
+        assertThat(stats.getFramesApplied()).isPositive();
+    }
+}